@@ -0,0 +1,676 @@
+package nl.tudelft.simulation.dsol.eventlists;
+
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.DoubleSimEventInterface;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.LongSimEventInterface;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+
+/**
+ * A binary heap implementation of the EventListInterface. The heap is stored in parallel arrays: the execution times are kept as
+ * primitive doubles, next to the priorities and the ids, so sifting through the heap only touches primitive arrays. No node
+ * objects are created per event. Each event occupies a fixed slot while it is on the list, and each slot keeps a handle to its
+ * current position in the heap. An open-addressing identity index from event to slot is only consulted when an event is added
+ * or removed, so <code>remove(event)</code> and <code>contains(event)</code> are O(log n) and O(1), respectively, instead of the
+ * O(n) of a <code>PriorityQueue</code>. This makes the event list suitable for models with a large number of pending events
+ * and frequent cancellation of events.
+ * <p>
+ * The ordering is the same as the one defined in <code>SimEventInterface.compareTo()</code>: time, then priority (higher
+ * priority first), then id. The primitive double version of the time is only used for a fast comparison; when two events have
+ * the same double value for the time, the original times are compared to make sure that, e.g., large Long values that map onto
+ * the same double are still ordered correctly.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @param <T> The time type, e.g., Double, Long, Duration
+ * @since 4.2.3
+ */
+public class EventListBinaryHeap<T extends Number & Comparable<T>> implements EventListInterface<T>
+{
+    /** The default serial version UID for serializable classes. */
+    private static final long serialVersionUID = 1L;
+
+    /** the default initial capacity of the heap. */
+    private static final int DEFAULT_CAPACITY = 64;
+
+    /** the execution times of the events in heap order, as primitive doubles. */
+    private double[] times;
+
+    /** the priorities of the events in heap order. */
+    private short[] priorities;
+
+    /** the ids of the events in heap order. */
+    private long[] ids;
+
+    /** the slot of the event in heap order; the slot is the position of the event in the events array. */
+    private int[] slots;
+
+    /** the events, stored in a fixed slot for as long as they are on the event list. */
+    private SimEventInterface<T>[] events;
+
+    /** the position in the heap of the event in each slot; this is the handle that makes O(log n) removal possible. */
+    private int[] heapPositions;
+
+    /** the stack of free slots. */
+    private int[] freeSlots;
+
+    /** the number of events in the heap. */
+    private int size = 0;
+
+    /** the modification counter, to detect concurrent modification during iteration. */
+    private transient int modCount = 0;
+
+    /** the slot of each event in the heap. Transient, since identity hash codes do not survive serialization. */
+    private transient IndexMap slotIndex;
+
+    /**
+     * Constructs a new <code>EventListBinaryHeap</code> with a default initial capacity.
+     */
+    public EventListBinaryHeap()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new <code>EventListBinaryHeap</code> with a given initial capacity. The heap grows when needed.
+     * @param initialCapacity int; the initial capacity of the heap
+     * @throws IllegalArgumentException when initialCapacity &lt; 1
+     */
+    @SuppressWarnings("unchecked")
+    public EventListBinaryHeap(final int initialCapacity)
+    {
+        if (initialCapacity < 1)
+        {
+            throw new IllegalArgumentException("initialCapacity should be at least 1");
+        }
+        this.times = new double[initialCapacity];
+        this.priorities = new short[initialCapacity];
+        this.ids = new long[initialCapacity];
+        this.slots = new int[initialCapacity];
+        this.events = new SimEventInterface[initialCapacity];
+        this.heapPositions = new int[initialCapacity];
+        this.freeSlots = new int[initialCapacity];
+        resetFreeSlots(0);
+        this.slotIndex = new IndexMap(initialCapacity);
+    }
+
+    @Override
+    public SimEventInterface<T> removeFirst()
+    {
+        if (this.size == 0)
+        {
+            return null;
+        }
+        SimEventInterface<T> first = this.events[this.slots[0]];
+        this.slotIndex.remove(first);
+        removeAt(0);
+        return first;
+    }
+
+    @Override
+    public int removeFirstBatch(final List<SimEventInterface<T>> buffer)
+    {
+        if (this.size == 0)
+        {
+            return 0;
+        }
+        SimEventInterface<T> first = this.events[this.slots[0]];
+        double time = this.times[0];
+        int count = 0;
+        do
+        {
+            SimEventInterface<T> event = this.events[this.slots[0]];
+            this.slotIndex.remove(event);
+            removeAt(0);
+            buffer.add(event);
+            count++;
+        }
+        while (this.size > 0 && this.times[0] == time && compareTimes(first, this.events[this.slots[0]]) == 0);
+        return count;
+    }
+
+    @Override
+    public SimEventInterface<T> first()
+    {
+        return this.size == 0 ? null : this.events[this.slots[0]];
+    }
+
+    @Override
+    public void add(final SimEventInterface<T> event)
+    {
+        if (this.size == this.events.length)
+        {
+            grow();
+        }
+        int slot = this.freeSlots[this.size];
+        if (this.slotIndex.putIfAbsent(event, slot) >= 0)
+        {
+            return; // same behavior as the set-based event list: an event is only stored once
+        }
+        this.events[slot] = event;
+        int i = this.size++;
+        this.times[i] = timeKey(event);
+        this.priorities[i] = event.getPriority();
+        this.ids[i] = event.getId();
+        this.slots[i] = slot;
+        this.heapPositions[slot] = i;
+        siftUp(i);
+        this.modCount++;
+    }
+
+    @Override
+    public boolean contains(final SimEventInterface<T> event)
+    {
+        return event != null && this.slotIndex.get(event) >= 0;
+    }
+
+    @Override
+    public void clear()
+    {
+        Arrays.fill(this.events, null);
+        this.size = 0;
+        resetFreeSlots(0);
+        this.slotIndex.clear();
+        this.modCount++;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    @Override
+    public Iterator<SimEventInterface<T>> iterator()
+    {
+        return new HeapIterator();
+    }
+
+    @Override
+    public boolean remove(final SimEventInterface<T> event)
+    {
+        if (event == null)
+        {
+            return false;
+        }
+        int slot = this.slotIndex.remove(event);
+        if (slot < 0)
+        {
+            return false;
+        }
+        removeAt(this.heapPositions[slot]);
+        return true;
+    }
+
+    @Override
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Remove the event at position i in the heap, free its slot, and restore the heap property. The caller has already removed
+     * the event from the slot index.
+     * @param i int; the position of the event to remove
+     */
+    private void removeAt(final int i)
+    {
+        int slot = this.slots[i];
+        this.events[slot] = null;
+        int last = --this.size;
+        this.freeSlots[last] = slot;
+        if (i != last)
+        {
+            move(last, i);
+            if (siftDown(i) == i)
+            {
+                siftUp(i);
+            }
+        }
+        this.modCount++;
+    }
+
+    /**
+     * Move the keys and the slot of the event at heap position from to heap position to, and update the handle of the slot.
+     * @param from int; the current position in the heap
+     * @param to int; the new position in the heap
+     */
+    private void move(final int from, final int to)
+    {
+        this.times[to] = this.times[from];
+        this.priorities[to] = this.priorities[from];
+        this.ids[to] = this.ids[from];
+        int slot = this.slots[from];
+        this.slots[to] = slot;
+        this.heapPositions[slot] = to;
+    }
+
+    /**
+     * Return the execution time of an event as a double, without boxing for events with a primitive execution time.
+     * @param event SimEventInterface&lt;?&gt;; the event
+     * @return double; the execution time of the event as a double
+     */
+    static double timeKey(final SimEventInterface<?> event)
+    {
+        if (event instanceof DoubleSimEventInterface)
+        {
+            return ((DoubleSimEventInterface) event).getDoubleExecutionTime();
+        }
+        if (event instanceof LongSimEventInterface)
+        {
+            return ((LongSimEventInterface) event).getLongExecutionTime();
+        }
+        return event.getAbsoluteExecutionTime().doubleValue();
+    }
+
+    /**
+     * Compare the original execution times of two events whose double times are equal. Events with a primitive execution time
+     * are compared without boxing.
+     * @param e1 SimEventInterface&lt;T&gt;; the first event
+     * @param e2 SimEventInterface&lt;T&gt;; the second event
+     * @return int; a negative number, zero, or a positive number when the time of e1 is before, equal to, or after e2
+     * @param <T> the time type
+     */
+    static <T extends Number & Comparable<T>> int compareTimes(final SimEventInterface<T> e1, final SimEventInterface<T> e2)
+    {
+        if (e1 instanceof DoubleSimEventInterface && e2 instanceof DoubleSimEventInterface)
+        {
+            return Double.compare(((DoubleSimEventInterface) e1).getDoubleExecutionTime(),
+                    ((DoubleSimEventInterface) e2).getDoubleExecutionTime());
+        }
+        if (e1 instanceof LongSimEventInterface && e2 instanceof LongSimEventInterface)
+        {
+            return Long.compare(((LongSimEventInterface) e1).getLongExecutionTime(),
+                    ((LongSimEventInterface) e2).getLongExecutionTime());
+        }
+        return e1.getAbsoluteExecutionTime().compareTo(e2.getAbsoluteExecutionTime());
+    }
+
+    /**
+     * Return whether an event with the given keys should be executed before the event at heap position j.
+     * @param time double; the execution time of the event as a double
+     * @param priority short; the priority of the event
+     * @param id long; the id of the event
+     * @param slot int; the slot of the event, used to compare the original times when the double times are equal
+     * @param j int; the position in the heap to compare with
+     * @return boolean; whether the event with the given keys should be executed before the event at position j
+     */
+    private boolean before(final double time, final short priority, final long id, final int slot, final int j)
+    {
+        double tj = this.times[j];
+        if (time < tj)
+        {
+            return true;
+        }
+        if (time > tj)
+        {
+            return false;
+        }
+        int cmp = compareTimes(this.events[slot], this.events[this.slots[j]]);
+        if (cmp != 0)
+        {
+            return cmp < 0;
+        }
+        if (priority != this.priorities[j])
+        {
+            return priority > this.priorities[j];
+        }
+        return id < this.ids[j];
+    }
+
+    /**
+     * Return whether the event at heap position i should be executed before the event at heap position j.
+     * @param i int; the first position in the heap
+     * @param j int; the second position in the heap
+     * @return boolean; whether the event at position i should be executed before the event at position j
+     */
+    private boolean before(final int i, final int j)
+    {
+        return before(this.times[i], this.priorities[i], this.ids[i], this.slots[i], j);
+    }
+
+    /**
+     * Store the keys and the slot of an event at heap position i, and update the handle of the slot.
+     * @param i int; the position in the heap
+     * @param time double; the execution time of the event as a double
+     * @param priority short; the priority of the event
+     * @param id long; the id of the event
+     * @param slot int; the slot of the event
+     */
+    private void place(final int i, final double time, final short priority, final long id, final int slot)
+    {
+        this.times[i] = time;
+        this.priorities[i] = priority;
+        this.ids[i] = id;
+        this.slots[i] = slot;
+        this.heapPositions[slot] = i;
+    }
+
+    /**
+     * Move the event at position i up in the heap till the heap property holds. The parents are moved down into the 'hole',
+     * and the event is stored only once in its final position.
+     * @param i int; the position of the event to move up
+     */
+    private void siftUp(final int i)
+    {
+        double time = this.times[i];
+        short priority = this.priorities[i];
+        long id = this.ids[i];
+        int slot = this.slots[i];
+        int hole = i;
+        while (hole > 0)
+        {
+            int parent = (hole - 1) >>> 1;
+            if (!before(time, priority, id, slot, parent))
+            {
+                break;
+            }
+            move(parent, hole);
+            hole = parent;
+        }
+        if (hole != i)
+        {
+            place(hole, time, priority, id, slot);
+        }
+    }
+
+    /**
+     * Move the event at position i down in the heap till the heap property holds. The first child is moved up into the 'hole'
+     * as long as it should be executed before the event, and the event is stored only once in its final position.
+     * @param i int; the position of the event to move down
+     * @return int; the final position of the event
+     */
+    private int siftDown(final int i)
+    {
+        double time = this.times[i];
+        short priority = this.priorities[i];
+        long id = this.ids[i];
+        int slot = this.slots[i];
+        int hole = i;
+        int half = this.size >>> 1;
+        while (hole < half)
+        {
+            int child = 2 * hole + 1;
+            int right = child + 1;
+            if (right < this.size && before(right, child))
+            {
+                child = right;
+            }
+            if (before(time, priority, id, slot, child))
+            {
+                break;
+            }
+            move(child, hole);
+            hole = child;
+        }
+        if (hole != i)
+        {
+            place(hole, time, priority, id, slot);
+        }
+        return hole;
+    }
+
+    /**
+     * Double the capacity of the heap arrays.
+     */
+    private void grow()
+    {
+        int oldCapacity = this.events.length;
+        int capacity = oldCapacity << 1;
+        this.times = Arrays.copyOf(this.times, capacity);
+        this.priorities = Arrays.copyOf(this.priorities, capacity);
+        this.ids = Arrays.copyOf(this.ids, capacity);
+        this.slots = Arrays.copyOf(this.slots, capacity);
+        this.events = Arrays.copyOf(this.events, capacity);
+        this.heapPositions = Arrays.copyOf(this.heapPositions, capacity);
+        this.freeSlots = Arrays.copyOf(this.freeSlots, capacity);
+        resetFreeSlots(oldCapacity);
+    }
+
+    /**
+     * Fill the free slot stack from the given position onwards. When the heap is full or empty, the slots from that position
+     * onwards are exactly the slots from that number onwards.
+     * @param from int; the first position of the free slot stack to fill
+     */
+    private void resetFreeSlots(final int from)
+    {
+        for (int i = from; i < this.freeSlots.length; i++)
+        {
+            this.freeSlots[i] = i;
+        }
+    }
+
+    /**
+     * Rebuild the transient index after deserialization.
+     * @param in ObjectInputStream; the input stream
+     * @throws IOException on I/O error
+     * @throws ClassNotFoundException when a class of a serialized object cannot be found
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        this.slotIndex = new IndexMap(Math.max(this.size, DEFAULT_CAPACITY));
+        for (int i = 0; i < this.size; i++)
+        {
+            this.slotIndex.putIfAbsent(this.events[this.slots[i]], this.slots[i]);
+        }
+    }
+
+    /** Iterator over the events in heap order (which is not the execution order). */
+    private class HeapIterator implements Iterator<SimEventInterface<T>>
+    {
+        /** the next position to return. */
+        private int cursor = 0;
+
+        /** the expected modification count. */
+        private final int expectedModCount = EventListBinaryHeap.this.modCount;
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.cursor < EventListBinaryHeap.this.size;
+        }
+
+        @Override
+        public SimEventInterface<T> next()
+        {
+            if (this.expectedModCount != EventListBinaryHeap.this.modCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+            if (this.cursor >= EventListBinaryHeap.this.size)
+            {
+                throw new NoSuchElementException();
+            }
+            return EventListBinaryHeap.this.events[EventListBinaryHeap.this.slots[this.cursor++]];
+        }
+    }
+
+    /**
+     * Open-addressing map from an event (based on identity) to its slot. The keys and the values are stored in
+     * two flat arrays, so no entry objects or boxed integers are created. Linear probing is used, with backward shift deletion
+     * to avoid tombstones.
+     */
+    private static final class IndexMap
+    {
+        /** the keys; null means an empty slot. */
+        private Object[] keys;
+
+        /** the values (slots) of the keys. */
+        private int[] values;
+
+        /** the number of keys in the map. */
+        private int count = 0;
+
+        /** the mask to map a hash onto a slot (capacity - 1). */
+        private int mask;
+
+        /**
+         * Create a map that can hold at least the given number of keys before it has to grow.
+         * @param expected int; the expected number of keys
+         */
+        IndexMap(final int expected)
+        {
+            int capacity = Integer.highestOneBit(Math.max(4, expected) * 2 - 1) << 1;
+            this.keys = new Object[capacity];
+            this.values = new int[capacity];
+            this.mask = capacity - 1;
+        }
+
+        /**
+         * Return the slot where the hash of the key points at.
+         * @param key Object; the key
+         * @return int; the home slot of the key
+         */
+        private int slot(final Object key)
+        {
+            int h = System.identityHashCode(key) * 0x9E3779B9;
+            return (h ^ (h >>> 16)) & this.mask;
+        }
+
+        /**
+         * Return the value of the key, or -1 when the key is not present.
+         * @param key Object; the key
+         * @return int; the value of the key, or -1 when the key is not present
+         */
+        int get(final Object key)
+        {
+            int i = slot(key);
+            Object k;
+            while ((k = this.keys[i]) != null)
+            {
+                if (k == key)
+                {
+                    return this.values[i];
+                }
+                i = (i + 1) & this.mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Insert the key with the given value, unless the key is already present.
+         * @param key Object; the key
+         * @param value int; the value to store
+         * @return int; the current value when the key was already present, or -1 when the key has been inserted
+         */
+        int putIfAbsent(final Object key, final int value)
+        {
+            int i = slot(key);
+            Object k;
+            while ((k = this.keys[i]) != null)
+            {
+                if (k == key)
+                {
+                    return this.values[i];
+                }
+                i = (i + 1) & this.mask;
+            }
+            this.keys[i] = key;
+            this.values[i] = value;
+            if (++this.count * 2 > this.keys.length)
+            {
+                rehash();
+            }
+            return -1;
+        }
+
+        /**
+         * Remove the key from the map, if present.
+         * @param key Object; the key to remove
+         * @return int; the value of the removed key, or -1 when the key was not present
+         */
+        int remove(final Object key)
+        {
+            int i = slot(key);
+            Object k;
+            while ((k = this.keys[i]) != null)
+            {
+                if (k == key)
+                {
+                    int value = this.values[i];
+                    this.count--;
+                    shiftBack(i);
+                    return value;
+                }
+                i = (i + 1) & this.mask;
+            }
+            return -1;
+        }
+
+        /**
+         * Fill the hole at the given slot by moving back later keys of the same probe sequence.
+         * @param hole int; the slot that has become empty
+         */
+        private void shiftBack(final int hole)
+        {
+            int gap = hole;
+            int i = hole;
+            while (true)
+            {
+                i = (i + 1) & this.mask;
+                Object k = this.keys[i];
+                if (k == null)
+                {
+                    break;
+                }
+                int home = slot(k);
+                // move the key when its home slot is not cyclically in the interval (gap, i]
+                if (((i - home) & this.mask) >= ((i - gap) & this.mask))
+                {
+                    this.keys[gap] = k;
+                    this.values[gap] = this.values[i];
+                    gap = i;
+                }
+            }
+            this.keys[gap] = null;
+        }
+
+        /**
+         * Remove all keys.
+         */
+        void clear()
+        {
+            Arrays.fill(this.keys, null);
+            this.count = 0;
+        }
+
+        /**
+         * Double the capacity of the map and reinsert all keys.
+         */
+        private void rehash()
+        {
+            Object[] oldKeys = this.keys;
+            int[] oldValues = this.values;
+            this.keys = new Object[oldKeys.length << 1];
+            this.values = new int[oldKeys.length << 1];
+            this.mask = this.keys.length - 1;
+            for (int j = 0; j < oldKeys.length; j++)
+            {
+                Object k = oldKeys[j];
+                if (k != null)
+                {
+                    int i = slot(k);
+                    while (this.keys[i] != null)
+                    {
+                        i = (i + 1) & this.mask;
+                    }
+                    this.keys[i] = k;
+                    this.values[i] = oldValues[j];
+                }
+            }
+        }
+    }
+
+}
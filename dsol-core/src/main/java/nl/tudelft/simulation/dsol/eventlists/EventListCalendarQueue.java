@@ -0,0 +1,590 @@
+package nl.tudelft.simulation.dsol.eventlists;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+
+/**
+ * A calendar queue implementation of the EventListInterface, based on R. Brown (1988), "Calendar Queues: A Fast O(1) Priority
+ * Queue Implementation for the Simulation Event Set Problem", Communications of the ACM 31(10). The events are hashed into a
+ * circular array of buckets ("days") of a fixed width, based on their execution time. Adding an event and removing the first
+ * event take O(1) amortized time when the event times are spread reasonably uniformly, which makes this event list suitable for
+ * models with millions of pending events.
+ * <p>
+ * The calendar resizes itself: the number of buckets doubles when the number of events exceeds twice the number of buckets, and
+ * halves when the number of events drops below half the number of buckets. At every resize, the bucket width is recalculated
+ * from the observed spacing of the first events in the list. Within a bucket, the events are kept sorted using
+ * <code>SimEventInterface.compareTo()</code>, and events with the same time always end up in the same bucket, so the tie
+ * ordering (time, then priority, then id) is exactly the same as for the other event lists.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @param <T> The time type, e.g., Double, Long, Duration
+ * @since 4.2.3
+ */
+public class EventListCalendarQueue<T extends Number & Comparable<T>> implements EventListInterface<T>
+{
+    /** */
+    private static final long serialVersionUID = 20240101L;
+
+    /** the minimum number of buckets. */
+    private static final int MIN_BUCKETS = 16;
+
+    /** the maximum number of events that is sampled to estimate the bucket width. */
+    private static final int SAMPLE_SIZE = 25;
+
+    /** the buckets of the calendar; the length is always a power of 2. */
+    private Bucket<T>[] buckets;
+
+    /** the mask to map a virtual bucket number onto a bucket index (buckets.length - 1). */
+    private int mask;
+
+    /** the width of a bucket in units of the double value of the simulation time. */
+    private double width;
+
+    /** the virtual bucket number (time / width) where the search for the next event starts. */
+    private long currentVirtualBucket = 0;
+
+    /** the number of events in the calendar. */
+    private int size = 0;
+
+    /** the modification counter, to detect concurrent modification during iteration. */
+    private transient int modCount = 0;
+
+    /**
+     * Constructs a new <code>EventListCalendarQueue</code> with a bucket width of 1.0. The width adapts itself to the observed
+     * event spacing as soon as the calendar resizes.
+     */
+    public EventListCalendarQueue()
+    {
+        this(1.0);
+    }
+
+    /**
+     * Constructs a new <code>EventListCalendarQueue</code> with a given initial bucket width. The width adapts itself to the
+     * observed event spacing as soon as the calendar resizes.
+     * @param initialWidth double; the initial bucket width, in units of the double value of the simulation time
+     * @throws IllegalArgumentException when initialWidth is not a positive, finite number
+     */
+    public EventListCalendarQueue(final double initialWidth)
+    {
+        if (!(initialWidth > 0.0) || Double.isInfinite(initialWidth))
+        {
+            throw new IllegalArgumentException("initialWidth should be a positive number");
+        }
+        this.width = initialWidth;
+        this.buckets = newBuckets(MIN_BUCKETS);
+        this.mask = MIN_BUCKETS - 1;
+    }
+
+    @Override
+    public SimEventInterface<T> removeFirst()
+    {
+        int index = findFirstBucket();
+        if (index < 0)
+        {
+            return null;
+        }
+        SimEventInterface<T> first = this.buckets[index].removeFirst();
+        this.size--;
+        this.modCount++;
+        if (this.size < this.buckets.length / 2 && this.buckets.length > MIN_BUCKETS)
+        {
+            resize(this.buckets.length / 2);
+        }
+        return first;
+    }
+
+    /**
+     * {@inheritDoc} Events with the same execution time fall into the same bucket, where they are stored at the head of the
+     * array, so the batch is taken from the head of the first bucket, with one size update and at most one resize.
+     */
+    @Override
+    public int removeFirstBatch(final List<SimEventInterface<T>> buffer)
+    {
+        int index = findFirstBucket();
+        if (index < 0)
+        {
+            return 0;
+        }
+        Bucket<T> bucket = this.buckets[index];
+        SimEventInterface<T> first = bucket.first();
+        double time = EventListBinaryHeap.timeKey(first);
+        int count = 0;
+        do
+        {
+            buffer.add(bucket.removeFirst());
+            count++;
+        }
+        while (bucket.count > 0 && EventListBinaryHeap.timeKey(bucket.first()) == time
+                && EventListBinaryHeap.compareTimes(first, bucket.first()) == 0);
+        this.size -= count;
+        this.modCount++;
+        if (this.size < this.buckets.length / 2 && this.buckets.length > MIN_BUCKETS)
+        {
+            resize(this.buckets.length / 2);
+        }
+        return count;
+    }
+
+    @Override
+    public SimEventInterface<T> first()
+    {
+        int index = findFirstBucket();
+        return index < 0 ? null : this.buckets[index].first();
+    }
+
+    @Override
+    public void add(final SimEventInterface<T> event)
+    {
+        long virtualBucket = virtualBucket(event);
+        if (this.buckets[(int) virtualBucket & this.mask].add(event))
+        {
+            if (this.size == 0 || virtualBucket < this.currentVirtualBucket)
+            {
+                this.currentVirtualBucket = virtualBucket;
+            }
+            this.size++;
+            this.modCount++;
+            if (this.size > 2 * this.buckets.length)
+            {
+                resize(2 * this.buckets.length);
+            }
+        }
+    }
+
+    @Override
+    public boolean contains(final SimEventInterface<T> event)
+    {
+        return event != null && this.buckets[(int) virtualBucket(event) & this.mask].indexOf(event) >= 0;
+    }
+
+    @Override
+    public void clear()
+    {
+        this.buckets = newBuckets(MIN_BUCKETS);
+        this.mask = MIN_BUCKETS - 1;
+        this.currentVirtualBucket = 0;
+        this.size = 0;
+        this.modCount++;
+    }
+
+    @Override
+    public boolean isEmpty()
+    {
+        return this.size == 0;
+    }
+
+    @Override
+    public Iterator<SimEventInterface<T>> iterator()
+    {
+        return new CalendarIterator();
+    }
+
+    @Override
+    public boolean remove(final SimEventInterface<T> event)
+    {
+        if (event == null)
+        {
+            return false;
+        }
+        Bucket<T> bucket = this.buckets[(int) virtualBucket(event) & this.mask];
+        int i = bucket.indexOf(event);
+        if (i < 0)
+        {
+            return false;
+        }
+        bucket.removeAt(i);
+        this.size--;
+        this.modCount++;
+        return true;
+    }
+
+    @Override
+    public int size()
+    {
+        return this.size;
+    }
+
+    /**
+     * Return the current bucket width, e.g., for tuning or debugging purposes.
+     * @return double; the current bucket width in units of the double value of the simulation time
+     */
+    public double getBucketWidth()
+    {
+        return this.width;
+    }
+
+    /**
+     * Return the current number of buckets, e.g., for tuning or debugging purposes.
+     * @return int; the current number of buckets
+     */
+    public int getNumberOfBuckets()
+    {
+        return this.buckets.length;
+    }
+
+    /**
+     * Calculate the virtual bucket number of an event, i.e., the number of bucket widths since time zero.
+     * @param event SimEventInterface&lt;T&gt;; the event
+     * @return long; the virtual bucket number of the event
+     */
+    private long virtualBucket(final SimEventInterface<T> event)
+    {
+        return virtualBucket(EventListBinaryHeap.timeKey(event));
+    }
+
+    /**
+     * Calculate the virtual bucket number of a time, i.e., the number of bucket widths since time zero.
+     * @param time double; the time
+     * @return long; the virtual bucket number of the time
+     */
+    private long virtualBucket(final double time)
+    {
+        return (long) Math.floor(time / this.width);
+    }
+
+    /**
+     * Find the bucket that contains the first event, and move the start of the search to that bucket. First, the buckets are
+     * scanned for one calendar 'year' starting at the current bucket. If no event is found that belongs to the current year, a
+     * direct search over all buckets is carried out (this happens when the events are very sparse compared to the width).
+     * @return int; the index of the bucket that contains the first event, or -1 when the calendar is empty
+     */
+    private int findFirstBucket()
+    {
+        if (this.size == 0)
+        {
+            return -1;
+        }
+        long virtual = this.currentVirtualBucket;
+        for (int n = 0; n < this.buckets.length; n++, virtual++)
+        {
+            Bucket<T> bucket = this.buckets[(int) virtual & this.mask];
+            if (bucket.count > 0 && virtualBucket(bucket.first()) <= virtual)
+            {
+                this.currentVirtualBucket = virtual;
+                return (int) virtual & this.mask;
+            }
+        }
+        int minIndex = -1;
+        for (int i = 0; i < this.buckets.length; i++)
+        {
+            Bucket<T> bucket = this.buckets[i];
+            if (bucket.count > 0 && (minIndex < 0 || bucket.first().compareTo(this.buckets[minIndex].first()) < 0))
+            {
+                minIndex = i;
+            }
+        }
+        this.currentVirtualBucket = virtualBucket(this.buckets[minIndex].first());
+        return minIndex;
+    }
+
+    /**
+     * Resize the calendar to the given number of buckets, recalculate the bucket width, and redistribute the events.
+     * @param numberOfBuckets int; the new number of buckets (a power of 2)
+     */
+    private void resize(final int numberOfBuckets)
+    {
+        Bucket<T>[] oldBuckets = this.buckets;
+        this.width = estimateWidth();
+        this.buckets = newBuckets(numberOfBuckets);
+        this.mask = numberOfBuckets - 1;
+        long minVirtual = Long.MAX_VALUE;
+        for (Bucket<T> bucket : oldBuckets)
+        {
+            for (int i = 0; i < bucket.count; i++)
+            {
+                SimEventInterface<T> event = bucket.get(i);
+                long virtual = virtualBucket(event);
+                this.buckets[(int) virtual & this.mask].add(event);
+                minVirtual = Math.min(minVirtual, virtual);
+            }
+        }
+        this.currentVirtualBucket = minVirtual == Long.MAX_VALUE ? 0 : minVirtual;
+    }
+
+    /**
+     * Estimate a new bucket width based on the average spacing of the first (at most SAMPLE_SIZE) event times. Following Brown,
+     * the separations that are larger than twice the average are left out, and the width is set to three times the resulting
+     * average separation. When no sensible separation can be calculated, the current width is retained.
+     * @return double; the new bucket width
+     */
+    private double estimateWidth()
+    {
+        // collect the smallest event times with an insertion sort into a small array
+        double[] sample = new double[SAMPLE_SIZE];
+        int n = 0;
+        for (Bucket<T> bucket : this.buckets)
+        {
+            for (int i = 0; i < bucket.count; i++)
+            {
+                double t = EventListBinaryHeap.timeKey(bucket.get(i));
+                if (n < SAMPLE_SIZE || t < sample[n - 1])
+                {
+                    int j = n < SAMPLE_SIZE ? n++ : n - 1;
+                    while (j > 0 && sample[j - 1] > t)
+                    {
+                        sample[j] = sample[j - 1];
+                        j--;
+                    }
+                    sample[j] = t;
+                }
+            }
+        }
+        if (n < 2)
+        {
+            return this.width;
+        }
+        double average = (sample[n - 1] - sample[0]) / (n - 1);
+        double sum = 0.0;
+        int count = 0;
+        for (int i = 1; i < n; i++)
+        {
+            double separation = sample[i] - sample[i - 1];
+            if (separation <= 2.0 * average)
+            {
+                sum += separation;
+                count++;
+            }
+        }
+        double newWidth = count == 0 ? 0.0 : 3.0 * sum / count;
+        return newWidth > 0.0 && !Double.isInfinite(newWidth) ? newWidth : this.width;
+    }
+
+    /**
+     * Create an array of empty buckets.
+     * @param numberOfBuckets int; the number of buckets
+     * @return Bucket&lt;T&gt;[]; an array of empty buckets
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Number & Comparable<T>> Bucket<T>[] newBuckets(final int numberOfBuckets)
+    {
+        Bucket<T>[] result = new Bucket[numberOfBuckets];
+        for (int i = 0; i < numberOfBuckets; i++)
+        {
+            result[i] = new Bucket<>();
+        }
+        return result;
+    }
+
+    /** Iterator over the events in bucket order (which is not the execution order). */
+    private class CalendarIterator implements Iterator<SimEventInterface<T>>
+    {
+        /** the current bucket. */
+        private int bucketIndex = 0;
+
+        /** the position in the current bucket. */
+        private int position = 0;
+
+        /** the number of returned events. */
+        private int returned = 0;
+
+        /** the expected modification count. */
+        private final int expectedModCount = EventListCalendarQueue.this.modCount;
+
+        @Override
+        public boolean hasNext()
+        {
+            return this.returned < EventListCalendarQueue.this.size;
+        }
+
+        @Override
+        public SimEventInterface<T> next()
+        {
+            if (this.expectedModCount != EventListCalendarQueue.this.modCount)
+            {
+                throw new ConcurrentModificationException();
+            }
+            if (!hasNext())
+            {
+                throw new NoSuchElementException();
+            }
+            while (this.position >= EventListCalendarQueue.this.buckets[this.bucketIndex].count)
+            {
+                this.bucketIndex++;
+                this.position = 0;
+            }
+            this.returned++;
+            return EventListCalendarQueue.this.buckets[this.bucketIndex].get(this.position++);
+        }
+    }
+
+    /**
+     * A bucket ('day') of the calendar. The events are stored in ascending order in a part of an array that starts at a head
+     * index, so the first event of the bucket is removed by moving the head, and an event that comes after all events in the
+     * bucket, such as an event that is scheduled for the same time as the events in the bucket, is appended without a search
+     * or a shift. An event in the middle of the bucket is inserted or removed by shifting the shorter side of the array.
+     * @param <T> The time type, e.g., Double, Long, Duration
+     */
+    private static final class Bucket<T extends Number & Comparable<T>> implements Serializable
+    {
+        /** */
+        private static final long serialVersionUID = 20240101L;
+
+        /** the events in ascending order, from index head to head + count. */
+        @SuppressWarnings("unchecked")
+        private SimEventInterface<T>[] events = new SimEventInterface[4];
+
+        /** the index of the first event in the array. */
+        private int head = 0;
+
+        /** the number of events in the bucket. */
+        private int count = 0;
+
+        /**
+         * Return the i-th event in the bucket.
+         * @param i int; the position of the event in the bucket, 0 for the first event
+         * @return SimEventInterface&lt;T&gt;; the i-th event in the bucket
+         */
+        SimEventInterface<T> get(final int i)
+        {
+            return this.events[this.head + i];
+        }
+
+        /**
+         * Return the first event in the bucket.
+         * @return SimEventInterface&lt;T&gt;; the first event in the bucket
+         */
+        SimEventInterface<T> first()
+        {
+            return this.events[this.head];
+        }
+
+        /**
+         * Remove and return the first event in the bucket.
+         * @return SimEventInterface&lt;T&gt;; the first event in the bucket
+         */
+        SimEventInterface<T> removeFirst()
+        {
+            SimEventInterface<T> result = this.events[this.head];
+            this.events[this.head++] = null;
+            if (--this.count == 0)
+            {
+                this.head = 0;
+            }
+            return result;
+        }
+
+        /**
+         * Binary search for the event in the ascending part of the array.
+         * @param event SimEventInterface&lt;T&gt;; the event to search for
+         * @return int; the index of the event in the array when found, or -(insertionPoint + 1) when not found
+         */
+        private int search(final SimEventInterface<T> event)
+        {
+            int lo = this.head;
+            int hi = this.head + this.count - 1;
+            while (lo <= hi)
+            {
+                int mid = (lo + hi) >>> 1;
+                int cmp = this.events[mid].compareTo(event);
+                if (cmp < 0)
+                {
+                    lo = mid + 1;
+                }
+                else if (cmp > 0)
+                {
+                    hi = mid - 1;
+                }
+                else
+                {
+                    return mid;
+                }
+            }
+            return -(lo + 1);
+        }
+
+        /**
+         * Return the index of the event in the array, or -1 when the event is not present.
+         * @param event SimEventInterface&lt;T&gt;; the event to search for
+         * @return int; the index of the event in the array, or -1 when the event is not present
+         */
+        int indexOf(final SimEventInterface<T> event)
+        {
+            int i = search(event);
+            return i >= 0 && this.events[i].equals(event) ? i : -1;
+        }
+
+        /**
+         * Add an event in the right position of the bucket.
+         * @param event SimEventInterface&lt;T&gt;; the event to add
+         * @return boolean; false when the event was already present, true otherwise
+         */
+        boolean add(final SimEventInterface<T> event)
+        {
+            int tail = this.head + this.count;
+            int i;
+            if (this.count == 0 || this.events[tail - 1].compareTo(event) < 0)
+            {
+                i = tail;
+            }
+            else
+            {
+                i = search(event);
+                if (i >= 0)
+                {
+                    return false;
+                }
+                i = -(i + 1);
+            }
+            if (this.head > 0 && i - this.head < tail - i)
+            {
+                System.arraycopy(this.events, this.head, this.events, this.head - 1, i - this.head);
+                this.head--;
+                this.events[i - 1] = event;
+            }
+            else
+            {
+                if (tail == this.events.length)
+                {
+                    // compact the events to the start of the array, in a larger array when more than half of it is used
+                    SimEventInterface<T>[] target = this.count > this.events.length / 2
+                            ? Arrays.copyOf(this.events, 2 * this.events.length) : this.events;
+                    System.arraycopy(this.events, this.head, target, 0, this.count);
+                    Arrays.fill(target, this.count, tail, null);
+                    this.events = target;
+                    i -= this.head;
+                    tail = this.count;
+                    this.head = 0;
+                }
+                System.arraycopy(this.events, i, this.events, i + 1, tail - i);
+                this.events[i] = event;
+            }
+            this.count++;
+            return true;
+        }
+
+        /**
+         * Remove the event at the given index of the array.
+         * @param i int; the index of the event in the array
+         */
+        void removeAt(final int i)
+        {
+            int tail = this.head + this.count;
+            if (i - this.head < tail - 1 - i)
+            {
+                System.arraycopy(this.events, this.head, this.events, this.head + 1, i - this.head);
+                this.events[this.head++] = null;
+            }
+            else
+            {
+                System.arraycopy(this.events, i + 1, this.events, i, tail - 1 - i);
+                this.events[tail - 1] = null;
+            }
+            if (--this.count == 0)
+            {
+                this.head = 0;
+            }
+        }
+    }
+}
@@ -2,6 +2,7 @@ package nl.tudelft.simulation.dsol.eventlists;
 
 import java.io.Serializable;
 import java.util.Iterator;
+import java.util.List;
 
 import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
 
@@ -77,4 +78,32 @@ public interface EventListInterface<T extends Number & Comparable<T>> extends Se
      */
     SimEventInterface<T> removeFirst();
 
+    /**
+     * Remove all events that have the same execution time as the first event of the event list, and append them to the buffer
+     * in execution order, i.e., on descending priority and on ascending id for the same priority. The buffer is not cleared
+     * first, so it can be reused by the caller for every batch. The default implementation calls <code>removeFirst()</code> and
+     * <code>first()</code> for every event; event lists that can take the events at the head timestamp in one operation should
+     * override this method.
+     * @param buffer List&lt;SimEventInterface&lt;T&gt;&gt;; the buffer to which the removed events are appended
+     * @return int; the number of events that have been removed and appended to the buffer; 0 when the event list is empty
+     * @since 4.2.3
+     */
+    default int removeFirstBatch(final List<SimEventInterface<T>> buffer)
+    {
+        if (isEmpty())
+        {
+            return 0;
+        }
+        SimEventInterface<T> first = removeFirst();
+        T time = first.getAbsoluteExecutionTime();
+        buffer.add(first);
+        int count = 1;
+        while (!isEmpty() && first().getAbsoluteExecutionTime().compareTo(time) == 0)
+        {
+            buffer.add(removeFirst());
+            count++;
+        }
+        return count;
+    }
+
 }
@@ -0,0 +1,98 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.util.Map;
+
+import org.djutils.exceptions.Throw;
+
+import nl.tudelft.simulation.jstats.streams.AntitheticStream;
+import nl.tudelft.simulation.jstats.streams.StreamInterface;
+
+/**
+ * AntitheticStreamUpdater runs the replications of an experiment as antithetic pairs. Replications 2k and 2k+1 get the same
+ * seeds, namely the seeds that the pair updater gives for replication number k, and replication 2k+1 draws the antithetic
+ * values 1 - u of the random numbers of replication 2k. All streams of the model should therefore be an AntitheticStream;
+ * wrapStreams() wraps the streams of a StreamInformation before the model is constructed with it. The variance reduction that
+ * the pairs achieve can be inspected with Experiment.getAntitheticComparison().
+ * <p>
+ * The pair updater is a SimpleStreamUpdater by default. A CommonRandomNumbersUpdater as pair updater combines antithetic pairs
+ * within an experiment with common random numbers between experiments.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public class AntitheticStreamUpdater implements StreamUpdater
+{
+    /** */
+    private static final long serialVersionUID = 20240101L;
+
+    /** the updater that sets the seeds of a pair of replications. */
+    private final StreamUpdater pairUpdater;
+
+    /**
+     * Construct an AntitheticStreamUpdater that sets the seeds of the pairs with a SimpleStreamUpdater.
+     */
+    public AntitheticStreamUpdater()
+    {
+        this(new SimpleStreamUpdater());
+    }
+
+    /**
+     * Construct an AntitheticStreamUpdater that sets the seeds of the pairs with another stream updater.
+     * @param pairUpdater StreamUpdater; the updater that sets the seeds of pair k as if it were replication k
+     * @throws NullPointerException when pairUpdater is null
+     */
+    public AntitheticStreamUpdater(final StreamUpdater pairUpdater)
+    {
+        Throw.whenNull(pairUpdater, "pairUpdater cannot be null");
+        this.pairUpdater = pairUpdater;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IllegalArgumentException when the stream is not an AntitheticStream
+     */
+    @Override
+    public void updateSeed(final String streamId, final StreamInterface stream, final int replicationNumber)
+    {
+        Throw.when(!(stream instanceof AntitheticStream), IllegalArgumentException.class,
+                "stream %s is not an AntitheticStream; wrap the streams with AntitheticStreamUpdater.wrapStreams()", streamId);
+        this.pairUpdater.updateSeed(streamId, stream, replicationNumber / 2);
+        ((AntitheticStream) stream).setAntithetic(replicationNumber % 2 == 1);
+    }
+
+    /**
+     * Return the updater that sets the seeds of a pair of replications.
+     * @return StreamUpdater; the updater that sets the seeds of a pair of replications
+     */
+    public StreamUpdater getPairUpdater()
+    {
+        return this.pairUpdater;
+    }
+
+    /**
+     * Wrap all streams of a StreamInformation that are not an AntitheticStream yet in an AntitheticStream. This should be done
+     * before the model is constructed with the StreamInformation.
+     * @param streamInformation StreamInformation; the stream information of which the streams are wrapped
+     * @return StreamInformation; the same stream information, for method chaining
+     * @throws NullPointerException when streamInformation is null
+     */
+    public static StreamInformation wrapStreams(final StreamInformation streamInformation)
+    {
+        Throw.whenNull(streamInformation, "streamInformation cannot be null");
+        for (Map.Entry<String, StreamInterface> entry : streamInformation.getStreams().entrySet())
+        {
+            if (!(entry.getValue() instanceof AntitheticStream))
+            {
+                entry.setValue(new AntitheticStream(entry.getValue()));
+            }
+        }
+        return streamInformation;
+    }
+
+}
@@ -0,0 +1,388 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.djutils.exceptions.Throw;
+
+/**
+ * The ColumnarResultReader reads the file of a ColumnarResultStore, and calculates aggregates over ranges of rows, e.g., over
+ * the replications of an experiment, or over the replications of one treatment of a sweep. The file is mapped one chunk at a
+ * time, and the values of a column within a chunk are contiguous, so aggregating millions of rows does not load them on the
+ * heap. The reader can be used while the store is being written; refresh() makes the rows that have been appended since the
+ * reader was opened visible.
+ * <p>
+ * A reader is not thread-safe; every thread should use its own reader.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public class ColumnarResultReader implements Closeable
+{
+    /** the file. */
+    private final Path file;
+
+    /** the channel of the file. */
+    private final FileChannel channel;
+
+    /** the header of the file. */
+    private final Header header;
+
+    /** the number of rows that can be read. */
+    private long rowCount;
+
+    /** the mapped chunk, or null when no chunk has been mapped. */
+    private MappedByteBuffer chunk = null;
+
+    /** the index of the mapped chunk. */
+    private long chunkIndex = -1;
+
+    /**
+     * Open the file of a result store for reading.
+     * @param file Path; the file
+     * @throws IOException when the file cannot be read, or is not a result file
+     */
+    public ColumnarResultReader(final Path file) throws IOException
+    {
+        Throw.whenNull(file, "file cannot be null");
+        this.file = file;
+        this.channel = FileChannel.open(file, StandardOpenOption.READ);
+        try
+        {
+            this.header = readHeader(this.channel, file);
+        }
+        catch (IOException exception)
+        {
+            this.channel.close();
+            throw exception;
+        }
+        this.rowCount = this.header.rowCount;
+    }
+
+    /**
+     * Read the header of a result file.
+     * @param channel FileChannel; the channel of the file
+     * @param file Path; the file, for the error messages
+     * @return Header; the header
+     * @throws IOException when the header cannot be read, or the file is not a result file
+     */
+    static Header readHeader(final FileChannel channel, final Path file) throws IOException
+    {
+        ByteBuffer fixed = ByteBuffer.allocate(ColumnarResultStore.FIXED_HEADER_SIZE);
+        if (channel.read(fixed, 0) < ColumnarResultStore.FIXED_HEADER_SIZE
+                || fixed.getInt(0) != ColumnarResultStore.MAGIC)
+        {
+            throw new IOException("File " + file + " is not a result file");
+        }
+        if (fixed.getInt(4) != ColumnarResultStore.VERSION)
+        {
+            throw new IOException("File " + file + " has an unknown version " + fixed.getInt(4));
+        }
+        int chunkRows = fixed.getInt(8);
+        int columns = fixed.getInt(12);
+        long rowCount = fixed.getLong(ColumnarResultStore.ROW_COUNT_POSITION);
+        int headerLength = fixed.getInt(ColumnarResultStore.FIXED_HEADER_SIZE - 4);
+        if (chunkRows < 1 || columns < 1 || rowCount < 0 || headerLength < ColumnarResultStore.FIXED_HEADER_SIZE
+                || headerLength > channel.size())
+        {
+            throw new IOException("File " + file + " has an illegal header");
+        }
+        ByteBuffer names = ByteBuffer.allocate(headerLength - ColumnarResultStore.FIXED_HEADER_SIZE);
+        channel.read(names, ColumnarResultStore.FIXED_HEADER_SIZE);
+        List<String> statistics = new ArrayList<>();
+        List<String> fields = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(names.array())))
+        {
+            for (int c = 0; c < columns; c++)
+            {
+                statistics.add(in.readUTF());
+                fields.add(in.readUTF());
+            }
+        }
+        return new Header(chunkRows, statistics, fields, headerLength, rowCount);
+    }
+
+    /**
+     * Read the number of rows again, to make the rows visible that have been appended since the reader was opened.
+     * @return long; the number of rows
+     * @throws IOException when the file cannot be read
+     */
+    public long refresh() throws IOException
+    {
+        ByteBuffer count = ByteBuffer.allocate(8);
+        this.channel.read(count, ColumnarResultStore.ROW_COUNT_POSITION);
+        this.rowCount = count.getLong(0);
+        this.chunkIndex = -1; // the last chunk may have been extended
+        this.chunk = null;
+        return this.rowCount;
+    }
+
+    /**
+     * Map the chunk with a row.
+     * @param row long; the row
+     * @return int; the position of the row within the chunk
+     */
+    private int mapChunk(final long row)
+    {
+        long k = row / this.header.chunkRows;
+        if (k != this.chunkIndex)
+        {
+            long chunkBytes = 8L * this.header.chunkRows * this.header.statistics.size();
+            try
+            {
+                this.chunk = this.channel.map(FileChannel.MapMode.READ_ONLY, this.header.headerLength + k * chunkBytes,
+                        chunkBytes);
+            }
+            catch (IOException exception)
+            {
+                throw new UncheckedIOException(exception);
+            }
+            this.chunkIndex = k;
+        }
+        return (int) (row % this.header.chunkRows);
+    }
+
+    /**
+     * Check a range of rows.
+     * @param fromRow long; the first row, inclusive
+     * @param toRow long; the last row, exclusive
+     * @throws IndexOutOfBoundsException when the range is not within the rows of the file
+     */
+    private void checkRange(final long fromRow, final long toRow)
+    {
+        Throw.when(fromRow < 0 || toRow > this.rowCount || fromRow > toRow, IndexOutOfBoundsException.class,
+                "rows [%d, %d) out of bounds for %d rows", fromRow, toRow, this.rowCount);
+    }
+
+    /**
+     * Check a column.
+     * @param column int; the column
+     * @throws IndexOutOfBoundsException when the column does not exist
+     */
+    private void checkColumn(final int column)
+    {
+        Throw.when(column < 0 || column >= this.header.statistics.size(), IndexOutOfBoundsException.class,
+                "column %d out of bounds", column);
+    }
+
+    /**
+     * Return a value.
+     * @param row long; the row
+     * @param column int; the column
+     * @return double; the value, or NaN when the row has no value for the column
+     * @throws IndexOutOfBoundsException when the row or the column does not exist
+     * @throws UncheckedIOException when the file cannot be read
+     */
+    public double getValue(final long row, final int column)
+    {
+        checkRange(row, row + 1);
+        checkColumn(column);
+        int r = mapChunk(row);
+        return this.chunk.getDouble(8 * (column * this.header.chunkRows + r));
+    }
+
+    /**
+     * Return the values of a column for a range of rows.
+     * @param column int; the column
+     * @param fromRow long; the first row, inclusive
+     * @param toRow long; the last row, exclusive
+     * @return double[]; the values, with NaN for the rows without a value for the column
+     * @throws IndexOutOfBoundsException when the rows or the column do not exist, or the range has more than
+     *             Integer.MAX_VALUE rows
+     * @throws UncheckedIOException when the file cannot be read
+     */
+    public double[] getColumn(final int column, final long fromRow, final long toRow)
+    {
+        checkRange(fromRow, toRow);
+        checkColumn(column);
+        Throw.when(toRow - fromRow > Integer.MAX_VALUE, IndexOutOfBoundsException.class, "too many rows for an array");
+        double[] values = new double[(int) (toRow - fromRow)];
+        for (long row = fromRow; row < toRow; row++)
+        {
+            int r = mapChunk(row);
+            values[(int) (row - fromRow)] = this.chunk.getDouble(8 * (column * this.header.chunkRows + r));
+        }
+        return values;
+    }
+
+    /**
+     * Aggregate the values of all columns for a range of rows, e.g., the replications of one treatment of a sweep. The file is
+     * read one chunk at a time, and within a chunk one column at a time. Columns of which the field is not a SummaryField are
+     * skipped; NaN values are not aggregated.
+     * @param fromRow long; the first row, inclusive
+     * @param toRow long; the last row, exclusive
+     * @return SummaryAccumulator; the aggregates of the values per statistic and field
+     * @throws IndexOutOfBoundsException when the range is not within the rows of the file
+     * @throws UncheckedIOException when the file cannot be read
+     */
+    public SummaryAccumulator aggregate(final long fromRow, final long toRow)
+    {
+        checkRange(fromRow, toRow);
+        int columns = this.header.statistics.size();
+        SummaryAccumulator accumulator = new SummaryAccumulator();
+        int[] statisticIndex = new int[columns];
+        SummaryField[] summaryField = new SummaryField[columns];
+        for (int c = 0; c < columns; c++)
+        {
+            statisticIndex[c] = accumulator.addStatistic(this.header.statistics.get(c));
+            for (SummaryField field : SummaryField.values())
+            {
+                if (field.getName().equals(this.header.fields.get(c)))
+                {
+                    summaryField[c] = field;
+                }
+            }
+        }
+        int chunkRows = this.header.chunkRows;
+        long row = fromRow;
+        while (row < toRow)
+        {
+            int first = mapChunk(row);
+            int last = (int) Math.min(chunkRows, first + toRow - row);
+            for (int c = 0; c < columns; c++)
+            {
+                if (summaryField[c] != null)
+                {
+                    int base = c * chunkRows;
+                    for (int r = first; r < last; r++)
+                    {
+                        accumulator.add(statisticIndex[c], summaryField[c], this.chunk.getDouble(8 * (base + r)));
+                    }
+                }
+            }
+            row += last - first;
+        }
+        return accumulator;
+    }
+
+    /**
+     * Return the column of a statistic and field.
+     * @param statistic String; the name of the statistic
+     * @param field String; the name of the field, e.g., "SampleMean"
+     * @return int; the column, or -1 when there is no column for the statistic and field
+     */
+    public int getColumnIndex(final String statistic, final String field)
+    {
+        for (int c = 0; c < this.header.statistics.size(); c++)
+        {
+            if (this.header.statistics.get(c).equals(statistic) && this.header.fields.get(c).equals(field))
+            {
+                return c;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Return the number of rows that can be read.
+     * @return long; the number of rows
+     */
+    public long getNumberOfRows()
+    {
+        return this.rowCount;
+    }
+
+    /**
+     * Return the number of columns.
+     * @return int; the number of columns
+     */
+    public int getNumberOfColumns()
+    {
+        return this.header.statistics.size();
+    }
+
+    /**
+     * Return the names of the statistics of the columns.
+     * @return List&lt;String&gt;; an unmodifiable list with the name of the statistic per column
+     */
+    public List<String> getStatistics()
+    {
+        return Collections.unmodifiableList(this.header.statistics);
+    }
+
+    /**
+     * Return the names of the fields of the columns.
+     * @return List&lt;String&gt;; an unmodifiable list with the name of the field per column
+     */
+    public List<String> getFields()
+    {
+        return Collections.unmodifiableList(this.header.fields);
+    }
+
+    /**
+     * Return the file of the reader.
+     * @return Path; the file
+     */
+    public Path getFile()
+    {
+        return this.file;
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        this.chunk = null;
+        this.channel.close();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ColumnarResultReader[" + this.file + ", columns=" + this.header.statistics.size() + ", rows=" + this.rowCount
+                + "]";
+    }
+
+    /** The header of a result file. */
+    static final class Header
+    {
+        /** the number of rows per chunk. */
+        final int chunkRows;
+
+        /** the names of the statistics of the columns. */
+        final List<String> statistics;
+
+        /** the names of the fields of the columns. */
+        final List<String> fields;
+
+        /** the length of the header. */
+        final int headerLength;
+
+        /** the number of completed rows. */
+        final long rowCount;
+
+        /**
+         * @param chunkRows int; the number of rows per chunk
+         * @param statistics List&lt;String&gt;; the names of the statistics of the columns
+         * @param fields List&lt;String&gt;; the names of the fields of the columns
+         * @param headerLength int; the length of the header
+         * @param rowCount long; the number of completed rows
+         */
+        Header(final int chunkRows, final List<String> statistics, final List<String> fields, final int headerLength,
+                final long rowCount)
+        {
+            this.chunkRows = chunkRows;
+            this.statistics = statistics;
+            this.fields = fields;
+            this.headerLength = headerLength;
+            this.rowCount = rowCount;
+        }
+    }
+
+}
@@ -0,0 +1,356 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.djutils.exceptions.Throw;
+
+import nl.tudelft.simulation.dsol.experiment.Experiment.SummaryValue;
+
+/**
+ * The ColumnarResultStore appends the summary values of replications to a memory-mapped file in a columnar format, as soon as
+ * the replications complete, so the results of a large experiment or sweep do not have to be kept on the heap. Every
+ * (statistic, field) combination is a column, and every replication is a row; for an Experiment the row is the replication
+ * number, and for a ParameterSweep the row is the cell number, treatment * numberOfReplications + replicationNumber. The file
+ * is read with a ColumnarResultReader, also while it is being written.
+ * <p>
+ * The columns are the (statistic, field) combinations of the first row that is appended. Values of later rows for other
+ * columns are dropped, and columns without a value in a row contain NaN. When a statistic occurs more than once in a row, the
+ * last value is stored. The rows have to be appended in order; a row that is already in the file is skipped, so an experiment
+ * or sweep can be resumed with an existing file.
+ * </p>
+ * <p>
+ * The file starts with a header with the magic number, the version, the number of rows per chunk, the number of columns, the
+ * number of completed rows, the length of the header, and the names of the statistic and field of every column. The header is
+ * followed by chunks of rows; within a chunk, the values of each column are stored consecutively as doubles, so a reader that
+ * aggregates a column reads contiguous memory. The number of completed rows in the header is updated after all values of a row
+ * have been written, so a reader never sees a partially written row.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public class ColumnarResultStore implements Closeable
+{
+    /** the magic number at the start of a result file: "DSRS". */
+    static final int MAGIC = 0x44535253;
+
+    /** the version of the file format. */
+    static final int VERSION = 1;
+
+    /** the position of the number of completed rows in the header. */
+    static final int ROW_COUNT_POSITION = 16;
+
+    /** the size of the fixed part of the header, before the names of the columns. */
+    static final int FIXED_HEADER_SIZE = 28;
+
+    /** the default number of rows per chunk. */
+    public static final int DEFAULT_CHUNK_ROWS = 1024;
+
+    /** the file. */
+    private final Path file;
+
+    /** the channel of the file. */
+    private final FileChannel channel;
+
+    /** the number of rows per chunk. */
+    private int chunkRows;
+
+    /** the names of the statistics of the columns. */
+    private final List<String> statistics = new ArrayList<>();
+
+    /** the names of the fields of the columns. */
+    private final List<String> fields = new ArrayList<>();
+
+    /** the column of every statistic and field. */
+    private final Map<String, Map<String, Integer>> columnIndex = new HashMap<>();
+
+    /** the length of the header, which is a multiple of 8. */
+    private int headerLength;
+
+    /** the number of completed rows. */
+    private long rowCount = 0;
+
+    /** the mapped fixed part of the header, or null when the columns have not been defined yet. */
+    private MappedByteBuffer header = null;
+
+    /** the mapped chunk to which rows are appended, or null when no chunk has been mapped. */
+    private MappedByteBuffer chunk = null;
+
+    /** the index of the mapped chunk. */
+    private long chunkIndex = -1;
+
+    /** the number of values that were dropped, because their column was not in the first row. */
+    private long droppedValues = 0;
+
+    /**
+     * Open a result store with the default number of rows per chunk. When the file exists, rows are appended after the rows in
+     * the file.
+     * @param file Path; the file
+     * @throws IOException when the file cannot be opened, or is not a result file
+     */
+    public ColumnarResultStore(final Path file) throws IOException
+    {
+        this(file, DEFAULT_CHUNK_ROWS);
+    }
+
+    /**
+     * Open a result store. When the file exists, rows are appended after the rows in the file, and the number of rows per chunk
+     * of the file is used.
+     * @param file Path; the file
+     * @param chunkRows int; the number of rows per chunk of a new file; it is reduced when a chunk would be larger than 2 GB
+     * @throws IOException when the file cannot be opened, or is not a result file
+     * @throws IllegalArgumentException when chunkRows &lt; 1
+     */
+    public ColumnarResultStore(final Path file, final int chunkRows) throws IOException
+    {
+        Throw.whenNull(file, "file cannot be null");
+        Throw.when(chunkRows < 1, IllegalArgumentException.class, "chunkRows should be at least 1");
+        this.file = file;
+        this.chunkRows = chunkRows;
+        boolean exists = Files.exists(file) && Files.size(file) > 0;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        if (exists)
+        {
+            try
+            {
+                ColumnarResultReader.Header existing = ColumnarResultReader.readHeader(this.channel, file);
+                this.chunkRows = existing.chunkRows;
+                for (int c = 0; c < existing.statistics.size(); c++)
+                {
+                    addColumn(existing.statistics.get(c), existing.fields.get(c));
+                }
+                this.headerLength = existing.headerLength;
+                this.rowCount = existing.rowCount;
+                this.header = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, FIXED_HEADER_SIZE);
+            }
+            catch (IOException exception)
+            {
+                this.channel.close();
+                throw exception;
+            }
+        }
+    }
+
+    /**
+     * Add a column, when the combination of statistic and field is not a column yet.
+     * @param statistic String; the name of the statistic
+     * @param field String; the name of the field
+     */
+    private void addColumn(final String statistic, final String field)
+    {
+        Map<String, Integer> fieldMap = this.columnIndex.computeIfAbsent(statistic, s -> new HashMap<>());
+        if (!fieldMap.containsKey(field))
+        {
+            fieldMap.put(field, this.statistics.size());
+            this.statistics.add(statistic);
+            this.fields.add(field);
+        }
+    }
+
+    /**
+     * Define the columns from the values of the first row, and write the header.
+     * @param values List&lt;SummaryValue&gt;; the values of the first row
+     * @throws IOException when the header cannot be written
+     */
+    private void defineColumns(final List<SummaryValue> values) throws IOException
+    {
+        for (SummaryValue value : values)
+        {
+            addColumn(value.statistic, value.field);
+        }
+        Throw.when(this.statistics.isEmpty(), IllegalArgumentException.class, "the first row has no values");
+        this.chunkRows = (int) Math.max(1, Math.min(this.chunkRows, Integer.MAX_VALUE / (8L * this.statistics.size())));
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes))
+        {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(this.chunkRows);
+            out.writeInt(this.statistics.size());
+            out.writeLong(0L);
+            out.writeInt(0); // the header length is filled in below
+            for (int c = 0; c < this.statistics.size(); c++)
+            {
+                out.writeUTF(this.statistics.get(c));
+                out.writeUTF(this.fields.get(c));
+            }
+            while (out.size() % 8 != 0)
+            {
+                out.writeByte(0);
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(bytes.toByteArray());
+        this.headerLength = buffer.capacity();
+        buffer.putInt(FIXED_HEADER_SIZE - 4, this.headerLength);
+        this.channel.truncate(0);
+        this.channel.write(buffer, 0);
+        this.header = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, FIXED_HEADER_SIZE);
+    }
+
+    /**
+     * Append the summary values of a replication as a row. A row that is already in the file is skipped.
+     * @param row long; the number of the row, which should be the number of rows in the file or less
+     * @param values List&lt;SummaryValue&gt;; the summary values of the replication
+     * @return boolean; whether the row was appended, or false when the row was already in the file
+     * @throws IOException when the file cannot be written
+     * @throws IllegalArgumentException when the row would leave a gap after the last row in the file
+     */
+    synchronized boolean append(final long row, final List<SummaryValue> values) throws IOException
+    {
+        Throw.when(!this.channel.isOpen(), IllegalStateException.class, "result store %s is closed", this.file);
+        if (this.header == null)
+        {
+            defineColumns(values);
+        }
+        if (row < this.rowCount)
+        {
+            return false;
+        }
+        Throw.when(row > this.rowCount, IllegalArgumentException.class, "row %d cannot be appended after row %d", row,
+                this.rowCount - 1);
+        long k = row / this.chunkRows;
+        if (k != this.chunkIndex)
+        {
+            long chunkBytes = 8L * this.chunkRows * this.statistics.size();
+            this.chunk = this.channel.map(FileChannel.MapMode.READ_WRITE, this.headerLength + k * chunkBytes, chunkBytes);
+            this.chunkIndex = k;
+        }
+        int r = (int) (row % this.chunkRows);
+        for (int c = 0; c < this.statistics.size(); c++)
+        {
+            this.chunk.putDouble(8 * (c * this.chunkRows + r), Double.NaN); // overwrite a row of an interrupted run
+        }
+        for (SummaryValue value : values)
+        {
+            Map<String, Integer> fieldMap = this.columnIndex.get(value.statistic);
+            Integer c = fieldMap == null ? null : fieldMap.get(value.field);
+            if (c == null)
+            {
+                this.droppedValues++;
+            }
+            else
+            {
+                this.chunk.putDouble(8 * (c * this.chunkRows + r), value.value);
+            }
+        }
+        this.rowCount++;
+        this.header.putLong(ROW_COUNT_POSITION, this.rowCount);
+        return true;
+    }
+
+    /**
+     * Force the rows that have been appended to the storage device.
+     */
+    public synchronized void flush()
+    {
+        if (this.chunk != null)
+        {
+            this.chunk.force();
+        }
+        if (this.header != null)
+        {
+            this.header.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() throws IOException
+    {
+        if (this.channel.isOpen())
+        {
+            flush();
+            this.channel.close();
+            this.chunk = null;
+            this.header = null;
+        }
+    }
+
+    /**
+     * Return the file of the result store.
+     * @return Path; the file
+     */
+    public Path getFile()
+    {
+        return this.file;
+    }
+
+    /**
+     * Return the number of rows in the file.
+     * @return long; the number of rows in the file
+     */
+    public synchronized long getNumberOfRows()
+    {
+        return this.rowCount;
+    }
+
+    /**
+     * Return the number of columns, which is 0 when no row has been appended to a new file.
+     * @return int; the number of columns
+     */
+    public synchronized int getNumberOfColumns()
+    {
+        return this.statistics.size();
+    }
+
+    /**
+     * Return the names of the statistics of the columns.
+     * @return List&lt;String&gt;; an unmodifiable list with the name of the statistic per column
+     */
+    public synchronized List<String> getStatistics()
+    {
+        return Collections.unmodifiableList(new ArrayList<>(this.statistics));
+    }
+
+    /**
+     * Return the names of the fields of the columns.
+     * @return List&lt;String&gt;; an unmodifiable list with the name of the field per column
+     */
+    public synchronized List<String> getFields()
+    {
+        return Collections.unmodifiableList(new ArrayList<>(this.fields));
+    }
+
+    /**
+     * Return the number of rows per chunk.
+     * @return int; the number of rows per chunk
+     */
+    public int getChunkRows()
+    {
+        return this.chunkRows;
+    }
+
+    /**
+     * Return the number of values that were dropped, because their column was not in the first row.
+     * @return long; the number of dropped values
+     */
+    public synchronized long getNumberOfDroppedValues()
+    {
+        return this.droppedValues;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ColumnarResultStore[" + this.file + ", columns=" + this.statistics.size() + ", rows=" + this.rowCount + "]";
+    }
+
+}
@@ -0,0 +1,141 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.djutils.exceptions.Throw;
+
+import nl.tudelft.simulation.jstats.streams.StreamInterface;
+
+/**
+ * CommonRandomNumbersUpdater gives the streams of different experiments, e.g., the treatments of a comparison or a sweep, the
+ * same seeds for the same replication number. The seed of a stream only depends on the id of the stream and the replication
+ * number, and not on the original seed of the stream in the model of the experiment. The base seed of a stream is taken from a
+ * reference StreamInformation, or is a fixed base seed for the streams that are not in the reference. The seed for a
+ * replication is calculated with the SplitMix64 mixing function from the base seed, the id of the stream and the replication
+ * number, so streams that share a base seed get different, uncorrelated seeds, also for replication 0.
+ * <p>
+ * Common random numbers only reduce the variance of the differences between the experiments when the streams are synchronized:
+ * every stream id should be used for the same purpose in every experiment, e.g., one stream for the interarrival times and one
+ * for the service times. The seeds can be stored in a StreamSeedUpdater with makeStreamSeedUpdater(), e.g., to document or
+ * distribute them.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public class CommonRandomNumbersUpdater implements StreamUpdater
+{
+    /** */
+    private static final long serialVersionUID = 20240101L;
+
+    /** the increment of the SplitMix64 generator, 2^64 divided by the golden ratio. */
+    private static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    /** the base seeds of the streams, identified by id. */
+    private final Map<String, Long> baseSeeds = new LinkedHashMap<>();
+
+    /** the base seed of the streams that have no base seed of their own. */
+    private final long defaultBaseSeed;
+
+    /**
+     * Construct a CommonRandomNumbersUpdater that uses the same base seed for all streams.
+     * @param baseSeed long; the base seed of all streams
+     */
+    public CommonRandomNumbersUpdater(final long baseSeed)
+    {
+        this.defaultBaseSeed = baseSeed;
+    }
+
+    /**
+     * Construct a CommonRandomNumbersUpdater that uses the original seeds of the streams in a reference StreamInformation as
+     * the base seeds. Streams that are not in the reference use the original seed of the "default" stream as their base seed.
+     * @param reference StreamInformation; the streams of which the original seeds are the base seeds
+     * @throws NullPointerException when reference is null
+     */
+    public CommonRandomNumbersUpdater(final StreamInformation reference)
+    {
+        Throw.whenNull(reference, "reference cannot be null");
+        for (Map.Entry<String, StreamInterface> entry : reference.getStreams().entrySet())
+        {
+            this.baseSeeds.put(entry.getKey(), entry.getValue().getOriginalSeed());
+        }
+        this.defaultBaseSeed = reference.getStream("default").getOriginalSeed();
+    }
+
+    @Override
+    public void updateSeed(final String streamId, final StreamInterface stream, final int replicationNumber)
+    {
+        stream.setSeed(getSeed(streamId, replicationNumber));
+    }
+
+    /**
+     * Return the seed of a stream for a replication.
+     * @param streamId String; the id of the stream
+     * @param replicationNumber int; the replication number
+     * @return long; the positive seed of the stream for the replication, which is the same for every experiment
+     */
+    public long getSeed(final String streamId, final int replicationNumber)
+    {
+        long streamSeed = mix(getBaseSeed(streamId) + GOLDEN_GAMMA * streamId.hashCode());
+        long seed = mix(streamSeed + GOLDEN_GAMMA * (replicationNumber + 1L)) >>> 1;
+        return seed == 0L ? 1L : seed;
+    }
+
+    /**
+     * The mixing function of the SplitMix64 generator, which maps every long to a long with well-distributed bits.
+     * @param value long; the value to mix
+     * @return long; the mixed value
+     */
+    private static long mix(final long value)
+    {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * Return the base seed of a stream, from which the seeds for the replications are calculated.
+     * @param streamId String; the id of the stream
+     * @return long; the base seed of the stream
+     */
+    public long getBaseSeed(final String streamId)
+    {
+        Long baseSeed = this.baseSeeds.get(streamId);
+        return baseSeed == null ? this.defaultBaseSeed : baseSeed;
+    }
+
+    /**
+     * Make a StreamSeedUpdater that contains the seeds of this updater for a number of streams and replications. The fallback
+     * of the StreamSeedUpdater is this updater, so streams and replications that are not in the seed map still get common
+     * random numbers.
+     * @param streamIds Iterable&lt;String&gt;; the ids of the streams to store the seeds for
+     * @param numberOfReplications int; the number of replications to store the seeds for
+     * @return StreamSeedUpdater; a StreamSeedUpdater with the stored seeds
+     * @throws IllegalArgumentException when numberOfReplications is negative
+     */
+    public StreamSeedUpdater makeStreamSeedUpdater(final Iterable<String> streamIds, final int numberOfReplications)
+    {
+        Throw.when(numberOfReplications < 0, IllegalArgumentException.class, "numberOfReplications cannot be negative");
+        Map<String, Map<Integer, Long>> streamSeedMap = new LinkedHashMap<>();
+        for (String streamId : streamIds)
+        {
+            Map<Integer, Long> seedMap = new LinkedHashMap<>();
+            for (int replicationNumber = 0; replicationNumber < numberOfReplications; replicationNumber++)
+            {
+                seedMap.put(replicationNumber, getSeed(streamId, replicationNumber));
+            }
+            streamSeedMap.put(streamId, seedMap);
+        }
+        StreamSeedUpdater streamSeedUpdater = new StreamSeedUpdater(streamSeedMap);
+        streamSeedUpdater.setFallbackStreamUpdater(this);
+        return streamSeedUpdater;
+    }
+
+}
@@ -1,10 +1,19 @@
 package nl.tudelft.simulation.dsol.experiment;
 
+import java.io.IOException;
 import java.rmi.RemoteException;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
 import java.util.List;
 import java.util.SortedMap;
 import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 import javax.naming.NamingException;
 
@@ -18,8 +27,12 @@ import org.djutils.logger.CategoryLogger;
 import org.djutils.metadata.MetaData;
 import org.djutils.stats.summarizers.Tally;
 
+import nl.tudelft.simulation.dsol.SimRuntimeException;
 import nl.tudelft.simulation.dsol.model.DsolModel;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+import nl.tudelft.simulation.dsol.simulators.DevsSimulator;
 import nl.tudelft.simulation.dsol.simulators.SimulatorInterface;
+import nl.tudelft.simulation.dsol.simulators.SimulatorSnapshot;
 import nl.tudelft.simulation.dsol.statistics.SimCounter;
 import nl.tudelft.simulation.dsol.statistics.SimPersistent;
 import nl.tudelft.simulation.dsol.statistics.SimTally;
@@ -31,6 +44,11 @@ import nl.tudelft.simulation.naming.context.util.ContextUtil;
 
 /**
  * The Experiment specifies the parameters for a number of simulation replications, and can execute a series of replications.
+ * The replications are executed one after another on the simulator and model of the experiment, or in parallel on a number of
+ * worker threads, each with its own model and simulator, when a ModelFactory has been set with setParallelExecution. When a
+ * SequentialStoppingRule has been set, the number of replications is a budget: the replications are executed in batches till
+ * the summary statistics have reached the precision of the rule. With a warm start, the warmup period is run only once, and
+ * every replication starts from a snapshot of the model at the warmup time.
  * <p>
  * Copyright (c) 2002-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
  * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
@@ -82,6 +100,36 @@ public class Experiment<T extends Number & Comparable<T>, S extends SimulatorInt
     /** is the simulation experiment running? */
     private boolean running = false;
 
+    /** the factory for the models of the worker threads, or null when the replications are executed sequentially. */
+    private ModelFactory<T, S> modelFactory = null;
+
+    /** the number of worker threads for a parallel experiment. */
+    private int numberOfThreads = 1;
+
+    /** the results of parallel replications that cannot be appended to the ordered results yet, sorted on number. */
+    private SortedMap<Integer, ReplicationResult> pendingResults = new TreeMap<>();
+
+    /**
+     * The results of parallel replications that have been added in the order of the replication numbers, but of which the
+     * result has not been stored and the END_REPLICATION_EVENT has not been fired yet. This is done outside the lock.
+     */
+    private Deque<ReplicationResult> publishableResults = new ArrayDeque<>();
+
+    /** whether a worker thread is storing the results and firing the events of the publishable results. */
+    private boolean publishingResults = false;
+
+    /** the number of the next parallel replication of which the results are added to the replication values. */
+    private int nextResultNumber = 0;
+
+    /** whether a replication of a parallel experiment has failed. */
+    private volatile boolean parallelFailure = false;
+
+    /** the rule to stop the experiment based on the precision of the summary statistics, or null for a fixed number. */
+    private SequentialStoppingRule stoppingRule = null;
+
+    /** the number of replications that may be started till the precision of the stopping rule is evaluated again. */
+    private int replicationLimit = 0;
+
     /**
      * The summary statistics over multiple replications. The table maps the name of the statistic to a map of fields to tallies
      * that contain the statistics of the tallied values. Suppose we run a model with 10 replications, which has a tally named
@@ -89,10 +137,34 @@ public class Experiment<T extends Number & Comparable<T>, S extends SimulatorInt
      * several sub-maps, such as "N", "Population mean", "Population variance", "Min", "Max", etc. Each of these is a Tally for
      * which the final values of the replications for that value have been tallied. The "Population Mean" for "waiting time" in
      * this example therefore contains the average of the 10 average waiting times that have been alculated in the 10
-     * replications.
+     * replications. The tallies are only built from the replication values when they are requested.
      */
     private SortedMap<String, SortedMap<String, Tally>> summaryStatistics = new TreeMap<>();
 
+    /** the number of replication values that have been tallied in the summary statistics. */
+    private int summarizedReplications = 0;
+
+    /** the values of the summary statistics of the replications, in the order of the replication numbers. */
+    private List<ReplicationValues> replicationValues = new ArrayList<>();
+
+    /** whether the replications start from a snapshot of the model at the warmup time, instead of running the warmup. */
+    private boolean warmStart = false;
+
+    /** the snapshot at the warmup time from which the replications start, or null when it has not been captured yet. */
+    private SimulatorSnapshot<T> warmStartSnapshot = null;
+
+    /** the model of the current sequential replication; for a warm start, this is a copy restored from the snapshot. */
+    private DsolModel<T, ?> replicationModel = null;
+
+    /** the primitive summary of the statistics over the replications, which is merged from the workers of a parallel run. */
+    private SummaryAccumulator summaryAccumulator = new SummaryAccumulator();
+
+    /** the accumulators of the worker threads of the current parallel run, each of which is filled by one worker only. */
+    private SummaryAccumulator[] workerAccumulators = new SummaryAccumulator[0];
+
+    /** the store to which the summary values of every replication are appended, or null when they are not stored. */
+    private ColumnarResultStore resultStore = null;
+
     /**
      * Construct a new Experiment.
      * @param id String; the id of the experiment
@@ -173,12 +245,384 @@ public class Experiment<T extends Number & Comparable<T>, S extends SimulatorInt
                 "Experiment: No more replications");
         Throw.when(this.simulator.isStartingOrRunning(), IllegalArgumentException.class,
                 "Simulator for experiment running -- Experiment cannot be started");
+        this.replicationLimit = this.stoppingRule == null ? getNumberOfReplications() : Math.min(getNumberOfReplications(),
+                this.currentReplicationNumber + 1 + this.stoppingRule.getInitialReplications());
         this.fireEvent(Experiment.START_EXPERIMENT_EVENT, null);
         this.experimentThread = new ExperimentThread(this);
         this.running = true;
         this.experimentThread.start();
     }
 
+    /**
+     * Execute the replications in parallel on a number of worker threads. Each worker creates its own model and simulator with
+     * the model factory, and executes replications till there are no more replications to execute. The seeds of the streams
+     * are updated for the replication number, and the results are added to the summary statistics in the order of the
+     * replication numbers, so the summary statistics are the same as in a sequential run. The END_REPLICATION_EVENTs of the
+     * replications are propagated in the same order; the summary statistics are built when the parallel run has ended, or when
+     * the stopping rule decides on the next batch, so a listener to these events should not rely on them.
+     * @param factory ModelFactory&lt;T, S&gt;; the factory for the models of the worker threads, or null for a sequential
+     *            experiment
+     * @param threads int; the maximum number of replications that are executed at the same time
+     * @throws IllegalStateException when the experiment is running
+     * @throws IllegalArgumentException when the number of threads is zero or negative
+     */
+    public synchronized void setParallelExecution(final ModelFactory<T, S> factory, final int threads)
+    {
+        Throw.when(this.running, IllegalStateException.class, "cannot change the execution of a running experiment");
+        Throw.when(threads < 1, IllegalArgumentException.class, "number of threads should be at least 1");
+        this.modelFactory = factory;
+        this.numberOfThreads = threads;
+    }
+
+    /**
+     * Return the factory for the models of the worker threads.
+     * @return ModelFactory&lt;T, S&gt;; the factory for the models of the worker threads, or null for a sequential experiment
+     */
+    public ModelFactory<T, S> getModelFactory()
+    {
+        return this.modelFactory;
+    }
+
+    /**
+     * Return the number of worker threads for a parallel experiment.
+     * @return int; the maximum number of replications that are executed at the same time
+     */
+    public int getNumberOfThreads()
+    {
+        return this.numberOfThreads;
+    }
+
+    /**
+     * Set the rule to stop the experiment when the summary statistics have reached a certain precision. The number of
+     * replications of the run control is then the maximum number of replications that will be executed.
+     * @param rule SequentialStoppingRule; the rule to stop the experiment, or null to execute all replications
+     * @throws IllegalStateException when the experiment is running
+     */
+    public synchronized void setStoppingRule(final SequentialStoppingRule rule)
+    {
+        Throw.when(this.running, IllegalStateException.class, "cannot change the stopping rule of a running experiment");
+        this.stoppingRule = rule;
+    }
+
+    /**
+     * Return the rule to stop the experiment when the summary statistics have reached a certain precision.
+     * @return SequentialStoppingRule; the rule to stop the experiment, or null when all replications are executed
+     */
+    public SequentialStoppingRule getStoppingRule()
+    {
+        return this.stoppingRule;
+    }
+
+    /**
+     * Start the replications from a snapshot of the model at the warmup time, instead of running the warmup period in every
+     * replication. The snapshot is captured once, on the simulator of the experiment and with the seeds of replication 0.
+     * Every replication then restores its own copy of the model from the snapshot, updates the seeds of the streams of that
+     * copy for the replication number, and collects its statistics from that copy. The replications therefore share the state
+     * at the warmup time, and only differ in the period after the warmup. The simulators should be DevsSimulators, and the
+     * model, the objects that can be reached from it, and its events should be Serializable, see SimulatorSnapshot.
+     * @param warmStart boolean; whether the replications start from a snapshot at the warmup time
+     * @throws IllegalStateException when the experiment is running
+     * @throws IllegalArgumentException when warmStart is true and the simulator is not a DevsSimulator
+     */
+    public synchronized void setWarmStart(final boolean warmStart)
+    {
+        Throw.when(this.running, IllegalStateException.class, "cannot change the warm start of a running experiment");
+        Throw.when(warmStart && !(this.simulator instanceof DevsSimulator), IllegalArgumentException.class,
+                "a warm start needs a DevsSimulator");
+        this.warmStart = warmStart;
+        this.warmStartSnapshot = null;
+    }
+
+    /**
+     * Return whether the replications start from a snapshot of the model at the warmup time.
+     * @return boolean; whether the replications start from a snapshot at the warmup time
+     */
+    public boolean isWarmStart()
+    {
+        return this.warmStart;
+    }
+
+    /**
+     * Return the snapshot at the warmup time from which the replications of a warm start begin. The snapshot is captured on the
+     * simulator of the experiment when this has not been done yet, which runs the model up to the warmup time.
+     * @return SimulatorSnapshot&lt;T&gt;; the snapshot of the model at the warmup time
+     * @throws SimRuntimeException when the simulator is not a DevsSimulator, when the warmup period cannot be run, or when the
+     *             state of the model cannot be captured
+     */
+    @SuppressWarnings("unchecked")
+    public synchronized SimulatorSnapshot<T> getWarmStartSnapshot() throws SimRuntimeException
+    {
+        if (this.warmStartSnapshot == null)
+        {
+            Throw.when(!(this.simulator instanceof DevsSimulator), SimRuntimeException.class,
+                    "a warm start needs a DevsSimulator");
+            this.streamUpdater.updateSeeds(this.model.getStreams(), 0);
+            T startTime = this.runControl.getStartTime();
+            SingleReplication<T> warmup = new SingleReplication<T>(this.runControl.getId() + ".warmup", startTime,
+                    SimTime.minus(this.runControl.getWarmupTime(), startTime),
+                    SimTime.minus(this.runControl.getEndTime(), startTime));
+            try
+            {
+                this.warmStartSnapshot =
+                        SimulatorSnapshot.captureAtWarmup((DevsSimulator<T>) this.simulator, this.model, warmup);
+            }
+            finally
+            {
+                warmup.removeFromContext();
+            }
+        }
+        return this.warmStartSnapshot;
+    }
+
+    /**
+     * Initialize a simulator for a replication, and return the model that runs the replication. Normally, the seeds of the
+     * streams of the model are updated for the replication number, and the simulator is initialized with the model. For a warm
+     * start, a copy of the model is restored on the simulator from the snapshot at the warmup time, and the seeds of the
+     * streams of the copy are updated for the replication number.
+     * @param replicationSimulator S; the simulator to run the replication on
+     * @param replicationModel DsolModel&lt;T, ? extends S&gt;; the model of the simulator
+     * @param replication ExperimentReplication&lt;T, S&gt;; the replication
+     * @return DsolModel&lt;T, ?&gt;; the model that runs the replication
+     * @throws SimRuntimeException when the simulator cannot be initialized, or the snapshot cannot be captured or restored
+     */
+    @SuppressWarnings("unchecked")
+    private DsolModel<T, ?> initializeReplication(final S replicationSimulator,
+            final DsolModel<T, ? extends S> replicationModel, final ExperimentReplication<T, S> replication)
+            throws SimRuntimeException
+    {
+        if (!this.warmStart)
+        {
+            this.streamUpdater.updateSeeds(replicationModel.getStreams(), replication.getReplicationNr());
+            replicationSimulator.initialize(replicationModel, replication);
+            return replicationModel;
+        }
+        Throw.when(!(replicationSimulator instanceof DevsSimulator), SimRuntimeException.class,
+                "a warm start needs a DevsSimulator");
+        DsolModel<T, ?> restoredModel =
+                getWarmStartSnapshot().restore((DevsSimulator<T>) replicationSimulator, replication);
+        this.streamUpdater.updateSeeds(restoredModel.getStreams(), replication.getReplicationNr());
+        return restoredModel;
+    }
+
+    /**
+     * Return whether the summary statistics satisfy the precision of the stopping rule.
+     * @return boolean; whether the summary statistics satisfy the precision of the stopping rule; false when there is no rule
+     */
+    public synchronized boolean isPrecisionReached()
+    {
+        return this.stoppingRule != null && this.stoppingRule.isSatisfied(getSummaryStatistics());
+    }
+
+    /**
+     * Return whether another replication should be started. This is the case when the replication limit has not been reached,
+     * or when the results of all replications up to the limit are known, and the stopping rule extends the limit.
+     * @return boolean; whether another replication should be started
+     */
+    protected synchronized boolean hasNextReplication()
+    {
+        return this.currentReplicationNumber < this.replicationLimit - 1 || extendReplicationLimit();
+    }
+
+    /**
+     * Extend the replication limit with a batch of replications, when there is a stopping rule of which the precision has not
+     * been reached, and the budget of replications has not been used. Call this method when the results of all replications
+     * up to the limit have been added to the summary statistics.
+     * @return boolean; whether the replication limit has been extended
+     */
+    private synchronized boolean extendReplicationLimit()
+    {
+        if (this.stoppingRule == null || this.replicationLimit >= getNumberOfReplications() || isPrecisionReached())
+        {
+            return false;
+        }
+        this.replicationLimit = Math.min(getNumberOfReplications(), this.replicationLimit + this.stoppingRule.getBatchSize());
+        return true;
+    }
+
+    /**
+     * Execute the remaining replications in parallel on a bounded pool of worker threads, and wait till they have ended.
+     */
+    protected void runParallel()
+    {
+        int threads;
+        synchronized (this)
+        {
+            threads = Math.min(this.numberOfThreads, getNumberOfReplications() - this.currentReplicationNumber - 1);
+            this.nextResultNumber = this.currentReplicationNumber + 1;
+            this.parallelFailure = false;
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<Void>> futures = new ArrayList<>();
+        this.workerAccumulators = new SummaryAccumulator[threads];
+        for (int w = 0; w < threads; w++)
+        {
+            final int workerNumber = w;
+            this.workerAccumulators[w] = new SummaryAccumulator();
+            futures.add(executor.submit(() ->
+            {
+                runReplications(workerNumber);
+                return null;
+            }));
+        }
+        executor.shutdown();
+        for (Future<Void> future : futures)
+        {
+            try
+            {
+                future.get();
+            }
+            catch (ExecutionException exception)
+            {
+                CategoryLogger.always().error(exception.getCause());
+            }
+            catch (InterruptedException exception)
+            {
+                this.parallelFailure = true;
+                CategoryLogger.always().error(exception);
+            }
+        }
+        // the workers have ended, so their accumulators can be merged without contention
+        this.summaryAccumulator.merge(SummaryAccumulator.reduce(Arrays.asList(this.workerAccumulators)));
+        this.workerAccumulators = new SummaryAccumulator[0];
+    }
+
+    /**
+     * Execute replications on a new model and simulator till there are no more replications to execute. This method is
+     * executed by a worker thread of a parallel experiment.
+     * @param workerNumber int; the number of the worker thread
+     * @throws Exception when the replication could not be executed
+     */
+    private void runReplications(final int workerNumber) throws Exception
+    {
+        DsolModel<T, ? extends S> workerModel = this.modelFactory.createModel(workerNumber);
+        S workerSimulator = workerModel.getSimulator();
+        SummaryAccumulator accumulator = this.workerAccumulators[workerNumber];
+        ReplicationListener listener = new ReplicationListener();
+        try
+        {
+            while (true)
+            {
+                ExperimentReplication<T, S> replication;
+                synchronized (this)
+                {
+                    while (!this.parallelFailure && this.currentReplicationNumber >= this.replicationLimit - 1
+                            && this.nextResultNumber < this.replicationLimit)
+                    {
+                        wait(); // the stopping rule decides on the next batch when all results of this batch are known
+                    }
+                    if (this.parallelFailure || this.currentReplicationNumber >= this.replicationLimit - 1)
+                    {
+                        return;
+                    }
+                    this.currentReplicationNumber++;
+                    replication = makeExperimentReplication();
+                    this.startedReplications.add(replication);
+                }
+                listener.latch = new CountDownLatch(1);
+                DsolModel<T, ?> replicationModel = initializeReplication(workerSimulator, workerModel, replication);
+                // initialize() removes the listeners of the previous replication
+                workerSimulator.addListener(listener, Replication.END_REPLICATION_EVENT, ReferenceType.STRONG);
+                workerSimulator.start();
+                listener.latch.await();
+                ReplicationValues values = new ReplicationValues(replication.getReplicationNr());
+                collectSummaryValues(replicationModel, values);
+                values.addTo(accumulator);
+                addResult(new ReplicationResult(values, listener.event));
+            }
+        }
+        catch (Exception exception)
+        {
+            synchronized (this)
+            {
+                this.parallelFailure = true;
+                notifyAll();
+            }
+            throw exception;
+        }
+        finally
+        {
+            workerSimulator.removeListener(listener, Replication.END_REPLICATION_EVENT);
+            if (workerSimulator.getReplication() != null)
+            {
+                // stop the worker thread of the simulator; it has none when no replication has been initialized
+                workerSimulator.cleanUp();
+            }
+        }
+    }
+
+    /**
+     * Add the results of a parallel replication, and append the results that are next in the order of the replication numbers
+     * to the replication values, so the summary statistics are the same as for a sequential run. Only references are moved
+     * while holding the lock; the results are stored and the END_REPLICATION_EVENTs are fired after the lock is released.
+     * @param result ReplicationResult; the results of the replication
+     * @throws RemoteException on network error for the listeners of the END_REPLICATION_EVENT
+     */
+    private void addResult(final ReplicationResult result) throws RemoteException
+    {
+        synchronized (this)
+        {
+            this.pendingResults.put(result.values.replicationNumber, result);
+            while (this.pendingResults.containsKey(this.nextResultNumber))
+            {
+                ReplicationResult next = this.pendingResults.remove(this.nextResultNumber);
+                this.replicationValues.add(next.values);
+                this.publishableResults.add(next);
+                this.nextResultNumber++;
+            }
+            if (this.nextResultNumber >= this.replicationLimit)
+            {
+                extendReplicationLimit(); // the stopping rule tallies the summary statistics of the complete batch
+                notifyAll(); // wake up the workers that wait for the next batch
+            }
+            if (this.publishingResults)
+            {
+                return; // the worker that is publishing the results also publishes these results, in order
+            }
+            this.publishingResults = true;
+        }
+        publishResults();
+    }
+
+    /**
+     * Store the publishable results and fire their END_REPLICATION_EVENTs in the order of the replication numbers, till there
+     * are no more publishable results. Only one worker thread at a time publishes the results, and it does not hold the lock
+     * of the experiment while doing so, so listeners do not block the other workers.
+     * @throws RemoteException on network error for the listeners of the END_REPLICATION_EVENT
+     */
+    private void publishResults() throws RemoteException
+    {
+        boolean published = false;
+        try
+        {
+            while (true)
+            {
+                ReplicationResult next;
+                synchronized (this)
+                {
+                    next = this.publishableResults.poll();
+                    if (next == null)
+                    {
+                        published = true;
+                        this.publishingResults = false;
+                        return;
+                    }
+                }
+                storeResult(next.values);
+                fireEvent(next.event); // propagate the END_REPLICATION_EVENT from the experiment
+            }
+        }
+        finally
+        {
+            if (!published)
+            {
+                synchronized (this)
+                {
+                    this.publishingResults = false;
+                }
+            }
+        }
+    }
+
     /**
      * Start the next replication from the list of replications, or fire END_EXPERIMENT_EVENT when there are no more
      * non-executed replications.
@@ -191,8 +635,7 @@ public class Experiment<T extends Number & Comparable<T>, S extends SimulatorInt
         this.currentReplicationNumber++;
         ExperimentReplication<T, S> replication = makeExperimentReplication();
         this.startedReplications.add(replication);
-        this.streamUpdater.updateSeeds(this.model.getStreams(), this.currentReplicationNumber);
-        this.simulator.initialize(getModel(), replication);
+        this.replicationModel = initializeReplication(this.simulator, getModel(), replication);
         this.simulator.addListener(this, Replication.END_REPLICATION_EVENT, ReferenceType.STRONG);
         this.simulator.start();
     }
@@ -237,61 +680,149 @@ public class Experiment<T extends Number & Comparable<T>, S extends SimulatorInt
             replication.removeFromContext();
         }
         this.startedReplications.clear();
-        this.summaryStatistics = new TreeMap<>();
+        synchronized (this)
+        {
+            this.summaryStatistics = new TreeMap<>();
+            this.summarizedReplications = 0;
+            this.replicationValues = new ArrayList<>();
+        }
+        this.pendingResults = new TreeMap<>();
+        this.publishableResults = new ArrayDeque<>();
+        this.replicationModel = null;
+        this.summaryAccumulator = new SummaryAccumulator();
     }
 
     /**
-     * Create or update summary statistics for the experiment based on the statistics of the just completed replication.
+     * Add the statistics of the just completed replication to the summary accumulator and the replication values, from which
+     * the summary statistics are tallied on request.
      */
     protected void endReplication()
     {
-        for (SimulationStatistic<T> stat : this.model.getOutputStatistics())
+        ReplicationValues values = new ReplicationValues(this.currentReplicationNumber);
+        collectSummaryValues(this.replicationModel == null ? this.model : this.replicationModel, values);
+        values.addTo(this.summaryAccumulator);
+        synchronized (this)
+        {
+            this.replicationValues.add(values);
+        }
+        storeResult(values);
+    }
+
+    /**
+     * Append the summary values of a replication to the result store, when a result store has been set. An error is logged,
+     * and does not stop the experiment.
+     * @param values ReplicationValues; the summary values of the replication, of which the replication number is the row in
+     *            the result store
+     */
+    private void storeResult(final ReplicationValues values)
+    {
+        if (this.resultStore != null)
+        {
+            try
+            {
+                this.resultStore.append(values.replicationNumber, values.toSummaryValues());
+            }
+            catch (IOException | RuntimeException exception)
+            {
+                CategoryLogger.always().error(exception, "Cannot store the results of replication {} of experiment {}",
+                        values.replicationNumber, this.runControl.getId());
+            }
+        }
+    }
+
+    /**
+     * Set the store to which the summary values of every replication are appended as soon as the replication has ended, with
+     * the replication number as the row. The rows of the replications that are already in the store are skipped, so a store
+     * can be reused for an experiment that is restarted. The experiment does not close the store.
+     * @param resultStore ColumnarResultStore; the result store, or null to not store the summary values
+     * @throws IllegalStateException when the experiment is running
+     */
+    public void setResultStore(final ColumnarResultStore resultStore)
+    {
+        Throw.when(this.running, IllegalStateException.class, "cannot change the result store of a running experiment");
+        this.resultStore = resultStore;
+    }
+
+    /**
+     * Return the store to which the summary values of every replication are appended.
+     * @return ColumnarResultStore; the result store, or null when the summary values are not stored
+     */
+    public ColumnarResultStore getResultStore()
+    {
+        return this.resultStore;
+    }
+
+    /**
+     * Collect the values for the summary statistics from the statistics of a model of which the replication just completed.
+     * @param replicationModel DsolModel&lt;T, ?&gt;; the model of which the replication just completed
+     * @param <T> the time type
+     * @return List&lt;SummaryValue&gt;; the values for the summary statistics
+     */
+    static <T extends Number & Comparable<T>> List<SummaryValue> collectSummaryValues(final DsolModel<T, ?> replicationModel)
+    {
+        List<SummaryValue> values = new ArrayList<>();
+        collectSummaryValues(replicationModel,
+                (statistic, field, value) -> values.add(new SummaryValue(statistic, field.getName(), value)));
+        return values;
+    }
+
+    /**
+     * Pass the values for the summary statistics from the statistics of a model of which the replication just completed to a
+     * consumer, without creating objects for the values. The persistent statistics are ended at the current simulator time, so
+     * the values of a replication should be collected only once.
+     * @param replicationModel DsolModel&lt;T, ?&gt;; the model of which the replication just completed
+     * @param consumer SummaryValueConsumer; the consumer of the values
+     * @param <T> the time type
+     */
+    static <T extends Number & Comparable<T>> void collectSummaryValues(final DsolModel<T, ?> replicationModel,
+            final SummaryValueConsumer consumer)
+    {
+        for (SimulationStatistic<T> stat : replicationModel.getOutputStatistics())
         {
             if (stat instanceof SimCounter)
             {
                 SimCounter<T> counter = (SimCounter<T>) stat;
-                addSummaryStatistic(counter.getDescription(), "N", counter.getN());
-                addSummaryStatistic(counter.getDescription(), "Count", counter.getCount());
+                String name = counter.getDescription();
+                consumer.accept(name, SummaryField.N, counter.getN());
+                consumer.accept(name, SummaryField.COUNT, counter.getCount());
             }
             else if (stat instanceof SimTally)
             {
                 SimTally<T> tally = (SimTally<T>) stat;
-                addSummaryStatistic(tally.getDescription(), "N", tally.getN());
-                addSummaryStatistic(tally.getDescription(), "Max", tally.getMax());
-                addSummaryStatistic(tally.getDescription(), "Min", tally.getMin());
-                addSummaryStatistic(tally.getDescription(), "PopulationExcessKurtosis", tally.getPopulationExcessKurtosis());
-                addSummaryStatistic(tally.getDescription(), "PopulationKurtosis", tally.getPopulationKurtosis());
-                addSummaryStatistic(tally.getDescription(), "PopulationMean", tally.getPopulationMean());
-                addSummaryStatistic(tally.getDescription(), "PopulationSkewness", tally.getPopulationSkewness());
-                addSummaryStatistic(tally.getDescription(), "PopulationStDev", tally.getPopulationStDev());
-                addSummaryStatistic(tally.getDescription(), "PopulationVariance", tally.getPopulationVariance());
-                addSummaryStatistic(tally.getDescription(), "SampleExcessKurtosis", tally.getSampleExcessKurtosis());
-                addSummaryStatistic(tally.getDescription(), "SampleKurtosis", tally.getSampleKurtosis());
-                addSummaryStatistic(tally.getDescription(), "SampleMean", tally.getSampleMean());
-                addSummaryStatistic(tally.getDescription(), "SampleSkewness", tally.getSampleSkewness());
-                addSummaryStatistic(tally.getDescription(), "SampleStDev", tally.getSampleStDev());
-                addSummaryStatistic(tally.getDescription(), "SampleVariance", tally.getSampleVariance());
-                addSummaryStatistic(tally.getDescription(), "Sum", tally.getSum());
+                String name = tally.getDescription();
+                consumer.accept(name, SummaryField.N, tally.getN());
+                consumer.accept(name, SummaryField.MAX, tally.getMax());
+                consumer.accept(name, SummaryField.MIN, tally.getMin());
+                consumer.accept(name, SummaryField.POPULATION_EXCESS_KURTOSIS, tally.getPopulationExcessKurtosis());
+                consumer.accept(name, SummaryField.POPULATION_KURTOSIS, tally.getPopulationKurtosis());
+                consumer.accept(name, SummaryField.POPULATION_MEAN, tally.getPopulationMean());
+                consumer.accept(name, SummaryField.POPULATION_SKEWNESS, tally.getPopulationSkewness());
+                consumer.accept(name, SummaryField.POPULATION_STDEV, tally.getPopulationStDev());
+                consumer.accept(name, SummaryField.POPULATION_VARIANCE, tally.getPopulationVariance());
+                consumer.accept(name, SummaryField.SAMPLE_EXCESS_KURTOSIS, tally.getSampleExcessKurtosis());
+                consumer.accept(name, SummaryField.SAMPLE_KURTOSIS, tally.getSampleKurtosis());
+                consumer.accept(name, SummaryField.SAMPLE_MEAN, tally.getSampleMean());
+                consumer.accept(name, SummaryField.SAMPLE_SKEWNESS, tally.getSampleSkewness());
+                consumer.accept(name, SummaryField.SAMPLE_STDEV, tally.getSampleStDev());
+                consumer.accept(name, SummaryField.SAMPLE_VARIANCE, tally.getSampleVariance());
+                consumer.accept(name, SummaryField.SUM, tally.getSum());
             }
             else if (stat instanceof SimPersistent) // includes Utilization
             {
                 SimPersistent<T> persistent = (SimPersistent<T>) stat;
+                String name = persistent.getDescription();
                 // note that the last value has to be stored for the end simulation time, otherwise we have a 'gap' at the end
-                persistent.endObservations(this.simulator.getSimulatorTime());
-                addSummaryStatistic(persistent.getDescription(), "N", persistent.getN());
-                addSummaryStatistic(persistent.getDescription(), "Max", persistent.getMax());
-                addSummaryStatistic(persistent.getDescription(), "Min", persistent.getMin());
-                addSummaryStatistic(persistent.getDescription(), "WeightedPopulationMean",
-                        persistent.getWeightedPopulationMean());
-                addSummaryStatistic(persistent.getDescription(), "WeightedPopulationStDev",
-                        persistent.getWeightedPopulationStDev());
-                addSummaryStatistic(persistent.getDescription(), "WeightedPopulationVariance",
-                        persistent.getWeightedPopulationVariance());
-                addSummaryStatistic(persistent.getDescription(), "WeightedSampleMean", persistent.getWeightedSampleMean());
-                addSummaryStatistic(persistent.getDescription(), "WeightedSampleStDev", persistent.getWeightedSampleStDev());
-                addSummaryStatistic(persistent.getDescription(), "WeightedSampleVariance",
-                        persistent.getWeightedSampleVariance());
-                addSummaryStatistic(persistent.getDescription(), "WeightedSum", persistent.getWeightedSum());
+                persistent.endObservations(replicationModel.getSimulator().getSimulatorTime());
+                consumer.accept(name, SummaryField.N, persistent.getN());
+                consumer.accept(name, SummaryField.MAX, persistent.getMax());
+                consumer.accept(name, SummaryField.MIN, persistent.getMin());
+                consumer.accept(name, SummaryField.WEIGHTED_POPULATION_MEAN, persistent.getWeightedPopulationMean());
+                consumer.accept(name, SummaryField.WEIGHTED_POPULATION_STDEV, persistent.getWeightedPopulationStDev());
+                consumer.accept(name, SummaryField.WEIGHTED_POPULATION_VARIANCE, persistent.getWeightedPopulationVariance());
+                consumer.accept(name, SummaryField.WEIGHTED_SAMPLE_MEAN, persistent.getWeightedSampleMean());
+                consumer.accept(name, SummaryField.WEIGHTED_SAMPLE_STDEV, persistent.getWeightedSampleStDev());
+                consumer.accept(name, SummaryField.WEIGHTED_SAMPLE_VARIANCE, persistent.getWeightedSampleVariance());
+                consumer.accept(name, SummaryField.WEIGHTED_SUM, persistent.getWeightedSum());
             }
             else
             {
@@ -306,13 +837,26 @@ public class Experiment<T extends Number & Comparable<T>, S extends SimulatorInt
      * @param field String; the name of the field for the summary statistic
      * @param value double; the value to tally by the summary statistic
      */
-    protected void addSummaryStatistic(final String statistic, final String field, final double value)
+    protected synchronized void addSummaryStatistic(final String statistic, final String field, final double value)
+    {
+        addSummaryStatistic(getSummaryStatistics(), statistic, field, value);
+    }
+
+    /**
+     * Tally a value in a map of summary statistics, creating the tally when it does not exist yet. NaN values are not tallied.
+     * @param summaryStatistics SortedMap&lt;String, SortedMap&lt;String, Tally&gt;&gt;; the summary statistics
+     * @param statistic String; the name of the statistic
+     * @param field String; the name of the field for the summary statistic
+     * @param value double; the value to tally by the summary statistic
+     */
+    static void addSummaryStatistic(final SortedMap<String, SortedMap<String, Tally>> summaryStatistics,
+            final String statistic, final String field, final double value)
     {
-        SortedMap<String, Tally> fieldMap = this.summaryStatistics.get(statistic);
+        SortedMap<String, Tally> fieldMap = summaryStatistics.get(statistic);
         if (fieldMap == null)
         {
             fieldMap = new TreeMap<>();
-            this.summaryStatistics.put(statistic, fieldMap);
+            summaryStatistics.put(statistic, fieldMap);
         }
         Tally summaryTally = fieldMap.get(field);
         if (summaryTally == null)
@@ -333,14 +877,102 @@ public class Experiment<T extends Number & Comparable<T>, S extends SimulatorInt
      * several sub-maps, such as "N", "Population mean", "Population variance", "Min", "Max", etc. Each of these is a Tally for
      * which the final values of the replications for that value have been tallied. The "Population Mean" for "waiting time" in
      * this example therefore contains the average of the 10 average waiting times that have been alculated in the 10
-     * replications.
+     * replications. The values of the replications that have ended since the previous call are tallied when this method is
+     * called, in the order of the replication numbers, so a parallel run gives the same summary statistics as a sequential run.
      * @return summaryStatistics SortedMap&lt;String, SortedMap&lt;String, Tally&gt;&gt;; the summary statistics
      */
-    public SortedMap<String, SortedMap<String, Tally>> getSummaryStatistics()
+    public synchronized SortedMap<String, SortedMap<String, Tally>> getSummaryStatistics()
     {
+        while (this.summarizedReplications < this.replicationValues.size())
+        {
+            this.replicationValues.get(this.summarizedReplications++).addTo(this.summaryStatistics);
+        }
         return this.summaryStatistics;
     }
 
+    /**
+     * Return the primitive summary of the statistics over the replications, which contains the same values as the summary
+     * statistics. The worker threads of a parallel experiment fill their own accumulator without locking, and these are merged
+     * into this accumulator when the workers have ended, so during a parallel run it only contains the values of earlier runs.
+     * @return SummaryAccumulator; the primitive summary of the statistics over the replications
+     */
+    public SummaryAccumulator getSummaryAccumulator()
+    {
+        return this.summaryAccumulator;
+    }
+
+    /**
+     * Return the values of a summary statistic per replication.
+     * @param statistic String; the name of the statistic
+     * @param field String; the name of the field for the summary statistic, e.g., "SampleMean"
+     * @return double[]; the values indexed by replication number; NaN for replications without a value
+     * @throws IllegalArgumentException when there are no values for the statistic and field
+     */
+    public synchronized double[] getReplicationValues(final String statistic, final String field)
+    {
+        SummaryField summaryField = null;
+        for (SummaryField f : SummaryField.values())
+        {
+            if (f.getName().equals(field))
+            {
+                summaryField = f;
+            }
+        }
+        int length = 0;
+        for (ReplicationValues values : this.replicationValues)
+        {
+            if (summaryField != null && values.indexOf(statistic, summaryField) >= 0)
+            {
+                length = Math.max(length, values.replicationNumber + 1);
+            }
+        }
+        Throw.when(length == 0, IllegalArgumentException.class, "no replication values for statistic %s and field %s",
+                statistic, field);
+        double[] result = new double[length];
+        Arrays.fill(result, Double.NaN);
+        for (ReplicationValues values : this.replicationValues)
+        {
+            int index = values.indexOf(statistic, summaryField);
+            if (index >= 0)
+            {
+                result[values.replicationNumber] = values.getValue(index);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Compare a summary statistic of this experiment with that of another experiment, pairing the replications with the same
+     * replication number. The experiments should use common random numbers, e.g., with a CommonRandomNumbersUpdater, for the
+     * pairing to reduce the variance of the difference.
+     * @param other Experiment&lt;?, ?&gt;; the experiment to compare with
+     * @param statistic String; the name of the statistic
+     * @param field String; the name of the field for the summary statistic, e.g., "SampleMean"
+     * @return PairedComparison; the differences between this experiment and the other experiment, and the variance reduction
+     *         compared to independent sampling
+     * @throws IllegalArgumentException when one of the experiments has no values for the statistic and field
+     */
+    public PairedComparison comparePaired(final Experiment<?, ?> other, final String statistic, final String field)
+    {
+        Throw.whenNull(other, "other cannot be null");
+        return PairedComparison.difference(statistic, field, getReplicationValues(statistic, field),
+                other.getReplicationValues(statistic, field));
+    }
+
+    /**
+     * Summarize a summary statistic over the antithetic pairs of replications 2k and 2k+1 of this experiment, which should use
+     * an AntitheticStreamUpdater.
+     * @param statistic String; the name of the statistic
+     * @param field String; the name of the field for the summary statistic, e.g., "SampleMean"
+     * @return PairedComparison; the averages of the antithetic pairs, and the variance reduction compared to independent
+     *         sampling
+     * @throws IllegalArgumentException when there are no values for the statistic and field
+     */
+    public PairedComparison getAntitheticComparison(final String statistic, final String field)
+    {
+        return PairedComparison.antithetic(statistic, field, getReplicationValues(statistic, field));
+    }
+
     /**
      * Return the current (running or finished) replication.
      * @return int; the current replication (still running or finished in case of last replication)
@@ -462,7 +1094,11 @@ public class Experiment<T extends Number & Comparable<T>, S extends SimulatorInt
         {
             synchronized (this)
             {
-                while (this.experiment.getCurrentReplicationNumber() < this.experiment.getNumberOfReplications() - 1)
+                if (this.experiment.getModelFactory() != null)
+                {
+                    this.experiment.runParallel();
+                }
+                while (this.experiment.getModelFactory() == null && this.experiment.hasNextReplication())
                 {
                     try
                     {
@@ -485,4 +1121,215 @@ public class Experiment<T extends Number & Comparable<T>, S extends SimulatorInt
         }
 
     }
+
+    /**
+     * A value of a replication for a summary statistic.
+     */
+    static class SummaryValue
+    {
+        /** the name of the statistic. */
+        final String statistic;
+
+        /** the name of the field for the summary statistic. */
+        final String field;
+
+        /** the value to tally by the summary statistic. */
+        final double value;
+
+        /**
+         * @param statistic String; the name of the statistic
+         * @param field String; the name of the field for the summary statistic
+         * @param value double; the value to tally by the summary statistic
+         */
+        SummaryValue(final String statistic, final String field, final double value)
+        {
+            this.statistic = statistic;
+            this.field = field;
+            this.value = value;
+        }
+    }
+
+    /**
+     * The consumer of the values of a replication for the summary statistics.
+     */
+    @FunctionalInterface
+    interface SummaryValueConsumer
+    {
+        /**
+         * Accept a value of a replication for a summary statistic.
+         * @param statistic String; the name of the statistic
+         * @param field SummaryField; the field for the summary statistic
+         * @param value double; the value to summarize
+         */
+        void accept(String statistic, SummaryField field, double value);
+    }
+
+    /**
+     * The values of a replication for the summary statistics, stored in primitive arrays instead of an object per value. The
+     * values of a statistic are expected to be accepted consecutively, as collectSummaryValues() does.
+     */
+    static final class ReplicationValues implements SummaryValueConsumer
+    {
+        /** the number of fields per statistic. */
+        private static final int FIELDS = SummaryField.values().length;
+
+        /** the fields, indexed by their ordinal. */
+        private static final SummaryField[] FIELD_VALUES = SummaryField.values();
+
+        /** the replication number. */
+        final int replicationNumber;
+
+        /** the names of the statistics, in the order in which they were accepted. */
+        private final List<String> statistics = new ArrayList<>();
+
+        /** the name of the statistic that was accepted last. */
+        private String lastStatistic = null;
+
+        /** the cell of every value, which is the position of its statistic * FIELDS + the ordinal of its field. */
+        private int[] cells = new int[64];
+
+        /** the values, where NaN is a value that could not be calculated in the replication. */
+        private double[] values = new double[64];
+
+        /** the number of values. */
+        private int size = 0;
+
+        /**
+         * @param replicationNumber int; the replication number
+         */
+        ReplicationValues(final int replicationNumber)
+        {
+            this.replicationNumber = replicationNumber;
+        }
+
+        @Override
+        public void accept(final String statistic, final SummaryField field, final double value)
+        {
+            if (!statistic.equals(this.lastStatistic))
+            {
+                this.statistics.add(statistic);
+                this.lastStatistic = statistic;
+            }
+            if (this.size == this.values.length)
+            {
+                this.cells = Arrays.copyOf(this.cells, 2 * this.size);
+                this.values = Arrays.copyOf(this.values, 2 * this.size);
+            }
+            this.cells[this.size] = (this.statistics.size() - 1) * FIELDS + field.ordinal();
+            this.values[this.size++] = value;
+        }
+
+        /**
+         * Return the position of the last value of a field of a statistic.
+         * @param statistic String; the name of the statistic
+         * @param field SummaryField; the field
+         * @return int; the position of the value, or -1 when the replication has no value for the field of the statistic
+         */
+        int indexOf(final String statistic, final SummaryField field)
+        {
+            for (int i = this.size - 1; i >= 0; i--)
+            {
+                if (this.cells[i] % FIELDS == field.ordinal() && this.statistics.get(this.cells[i] / FIELDS).equals(statistic))
+                {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Return the value at a position.
+         * @param index int; the position of the value
+         * @return double; the value
+         */
+        double getValue(final int index)
+        {
+            return this.values[index];
+        }
+
+        /**
+         * Add the values to a summary accumulator.
+         * @param accumulator SummaryAccumulator; the accumulator
+         */
+        void addTo(final SummaryAccumulator accumulator)
+        {
+            for (int i = 0; i < this.size; i++)
+            {
+                accumulator.add(this.statistics.get(this.cells[i] / FIELDS), FIELD_VALUES[this.cells[i] % FIELDS],
+                        this.values[i]);
+            }
+        }
+
+        /**
+         * Tally the values in a map of summary statistics.
+         * @param summaryStatistics SortedMap&lt;String, SortedMap&lt;String, Tally&gt;&gt;; the summary statistics
+         */
+        void addTo(final SortedMap<String, SortedMap<String, Tally>> summaryStatistics)
+        {
+            for (int i = 0; i < this.size; i++)
+            {
+                addSummaryStatistic(summaryStatistics, this.statistics.get(this.cells[i] / FIELDS),
+                        FIELD_VALUES[this.cells[i] % FIELDS].getName(), this.values[i]);
+            }
+        }
+
+        /**
+         * Return the values as a list of summary values, e.g., to store them.
+         * @return List&lt;SummaryValue&gt;; the summary values
+         */
+        List<SummaryValue> toSummaryValues()
+        {
+            List<SummaryValue> summaryValues = new ArrayList<>(this.size);
+            for (int i = 0; i < this.size; i++)
+            {
+                summaryValues.add(new SummaryValue(this.statistics.get(this.cells[i] / FIELDS),
+                        FIELD_VALUES[this.cells[i] % FIELDS].getName(), this.values[i]));
+            }
+            return summaryValues;
+        }
+    }
+
+    /**
+     * The results of a replication of a parallel experiment.
+     */
+    private static class ReplicationResult
+    {
+        /** the values for the summary statistics. */
+        private final ReplicationValues values;
+
+        /** the END_REPLICATION_EVENT of the replication. */
+        private final Event event;
+
+        /**
+         * @param values ReplicationValues; the values for the summary statistics
+         * @param event Event; the END_REPLICATION_EVENT of the replication
+         */
+        ReplicationResult(final ReplicationValues values, final Event event)
+        {
+            this.values = values;
+            this.event = event;
+        }
+    }
+
+    /**
+     * The listener for the END_REPLICATION_EVENT of the simulator of a worker thread of a parallel experiment or a sweep.
+     */
+    static class ReplicationListener implements EventListener
+    {
+        /** */
+        private static final long serialVersionUID = 20240101L;
+
+        /** the latch that is released at the end of the replication. */
+        volatile CountDownLatch latch;
+
+        /** the END_REPLICATION_EVENT. */
+        volatile Event event;
+
+        @Override
+        public void notify(final Event endEvent) throws RemoteException
+        {
+            this.event = endEvent;
+            this.latch.countDown();
+        }
+    }
 }
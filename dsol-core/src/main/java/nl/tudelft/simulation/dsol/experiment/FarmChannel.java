@@ -0,0 +1,35 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Serializable;
+
+/**
+ * A FarmChannel is a two-way connection between the coordinator of a ReplicationFarm and one worker. The coordinator sends
+ * WorkUnits and receives WorkResults; a null message tells the worker that there is no more work. The channel is created by a
+ * FarmTransport, which determines how the messages are transported, e.g., over a socket.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public interface FarmChannel extends Closeable
+{
+    /**
+     * Send a message to the other side of the channel.
+     * @param message Serializable; the message to send, or null to signal that there is no more work
+     * @throws IOException when the message cannot be sent
+     */
+    void send(Serializable message) throws IOException;
+
+    /**
+     * Wait for the next message from the other side of the channel.
+     * @return Serializable; the received message, or null when there is no more work
+     * @throws IOException when no message can be received, e.g., because the other side closed the channel
+     */
+    Serializable receive() throws IOException;
+}
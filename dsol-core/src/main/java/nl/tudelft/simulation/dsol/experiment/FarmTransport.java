@@ -0,0 +1,28 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * A FarmTransport accepts the connections of the workers of a ReplicationFarm on the side of the coordinator. Every accepted
+ * connection is a FarmChannel to one worker. SocketFarmTransport is an implementation over TCP sockets; other transports, e.g.,
+ * over a message broker, can be plugged into the farm by implementing this interface and FarmChannel.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public interface FarmTransport extends Closeable
+{
+    /**
+     * Wait for the next worker to connect.
+     * @param timeoutMillis int; the maximum time to wait in milliseconds
+     * @return FarmChannel; the channel to the worker, or null when no worker connected within the timeout
+     * @throws IOException when the transport cannot accept connections
+     */
+    FarmChannel accept(int timeoutMillis) throws IOException;
+}
@@ -0,0 +1,60 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The FullFactorialDesign has a treatment for every combination of the levels of the factors. The last factor varies fastest.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public class FullFactorialDesign implements SweepDesign
+{
+    /** */
+    private static final long serialVersionUID = 20240101L;
+
+    @Override
+    public List<String[]> getTreatments(final List<SweepFactor> factors)
+    {
+        List<List<String>> levels = new ArrayList<>();
+        for (SweepFactor factor : factors)
+        {
+            levels.add(factor.getLevels());
+        }
+        List<String[]> treatments = new ArrayList<>();
+        int[] index = new int[factors.size()];
+        while (true)
+        {
+            String[] treatment = new String[factors.size()];
+            for (int f = 0; f < factors.size(); f++)
+            {
+                treatment[f] = levels.get(f).get(index[f]);
+            }
+            treatments.add(treatment);
+            // increase the mixed-radix index, the last factor first
+            int f = factors.size() - 1;
+            while (f >= 0 && ++index[f] == levels.get(f).size())
+            {
+                index[f] = 0;
+                f--;
+            }
+            if (f < 0)
+            {
+                return treatments;
+            }
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "FullFactorialDesign";
+    }
+
+}
@@ -0,0 +1,100 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.util.List;
+
+import org.djutils.exceptions.Throw;
+
+import nl.tudelft.simulation.jstats.streams.MersenneTwister;
+import nl.tudelft.simulation.jstats.streams.StreamInterface;
+
+/**
+ * The LatinHypercubeDesign draws a number of points in the unit hypercube, such that the interval [0, 1) of every factor is
+ * divided into as many equal strata as there are points, and every stratum contains exactly one point. The points are
+ * randomized with a MersenneTwister with a fixed seed, so the design is reproducible.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public class LatinHypercubeDesign implements SweepDesign
+{
+    /** */
+    private static final long serialVersionUID = 20240101L;
+
+    /** the number of points, which is the number of treatments. */
+    private final int numberOfPoints;
+
+    /** the seed of the random stream that places the points. */
+    private final long seed;
+
+    /**
+     * Construct a Latin hypercube design.
+     * @param numberOfPoints int; the number of points, which is the number of treatments
+     * @param seed long; the seed of the random stream that places the points
+     * @throws IllegalArgumentException when the number of points is less than 1
+     */
+    public LatinHypercubeDesign(final int numberOfPoints, final long seed)
+    {
+        Throw.when(numberOfPoints < 1, IllegalArgumentException.class, "numberOfPoints should be at least 1");
+        this.numberOfPoints = numberOfPoints;
+        this.seed = seed;
+    }
+
+    /**
+     * Return the points of the design in the unit hypercube.
+     * @param dimensions int; the number of factors
+     * @return double[][]; the points, indexed as [point][factor], with coordinates in [0, 1)
+     */
+    public double[][] getPoints(final int dimensions)
+    {
+        StreamInterface stream = new MersenneTwister(this.seed);
+        double[][] points = new double[this.numberOfPoints][dimensions];
+        int[] permutation = new int[this.numberOfPoints];
+        for (int d = 0; d < dimensions; d++)
+        {
+            // Fisher-Yates shuffle of the strata
+            for (int i = 0; i < this.numberOfPoints; i++)
+            {
+                permutation[i] = i;
+            }
+            for (int i = this.numberOfPoints - 1; i > 0; i--)
+            {
+                int j = stream.nextInt(0, i);
+                int swap = permutation[i];
+                permutation[i] = permutation[j];
+                permutation[j] = swap;
+            }
+            for (int i = 0; i < this.numberOfPoints; i++)
+            {
+                points[i][d] = (permutation[i] + stream.nextDouble()) / this.numberOfPoints;
+            }
+        }
+        return points;
+    }
+
+    @Override
+    public List<String[]> getTreatments(final List<SweepFactor> factors)
+    {
+        return SweepDesign.getTreatments(factors, getPoints(factors.size()));
+    }
+
+    /**
+     * Return the number of points.
+     * @return int; the number of points, which is the number of treatments
+     */
+    public int getNumberOfPoints()
+    {
+        return this.numberOfPoints;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "LatinHypercubeDesign[points=" + this.numberOfPoints + ", seed=" + this.seed + "]";
+    }
+
+}
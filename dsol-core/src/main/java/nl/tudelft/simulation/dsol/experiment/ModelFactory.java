@@ -0,0 +1,30 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import nl.tudelft.simulation.dsol.model.DsolModel;
+import nl.tudelft.simulation.dsol.simulators.SimulatorInterface;
+
+/**
+ * The ModelFactory creates a new model with its own simulator for each worker thread of an experiment that executes its
+ * replications in parallel. The models should be constructed in the same way as the model of the experiment, with streams that
+ * have the same original seeds, so the replications give the same results as in a sequential run of the experiment.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the time type
+ * @param <S> the simulator type
+ * @since 4.2.3
+ */
+@FunctionalInterface
+public interface ModelFactory<T extends Number & Comparable<T>, S extends SimulatorInterface<T>>
+{
+    /**
+     * Create a new model on a new simulator. The model is used for a number of consecutive replications by one worker thread.
+     * @param workerNumber int; the number of the worker thread, starting at 0, e.g., to give the simulator a unique id
+     * @return DsolModel&lt;T, ? extends S&gt;; a new model, of which getSimulator() returns a new simulator
+     */
+    DsolModel<T, ? extends S> createModel(int workerNumber);
+}
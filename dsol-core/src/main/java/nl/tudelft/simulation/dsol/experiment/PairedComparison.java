@@ -0,0 +1,246 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.io.Serializable;
+
+import org.djutils.exceptions.Throw;
+import org.djutils.stats.summarizers.Tally;
+
+/**
+ * PairedComparison summarizes a summary statistic over pairs of replications, and reports the variance reduction of the paired
+ * estimator compared to independent sampling. There are two kinds of pairs:
+ * <ul>
+ * <li>a difference pair compares two experiments that use common random numbers. The estimator is the difference X - Y of the
+ * replications with the same replication number, with variance Var(X) + Var(Y) - 2 Cov(X, Y), where independent sampling would
+ * give Var(X) + Var(Y).</li>
+ * <li>an antithetic pair averages replications 2k and 2k+1 of one experiment with antithetic streams. The estimator is the
+ * average (X + Y) / 2 with variance (Var(X) + Var(Y) + 2 Cov(X, Y)) / 4, where independent sampling would give (Var(X) +
+ * Var(Y)) / 4.</li>
+ * </ul>
+ * The variance reduction is 1 minus the ratio of these variances; it is positive when the pairing helps. Pairs for which one of
+ * the values is NaN are skipped.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public final class PairedComparison implements Serializable
+{
+    /** */
+    private static final long serialVersionUID = 20240101L;
+
+    /** the name of the statistic. */
+    private final String statistic;
+
+    /** the name of the field of the statistic. */
+    private final String field;
+
+    /** whether the pairs are antithetic pairs rather than difference pairs. */
+    private final boolean antithetic;
+
+    /** the tally of the paired estimator. */
+    private final Tally estimator;
+
+    /** the sample variance of the first values of the pairs. */
+    private final double firstVariance;
+
+    /** the sample variance of the second values of the pairs. */
+    private final double secondVariance;
+
+    /** the sample covariance of the values of the pairs. */
+    private final double covariance;
+
+    /**
+     * Construct a paired comparison; use the difference() or antithetic() factory methods.
+     * @param statistic String; the name of the statistic
+     * @param field String; the name of the field of the statistic
+     * @param first double[]; the first values of the pairs
+     * @param second double[]; the second values of the pairs
+     * @param antithetic boolean; whether the pairs are antithetic pairs rather than difference pairs
+     */
+    private PairedComparison(final String statistic, final String field, final double[] first, final double[] second,
+            final boolean antithetic)
+    {
+        this.statistic = statistic;
+        this.field = field;
+        this.antithetic = antithetic;
+        this.estimator = new Tally(statistic + "." + field + (antithetic ? " antithetic average" : " paired difference"));
+        int length = Math.min(first.length, second.length);
+        int n = 0;
+        double meanX = 0.0;
+        double meanY = 0.0;
+        double sxx = 0.0;
+        double syy = 0.0;
+        double sxy = 0.0;
+        for (int i = 0; i < length; i++)
+        {
+            double x = first[i];
+            double y = second[i];
+            if (Double.isNaN(x) || Double.isNaN(y))
+            {
+                continue;
+            }
+            this.estimator.register(antithetic ? (x + y) / 2.0 : x - y);
+            // Welford's co-moment update
+            n++;
+            double dx = x - meanX;
+            meanX += dx / n;
+            double dy = y - meanY;
+            meanY += dy / n;
+            sxx += dx * (x - meanX);
+            syy += dy * (y - meanY);
+            sxy += dx * (y - meanY);
+        }
+        this.firstVariance = n < 2 ? Double.NaN : sxx / (n - 1);
+        this.secondVariance = n < 2 ? Double.NaN : syy / (n - 1);
+        this.covariance = n < 2 ? Double.NaN : sxy / (n - 1);
+    }
+
+    /**
+     * Make a paired comparison of the differences between two experiments that use common random numbers. Value i of the
+     * first experiment is paired with value i of the second experiment.
+     * @param statistic String; the name of the statistic
+     * @param field String; the name of the field of the statistic
+     * @param first double[]; the values of the first experiment, per replication number
+     * @param second double[]; the values of the second experiment, per replication number
+     * @return PairedComparison; the paired comparison of the differences
+     * @throws NullPointerException when one of the arguments is null
+     */
+    public static PairedComparison difference(final String statistic, final String field, final double[] first,
+            final double[] second)
+    {
+        Throw.whenNull(statistic, "statistic cannot be null");
+        Throw.whenNull(field, "field cannot be null");
+        Throw.whenNull(first, "first cannot be null");
+        Throw.whenNull(second, "second cannot be null");
+        return new PairedComparison(statistic, field, first, second, false);
+    }
+
+    /**
+     * Make a paired comparison of the averages of antithetic pairs in one experiment. Value 2k is paired with value 2k+1; an
+     * unpaired last value is skipped.
+     * @param statistic String; the name of the statistic
+     * @param field String; the name of the field of the statistic
+     * @param values double[]; the values of the experiment, per replication number
+     * @return PairedComparison; the paired comparison of the antithetic averages
+     * @throws NullPointerException when one of the arguments is null
+     */
+    public static PairedComparison antithetic(final String statistic, final String field, final double[] values)
+    {
+        Throw.whenNull(statistic, "statistic cannot be null");
+        Throw.whenNull(field, "field cannot be null");
+        Throw.whenNull(values, "values cannot be null");
+        double[] first = new double[values.length / 2];
+        double[] second = new double[values.length / 2];
+        for (int k = 0; k < first.length; k++)
+        {
+            first[k] = values[2 * k];
+            second[k] = values[2 * k + 1];
+        }
+        return new PairedComparison(statistic, field, first, second, true);
+    }
+
+    /**
+     * Return the name of the statistic.
+     * @return String; the name of the statistic
+     */
+    public String getStatistic()
+    {
+        return this.statistic;
+    }
+
+    /**
+     * Return the name of the field of the statistic.
+     * @return String; the name of the field of the statistic
+     */
+    public String getField()
+    {
+        return this.field;
+    }
+
+    /**
+     * Return whether the pairs are antithetic pairs rather than difference pairs.
+     * @return boolean; true for antithetic averages, false for differences between experiments
+     */
+    public boolean isAntithetic()
+    {
+        return this.antithetic;
+    }
+
+    /**
+     * Return the number of pairs.
+     * @return long; the number of pairs without NaN values
+     */
+    public long getNumberOfPairs()
+    {
+        return this.estimator.getN();
+    }
+
+    /**
+     * Return the tally of the paired estimator, i.e., of the differences or of the antithetic averages.
+     * @return Tally; the tally of the paired estimator, e.g., to calculate a confidence interval
+     */
+    public Tally getEstimator()
+    {
+        return this.estimator;
+    }
+
+    /**
+     * Return the mean of the paired estimator.
+     * @return double; the mean difference, or the mean of the antithetic averages
+     */
+    public double getMean()
+    {
+        return this.estimator.getSampleMean();
+    }
+
+    /**
+     * Return the sample variance of the paired estimator.
+     * @return double; the variance of one difference or antithetic average, or NaN for less than 2 pairs
+     */
+    public double getPairedVariance()
+    {
+        return this.estimator.getSampleVariance();
+    }
+
+    /**
+     * Return the variance that the estimator would have with independent sampling, i.e., without the covariance of the pairs.
+     * @return double; the variance with independent sampling, or NaN for less than 2 pairs
+     */
+    public double getIndependentVariance()
+    {
+        double sum = this.firstVariance + this.secondVariance;
+        return this.antithetic ? sum / 4.0 : sum;
+    }
+
+    /**
+     * Return the sample correlation between the values of the pairs.
+     * @return double; the correlation, or NaN for less than 2 pairs or values without variance
+     */
+    public double getCorrelation()
+    {
+        return this.covariance / Math.sqrt(this.firstVariance * this.secondVariance);
+    }
+
+    /**
+     * Return the variance reduction of the paired estimator compared to independent sampling.
+     * @return double; 1 - paired variance / independent variance, e.g., 0.75 when pairing needs a quarter of the
+     *         replications for the same precision; negative when pairing increases the variance
+     */
+    public double getVarianceReduction()
+    {
+        return 1.0 - getPairedVariance() / getIndependentVariance();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "PairedComparison[" + this.statistic + "." + this.field + (this.antithetic ? ", antithetic" : ", difference")
+                + ", pairs=" + getNumberOfPairs() + ", mean=" + getMean() + ", pairedVariance=" + getPairedVariance()
+                + ", independentVariance=" + getIndependentVariance() + ", varianceReduction=" + getVarianceReduction() + "]";
+    }
+
+}
@@ -0,0 +1,673 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+import java.util.TreeMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.djutils.event.reference.ReferenceType;
+import org.djutils.exceptions.Throw;
+import org.djutils.stats.summarizers.Tally;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Experiment.ReplicationListener;
+import nl.tudelft.simulation.dsol.experiment.Experiment.SummaryValue;
+import nl.tudelft.simulation.dsol.model.DsolModel;
+import nl.tudelft.simulation.dsol.model.inputparameters.InputParameter;
+import nl.tudelft.simulation.dsol.model.inputparameters.InputParameterException;
+import nl.tudelft.simulation.dsol.model.inputparameters.InputParameterInteger;
+import nl.tudelft.simulation.dsol.model.inputparameters.InputParameterLong;
+import nl.tudelft.simulation.dsol.model.inputparameters.InputParameterMap;
+import nl.tudelft.simulation.dsol.model.inputparameters.reader.ReadInputParameters;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+import nl.tudelft.simulation.dsol.simulators.SimulatorInterface;
+
+/**
+ * The ParameterSweep executes a design of experiments over the input parameters of a model. The SweepDesign determines the
+ * treatments, i.e., the values of the SweepFactors, and every treatment is replicated a number of times. All (treatment,
+ * replication) cells are executed on a pool of worker threads, each with its own model and simulator, created by a
+ * ModelFactory. Before a cell is executed, the values of the treatment are set in the InputParameterMap of the model of the
+ * worker with ReadInputParameters.setParameter(), and the seeds of the streams are updated for the replication number, so all
+ * treatments use common random numbers.
+ * <p>
+ * The summary values of every cell are appended to an output file as soon as the cell completes, one line per cell. When the
+ * output file already exists, e.g., because an earlier run of the same sweep was interrupted, the completed cells are read from
+ * the file and only the remaining cells are executed. The summary statistics per treatment are merged in the order of the
+ * cells, so they are the same for an interrupted and an uninterrupted sweep.
+ * </p>
+ * <p>
+ * The output file is a tab-separated text file. It starts with comment lines, starting with '#', that describe the sweep and
+ * the treatments; a resumed sweep checks that these lines are the same. Every cell has a line with the treatment number, the
+ * replication number, and a (statistic, field, value) triple for each summary value.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the time type
+ * @param <S> the simulator type
+ * @since 4.2.3
+ */
+public class ParameterSweep<T extends Number & Comparable<T>, S extends SimulatorInterface<T>>
+{
+    /** the id of the sweep. */
+    private final String id;
+
+    /** the input parameter map against which the factors are checked. */
+    private final InputParameterMap inputParameterMap;
+
+    /** the design that determines the treatments. */
+    private final SweepDesign design;
+
+    /** the run control with the start time, warmup time, end time and number of replications per treatment. */
+    private final ExperimentRunControl<T> runControl;
+
+    /** the factory for the models of the worker threads. */
+    private final ModelFactory<T, S> modelFactory;
+
+    /** the factors of the sweep. */
+    private final List<SweepFactor> factors = new ArrayList<>();
+
+    /** the number of worker threads. */
+    private int numberOfThreads = 1;
+
+    /** the file to which the results of the cells are written, or null when the results are only kept in memory. */
+    private Path outputFile = null;
+
+    /** the class that updates the seeds of the streams for the replication number. */
+    private StreamUpdater streamUpdater = new SimpleStreamUpdater();
+
+    /** the treatments of the current run. */
+    private List<String[]> treatments = null;
+
+    /** the summary statistics per treatment. */
+    private List<SortedMap<String, SortedMap<String, Tally>>> summaryStatistics = new ArrayList<>();
+
+    /** the cells of which the results are known, read from the output file or executed. */
+    private BitSet completedCells = new BitSet();
+
+    /** the cells that have been claimed by a worker or that are completed. */
+    private BitSet claimedCells = new BitSet();
+
+    /** the results of cells that cannot be merged into the summary statistics yet, sorted on cell number. */
+    private SortedMap<Integer, List<SummaryValue>> pendingResults = new TreeMap<>();
+
+    /** the number of the next cell of which the results are merged into the summary statistics. */
+    private int nextMergeCell = 0;
+
+    /** the number of cells that have been executed in the current run, excluding the cells read from the output file. */
+    private int executedCells = 0;
+
+    /** the writer for the output file. */
+    private BufferedWriter writer = null;
+
+    /** the store to which the summary values of every cell are appended in the order of the cells, or null. */
+    private ColumnarResultStore resultStore = null;
+
+    /** whether the sweep is running. */
+    private boolean running = false;
+
+    /** whether a cell has failed. */
+    private volatile boolean failure = false;
+
+    /**
+     * Construct a parameter sweep.
+     * @param id String; the id of the sweep, used in the ids of the replications
+     * @param inputParameterMap InputParameterMap; the input parameter map of the model, against which the factors are checked
+     * @param design SweepDesign; the design that determines the treatments
+     * @param runControl ExperimentRunControl&lt;T&gt;; the start time, warmup time and end time of the replications, and the
+     *            number of replications per treatment
+     * @param modelFactory ModelFactory&lt;T, S&gt;; the factory for the models of the worker threads
+     * @throws NullPointerException when one of the arguments is null
+     */
+    public ParameterSweep(final String id, final InputParameterMap inputParameterMap, final SweepDesign design,
+            final ExperimentRunControl<T> runControl, final ModelFactory<T, S> modelFactory)
+    {
+        Throw.whenNull(id, "id cannot be null");
+        Throw.whenNull(inputParameterMap, "inputParameterMap cannot be null");
+        Throw.whenNull(design, "design cannot be null");
+        Throw.whenNull(runControl, "runControl cannot be null");
+        Throw.whenNull(modelFactory, "modelFactory cannot be null");
+        this.id = id;
+        this.inputParameterMap = inputParameterMap;
+        this.design = design;
+        this.runControl = runControl;
+        this.modelFactory = modelFactory;
+    }
+
+    /**
+     * Add a factor to the sweep. The values of a range factor are rounded to whole numbers when the input parameter is an
+     * InputParameterInteger or InputParameterLong.
+     * @param factor SweepFactor; the factor to add
+     * @throws InputParameterException when the key of the factor does not exist in the input parameter map
+     * @throws IllegalStateException when the sweep is running
+     */
+    public synchronized void addFactor(final SweepFactor factor) throws InputParameterException
+    {
+        Throw.whenNull(factor, "factor cannot be null");
+        Throw.when(this.running, IllegalStateException.class, "cannot add a factor to a running sweep");
+        InputParameter<?, ?> parameter = this.inputParameterMap.get(factor.getKey());
+        factor.setInteger(parameter instanceof InputParameterInteger || parameter instanceof InputParameterLong);
+        this.factors.add(factor);
+    }
+
+    /**
+     * Set the number of worker threads.
+     * @param numberOfThreads int; the maximum number of cells that are executed at the same time
+     * @throws IllegalArgumentException when the number of threads is zero or negative
+     * @throws IllegalStateException when the sweep is running
+     */
+    public synchronized void setNumberOfThreads(final int numberOfThreads)
+    {
+        Throw.when(numberOfThreads < 1, IllegalArgumentException.class, "number of threads should be at least 1");
+        Throw.when(this.running, IllegalStateException.class, "cannot change the number of threads of a running sweep");
+        this.numberOfThreads = numberOfThreads;
+    }
+
+    /**
+     * Set the file to which the results of the cells are written. When the file exists, a run of the sweep resumes from the
+     * cells in the file.
+     * @param outputFile Path; the output file, or null to keep the results only in memory
+     * @throws IllegalStateException when the sweep is running
+     */
+    public synchronized void setOutputFile(final Path outputFile)
+    {
+        Throw.when(this.running, IllegalStateException.class, "cannot change the output file of a running sweep");
+        this.outputFile = outputFile;
+    }
+
+    /**
+     * Set the store to which the summary values of every cell are appended, with the cell number, treatment *
+     * numberOfReplications + replicationNumber, as the row. The cells are appended in the order of the cells, when they are
+     * merged into the summary statistics; the cells that are already in the store are skipped, so the store of an interrupted
+     * sweep can be used to resume it, together with its output file. The sweep does not close the store.
+     * @param resultStore ColumnarResultStore; the result store, or null to not store the summary values
+     * @throws IllegalStateException when the sweep is running
+     */
+    public synchronized void setResultStore(final ColumnarResultStore resultStore)
+    {
+        Throw.when(this.running, IllegalStateException.class, "cannot change the result store of a running sweep");
+        this.resultStore = resultStore;
+    }
+
+    /**
+     * Return the store to which the summary values of every cell are appended.
+     * @return ColumnarResultStore; the result store, or null when the summary values are not stored
+     */
+    public ColumnarResultStore getResultStore()
+    {
+        return this.resultStore;
+    }
+
+    /**
+     * Set the class that updates the seeds of the streams for the replication number.
+     * @param streamUpdater StreamUpdater; the class that updates the seeds of the streams
+     * @throws IllegalStateException when the sweep is running
+     */
+    public synchronized void setStreamUpdater(final StreamUpdater streamUpdater)
+    {
+        Throw.whenNull(streamUpdater, "streamUpdater cannot be null");
+        Throw.when(this.running, IllegalStateException.class, "cannot change the stream updater of a running sweep");
+        this.streamUpdater = streamUpdater;
+    }
+
+    /**
+     * Execute all cells of the sweep that have not been completed, and wait till they have been executed. The results of an
+     * earlier run are read from the output file, when it exists.
+     * @throws IOException when the output file cannot be read or written, or belongs to another sweep
+     * @throws SimRuntimeException when a cell could not be executed; the completed cells remain in the output file
+     * @throws IllegalStateException when the sweep is already running, or when it has no factors
+     */
+    public void run() throws IOException, SimRuntimeException
+    {
+        synchronized (this)
+        {
+            Throw.when(this.running, IllegalStateException.class, "the sweep is already running");
+            Throw.when(this.factors.isEmpty(), IllegalStateException.class, "the sweep has no factors");
+            this.running = true;
+            this.failure = false;
+            this.treatments = this.design.getTreatments(this.factors);
+            this.summaryStatistics = new ArrayList<>();
+            for (int t = 0; t < this.treatments.size(); t++)
+            {
+                this.summaryStatistics.add(new TreeMap<>());
+            }
+            this.completedCells = new BitSet();
+            this.claimedCells = new BitSet();
+            this.pendingResults = new TreeMap<>();
+            this.nextMergeCell = 0;
+            this.executedCells = 0;
+        }
+        Throwable cause = null;
+        try
+        {
+            openOutputFile();
+            int threads = Math.min(this.numberOfThreads, getNumberOfCells() - this.completedCells.cardinality());
+            if (threads > 0)
+            {
+                ExecutorService executor = Executors.newFixedThreadPool(threads);
+                List<Future<Void>> futures = new ArrayList<>();
+                for (int w = 0; w < threads; w++)
+                {
+                    final int workerNumber = w;
+                    futures.add(executor.submit(() ->
+                    {
+                        runCells(workerNumber);
+                        return null;
+                    }));
+                }
+                executor.shutdown();
+                for (Future<Void> future : futures)
+                {
+                    try
+                    {
+                        future.get();
+                    }
+                    catch (ExecutionException exception)
+                    {
+                        cause = cause == null ? exception.getCause() : cause;
+                    }
+                    catch (InterruptedException exception)
+                    {
+                        this.failure = true;
+                        cause = cause == null ? exception : cause;
+                    }
+                }
+            }
+        }
+        finally
+        {
+            synchronized (this)
+            {
+                if (this.writer != null)
+                {
+                    this.writer.close();
+                    this.writer = null;
+                }
+                this.running = false;
+            }
+        }
+        if (cause != null)
+        {
+            throw new SimRuntimeException("ParameterSweep " + this.id + " failed", cause);
+        }
+    }
+
+    /**
+     * Execute cells on a new model and simulator till there are no more cells to execute.
+     * @param workerNumber int; the number of the worker thread
+     * @throws Exception when a cell could not be executed
+     */
+    private void runCells(final int workerNumber) throws Exception
+    {
+        DsolModel<T, ? extends S> workerModel = this.modelFactory.createModel(workerNumber);
+        S workerSimulator = workerModel.getSimulator();
+        ReplicationListener listener = new ReplicationListener();
+        int replications = this.runControl.getNumberOfReplications();
+        try
+        {
+            for (int cell = claimCell(); cell >= 0; cell = claimCell())
+            {
+                int treatment = cell / replications;
+                int replicationNumber = cell % replications;
+                String[] values = this.treatments.get(treatment);
+                for (int f = 0; f < this.factors.size(); f++)
+                {
+                    ReadInputParameters.setParameter(workerModel.getInputParameterMap().get(this.factors.get(f).getKey()),
+                            values[f]);
+                }
+                this.streamUpdater.updateSeeds(workerModel.getStreams(), replicationNumber);
+                T startTime = this.runControl.getStartTime();
+                SingleReplication<T> replication = new SingleReplication<T>(
+                        this.id + ".t" + treatment + ".r" + replicationNumber, startTime,
+                        SimTime.minus(this.runControl.getWarmupTime(), startTime),
+                        SimTime.minus(this.runControl.getEndTime(), startTime));
+                try
+                {
+                    listener.latch = new CountDownLatch(1);
+                    workerSimulator.initialize(workerModel, replication);
+                    // initialize() removes the listeners of the previous replication
+                    workerSimulator.addListener(listener, Replication.END_REPLICATION_EVENT, ReferenceType.STRONG);
+                    workerSimulator.start();
+                    listener.latch.await();
+                    addResult(cell, Experiment.collectSummaryValues(workerModel));
+                }
+                finally
+                {
+                    replication.removeFromContext();
+                }
+            }
+        }
+        catch (Exception exception)
+        {
+            this.failure = true;
+            throw exception;
+        }
+        finally
+        {
+            workerSimulator.removeListener(listener, Replication.END_REPLICATION_EVENT);
+            if (workerSimulator.getReplication() != null)
+            {
+                // stop the worker thread of the simulator; it has none when no replication has been initialized
+                workerSimulator.cleanUp();
+            }
+        }
+    }
+
+    /**
+     * Claim the next cell that has not been claimed or completed.
+     * @return int; the number of the cell, or -1 when there are no more cells, or when a cell has failed
+     */
+    private synchronized int claimCell()
+    {
+        int cell = this.claimedCells.nextClearBit(0);
+        if (this.failure || cell >= getNumberOfCells())
+        {
+            return -1;
+        }
+        this.claimedCells.set(cell);
+        return cell;
+    }
+
+    /**
+     * Write the results of a cell to the output file, and merge the results that are next in the order of the cells into the
+     * summary statistics of their treatments.
+     * @param cell int; the number of the cell
+     * @param values List&lt;SummaryValue&gt;; the summary values of the cell
+     * @throws IOException when the output file cannot be written
+     */
+    private synchronized void addResult(final int cell, final List<SummaryValue> values) throws IOException
+    {
+        if (this.writer != null)
+        {
+            int replications = this.runControl.getNumberOfReplications();
+            StringBuilder line = new StringBuilder();
+            line.append(cell / replications).append('\t').append(cell % replications);
+            for (SummaryValue value : values)
+            {
+                line.append('\t').append(clean(value.statistic)).append('\t').append(clean(value.field)).append('\t')
+                        .append(value.value);
+            }
+            this.writer.write(line.toString());
+            this.writer.newLine();
+            this.writer.flush();
+        }
+        this.executedCells++;
+        complete(cell, values);
+    }
+
+    /**
+     * Register a completed cell, and merge the results that are next in the order of the cells into the summary statistics and
+     * the result store.
+     * @param cell int; the number of the cell
+     * @param values List&lt;SummaryValue&gt;; the summary values of the cell
+     * @throws IOException when the result store cannot be written
+     */
+    private void complete(final int cell, final List<SummaryValue> values) throws IOException
+    {
+        this.completedCells.set(cell);
+        this.claimedCells.set(cell);
+        this.pendingResults.put(cell, values);
+        int replications = this.runControl.getNumberOfReplications();
+        while (this.pendingResults.containsKey(this.nextMergeCell))
+        {
+            SortedMap<String, SortedMap<String, Tally>> statistics =
+                    this.summaryStatistics.get(this.nextMergeCell / replications);
+            List<SummaryValue> cellValues = this.pendingResults.remove(this.nextMergeCell);
+            for (SummaryValue value : cellValues)
+            {
+                Experiment.addSummaryStatistic(statistics, value.statistic, value.field, value.value);
+            }
+            if (this.resultStore != null)
+            {
+                this.resultStore.append(this.nextMergeCell, cellValues);
+            }
+            this.nextMergeCell++;
+        }
+    }
+
+    /**
+     * Open the output file. When the file exists, check that it belongs to this sweep, read the completed cells, and remove a
+     * partially written last line. Otherwise, create the file and write the header.
+     * @throws IOException when the output file cannot be read or written, or belongs to another sweep
+     */
+    private void openOutputFile() throws IOException
+    {
+        if (this.outputFile == null)
+        {
+            return;
+        }
+        List<String> header = makeHeader();
+        if (Files.exists(this.outputFile))
+        {
+            String content = new String(Files.readAllBytes(this.outputFile), StandardCharsets.UTF_8);
+            // only lines that end with a newline are complete
+            int length = content.lastIndexOf('\n') + 1;
+            String[] lines = content.substring(0, length).split("\\r?\\n");
+            int lineNumber = 0;
+            for (String expected : header)
+            {
+                if (lineNumber >= lines.length || !lines[lineNumber].equals(expected))
+                {
+                    throw new IOException("Output file " + this.outputFile + " does not belong to sweep " + this.id
+                            + "; expected header line: " + expected);
+                }
+                lineNumber++;
+            }
+            synchronized (this)
+            {
+                for (; lineNumber < lines.length; lineNumber++)
+                {
+                    if (!lines[lineNumber].isEmpty())
+                    {
+                        readCell(lines[lineNumber]);
+                    }
+                }
+            }
+            try (FileChannel channel = FileChannel.open(this.outputFile, StandardOpenOption.WRITE))
+            {
+                channel.truncate(content.substring(0, length).getBytes(StandardCharsets.UTF_8).length);
+            }
+            this.writer = Files.newBufferedWriter(this.outputFile, StandardCharsets.UTF_8, StandardOpenOption.APPEND);
+        }
+        else
+        {
+            this.writer = Files.newBufferedWriter(this.outputFile, StandardCharsets.UTF_8);
+            for (String line : header)
+            {
+                this.writer.write(line);
+                this.writer.newLine();
+            }
+            this.writer.flush();
+        }
+    }
+
+    /**
+     * Read the results of a completed cell from a line of the output file.
+     * @param line String; the line of the output file
+     * @throws IOException when the line cannot be parsed
+     */
+    private void readCell(final String line) throws IOException
+    {
+        String[] parts = line.split("\t", -1);
+        try
+        {
+            Throw.when(parts.length < 2 || (parts.length - 2) % 3 != 0, IllegalArgumentException.class,
+                    "wrong number of fields");
+            int treatment = Integer.parseInt(parts[0]);
+            int replicationNumber = Integer.parseInt(parts[1]);
+            int replications = this.runControl.getNumberOfReplications();
+            Throw.when(treatment < 0 || treatment >= this.treatments.size() || replicationNumber < 0
+                    || replicationNumber >= replications, IllegalArgumentException.class, "cell out of range");
+            int cell = treatment * replications + replicationNumber;
+            if (this.completedCells.get(cell))
+            {
+                return; // a cell that was written twice has the same results
+            }
+            List<SummaryValue> values = new ArrayList<>();
+            for (int i = 2; i < parts.length; i += 3)
+            {
+                values.add(new SummaryValue(parts[i], parts[i + 1], Double.parseDouble(parts[i + 2])));
+            }
+            complete(cell, values);
+        }
+        catch (IllegalArgumentException exception)
+        {
+            throw new IOException("Output file " + this.outputFile + " has an illegal line: " + line, exception);
+        }
+    }
+
+    /**
+     * Make the header lines of the output file, which describe the sweep and the treatments.
+     * @return List&lt;String&gt;; the header lines
+     */
+    private List<String> makeHeader()
+    {
+        List<String> header = new ArrayList<>();
+        header.add("# ParameterSweep\t" + clean(this.id) + "\t" + clean(this.design.toString()));
+        header.add("# run\t" + this.runControl.getStartTime() + "\t" + this.runControl.getWarmupTime() + "\t"
+                + this.runControl.getEndTime() + "\t" + this.runControl.getNumberOfReplications());
+        StringBuilder keys = new StringBuilder("# factors");
+        for (SweepFactor factor : this.factors)
+        {
+            keys.append('\t').append(clean(factor.getKey()));
+        }
+        header.add(keys.toString());
+        for (int t = 0; t < this.treatments.size(); t++)
+        {
+            StringBuilder treatment = new StringBuilder("# treatment\t" + t);
+            for (String value : this.treatments.get(t))
+            {
+                treatment.append('\t').append(clean(value));
+            }
+            header.add(treatment.toString());
+        }
+        return header;
+    }
+
+    /**
+     * Replace the tabs and line breaks in a string for the output file by spaces.
+     * @param text String; the text
+     * @return String; the text without tabs and line breaks
+     */
+    private static String clean(final String text)
+    {
+        return text.replace('\t', ' ').replace('\n', ' ').replace('\r', ' ');
+    }
+
+    /**
+     * Return the number of (treatment, replication) cells of the sweep.
+     * @return int; the number of cells, or 0 when the sweep has not been run
+     */
+    public synchronized int getNumberOfCells()
+    {
+        return this.treatments == null ? 0 : this.treatments.size() * this.runControl.getNumberOfReplications();
+    }
+
+    /**
+     * Return the number of cells of which the results are known, including the cells read from the output file.
+     * @return int; the number of completed cells
+     */
+    public synchronized int getNumberOfCompletedCells()
+    {
+        return this.completedCells.cardinality();
+    }
+
+    /**
+     * Return the number of cells that have been executed in the last run, excluding the cells read from the output file.
+     * @return int; the number of cells that have been executed in the last run
+     */
+    public synchronized int getNumberOfExecutedCells()
+    {
+        return this.executedCells;
+    }
+
+    /**
+     * Return the treatments of the last run.
+     * @return List&lt;String[]&gt;; the values of the factors per treatment, or an empty list when the sweep has not been run
+     */
+    public synchronized List<String[]> getTreatments()
+    {
+        return this.treatments == null ? Collections.emptyList() : Collections.unmodifiableList(this.treatments);
+    }
+
+    /**
+     * Return the summary statistics of a treatment, in the same format as the summary statistics of an Experiment.
+     * @param treatment int; the number of the treatment
+     * @return SortedMap&lt;String, SortedMap&lt;String, Tally&gt;&gt;; the summary statistics of the treatment
+     * @throws IndexOutOfBoundsException when the treatment does not exist
+     */
+    public synchronized SortedMap<String, SortedMap<String, Tally>> getSummaryStatistics(final int treatment)
+    {
+        return this.summaryStatistics.get(treatment);
+    }
+
+    /**
+     * Return the factors of the sweep.
+     * @return List&lt;SweepFactor&gt;; an unmodifiable list of the factors
+     */
+    public List<SweepFactor> getFactors()
+    {
+        return Collections.unmodifiableList(this.factors);
+    }
+
+    /**
+     * Return the design of the sweep.
+     * @return SweepDesign; the design that determines the treatments
+     */
+    public SweepDesign getDesign()
+    {
+        return this.design;
+    }
+
+    /**
+     * Return the number of worker threads.
+     * @return int; the maximum number of cells that are executed at the same time
+     */
+    public int getNumberOfThreads()
+    {
+        return this.numberOfThreads;
+    }
+
+    /**
+     * Return the output file.
+     * @return Path; the file to which the results of the cells are written, or null
+     */
+    public Path getOutputFile()
+    {
+        return this.outputFile;
+    }
+
+    /**
+     * Return whether the sweep is running.
+     * @return boolean; whether the sweep is running
+     */
+    public synchronized boolean isRunning()
+    {
+        return this.running;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ParameterSweep[" + this.id + "; " + this.design + "; factors=" + this.factors.size() + "]";
+    }
+
+}
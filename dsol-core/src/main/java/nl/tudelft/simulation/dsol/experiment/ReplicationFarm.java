@@ -0,0 +1,466 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.io.IOException;
+import java.io.Serializable;
+import java.net.SocketTimeoutException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.djutils.exceptions.Throw;
+import org.djutils.logger.CategoryLogger;
+import org.djutils.stats.summarizers.Tally;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Experiment.SummaryValue;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+import nl.tudelft.simulation.jstats.streams.StreamInterface;
+
+/**
+ * The ReplicationFarm is the coordinator that executes the replications of one or more treatments on workers in other JVMs, on
+ * the same host or on other hosts. Every (treatment, replication) combination is a WorkUnit with the values of the input
+ * parameters of the treatment and the seeds of the streams for the replication; the workers execute the work units on their own
+ * model, and return the summary values as a WorkResult. The workers connect to the coordinator through a FarmTransport, e.g.,
+ * a SocketFarmTransport, and can be started with ReplicationFarmWorker.fork() or ReplicationFarmWorker.main().
+ * <p>
+ * The run control determines the start time, warmup period, run length and number of replications. The seeds are calculated
+ * by the coordinator, by applying the StreamUpdater to a set of streams with the same original seeds as the streams of the
+ * models of the workers, so every treatment uses the same seeds for the same replication number, and the results are the same
+ * as in a sequential Experiment with the same stream updater. The summary statistics per treatment are merged in the order of
+ * the replication numbers. When a worker disconnects, or does not reply within the read timeout of the transport, its work unit
+ * is given to another worker; a replication that fails with an error fails the farm.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the time type
+ * @since 4.2.3
+ */
+public class ReplicationFarm<T extends Number & Comparable<T>>
+{
+    /** the maximum number of times that a work unit is handed out, when the workers that execute it disconnect. */
+    private static final int MAX_ATTEMPTS = 3;
+
+    /** the time in milliseconds to wait for a worker, before checking whether the farm is done. */
+    private static final int ACCEPT_TIMEOUT = 100;
+
+    /** the run control with the times and the number of replications. */
+    private final ExperimentRunControl<T> runControl;
+
+    /** the streams with the original seeds of the streams of the models of the workers. */
+    private final Map<String, StreamInterface> streams;
+
+    /** the transport on which the workers connect. */
+    private final FarmTransport transport;
+
+    /** the class that calculates the seeds of the streams for a replication. */
+    private StreamUpdater streamUpdater = new SimpleStreamUpdater();
+
+    /** the values of the input parameters of the treatments. */
+    private final List<Map<String, String>> treatments = new ArrayList<>();
+
+    /** the work units that have not been handed out. */
+    private Deque<WorkUnit<T>> queue = new ArrayDeque<>();
+
+    /** the results per treatment and replication number. */
+    private WorkResult[][] results = new WorkResult[0][0];
+
+    /** the number of times each work unit has been handed out, per treatment and replication number. */
+    private int[][] attempts = new int[0][0];
+
+    /** the number of completed work units. */
+    private int numberOfCompletedUnits = 0;
+
+    /** the number of workers that have connected. */
+    private int numberOfWorkers = 0;
+
+    /** the description of the failure of the farm, or null when it has not failed. */
+    private String failure = null;
+
+    /** whether the farm is running. */
+    private boolean running = false;
+
+    /**
+     * Construct a replication farm.
+     * @param runControl ExperimentRunControl&lt;T&gt;; the run control with the times and the number of replications
+     * @param streams Map&lt;String, StreamInterface&gt;; streams with the same ids and original seeds as the streams of the
+     *            models of the workers, e.g., the streams of a model that is constructed in the same way; the seeds of these
+     *            streams are changed to calculate the seeds of the replications
+     * @param transport FarmTransport; the transport on which the workers connect
+     * @throws NullPointerException when one of the arguments is null
+     */
+    public ReplicationFarm(final ExperimentRunControl<T> runControl, final Map<String, StreamInterface> streams,
+            final FarmTransport transport)
+    {
+        Throw.whenNull(runControl, "runControl cannot be null");
+        Throw.whenNull(streams, "streams cannot be null");
+        Throw.whenNull(transport, "transport cannot be null");
+        this.runControl = runControl;
+        this.streams = streams;
+        this.transport = transport;
+    }
+
+    /**
+     * Add a treatment with values for the input parameters of the model. When no treatment is added, the farm executes one
+     * treatment with the default values of the input parameters.
+     * @param values Map&lt;String, String&gt;; the values of the input parameters, identified by their key, in the format of
+     *            ReadInputParameters.setParameter()
+     * @return int; the number of the treatment
+     * @throws IllegalStateException when the farm is running
+     */
+    public synchronized int addTreatment(final Map<String, String> values)
+    {
+        Throw.whenNull(values, "values cannot be null");
+        Throw.when(this.running, IllegalStateException.class, "cannot add a treatment to a running farm");
+        this.treatments.add(new LinkedHashMap<>(values));
+        return this.treatments.size() - 1;
+    }
+
+    /**
+     * Set the class that calculates the seeds of the streams for a replication. Only the seeds are sent to the workers, so an
+     * AntitheticStreamUpdater, which also changes the streams themselves, and a SubstreamUpdater, which changes the substream
+     * rather than the seed of a stream, cannot be used.
+     * @param streamUpdater StreamUpdater; the stream updater
+     * @throws IllegalStateException when the farm is running
+     * @throws IllegalArgumentException when the stream updater is an AntitheticStreamUpdater or a SubstreamUpdater
+     */
+    public synchronized void setStreamUpdater(final StreamUpdater streamUpdater)
+    {
+        Throw.whenNull(streamUpdater, "streamUpdater cannot be null");
+        Throw.when(streamUpdater instanceof AntitheticStreamUpdater, IllegalArgumentException.class,
+                "the antithetic streams of an AntitheticStreamUpdater cannot be sent to the workers");
+        Throw.when(streamUpdater instanceof SubstreamUpdater, IllegalArgumentException.class,
+                "the substreams of a SubstreamUpdater cannot be sent to the workers");
+        Throw.when(this.running, IllegalStateException.class, "cannot change the stream updater of a running farm");
+        this.streamUpdater = streamUpdater;
+    }
+
+    /**
+     * Return the class that calculates the seeds of the streams for a replication.
+     * @return StreamUpdater; the stream updater
+     */
+    public StreamUpdater getStreamUpdater()
+    {
+        return this.streamUpdater;
+    }
+
+    /**
+     * Execute all work units on the workers that connect to the transport, and wait till all of them have completed. The
+     * workers can be started before or after this method is called.
+     * @throws IOException when the transport fails
+     * @throws SimRuntimeException when a replication fails, or when a work unit could not be executed because its workers
+     *             disconnected too often
+     * @throws IllegalStateException when the farm is already running
+     */
+    public void run() throws IOException, SimRuntimeException
+    {
+        synchronized (this)
+        {
+            Throw.when(this.running, IllegalStateException.class, "farm is already running");
+            if (this.treatments.isEmpty())
+            {
+                this.treatments.add(new LinkedHashMap<>());
+            }
+            makeWorkUnits();
+            this.running = true;
+        }
+        List<Thread> handlers = new ArrayList<>();
+        try
+        {
+            while (!isDone())
+            {
+                FarmChannel channel = this.transport.accept(ACCEPT_TIMEOUT);
+                if (channel != null)
+                {
+                    int workerNumber;
+                    synchronized (this)
+                    {
+                        workerNumber = this.numberOfWorkers++;
+                    }
+                    Thread handler = new Thread(() -> serve(channel), this.runControl.getId() + ".worker" + workerNumber);
+                    handler.setDaemon(true);
+                    handler.start();
+                    handlers.add(handler);
+                }
+            }
+            for (Thread handler : handlers)
+            {
+                handler.join();
+            }
+        }
+        catch (InterruptedException exception)
+        {
+            fail("interrupted");
+        }
+        finally
+        {
+            synchronized (this)
+            {
+                this.running = false;
+            }
+        }
+        if (this.failure != null)
+        {
+            throw new SimRuntimeException("ReplicationFarm " + this.runControl.getId() + " failed: " + this.failure);
+        }
+    }
+
+    /**
+     * Make the work units for all treatments and replications. The seeds are the same for every treatment.
+     */
+    private void makeWorkUnits()
+    {
+        int replications = this.runControl.getNumberOfReplications();
+        T startTime = this.runControl.getStartTime();
+        T warmupPeriod = SimTime.minus(this.runControl.getWarmupTime(), startTime);
+        T runLength = SimTime.minus(this.runControl.getEndTime(), startTime);
+        List<Map<String, Long>> seeds = new ArrayList<>();
+        for (int r = 0; r < replications; r++)
+        {
+            Map<String, Long> replicationSeeds = new LinkedHashMap<>();
+            for (Map.Entry<String, StreamInterface> entry : this.streams.entrySet())
+            {
+                this.streamUpdater.updateSeed(entry.getKey(), entry.getValue(), r);
+                replicationSeeds.put(entry.getKey(), entry.getValue().getSeed());
+            }
+            seeds.add(replicationSeeds);
+        }
+        this.queue = new ArrayDeque<>();
+        for (int t = 0; t < this.treatments.size(); t++)
+        {
+            for (int r = 0; r < replications; r++)
+            {
+                this.queue.add(new WorkUnit<T>(this.runControl.getId(), t, r, this.treatments.get(t), seeds.get(r), startTime,
+                        warmupPeriod, runLength));
+            }
+        }
+        this.results = new WorkResult[this.treatments.size()][replications];
+        this.attempts = new int[this.treatments.size()][replications];
+        this.numberOfCompletedUnits = 0;
+        this.failure = null;
+    }
+
+    /**
+     * Hand out work units to one worker till all work units have been completed, and then tell the worker to stop.
+     * @param channel FarmChannel; the channel to the worker
+     */
+    private void serve(final FarmChannel channel)
+    {
+        WorkUnit<T> unit = null;
+        try (channel)
+        {
+            for (unit = takeWorkUnit(); unit != null; unit = takeWorkUnit())
+            {
+                channel.send(unit);
+                Serializable reply = channel.receive();
+                if (!(reply instanceof WorkResult) || ((WorkResult) reply).getTreatment() != unit.getTreatment()
+                        || ((WorkResult) reply).getReplicationNumber() != unit.getReplicationNumber())
+                {
+                    throw new IOException("unexpected reply " + reply + " for " + unit);
+                }
+                complete((WorkResult) reply);
+            }
+            channel.send(null);
+        }
+        catch (SocketTimeoutException exception)
+        {
+            CategoryLogger.always().warn("worker of farm {} did not reply in time for {}", this.runControl.getId(), unit);
+            requeue(unit);
+        }
+        catch (IOException exception)
+        {
+            CategoryLogger.always().warn(exception, "worker of farm {} disconnected", this.runControl.getId());
+            if (unit != null)
+            {
+                requeue(unit);
+            }
+        }
+        catch (InterruptedException exception)
+        {
+            fail("interrupted");
+        }
+    }
+
+    /**
+     * Take the next work unit, and wait when all work units have been handed out, but not all have been completed, since the
+     * work unit of a worker that disconnects is handed out again.
+     * @return WorkUnit&lt;T&gt;; the next work unit, or null when the farm is done
+     * @throws InterruptedException when the thread is interrupted while waiting
+     */
+    private synchronized WorkUnit<T> takeWorkUnit() throws InterruptedException
+    {
+        while (this.queue.isEmpty() && !isDone())
+        {
+            wait();
+        }
+        if (isDone())
+        {
+            return null;
+        }
+        WorkUnit<T> unit = this.queue.poll();
+        this.attempts[unit.getTreatment()][unit.getReplicationNumber()]++;
+        return unit;
+    }
+
+    /**
+     * Store the result of a work unit.
+     * @param result WorkResult; the result of the work unit
+     */
+    private synchronized void complete(final WorkResult result)
+    {
+        if (result.isFailure())
+        {
+            fail("replication t" + result.getTreatment() + ".r" + result.getReplicationNumber() + ": " + result.getError());
+            return;
+        }
+        this.results[result.getTreatment()][result.getReplicationNumber()] = result;
+        this.numberOfCompletedUnits++;
+        notifyAll();
+    }
+
+    /**
+     * Hand out a work unit again, because the worker that executed it disconnected or did not reply in time.
+     * @param unit WorkUnit&lt;T&gt;; the work unit
+     */
+    private synchronized void requeue(final WorkUnit<T> unit)
+    {
+        if (this.attempts[unit.getTreatment()][unit.getReplicationNumber()] >= MAX_ATTEMPTS)
+        {
+            fail("the workers of " + unit.getReplicationId() + " disconnected or timed out " + MAX_ATTEMPTS + " times");
+            return;
+        }
+        this.queue.addFirst(unit);
+        notifyAll();
+    }
+
+    /**
+     * Fail the farm, and stop handing out work units.
+     * @param description String; the description of the failure
+     */
+    private synchronized void fail(final String description)
+    {
+        if (this.failure == null)
+        {
+            this.failure = description;
+        }
+        notifyAll();
+    }
+
+    /**
+     * Return whether all work units have been completed, or the farm has failed.
+     * @return boolean; whether the farm is done
+     */
+    private synchronized boolean isDone()
+    {
+        return this.failure != null
+                || this.numberOfCompletedUnits == this.results.length * this.runControl.getNumberOfReplications();
+    }
+
+    /**
+     * Return the summary statistics of a treatment, in the same format as the summary statistics of an Experiment. The values
+     * of the replications are added in the order of the replication numbers.
+     * @param treatment int; the number of the treatment
+     * @return SortedMap&lt;String, SortedMap&lt;String, Tally&gt;&gt;; the summary statistics of the completed replications of
+     *         the treatment
+     * @throws IndexOutOfBoundsException when the treatment does not exist
+     */
+    public synchronized SortedMap<String, SortedMap<String, Tally>> getSummaryStatistics(final int treatment)
+    {
+        SortedMap<String, SortedMap<String, Tally>> summaryStatistics = new TreeMap<>();
+        for (WorkResult result : this.results[treatment])
+        {
+            if (result != null)
+            {
+                for (SummaryValue value : result.getSummaryValues())
+                {
+                    Experiment.addSummaryStatistic(summaryStatistics, value.statistic, value.field, value.value);
+                }
+            }
+        }
+        return summaryStatistics;
+    }
+
+    /**
+     * Return the result of a replication of a treatment.
+     * @param treatment int; the number of the treatment
+     * @param replicationNumber int; the replication number
+     * @return WorkResult; the result, or null when the replication has not been completed
+     * @throws IndexOutOfBoundsException when the treatment or the replication does not exist
+     */
+    public synchronized WorkResult getResult(final int treatment, final int replicationNumber)
+    {
+        return this.results[treatment][replicationNumber];
+    }
+
+    /**
+     * Return the values of the input parameters of the treatments.
+     * @return List&lt;Map&lt;String, String&gt;&gt;; an unmodifiable list of the values of the input parameters per treatment
+     */
+    public synchronized List<Map<String, String>> getTreatments()
+    {
+        return Collections.unmodifiableList(new ArrayList<>(this.treatments));
+    }
+
+    /**
+     * Return the run control of the farm.
+     * @return ExperimentRunControl&lt;T&gt;; the run control with the times and the number of replications
+     */
+    public ExperimentRunControl<T> getRunControl()
+    {
+        return this.runControl;
+    }
+
+    /**
+     * Return the number of work units of the last run.
+     * @return int; the number of treatments times the number of replications
+     */
+    public synchronized int getNumberOfUnits()
+    {
+        return this.results.length * this.runControl.getNumberOfReplications();
+    }
+
+    /**
+     * Return the number of completed work units of the last run.
+     * @return int; the number of completed work units
+     */
+    public synchronized int getNumberOfCompletedUnits()
+    {
+        return this.numberOfCompletedUnits;
+    }
+
+    /**
+     * Return the number of workers that have connected.
+     * @return int; the number of workers that have connected
+     */
+    public synchronized int getNumberOfWorkers()
+    {
+        return this.numberOfWorkers;
+    }
+
+    /**
+     * Return whether the farm is running.
+     * @return boolean; whether the farm is running
+     */
+    public synchronized boolean isRunning()
+    {
+        return this.running;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ReplicationFarm[" + this.runControl.getId() + ", treatments=" + this.treatments.size() + ", replications="
+                + this.runControl.getNumberOfReplications() + "]";
+    }
+
+}
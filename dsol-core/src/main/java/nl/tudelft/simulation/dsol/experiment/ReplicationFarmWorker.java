@@ -0,0 +1,218 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.Serializable;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.djutils.event.reference.ReferenceType;
+import org.djutils.exceptions.Throw;
+
+import nl.tudelft.simulation.dsol.experiment.Experiment.ReplicationListener;
+import nl.tudelft.simulation.dsol.model.DsolModel;
+import nl.tudelft.simulation.dsol.model.inputparameters.reader.ReadInputParameters;
+import nl.tudelft.simulation.dsol.simulators.SimulatorInterface;
+import nl.tudelft.simulation.jstats.streams.StreamInterface;
+
+/**
+ * A ReplicationFarmWorker executes the work units of a ReplicationFarm on its own model and simulator, which it creates once
+ * with a ModelFactory. For every work unit, the values of the treatment are set in the InputParameterMap of the model, the
+ * seeds of the streams are set, and the replication is executed; the summary values are returned to the coordinator. The
+ * worker stops when the coordinator sends null.
+ * <p>
+ * A worker can run in a thread of the coordinator, but it is meant to run in its own JVM, on the same host or on another host:
+ * every JVM has its own heap, so the garbage collection of one replication does not pause the others. The main() method
+ * connects a worker to the SocketFarmTransport of a coordinator, and fork() starts such a worker JVM on the local host with the
+ * class path of the current JVM.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the time type
+ * @param <S> the simulator type
+ * @since 4.2.3
+ */
+public class ReplicationFarmWorker<T extends Number & Comparable<T>, S extends SimulatorInterface<T>>
+{
+    /** the factory for the model of the worker. */
+    private final ModelFactory<T, S> modelFactory;
+
+    /** the number of the worker. */
+    private final int workerNumber;
+
+    /** the number of work units that have been executed. */
+    private int numberOfExecutedUnits = 0;
+
+    /**
+     * Construct a worker.
+     * @param modelFactory ModelFactory&lt;T, S&gt;; the factory for the model of the worker
+     * @param workerNumber int; the number of the worker, which is passed to the model factory
+     * @throws NullPointerException when modelFactory is null
+     */
+    public ReplicationFarmWorker(final ModelFactory<T, S> modelFactory, final int workerNumber)
+    {
+        Throw.whenNull(modelFactory, "modelFactory cannot be null");
+        this.modelFactory = modelFactory;
+        this.workerNumber = workerNumber;
+    }
+
+    /**
+     * Execute the work units that the coordinator sends over the channel, till the coordinator sends null. A replication that
+     * fails is returned to the coordinator as a failed WorkResult.
+     * @param channel FarmChannel; the channel to the coordinator
+     * @throws IOException when the channel fails
+     */
+    @SuppressWarnings("unchecked")
+    public void run(final FarmChannel channel) throws IOException
+    {
+        Throw.whenNull(channel, "channel cannot be null");
+        DsolModel<T, ? extends S> model = this.modelFactory.createModel(this.workerNumber);
+        S simulator = model.getSimulator();
+        ReplicationListener listener = new ReplicationListener();
+        try
+        {
+            for (Serializable message = channel.receive(); message != null; message = channel.receive())
+            {
+                channel.send(execute(model, simulator, listener, (WorkUnit<T>) message));
+                this.numberOfExecutedUnits++;
+            }
+        }
+        finally
+        {
+            simulator.removeListener(listener, Replication.END_REPLICATION_EVENT);
+            if (simulator.getReplication() != null)
+            {
+                // the simulator has no worker thread to stop when no replication has been initialized
+                simulator.cleanUp();
+            }
+        }
+    }
+
+    /**
+     * Execute one work unit on the model of the worker.
+     * @param model DsolModel&lt;T, ? extends S&gt;; the model of the worker
+     * @param simulator S; the simulator of the model
+     * @param listener ReplicationListener; the listener for the end of the replication
+     * @param unit WorkUnit&lt;T&gt;; the work unit to execute
+     * @return WorkResult; the summary values of the replication, or the error when the replication failed
+     */
+    private WorkResult execute(final DsolModel<T, ? extends S> model, final S simulator, final ReplicationListener listener,
+            final WorkUnit<T> unit)
+    {
+        SingleReplication<T> replication = null;
+        try
+        {
+            for (Map.Entry<String, String> entry : unit.getTreatmentValues().entrySet())
+            {
+                ReadInputParameters.setParameter(model.getInputParameterMap().get(entry.getKey()), entry.getValue());
+            }
+            for (Map.Entry<String, Long> entry : unit.getSeeds().entrySet())
+            {
+                StreamInterface stream = model.getStreams().get(entry.getKey());
+                Throw.when(stream == null, IllegalArgumentException.class, "model has no stream %s", entry.getKey());
+                stream.setSeed(entry.getValue());
+            }
+            replication = new SingleReplication<T>(unit.getReplicationId(), unit.getStartTime(), unit.getWarmupPeriod(),
+                    unit.getRunLength());
+            listener.latch = new CountDownLatch(1);
+            simulator.initialize(model, replication);
+            // initialize() removes the listeners of the previous replication
+            simulator.addListener(listener, Replication.END_REPLICATION_EVENT, ReferenceType.STRONG);
+            simulator.start();
+            listener.latch.await();
+            return WorkResult.success(unit, Experiment.collectSummaryValues(model));
+        }
+        catch (Exception exception)
+        {
+            return WorkResult.failure(unit, exception.toString());
+        }
+        finally
+        {
+            if (replication != null)
+            {
+                replication.removeFromContext();
+            }
+        }
+    }
+
+    /**
+     * Return the number of the worker.
+     * @return int; the number of the worker
+     */
+    public int getWorkerNumber()
+    {
+        return this.workerNumber;
+    }
+
+    /**
+     * Return the number of work units that have been executed.
+     * @return int; the number of work units that have been executed
+     */
+    public int getNumberOfExecutedUnits()
+    {
+        return this.numberOfExecutedUnits;
+    }
+
+    /**
+     * Start a worker JVM on the local host, with the class path of the current JVM, that connects to the SocketFarmTransport of
+     * a coordinator. The output of the worker JVM is sent to the output of the current JVM.
+     * @param host String; the host of the coordinator
+     * @param port int; the port of the SocketFarmTransport of the coordinator
+     * @param modelFactoryClass Class&lt;?&gt;; the class of the ModelFactory, which should have a public constructor without
+     *            arguments
+     * @param workerNumber int; the number of the worker
+     * @param jvmArguments String...; extra arguments for the JVM, e.g., "-Xmx2g"
+     * @return Process; the process of the worker JVM
+     * @throws IOException when the JVM cannot be started
+     */
+    public static Process fork(final String host, final int port, final Class<?> modelFactoryClass, final int workerNumber,
+            final String... jvmArguments) throws IOException
+    {
+        Throw.whenNull(host, "host cannot be null");
+        Throw.when(!ModelFactory.class.isAssignableFrom(modelFactoryClass), IllegalArgumentException.class,
+                "class %s is not a ModelFactory", modelFactoryClass.getName());
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.addAll(Arrays.asList(jvmArguments));
+        command.add("-cp");
+        command.add(System.getProperty("java.class.path"));
+        command.add(ReplicationFarmWorker.class.getName());
+        command.add(host);
+        command.add(String.valueOf(port));
+        command.add(modelFactoryClass.getName());
+        command.add(String.valueOf(workerNumber));
+        return new ProcessBuilder(command).directory(new File(System.getProperty("user.dir"))).inheritIO().start();
+    }
+
+    /**
+     * Run a worker that connects to the SocketFarmTransport of a coordinator, and exit when the coordinator has no more work.
+     * @param args String[]; the host and the port of the coordinator, the class name of the ModelFactory, which should have a
+     *            public constructor without arguments, and the number of the worker
+     * @throws Exception when the worker cannot be started, or the connection fails
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public static void main(final String[] args) throws Exception
+    {
+        if (args.length != 4)
+        {
+            System.err.println("Usage: ReplicationFarmWorker host port modelFactoryClass workerNumber");
+            System.exit(1);
+        }
+        ModelFactory modelFactory = (ModelFactory) Class.forName(args[2]).getDeclaredConstructor().newInstance();
+        try (FarmChannel channel = SocketFarmTransport.connect(args[0], Integer.parseInt(args[1])))
+        {
+            new ReplicationFarmWorker(modelFactory, Integer.parseInt(args[3])).run(channel);
+        }
+        System.exit(0); // the naming context and other libraries can have non-daemon threads
+    }
+
+}
@@ -0,0 +1,239 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.SortedMap;
+
+import org.djutils.exceptions.Throw;
+import org.djutils.stats.summarizers.Tally;
+
+import nl.tudelft.simulation.jstats.math.ProbMath;
+
+/**
+ * The SequentialStoppingRule determines how many replications an Experiment executes, based on the precision of its summary
+ * statistics. The experiment starts with a number of initial replications, and then executes batches of replications till the
+ * confidence interval of every target has a half width that is at most the relative precision of the target times the
+ * absolute value of the mean, or till the number of replications of the experiment, which acts as the budget, has been used.
+ * A target refers to a field of a summary statistic, e.g., the field "SampleMean" of the statistic "waiting time", which
+ * tallies the average waiting times of the replications.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public class SequentialStoppingRule implements Serializable
+{
+    /** */
+    private static final long serialVersionUID = 20240101L;
+
+    /** the significance level of the confidence intervals, e.g., 0.05 for a 95% confidence interval. */
+    private final double alpha;
+
+    /** the number of replications before the precision is evaluated for the first time. */
+    private final int initialReplications;
+
+    /** the number of replications that is added when the precision has not been reached. */
+    private final int batchSize;
+
+    /** the targets for the precision of the summary statistics. */
+    private final List<Target> targets = new ArrayList<>();
+
+    /**
+     * Construct a sequential stopping rule without targets.
+     * @param alpha double; the significance level of the confidence intervals, e.g., 0.05 for a 95% confidence interval
+     * @param initialReplications int; the number of replications before the precision is evaluated for the first time
+     * @param batchSize int; the number of replications that is added when the precision has not been reached, e.g., the
+     *            number of threads of a parallel experiment
+     * @throws IllegalArgumentException when alpha is not between 0 and 1, when initialReplications is less than 2, or when
+     *             batchSize is less than 1
+     */
+    public SequentialStoppingRule(final double alpha, final int initialReplications, final int batchSize)
+    {
+        Throw.when(!(alpha > 0.0 && alpha < 1.0), IllegalArgumentException.class, "alpha should be between 0 and 1");
+        Throw.when(initialReplications < 2, IllegalArgumentException.class, "initialReplications should be at least 2");
+        Throw.when(batchSize < 1, IllegalArgumentException.class, "batchSize should be at least 1");
+        this.alpha = alpha;
+        this.initialReplications = initialReplications;
+        this.batchSize = batchSize;
+    }
+
+    /**
+     * Add a target for the precision of a field of a summary statistic.
+     * @param statistic String; the name of the statistic, e.g., the description of a SimTally
+     * @param field String; the field of the summary statistic, e.g., "SampleMean" for a SimTally, or "WeightedSampleMean" for
+     *            a SimPersistent
+     * @param relativePrecision double; the maximum half width of the confidence interval, relative to the absolute value of
+     *            the mean, e.g., 0.05 for a half width of 5% of the mean
+     * @return SequentialStoppingRule; this rule, so targets can be added in a chain
+     * @throws IllegalArgumentException when relativePrecision is zero or negative
+     */
+    public SequentialStoppingRule addTarget(final String statistic, final String field, final double relativePrecision)
+    {
+        Throw.whenNull(statistic, "statistic cannot be null");
+        Throw.whenNull(field, "field cannot be null");
+        Throw.when(!(relativePrecision > 0.0), IllegalArgumentException.class, "relativePrecision should be positive");
+        this.targets.add(new Target(statistic, field, relativePrecision));
+        return this;
+    }
+
+    /**
+     * Return whether the confidence intervals of all targets are narrow enough. A target of which the summary statistic does
+     * not exist, or has less than 2 observations, has not been reached. A rule without targets is never satisfied.
+     * @param summaryStatistics SortedMap&lt;String, SortedMap&lt;String, Tally&gt;&gt;; the summary statistics of an experiment
+     * @return boolean; whether the confidence intervals of all targets are narrow enough
+     */
+    public boolean isSatisfied(final SortedMap<String, SortedMap<String, Tally>> summaryStatistics)
+    {
+        if (this.targets.isEmpty())
+        {
+            return false;
+        }
+        for (Target target : this.targets)
+        {
+            SortedMap<String, Tally> fields = summaryStatistics.get(target.getStatistic());
+            Tally tally = fields == null ? null : fields.get(target.getField());
+            if (tally == null || !(getRelativeHalfWidth(tally) <= target.getRelativePrecision()))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Return the half width of the confidence interval of the mean of a tally, relative to the absolute value of the mean. The
+     * half width uses the quantile of the Student t distribution with n-1 degrees of freedom, since the variance is estimated
+     * from the n replications; the quantile of the normal distribution would give a much too narrow interval for the small
+     * numbers of replications with which the rule starts.
+     * @param tally Tally; the tally, e.g., a field of a summary statistic
+     * @return double; the relative half width, or Double.POSITIVE_INFINITY when the tally has less than 2 observations or a
+     *         mean of zero with a non-zero variance
+     */
+    public double getRelativeHalfWidth(final Tally tally)
+    {
+        long n = tally.getN();
+        double stDev = tally.getSampleStDev();
+        if (n < 2 || Double.isNaN(stDev))
+        {
+            return Double.POSITIVE_INFINITY;
+        }
+        int degreesOfFreedom = (int) Math.min(n - 1, Integer.MAX_VALUE);
+        double halfWidth = ProbMath.studentTQuantile(1.0 - this.alpha / 2.0, degreesOfFreedom) * stDev / Math.sqrt(n);
+        double mean = Math.abs(tally.getSampleMean());
+        if (mean == 0.0)
+        {
+            return halfWidth == 0.0 ? 0.0 : Double.POSITIVE_INFINITY;
+        }
+        return halfWidth / mean;
+    }
+
+    /**
+     * Return the significance level of the confidence intervals.
+     * @return double; the significance level of the confidence intervals, e.g., 0.05 for a 95% confidence interval
+     */
+    public double getAlpha()
+    {
+        return this.alpha;
+    }
+
+    /**
+     * Return the number of replications before the precision is evaluated for the first time.
+     * @return int; the number of replications before the precision is evaluated for the first time
+     */
+    public int getInitialReplications()
+    {
+        return this.initialReplications;
+    }
+
+    /**
+     * Return the number of replications that is added when the precision has not been reached.
+     * @return int; the number of replications that is added when the precision has not been reached
+     */
+    public int getBatchSize()
+    {
+        return this.batchSize;
+    }
+
+    /**
+     * Return the targets for the precision of the summary statistics.
+     * @return List&lt;Target&gt;; an unmodifiable list of the targets
+     */
+    public List<Target> getTargets()
+    {
+        return Collections.unmodifiableList(this.targets);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SequentialStoppingRule [alpha=" + this.alpha + ", initialReplications=" + this.initialReplications
+                + ", batchSize=" + this.batchSize + ", targets=" + this.targets + "]";
+    }
+
+    /**
+     * A target for the relative precision of a field of a summary statistic.
+     */
+    public static class Target implements Serializable
+    {
+        /** */
+        private static final long serialVersionUID = 20240101L;
+
+        /** the name of the statistic. */
+        private final String statistic;
+
+        /** the field of the summary statistic. */
+        private final String field;
+
+        /** the maximum half width of the confidence interval, relative to the absolute value of the mean. */
+        private final double relativePrecision;
+
+        /**
+         * @param statistic String; the name of the statistic
+         * @param field String; the field of the summary statistic
+         * @param relativePrecision double; the maximum half width of the confidence interval, relative to the mean
+         */
+        Target(final String statistic, final String field, final double relativePrecision)
+        {
+            this.statistic = statistic;
+            this.field = field;
+            this.relativePrecision = relativePrecision;
+        }
+
+        /**
+         * @return String; the name of the statistic
+         */
+        public String getStatistic()
+        {
+            return this.statistic;
+        }
+
+        /**
+         * @return String; the field of the summary statistic
+         */
+        public String getField()
+        {
+            return this.field;
+        }
+
+        /**
+         * @return double; the maximum half width of the confidence interval, relative to the absolute value of the mean
+         */
+        public double getRelativePrecision()
+        {
+            return this.relativePrecision;
+        }
+
+        @Override
+        public String toString()
+        {
+            return this.statistic + "." + this.field + " <= " + this.relativePrecision;
+        }
+    }
+
+}
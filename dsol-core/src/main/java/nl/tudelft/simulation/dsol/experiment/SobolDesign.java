@@ -0,0 +1,138 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.util.List;
+
+import org.djutils.exceptions.Throw;
+
+/**
+ * The SobolDesign takes the first points of a Sobol low-discrepancy sequence in the unit hypercube, generated in Gray code
+ * order as described by P. Bratley and B.L. Fox (1988), "Algorithm 659: Implementing Sobol's quasirandom sequence generator",
+ * ACM Transactions on Mathematical Software 14(1). The direction numbers are those of S. Joe and F.Y. Kuo (2008),
+ * "Constructing Sobol sequences with better two-dimensional projections", SIAM Journal on Scientific Computing 30(5), for up to
+ * 21 factors. The first point of the sequence is the origin; when the number of points is a power of 2, the projection of the
+ * points on every factor has exactly one point in each of the equal intervals of [0, 1).
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public class SobolDesign implements SweepDesign
+{
+    /** */
+    private static final long serialVersionUID = 20240101L;
+
+    /** the number of bits of the generated points. */
+    private static final int BITS = 31;
+
+    /**
+     * The degree s, the coefficients a, and the initial direction numbers m_1..m_s of the primitive polynomials for the factors
+     * 2 to 21; the first factor uses the van der Corput sequence.
+     */
+    private static final int[][] DIRECTIONS = {{1, 0, 1}, {2, 1, 1, 3}, {3, 1, 1, 3, 1}, {3, 2, 1, 1, 1}, {4, 1, 1, 1, 3, 3},
+            {4, 4, 1, 3, 5, 13}, {5, 2, 1, 1, 5, 5, 17}, {5, 4, 1, 1, 5, 5, 5}, {5, 7, 1, 1, 7, 11, 19}, {5, 11, 1, 1, 5, 1, 1},
+            {5, 13, 1, 1, 1, 3, 11}, {5, 14, 1, 3, 5, 5, 31}, {6, 1, 1, 3, 3, 9, 7, 49}, {6, 13, 1, 1, 1, 15, 21, 21},
+            {6, 16, 1, 3, 1, 13, 27, 49}, {6, 19, 1, 1, 1, 15, 7, 5}, {6, 22, 1, 3, 1, 15, 13, 25}, {6, 25, 1, 1, 5, 5, 19, 61},
+            {7, 1, 1, 3, 7, 11, 23, 15, 103}, {7, 4, 1, 3, 7, 13, 13, 15, 69}};
+
+    /** the maximum number of factors. */
+    public static final int MAX_DIMENSIONS = DIRECTIONS.length + 1;
+
+    /** the number of points, which is the number of treatments. */
+    private final int numberOfPoints;
+
+    /**
+     * Construct a Sobol design.
+     * @param numberOfPoints int; the number of points, which is the number of treatments; preferably a power of 2
+     * @throws IllegalArgumentException when the number of points is less than 1
+     */
+    public SobolDesign(final int numberOfPoints)
+    {
+        Throw.when(numberOfPoints < 1, IllegalArgumentException.class, "numberOfPoints should be at least 1");
+        this.numberOfPoints = numberOfPoints;
+    }
+
+    /**
+     * Return the points of the design in the unit hypercube.
+     * @param dimensions int; the number of factors
+     * @return double[][]; the points, indexed as [point][factor], with coordinates in [0, 1)
+     * @throws IllegalArgumentException when there are more than MAX_DIMENSIONS factors
+     */
+    public double[][] getPoints(final int dimensions)
+    {
+        Throw.when(dimensions > MAX_DIMENSIONS, IllegalArgumentException.class,
+                "SobolDesign supports at most " + MAX_DIMENSIONS + " factors");
+        long[][] v = new long[dimensions][BITS + 1];
+        for (int d = 0; d < dimensions; d++)
+        {
+            if (d == 0)
+            {
+                for (int k = 1; k <= BITS; k++)
+                {
+                    v[d][k] = 1L << (BITS - k);
+                }
+                continue;
+            }
+            int[] direction = DIRECTIONS[d - 1];
+            int s = direction[0];
+            int a = direction[1];
+            for (int k = 1; k <= BITS; k++)
+            {
+                if (k <= s)
+                {
+                    v[d][k] = ((long) direction[k + 1]) << (BITS - k);
+                }
+                else
+                {
+                    v[d][k] = v[d][k - s] ^ (v[d][k - s] >> s);
+                    for (int i = 1; i < s; i++)
+                    {
+                        if (((a >> (s - 1 - i)) & 1) != 0)
+                        {
+                            v[d][k] ^= v[d][k - i];
+                        }
+                    }
+                }
+            }
+        }
+        double[][] points = new double[this.numberOfPoints][dimensions];
+        long[] x = new long[dimensions];
+        double scale = 1.0 / (1L << BITS);
+        for (int i = 1; i < this.numberOfPoints; i++)
+        {
+            // the position of the lowest zero bit of i - 1 determines the direction number (Gray code order)
+            int c = Long.numberOfTrailingZeros(~(long) (i - 1)) + 1;
+            for (int d = 0; d < dimensions; d++)
+            {
+                x[d] ^= v[d][c];
+                points[i][d] = x[d] * scale;
+            }
+        }
+        return points;
+    }
+
+    @Override
+    public List<String[]> getTreatments(final List<SweepFactor> factors)
+    {
+        return SweepDesign.getTreatments(factors, getPoints(factors.size()));
+    }
+
+    /**
+     * Return the number of points.
+     * @return int; the number of points, which is the number of treatments
+     */
+    public int getNumberOfPoints()
+    {
+        return this.numberOfPoints;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SobolDesign[points=" + this.numberOfPoints + "]";
+    }
+
+}
@@ -0,0 +1,225 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputFilter;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.net.SocketTimeoutException;
+
+import org.djutils.exceptions.Throw;
+
+/**
+ * SocketFarmTransport transports the messages of a ReplicationFarm over TCP sockets, as serialized objects. The coordinator
+ * listens on a port with a SocketFarmTransport; a worker, in the same JVM, in another JVM on the same host, or on another host,
+ * connects to that port with connect().
+ * <p>
+ * The transport listens on the loopback address, unless another bind address is given, so workers on other hosts can only
+ * connect when the coordinator explicitly listens on a network address. The messages are deserialized with a filter that only
+ * accepts the classes of the work units and results of the farm, strings, boxed primitives and the JDK collections. When a
+ * worker does not reply within the read timeout, receive() throws a SocketTimeoutException, and the ReplicationFarm hands out
+ * its work unit again.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public class SocketFarmTransport implements FarmTransport
+{
+    /** the default time in milliseconds to wait for the reply of a worker, 10 minutes. */
+    public static final int DEFAULT_READ_TIMEOUT = 600_000;
+
+    /** the classes that can be deserialized from a channel; all other classes are rejected. */
+    private static final ObjectInputFilter FILTER = ObjectInputFilter.Config.createFilter("maxdepth=20;"
+            + "nl.tudelft.simulation.dsol.experiment.WorkUnit;nl.tudelft.simulation.dsol.experiment.WorkResult;"
+            + "nl.tudelft.simulation.dsol.experiment.Experiment$SummaryValue;java.lang.Object;java.lang.String;"
+            + "java.lang.Enum;java.lang.Number;java.lang.Boolean;java.lang.Byte;java.lang.Character;java.lang.Short;"
+            + "java.lang.Integer;java.lang.Long;java.lang.Float;java.lang.Double;java.util.ArrayList;java.util.LinkedList;"
+            + "java.util.Map$Entry;java.util.HashMap;java.util.LinkedHashMap;java.util.TreeMap;java.util.HashSet;"
+            + "java.util.LinkedHashSet;java.util.TreeSet;java.util.ImmutableCollections$*;java.util.CollSer;java.util.Collections$*;!*");
+
+    /** the server socket on which the workers connect. */
+    private final ServerSocket serverSocket;
+
+    /** the time in milliseconds to wait for the reply of a worker on an accepted channel, or 0 to wait forever. */
+    private int readTimeout = DEFAULT_READ_TIMEOUT;
+
+    /**
+     * Construct a transport that listens for workers on a port of the loopback address, so only workers on the same host can
+     * connect.
+     * @param port int; the port to listen on, or 0 to use a free port, see getPort()
+     * @throws IOException when the port cannot be opened
+     */
+    public SocketFarmTransport(final int port) throws IOException
+    {
+        this(InetAddress.getLoopbackAddress(), port);
+    }
+
+    /**
+     * Construct a transport that listens for workers on a port of a given address.
+     * @param bindAddress InetAddress; the local address to listen on, e.g., the address of the network interface of the
+     *            workers on other hosts
+     * @param port int; the port to listen on, or 0 to use a free port, see getPort()
+     * @throws IOException when the port cannot be opened
+     * @throws NullPointerException when bindAddress is null
+     */
+    public SocketFarmTransport(final InetAddress bindAddress, final int port) throws IOException
+    {
+        Throw.whenNull(bindAddress, "bindAddress cannot be null");
+        this.serverSocket = new ServerSocket(port, 0, bindAddress);
+    }
+
+    /**
+     * Return the port on which the transport listens for workers.
+     * @return int; the port on which the transport listens for workers
+     */
+    public int getPort()
+    {
+        return this.serverSocket.getLocalPort();
+    }
+
+    /**
+     * Return the address on which the transport listens for workers.
+     * @return InetAddress; the address on which the transport listens for workers
+     */
+    public InetAddress getBindAddress()
+    {
+        return this.serverSocket.getInetAddress();
+    }
+
+    /**
+     * Set the time to wait for the reply of a worker on the channels that are accepted after this call. The timeout should be
+     * longer than the time to execute a replication.
+     * @param readTimeout int; the time in milliseconds to wait for the reply of a worker, or 0 to wait forever
+     * @throws IllegalArgumentException when readTimeout is negative
+     */
+    public void setReadTimeout(final int readTimeout)
+    {
+        Throw.when(readTimeout < 0, IllegalArgumentException.class, "readTimeout cannot be negative");
+        this.readTimeout = readTimeout;
+    }
+
+    /**
+     * Return the time to wait for the reply of a worker.
+     * @return int; the time in milliseconds to wait for the reply of a worker, or 0 to wait forever
+     */
+    public int getReadTimeout()
+    {
+        return this.readTimeout;
+    }
+
+    @Override
+    public FarmChannel accept(final int timeoutMillis) throws IOException
+    {
+        this.serverSocket.setSoTimeout(timeoutMillis);
+        try
+        {
+            Socket socket = this.serverSocket.accept();
+            socket.setSoTimeout(this.readTimeout);
+            return new SocketChannel(socket);
+        }
+        catch (SocketTimeoutException exception)
+        {
+            return null;
+        }
+    }
+
+    @Override
+    public void close() throws IOException
+    {
+        this.serverSocket.close();
+    }
+
+    /**
+     * Connect a worker to the coordinator of a farm. The worker waits for its next work unit without a timeout, since the
+     * coordinator can keep it waiting till the work units of the other workers have completed.
+     * @param host String; the host of the coordinator
+     * @param port int; the port of the SocketFarmTransport of the coordinator
+     * @return FarmChannel; the channel to the coordinator
+     * @throws IOException when the connection cannot be made
+     */
+    public static FarmChannel connect(final String host, final int port) throws IOException
+    {
+        Throw.whenNull(host, "host cannot be null");
+        IOException failure = null;
+        for (InetAddress address : InetAddress.getAllByName(host))
+        {
+            // e.g., localhost can resolve to ::1 and 127.0.0.1, while the coordinator only listens on one of them
+            try
+            {
+                return new SocketChannel(new Socket(address, port));
+            }
+            catch (IOException exception)
+            {
+                failure = exception;
+            }
+        }
+        throw failure;
+    }
+
+    /** A FarmChannel over a socket, with object streams in both directions. */
+    private static final class SocketChannel implements FarmChannel
+    {
+        /** the socket. */
+        private final Socket socket;
+
+        /** the stream to send the messages. */
+        private final ObjectOutputStream out;
+
+        /** the stream to receive the messages. */
+        private final ObjectInputStream in;
+
+        /**
+         * Construct a channel over a connected socket.
+         * @param socket Socket; the connected socket
+         * @throws IOException when the streams of the socket cannot be opened
+         */
+        SocketChannel(final Socket socket) throws IOException
+        {
+            this.socket = socket;
+            socket.setTcpNoDelay(true);
+            this.out = new ObjectOutputStream(new BufferedOutputStream(socket.getOutputStream()));
+            this.out.flush(); // the other side waits for the stream header
+            this.in = new ObjectInputStream(new BufferedInputStream(socket.getInputStream()));
+            this.in.setObjectInputFilter(FILTER);
+        }
+
+        @Override
+        public void send(final Serializable message) throws IOException
+        {
+            this.out.writeObject(message);
+            this.out.flush();
+            this.out.reset(); // do not keep references to the sent objects
+        }
+
+        @Override
+        public Serializable receive() throws IOException
+        {
+            try
+            {
+                return (Serializable) this.in.readObject();
+            }
+            catch (ClassNotFoundException | ClassCastException exception)
+            {
+                throw new IOException("Cannot read the message from " + this.socket.getRemoteSocketAddress(), exception);
+            }
+        }
+
+        @Override
+        public void close() throws IOException
+        {
+            this.socket.close();
+        }
+    }
+
+}
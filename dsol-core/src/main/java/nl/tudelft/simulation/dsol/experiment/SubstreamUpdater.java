@@ -0,0 +1,141 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.djutils.exceptions.Throw;
+
+import nl.tudelft.simulation.jstats.streams.AntitheticStream;
+import nl.tudelft.simulation.jstats.streams.SplittableStreamInterface;
+import nl.tudelft.simulation.jstats.streams.StreamInterface;
+
+/**
+ * SubstreamUpdater gives every stream of a model and every replication its own substream of a splittable stream, such as
+ * MRG32k3a or Xoshiro256StarStar. For replication r, a stream with stream index s is set to the original seed, and then to
+ * substream r of stream s, so the streams and replications draw from provably disjoint parts of the sequence of the original
+ * seed instead of from seeds that are calculated with a formula. Streams that are not splittable are updated by a fallback
+ * stream updater, a SimpleStreamUpdater by default. The stream within an AntitheticStream is updated, so the updater can be
+ * the pair updater of an AntitheticStreamUpdater.
+ * <p>
+ * The stream index of a stream id is its position in a list of stream ids that is given to the constructor, or else the hash
+ * code of the id. The hash code does not depend on the order in which the streams are updated, so the stream indices are the
+ * same for every run and every thread, but two ids can have the same hash code. Since such streams would draw the same
+ * numbers, the updater remembers the id of every stream index, and throws an exception for a second id with the same stream
+ * index; the ids should then be given as a list.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public class SubstreamUpdater implements StreamUpdater
+{
+    /** */
+    private static final long serialVersionUID = 20240101L;
+
+    /** the stream indices of the stream ids, or null when the stream index is the hash code of the id. */
+    private final Map<String, Integer> streamIndices;
+
+    /** the id of every stream index that has been calculated from a hash code, to detect two ids with the same index. */
+    private final Map<Integer, String> hashedStreamIds = new ConcurrentHashMap<>();
+
+    /** the fallback stream updater for streams that are not splittable. */
+    private StreamUpdater fallbackStreamUpdater = new SimpleStreamUpdater();
+
+    /**
+     * Construct a SubstreamUpdater that uses the hash code of a stream id as its stream index.
+     */
+    public SubstreamUpdater()
+    {
+        this.streamIndices = null;
+    }
+
+    /**
+     * Construct a SubstreamUpdater that uses the position of a stream id in a list as its stream index.
+     * @param streamIds List&lt;String&gt;; the ids of all streams that are updated
+     * @throws NullPointerException when streamIds is null
+     * @throws IllegalArgumentException when a stream id occurs more than once
+     */
+    public SubstreamUpdater(final List<String> streamIds)
+    {
+        Throw.whenNull(streamIds, "streamIds cannot be null");
+        this.streamIndices = new LinkedHashMap<>();
+        for (String streamId : streamIds)
+        {
+            Throw.when(this.streamIndices.containsKey(streamId), IllegalArgumentException.class,
+                    "stream id %s occurs more than once", streamId);
+            this.streamIndices.put(streamId, this.streamIndices.size());
+        }
+    }
+
+    /**
+     * {@inheritDoc}
+     * @throws IllegalArgumentException when the updater has a list of stream ids, and the streamId is not in the list, or when
+     *             the updater uses hash codes, and another stream id had the same stream index
+     */
+    @Override
+    public void updateSeed(final String streamId, final StreamInterface stream, final int replicationNumber)
+    {
+        StreamInterface target = stream instanceof AntitheticStream ? ((AntitheticStream) stream).getStream() : stream;
+        if (target instanceof SplittableStreamInterface)
+        {
+            SplittableStreamInterface splittable = (SplittableStreamInterface) target;
+            splittable.setSeed(splittable.getOriginalSeed());
+            splittable.setSubstream(getStreamIndex(streamId), replicationNumber);
+        }
+        else
+        {
+            this.fallbackStreamUpdater.updateSeed(streamId, stream, replicationNumber);
+        }
+    }
+
+    /**
+     * Return the stream index of a stream id.
+     * @param streamId String; the id of the stream
+     * @return int; the stream index of the stream id
+     * @throws IllegalArgumentException when the updater has a list of stream ids, and the streamId is not in the list, or when
+     *             the updater uses hash codes, and another stream id had the same stream index
+     */
+    public int getStreamIndex(final String streamId)
+    {
+        if (this.streamIndices == null)
+        {
+            int index = streamId.hashCode() & Integer.MAX_VALUE;
+            String previous = this.hashedStreamIds.putIfAbsent(index, streamId);
+            Throw.when(previous != null && !previous.equals(streamId), IllegalArgumentException.class,
+                    "stream ids %s and %s have the same stream index %d; construct the updater with a list of stream ids",
+                    previous, streamId, index);
+            return index;
+        }
+        Integer index = this.streamIndices.get(streamId);
+        Throw.when(index == null, IllegalArgumentException.class, "stream id %s has no stream index", streamId);
+        return index;
+    }
+
+    /**
+     * Return the fallback stream updater for streams that are not splittable.
+     * @return StreamUpdater; the fallback stream updater
+     */
+    public StreamUpdater getFallbackStreamUpdater()
+    {
+        return this.fallbackStreamUpdater;
+    }
+
+    /**
+     * Set a new fallback stream updater for streams that are not splittable.
+     * @param fallbackStreamUpdater StreamUpdater; the new fallback stream updater
+     * @throws NullPointerException when fallbackStreamUpdater is null
+     */
+    public void setFallbackStreamUpdater(final StreamUpdater fallbackStreamUpdater)
+    {
+        Throw.whenNull(fallbackStreamUpdater, "fallbackStreamUpdater cannot be null");
+        this.fallbackStreamUpdater = fallbackStreamUpdater;
+    }
+
+}
@@ -0,0 +1,413 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.djutils.exceptions.Throw;
+
+/**
+ * The SummaryAccumulator summarizes the values of the statistics of a number of replications in primitive arrays, indexed by
+ * the index of the statistic and the SummaryField, instead of in a map of maps of Tally objects with String keys. For every
+ * statistic and field it keeps the number of values, the minimum, maximum and sum, and the mean and the second to fourth
+ * central moments, which can be merged exactly with those of another accumulator.
+ * <p>
+ * An accumulator is not thread-safe. Every worker of a parallel experiment fills its own accumulator without locking, and the
+ * accumulators of the workers are combined afterwards with reduce(), which merges them with a parallel reduction. The result
+ * of a merge does not depend on the number of workers, apart from rounding errors.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public final class SummaryAccumulator implements Serializable
+{
+    /** */
+    private static final long serialVersionUID = 20240101L;
+
+    /** the number of fields per statistic. */
+    private static final int FIELDS = SummaryField.values().length;
+
+    /** the initial number of statistics for which the arrays have room. */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /** the names of the statistics, in the order of their index. */
+    private final List<String> statistics = new ArrayList<>();
+
+    /** the index of every statistic. */
+    private final Map<String, Integer> indices = new HashMap<>();
+
+    /** the name of the statistic that was added last, to avoid a lookup for the other fields of the same statistic. */
+    private transient String lastStatistic = null;
+
+    /** the index of the statistic that was added last. */
+    private transient int lastIndex = -1;
+
+    /** the number of values per cell, where the cell of a field of a statistic is index * FIELDS + field.ordinal(). */
+    private long[] n;
+
+    /** the mean of the values per cell. */
+    private double[] mean;
+
+    /** the sum of the squared deviations from the mean per cell. */
+    private double[] m2;
+
+    /** the sum of the cubed deviations from the mean per cell. */
+    private double[] m3;
+
+    /** the sum of the fourth powers of the deviations from the mean per cell. */
+    private double[] m4;
+
+    /** the minimum value per cell. */
+    private double[] min;
+
+    /** the maximum value per cell. */
+    private double[] max;
+
+    /** the sum of the values per cell. */
+    private double[] sum;
+
+    /**
+     * Construct an empty accumulator.
+     */
+    public SummaryAccumulator()
+    {
+        allocate(INITIAL_CAPACITY * FIELDS);
+    }
+
+    /**
+     * Allocate or grow the arrays of the cells.
+     * @param cells int; the number of cells
+     */
+    private void allocate(final int cells)
+    {
+        int oldCells = this.n == null ? 0 : this.n.length;
+        this.n = this.n == null ? new long[cells] : Arrays.copyOf(this.n, cells);
+        this.mean = this.mean == null ? new double[cells] : Arrays.copyOf(this.mean, cells);
+        this.m2 = this.m2 == null ? new double[cells] : Arrays.copyOf(this.m2, cells);
+        this.m3 = this.m3 == null ? new double[cells] : Arrays.copyOf(this.m3, cells);
+        this.m4 = this.m4 == null ? new double[cells] : Arrays.copyOf(this.m4, cells);
+        this.min = this.min == null ? new double[cells] : Arrays.copyOf(this.min, cells);
+        this.max = this.max == null ? new double[cells] : Arrays.copyOf(this.max, cells);
+        this.sum = this.sum == null ? new double[cells] : Arrays.copyOf(this.sum, cells);
+        Arrays.fill(this.min, oldCells, cells, Double.NaN);
+        Arrays.fill(this.max, oldCells, cells, Double.NaN);
+    }
+
+    /**
+     * Return the index of a statistic, and add the statistic when it is not in the accumulator yet.
+     * @param statistic String; the name of the statistic
+     * @return int; the index of the statistic
+     */
+    public int addStatistic(final String statistic)
+    {
+        Throw.whenNull(statistic, "statistic cannot be null");
+        Integer index = this.indices.get(statistic);
+        if (index != null)
+        {
+            return index;
+        }
+        int newIndex = this.statistics.size();
+        if ((newIndex + 1) * FIELDS > this.n.length)
+        {
+            allocate(2 * this.n.length);
+        }
+        this.statistics.add(statistic);
+        this.indices.put(statistic, newIndex);
+        return newIndex;
+    }
+
+    /**
+     * Add a value of a field of a statistic. NaN values are not added.
+     * @param statistic String; the name of the statistic, which is added when it is not in the accumulator yet
+     * @param field SummaryField; the field
+     * @param value double; the value
+     */
+    public void add(final String statistic, final SummaryField field, final double value)
+    {
+        if (!statistic.equals(this.lastStatistic))
+        {
+            this.lastIndex = addStatistic(statistic);
+            this.lastStatistic = statistic;
+        }
+        add(this.lastIndex, field, value);
+    }
+
+    /**
+     * Add a value of a field of a statistic. NaN values are not added.
+     * @param statisticIndex int; the index of the statistic, as returned by addStatistic()
+     * @param field SummaryField; the field
+     * @param value double; the value
+     * @throws IndexOutOfBoundsException when the statistic does not exist
+     */
+    public void add(final int statisticIndex, final SummaryField field, final double value)
+    {
+        Throw.when(statisticIndex < 0 || statisticIndex >= this.statistics.size(), IndexOutOfBoundsException.class,
+                "statistic index %d out of bounds", statisticIndex);
+        if (!Double.isNaN(value))
+        {
+            combine(statisticIndex * FIELDS + field.ordinal(), 1, value, 0.0, 0.0, 0.0, value, value, value);
+        }
+    }
+
+    /**
+     * Merge the values of another accumulator into this accumulator. The statistics of the other accumulator that are not in
+     * this accumulator yet are added. The other accumulator is not changed.
+     * @param other SummaryAccumulator; the accumulator to merge into this accumulator
+     */
+    public void merge(final SummaryAccumulator other)
+    {
+        Throw.whenNull(other, "other cannot be null");
+        for (int s = 0; s < other.statistics.size(); s++)
+        {
+            int index = addStatistic(other.statistics.get(s));
+            for (int f = 0; f < FIELDS; f++)
+            {
+                int o = s * FIELDS + f;
+                if (other.n[o] > 0)
+                {
+                    combine(index * FIELDS + f, other.n[o], other.mean[o], other.m2[o], other.m3[o], other.m4[o], other.min[o],
+                            other.max[o], other.sum[o]);
+                }
+            }
+        }
+    }
+
+    /**
+     * Combine the moments of a cell with the moments of another set of values, with the pairwise update formulas of Chan et al.
+     * and Pebay, which are exact for any split of the values.
+     * @param c int; the cell
+     * @param nb long; the number of other values
+     * @param meanB double; the mean of the other values
+     * @param m2B double; the sum of squared deviations of the other values
+     * @param m3B double; the sum of cubed deviations of the other values
+     * @param m4B double; the sum of the fourth powers of the deviations of the other values
+     * @param minB double; the minimum of the other values
+     * @param maxB double; the maximum of the other values
+     * @param sumB double; the sum of the other values
+     */
+    private void combine(final int c, final long nb, final double meanB, final double m2B, final double m3B, final double m4B,
+            final double minB, final double maxB, final double sumB)
+    {
+        long na = this.n[c];
+        if (na == 0)
+        {
+            this.n[c] = nb;
+            this.mean[c] = meanB;
+            this.m2[c] = m2B;
+            this.m3[c] = m3B;
+            this.m4[c] = m4B;
+            this.min[c] = minB;
+            this.max[c] = maxB;
+            this.sum[c] = sumB;
+            return;
+        }
+        double a = na;
+        double b = nb;
+        double total = a + b;
+        double delta = meanB - this.mean[c];
+        double deltaN = delta / total;
+        double deltaN2 = deltaN * deltaN;
+        double m2A = this.m2[c];
+        double m3A = this.m3[c];
+        this.m4[c] += m4B + delta * deltaN * deltaN2 * a * b * (a * a - a * b + b * b)
+                + 6.0 * deltaN2 * (a * a * m2B + b * b * m2A) + 4.0 * deltaN * (a * m3B - b * m3A);
+        this.m3[c] += m3B + delta * deltaN2 * a * b * (a - b) + 3.0 * deltaN * (a * m2B - b * m2A);
+        this.m2[c] += m2B + delta * deltaN * a * b;
+        this.mean[c] += deltaN * b;
+        this.n[c] = na + nb;
+        this.min[c] = Math.min(this.min[c], minB);
+        this.max[c] = Math.max(this.max[c], maxB);
+        this.sum[c] += sumB;
+    }
+
+    /**
+     * Merge a number of accumulators with a parallel reduction into a new accumulator. The accumulators are not changed, and
+     * should not be changed by other threads during the reduction.
+     * @param accumulators Collection&lt;SummaryAccumulator&gt;; the accumulators to merge
+     * @return SummaryAccumulator; a new accumulator with the values of all accumulators
+     */
+    public static SummaryAccumulator reduce(final Collection<SummaryAccumulator> accumulators)
+    {
+        Throw.whenNull(accumulators, "accumulators cannot be null");
+        return accumulators.parallelStream().collect(SummaryAccumulator::new, SummaryAccumulator::merge,
+                SummaryAccumulator::merge);
+    }
+
+    /**
+     * Return the names of the statistics, in the order of their index.
+     * @return List&lt;String&gt;; an unmodifiable list of the names of the statistics
+     */
+    public List<String> getStatistics()
+    {
+        return Collections.unmodifiableList(this.statistics);
+    }
+
+    /**
+     * Return the index of a statistic.
+     * @param statistic String; the name of the statistic
+     * @return int; the index of the statistic, or -1 when the accumulator has no values for the statistic
+     */
+    public int getStatisticIndex(final String statistic)
+    {
+        Integer index = this.indices.get(statistic);
+        return index == null ? -1 : index;
+    }
+
+    /**
+     * Return the cell of a field of a statistic.
+     * @param statisticIndex int; the index of the statistic
+     * @param field SummaryField; the field
+     * @return int; the cell
+     * @throws IndexOutOfBoundsException when the statistic does not exist
+     */
+    private int cell(final int statisticIndex, final SummaryField field)
+    {
+        Throw.when(statisticIndex < 0 || statisticIndex >= this.statistics.size(), IndexOutOfBoundsException.class,
+                "statistic index %d out of bounds", statisticIndex);
+        return statisticIndex * FIELDS + field.ordinal();
+    }
+
+    /**
+     * Return the number of values of a field of a statistic.
+     * @param statisticIndex int; the index of the statistic
+     * @param field SummaryField; the field
+     * @return long; the number of values
+     * @throws IndexOutOfBoundsException when the statistic does not exist
+     */
+    public long getN(final int statisticIndex, final SummaryField field)
+    {
+        return this.n[cell(statisticIndex, field)];
+    }
+
+    /**
+     * Return the minimum of the values of a field of a statistic.
+     * @param statisticIndex int; the index of the statistic
+     * @param field SummaryField; the field
+     * @return double; the minimum, or NaN when there are no values
+     * @throws IndexOutOfBoundsException when the statistic does not exist
+     */
+    public double getMin(final int statisticIndex, final SummaryField field)
+    {
+        return this.min[cell(statisticIndex, field)];
+    }
+
+    /**
+     * Return the maximum of the values of a field of a statistic.
+     * @param statisticIndex int; the index of the statistic
+     * @param field SummaryField; the field
+     * @return double; the maximum, or NaN when there are no values
+     * @throws IndexOutOfBoundsException when the statistic does not exist
+     */
+    public double getMax(final int statisticIndex, final SummaryField field)
+    {
+        return this.max[cell(statisticIndex, field)];
+    }
+
+    /**
+     * Return the sum of the values of a field of a statistic.
+     * @param statisticIndex int; the index of the statistic
+     * @param field SummaryField; the field
+     * @return double; the sum, or 0 when there are no values
+     * @throws IndexOutOfBoundsException when the statistic does not exist
+     */
+    public double getSum(final int statisticIndex, final SummaryField field)
+    {
+        return this.sum[cell(statisticIndex, field)];
+    }
+
+    /**
+     * Return the mean of the values of a field of a statistic.
+     * @param statisticIndex int; the index of the statistic
+     * @param field SummaryField; the field
+     * @return double; the mean, or NaN when there are no values
+     * @throws IndexOutOfBoundsException when the statistic does not exist
+     */
+    public double getMean(final int statisticIndex, final SummaryField field)
+    {
+        int c = cell(statisticIndex, field);
+        return this.n[c] > 0 ? this.mean[c] : Double.NaN;
+    }
+
+    /**
+     * Return the population variance of the values of a field of a statistic.
+     * @param statisticIndex int; the index of the statistic
+     * @param field SummaryField; the field
+     * @return double; the population variance, or NaN when there are no values
+     * @throws IndexOutOfBoundsException when the statistic does not exist
+     */
+    public double getPopulationVariance(final int statisticIndex, final SummaryField field)
+    {
+        int c = cell(statisticIndex, field);
+        return this.n[c] > 0 ? this.m2[c] / this.n[c] : Double.NaN;
+    }
+
+    /**
+     * Return the sample variance of the values of a field of a statistic.
+     * @param statisticIndex int; the index of the statistic
+     * @param field SummaryField; the field
+     * @return double; the sample variance, or NaN when there are less than two values
+     * @throws IndexOutOfBoundsException when the statistic does not exist
+     */
+    public double getSampleVariance(final int statisticIndex, final SummaryField field)
+    {
+        int c = cell(statisticIndex, field);
+        return this.n[c] > 1 ? this.m2[c] / (this.n[c] - 1) : Double.NaN;
+    }
+
+    /**
+     * Return the sample standard deviation of the values of a field of a statistic.
+     * @param statisticIndex int; the index of the statistic
+     * @param field SummaryField; the field
+     * @return double; the sample standard deviation, or NaN when there are less than two values
+     * @throws IndexOutOfBoundsException when the statistic does not exist
+     */
+    public double getSampleStDev(final int statisticIndex, final SummaryField field)
+    {
+        return Math.sqrt(getSampleVariance(statisticIndex, field));
+    }
+
+    /**
+     * Return the population skewness of the values of a field of a statistic.
+     * @param statisticIndex int; the index of the statistic
+     * @param field SummaryField; the field
+     * @return double; the population skewness, or NaN when there are less than two values
+     * @throws IndexOutOfBoundsException when the statistic does not exist
+     */
+    public double getPopulationSkewness(final int statisticIndex, final SummaryField field)
+    {
+        int c = cell(statisticIndex, field);
+        return this.n[c] > 1 ? (this.m3[c] / this.n[c]) / Math.pow(this.m2[c] / this.n[c], 1.5) : Double.NaN;
+    }
+
+    /**
+     * Return the population kurtosis of the values of a field of a statistic.
+     * @param statisticIndex int; the index of the statistic
+     * @param field SummaryField; the field
+     * @return double; the population kurtosis, or NaN when there are less than three values
+     * @throws IndexOutOfBoundsException when the statistic does not exist
+     */
+    public double getPopulationKurtosis(final int statisticIndex, final SummaryField field)
+    {
+        int c = cell(statisticIndex, field);
+        double variance = this.m2[c] / this.n[c];
+        return this.n[c] > 2 ? (this.m4[c] / this.n[c]) / (variance * variance) : Double.NaN;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SummaryAccumulator[statistics=" + this.statistics.size() + "]";
+    }
+
+}
@@ -0,0 +1,126 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+/**
+ * The fields of the statistics of a replication that are summarized over the replications of an Experiment. The name of a
+ * field is the key of the field in the summary statistics of the Experiment, e.g., "SampleMean".
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public enum SummaryField
+{
+    /** the number of observations of a counter, tally or persistent. */
+    N("N"),
+
+    /** the count of a counter. */
+    COUNT("Count"),
+
+    /** the maximum of a tally or persistent. */
+    MAX("Max"),
+
+    /** the minimum of a tally or persistent. */
+    MIN("Min"),
+
+    /** the population excess kurtosis of a tally. */
+    POPULATION_EXCESS_KURTOSIS("PopulationExcessKurtosis"),
+
+    /** the population kurtosis of a tally. */
+    POPULATION_KURTOSIS("PopulationKurtosis"),
+
+    /** the population mean of a tally. */
+    POPULATION_MEAN("PopulationMean"),
+
+    /** the population skewness of a tally. */
+    POPULATION_SKEWNESS("PopulationSkewness"),
+
+    /** the population standard deviation of a tally. */
+    POPULATION_STDEV("PopulationStDev"),
+
+    /** the population variance of a tally. */
+    POPULATION_VARIANCE("PopulationVariance"),
+
+    /** the sample excess kurtosis of a tally. */
+    SAMPLE_EXCESS_KURTOSIS("SampleExcessKurtosis"),
+
+    /** the sample kurtosis of a tally. */
+    SAMPLE_KURTOSIS("SampleKurtosis"),
+
+    /** the sample mean of a tally. */
+    SAMPLE_MEAN("SampleMean"),
+
+    /** the sample skewness of a tally. */
+    SAMPLE_SKEWNESS("SampleSkewness"),
+
+    /** the sample standard deviation of a tally. */
+    SAMPLE_STDEV("SampleStDev"),
+
+    /** the sample variance of a tally. */
+    SAMPLE_VARIANCE("SampleVariance"),
+
+    /** the sum of a tally. */
+    SUM("Sum"),
+
+    /** the weighted population mean of a persistent. */
+    WEIGHTED_POPULATION_MEAN("WeightedPopulationMean"),
+
+    /** the weighted population standard deviation of a persistent. */
+    WEIGHTED_POPULATION_STDEV("WeightedPopulationStDev"),
+
+    /** the weighted population variance of a persistent. */
+    WEIGHTED_POPULATION_VARIANCE("WeightedPopulationVariance"),
+
+    /** the weighted sample mean of a persistent. */
+    WEIGHTED_SAMPLE_MEAN("WeightedSampleMean"),
+
+    /** the weighted sample standard deviation of a persistent. */
+    WEIGHTED_SAMPLE_STDEV("WeightedSampleStDev"),
+
+    /** the weighted sample variance of a persistent. */
+    WEIGHTED_SAMPLE_VARIANCE("WeightedSampleVariance"),
+
+    /** the weighted sum of a persistent. */
+    WEIGHTED_SUM("WeightedSum");
+
+    /** the name of the field in the summary statistics. */
+    private final String name;
+
+    /**
+     * @param name String; the name of the field in the summary statistics
+     */
+    SummaryField(final String name)
+    {
+        this.name = name;
+    }
+
+    /**
+     * Return the name of the field in the summary statistics.
+     * @return String; the name of the field, e.g., "SampleMean"
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * Return the field with a name.
+     * @param name String; the name of the field in the summary statistics, e.g., "SampleMean"
+     * @return SummaryField; the field with the name
+     * @throws IllegalArgumentException when there is no field with the name
+     */
+    public static SummaryField of(final String name)
+    {
+        for (SummaryField field : values())
+        {
+            if (field.name.equals(name))
+            {
+                return field;
+            }
+        }
+        throw new IllegalArgumentException("unknown summary field " + name);
+    }
+}
@@ -0,0 +1,51 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A SweepDesign determines the treatments of a ParameterSweep: the combinations of values of the factors that are simulated.
+ * Implementations are the FullFactorialDesign, the LatinHypercubeDesign, and the SobolDesign. A design should be
+ * deterministic, so an interrupted sweep can be resumed with the same treatments.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public interface SweepDesign extends Serializable
+{
+    /**
+     * Return the treatments of the design for a list of factors.
+     * @param factors List&lt;SweepFactor&gt;; the factors of the sweep
+     * @return List&lt;String[]&gt;; one array per treatment, with the value of every factor in the order of the factors
+     * @throws IllegalArgumentException when the design cannot be made for the factors
+     */
+    List<String[]> getTreatments(List<SweepFactor> factors);
+
+    /**
+     * Return the treatments for the points of a design in the unit hypercube, such as the points of a LatinHypercubeDesign or a
+     * SobolDesign. The coordinate of a point for a factor is mapped onto a value of the factor with SweepFactor.getValue().
+     * @param factors List&lt;SweepFactor&gt;; the factors of the sweep
+     * @param points double[][]; the points, indexed as [point][factor], with coordinates in [0, 1)
+     * @return List&lt;String[]&gt;; one array per point, with the value of every factor in the order of the factors
+     */
+    static List<String[]> getTreatments(final List<SweepFactor> factors, final double[][] points)
+    {
+        List<String[]> treatments = new ArrayList<>();
+        for (double[] point : points)
+        {
+            String[] treatment = new String[factors.size()];
+            for (int f = 0; f < factors.size(); f++)
+            {
+                treatment[f] = factors.get(f).getValue(point[f]);
+            }
+            treatments.add(treatment);
+        }
+        return treatments;
+    }
+}
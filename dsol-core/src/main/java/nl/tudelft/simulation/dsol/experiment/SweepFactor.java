@@ -0,0 +1,188 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.djutils.exceptions.Throw;
+
+/**
+ * A SweepFactor is an input parameter that is varied in a ParameterSweep. A factor either has a list of levels, given as the
+ * strings that ReadInputParameters.setParameter() parses, or a numerical range. A full factorial design uses the levels of the
+ * factors; the levels of a range are spread evenly over the range, including its bounds. Space-filling designs, such as a Latin
+ * hypercube or a Sobol sequence, map a value in [0, 1) to a level, or to a value within the range of the factor.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public class SweepFactor implements Serializable
+{
+    /** */
+    private static final long serialVersionUID = 20240101L;
+
+    /** the key of the input parameter, using the dot-notation for input parameters in sub-maps. */
+    private final String key;
+
+    /** the levels of the factor, or null for a range. */
+    private final List<String> levels;
+
+    /** the lower bound of the range. */
+    private final double min;
+
+    /** the upper bound of the range. */
+    private final double max;
+
+    /** the number of levels of the range in a full factorial design. */
+    private final int numberOfLevels;
+
+    /** the unit that is appended to the values of the range, e.g., "min" for a Duration; an empty string for no unit. */
+    private final String unit;
+
+    /** whether the values of the range are rounded to whole numbers, e.g., for an integer input parameter. */
+    private boolean integer = false;
+
+    /**
+     * Construct a factor with a list of levels.
+     * @param key String; the key of the input parameter, using the dot-notation for input parameters in sub-maps
+     * @param levels List&lt;String&gt;; the levels, as strings that can be parsed by ReadInputParameters.setParameter()
+     * @throws IllegalArgumentException when there are no levels
+     */
+    public SweepFactor(final String key, final List<String> levels)
+    {
+        Throw.whenNull(key, "key cannot be null");
+        Throw.whenNull(levels, "levels cannot be null");
+        Throw.when(levels.isEmpty(), IllegalArgumentException.class, "a factor needs at least one level");
+        this.key = key;
+        this.levels = new ArrayList<>(levels);
+        this.min = Double.NaN;
+        this.max = Double.NaN;
+        this.numberOfLevels = levels.size();
+        this.unit = "";
+    }
+
+    /**
+     * Construct a factor with a numerical range, and a unit that is appended to the values, e.g., for a DoubleScalar.
+     * @param key String; the key of the input parameter, using the dot-notation for input parameters in sub-maps
+     * @param min double; the lower bound of the range
+     * @param max double; the upper bound of the range
+     * @param numberOfLevels int; the number of levels in a full factorial design, spread evenly over the range
+     * @param unit String; the unit that is appended to the values, e.g., "min" for a Duration, or an empty string
+     * @throws IllegalArgumentException when max is less than min, or when the number of levels is less than 1
+     */
+    public SweepFactor(final String key, final double min, final double max, final int numberOfLevels, final String unit)
+    {
+        Throw.whenNull(key, "key cannot be null");
+        Throw.whenNull(unit, "unit cannot be null");
+        Throw.when(Double.isNaN(min) || Double.isNaN(max) || max < min, IllegalArgumentException.class,
+                "the range of a factor should have min <= max");
+        Throw.when(numberOfLevels < 1, IllegalArgumentException.class, "a factor needs at least one level");
+        this.key = key;
+        this.levels = null;
+        this.min = min;
+        this.max = max;
+        this.numberOfLevels = numberOfLevels;
+        this.unit = unit;
+    }
+
+    /**
+     * Construct a factor with a numerical range without a unit.
+     * @param key String; the key of the input parameter, using the dot-notation for input parameters in sub-maps
+     * @param min double; the lower bound of the range
+     * @param max double; the upper bound of the range
+     * @param numberOfLevels int; the number of levels in a full factorial design, spread evenly over the range
+     * @throws IllegalArgumentException when max is less than min, or when the number of levels is less than 1
+     */
+    public SweepFactor(final String key, final double min, final double max, final int numberOfLevels)
+    {
+        this(key, min, max, numberOfLevels, "");
+    }
+
+    /**
+     * Return the levels of the factor for a full factorial design. The levels of a range are spread evenly over the range,
+     * including the bounds; a range with one level has the midpoint of the range as its level.
+     * @return List&lt;String&gt;; the levels of the factor
+     */
+    public List<String> getLevels()
+    {
+        if (this.levels != null)
+        {
+            return Collections.unmodifiableList(this.levels);
+        }
+        List<String> result = new ArrayList<>();
+        for (int i = 0; i < this.numberOfLevels; i++)
+        {
+            double fraction = this.numberOfLevels == 1 ? 0.5 : i / (this.numberOfLevels - 1.0);
+            result.add(format(this.min + fraction * (this.max - this.min)));
+        }
+        return result;
+    }
+
+    /**
+     * Return the value of the factor for a point of a space-filling design. For a factor with levels, the interval [0, 1) is
+     * divided into equal parts, one per level; for a range, the value is interpolated between the bounds.
+     * @param u double; the coordinate of the point for this factor, in the interval [0, 1)
+     * @return String; the value of the factor, as a string that can be parsed by ReadInputParameters.setParameter()
+     */
+    public String getValue(final double u)
+    {
+        if (this.levels != null)
+        {
+            return this.levels.get(Math.min((int) (u * this.levels.size()), this.levels.size() - 1));
+        }
+        return format(this.min + u * (this.max - this.min));
+    }
+
+    /**
+     * Format a value of the range, rounded to a whole number for an integer factor, and followed by the unit.
+     * @param value double; the value to format
+     * @return String; the formatted value
+     */
+    private String format(final double value)
+    {
+        return (this.integer ? Long.toString(Math.round(value)) : Double.toString(value)) + this.unit;
+    }
+
+    /**
+     * Set whether the values of the range are rounded to whole numbers. The ParameterSweep sets this for factors of integer
+     * input parameters.
+     * @param integer boolean; whether the values of the range are rounded to whole numbers
+     */
+    void setInteger(final boolean integer)
+    {
+        this.integer = integer;
+    }
+
+    /**
+     * Return the key of the input parameter.
+     * @return String; the key of the input parameter, using the dot-notation for input parameters in sub-maps
+     */
+    public String getKey()
+    {
+        return this.key;
+    }
+
+    /**
+     * Return whether the factor has a numerical range instead of a list of levels.
+     * @return boolean; whether the factor has a numerical range
+     */
+    public boolean isRange()
+    {
+        return this.levels == null;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SweepFactor[" + this.key + "; "
+                + (this.levels != null ? "levels=" + this.levels
+                        : "range=[" + this.min + ", " + this.max + "]" + this.unit + ", levels=" + this.numberOfLevels)
+                + "]";
+    }
+
+}
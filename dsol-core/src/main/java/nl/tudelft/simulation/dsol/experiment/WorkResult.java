@@ -0,0 +1,167 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.djutils.exceptions.Throw;
+
+import nl.tudelft.simulation.dsol.experiment.Experiment.SummaryValue;
+
+/**
+ * A WorkResult contains the summary values of one replication of a ReplicationFarm, which a worker returns to the coordinator.
+ * The summary values are stored as parallel arrays of statistic names, field names and values, which is compact to transport.
+ * When the replication failed, the result contains the error instead.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public final class WorkResult implements Serializable
+{
+    /** */
+    private static final long serialVersionUID = 20240101L;
+
+    /** the number of the treatment. */
+    private final int treatment;
+
+    /** the replication number. */
+    private final int replicationNumber;
+
+    /** the names of the statistics of the summary values. */
+    private final String[] statistics;
+
+    /** the names of the fields of the summary values. */
+    private final String[] fields;
+
+    /** the summary values. */
+    private final double[] values;
+
+    /** the description of the error when the replication failed, or null when it succeeded. */
+    private final String error;
+
+    /**
+     * Construct a work result.
+     * @param treatment int; the number of the treatment
+     * @param replicationNumber int; the replication number
+     * @param statistics String[]; the names of the statistics of the summary values
+     * @param fields String[]; the names of the fields of the summary values
+     * @param values double[]; the summary values
+     * @param error String; the description of the error, or null when the replication succeeded
+     */
+    private WorkResult(final int treatment, final int replicationNumber, final String[] statistics, final String[] fields,
+            final double[] values, final String error)
+    {
+        this.treatment = treatment;
+        this.replicationNumber = replicationNumber;
+        this.statistics = statistics;
+        this.fields = fields;
+        this.values = values;
+        this.error = error;
+    }
+
+    /**
+     * Make the result of a replication that succeeded.
+     * @param unit WorkUnit&lt;?&gt;; the work unit of the replication
+     * @param summaryValues List&lt;SummaryValue&gt;; the summary values of the replication
+     * @return WorkResult; the result with the summary values
+     */
+    static WorkResult success(final WorkUnit<?> unit, final List<SummaryValue> summaryValues)
+    {
+        int n = summaryValues.size();
+        String[] statistics = new String[n];
+        String[] fields = new String[n];
+        double[] values = new double[n];
+        for (int i = 0; i < n; i++)
+        {
+            statistics[i] = summaryValues.get(i).statistic;
+            fields[i] = summaryValues.get(i).field;
+            values[i] = summaryValues.get(i).value;
+        }
+        return new WorkResult(unit.getTreatment(), unit.getReplicationNumber(), statistics, fields, values, null);
+    }
+
+    /**
+     * Make the result of a replication that failed.
+     * @param unit WorkUnit&lt;?&gt;; the work unit of the replication
+     * @param error String; the description of the error
+     * @return WorkResult; the result with the error
+     */
+    static WorkResult failure(final WorkUnit<?> unit, final String error)
+    {
+        Throw.whenNull(error, "error cannot be null");
+        return new WorkResult(unit.getTreatment(), unit.getReplicationNumber(), new String[0], new String[0], new double[0],
+                error);
+    }
+
+    /**
+     * Return the summary values of the result.
+     * @return List&lt;SummaryValue&gt;; the summary values
+     */
+    List<SummaryValue> getSummaryValues()
+    {
+        List<SummaryValue> summaryValues = new ArrayList<>(this.values.length);
+        for (int i = 0; i < this.values.length; i++)
+        {
+            summaryValues.add(new SummaryValue(this.statistics[i], this.fields[i], this.values[i]));
+        }
+        return summaryValues;
+    }
+
+    /**
+     * Return the number of the treatment.
+     * @return int; the number of the treatment
+     */
+    public int getTreatment()
+    {
+        return this.treatment;
+    }
+
+    /**
+     * Return the replication number.
+     * @return int; the replication number
+     */
+    public int getReplicationNumber()
+    {
+        return this.replicationNumber;
+    }
+
+    /**
+     * Return the number of summary values.
+     * @return int; the number of summary values
+     */
+    public int getNumberOfValues()
+    {
+        return this.values.length;
+    }
+
+    /**
+     * Return whether the replication failed.
+     * @return boolean; whether the replication failed
+     */
+    public boolean isFailure()
+    {
+        return this.error != null;
+    }
+
+    /**
+     * Return the description of the error when the replication failed.
+     * @return String; the description of the error, or null when the replication succeeded
+     */
+    public String getError()
+    {
+        return this.error;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "WorkResult[t" + this.treatment + ".r" + this.replicationNumber
+                + (this.error == null ? ", values=" + this.values.length : ", error=" + this.error) + "]";
+    }
+
+}
@@ -0,0 +1,172 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import java.io.Serializable;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.djutils.exceptions.Throw;
+
+/**
+ * A WorkUnit is one replication of one treatment of a ReplicationFarm, which the coordinator sends to a worker. It contains
+ * everything the worker needs to execute the replication on its own model: the values of the input parameters of the
+ * treatment, the seeds of the streams for the replication, and the start time, warmup period and run length.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the time type
+ * @since 4.2.3
+ */
+public final class WorkUnit<T extends Number & Comparable<T>> implements Serializable
+{
+    /** */
+    private static final long serialVersionUID = 20240101L;
+
+    /** the id of the farm. */
+    private final String farmId;
+
+    /** the number of the treatment. */
+    private final int treatment;
+
+    /** the replication number. */
+    private final int replicationNumber;
+
+    /** the values of the input parameters of the treatment, identified by their key. */
+    private final Map<String, String> treatmentValues;
+
+    /** the seeds of the streams for the replication, identified by the stream id. */
+    private final Map<String, Long> seeds;
+
+    /** the start time of the replication. */
+    private final T startTime;
+
+    /** the warmup period of the replication. */
+    private final T warmupPeriod;
+
+    /** the run length of the replication. */
+    private final T runLength;
+
+    /**
+     * Construct a work unit.
+     * @param farmId String; the id of the farm
+     * @param treatment int; the number of the treatment
+     * @param replicationNumber int; the replication number
+     * @param treatmentValues Map&lt;String, String&gt;; the values of the input parameters of the treatment, identified by key
+     * @param seeds Map&lt;String, Long&gt;; the seeds of the streams for the replication, identified by stream id
+     * @param startTime T; the start time of the replication
+     * @param warmupPeriod T; the warmup period of the replication
+     * @param runLength T; the run length of the replication, including the warmup period
+     * @throws NullPointerException when one of the objects is null
+     */
+    public WorkUnit(final String farmId, final int treatment, final int replicationNumber,
+            final Map<String, String> treatmentValues, final Map<String, Long> seeds, final T startTime, final T warmupPeriod,
+            final T runLength)
+    {
+        Throw.whenNull(farmId, "farmId cannot be null");
+        Throw.whenNull(treatmentValues, "treatmentValues cannot be null");
+        Throw.whenNull(seeds, "seeds cannot be null");
+        Throw.whenNull(startTime, "startTime cannot be null");
+        Throw.whenNull(warmupPeriod, "warmupPeriod cannot be null");
+        Throw.whenNull(runLength, "runLength cannot be null");
+        this.farmId = farmId;
+        this.treatment = treatment;
+        this.replicationNumber = replicationNumber;
+        this.treatmentValues = new LinkedHashMap<>(treatmentValues);
+        this.seeds = new LinkedHashMap<>(seeds);
+        this.startTime = startTime;
+        this.warmupPeriod = warmupPeriod;
+        this.runLength = runLength;
+    }
+
+    /**
+     * Return the id of the farm.
+     * @return String; the id of the farm
+     */
+    public String getFarmId()
+    {
+        return this.farmId;
+    }
+
+    /**
+     * Return the number of the treatment.
+     * @return int; the number of the treatment
+     */
+    public int getTreatment()
+    {
+        return this.treatment;
+    }
+
+    /**
+     * Return the replication number.
+     * @return int; the replication number
+     */
+    public int getReplicationNumber()
+    {
+        return this.replicationNumber;
+    }
+
+    /**
+     * Return the values of the input parameters of the treatment.
+     * @return Map&lt;String, String&gt;; an unmodifiable map of the values of the input parameters, identified by key
+     */
+    public Map<String, String> getTreatmentValues()
+    {
+        return Collections.unmodifiableMap(this.treatmentValues);
+    }
+
+    /**
+     * Return the seeds of the streams for the replication.
+     * @return Map&lt;String, Long&gt;; an unmodifiable map of the seeds, identified by stream id
+     */
+    public Map<String, Long> getSeeds()
+    {
+        return Collections.unmodifiableMap(this.seeds);
+    }
+
+    /**
+     * Return the start time of the replication.
+     * @return T; the start time of the replication
+     */
+    public T getStartTime()
+    {
+        return this.startTime;
+    }
+
+    /**
+     * Return the warmup period of the replication.
+     * @return T; the warmup period of the replication
+     */
+    public T getWarmupPeriod()
+    {
+        return this.warmupPeriod;
+    }
+
+    /**
+     * Return the run length of the replication.
+     * @return T; the run length of the replication, including the warmup period
+     */
+    public T getRunLength()
+    {
+        return this.runLength;
+    }
+
+    /**
+     * Return the id of the replication, which is unique within the farm.
+     * @return String; the id of the replication
+     */
+    public String getReplicationId()
+    {
+        return this.farmId + ".t" + this.treatment + ".r" + this.replicationNumber;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "WorkUnit[" + getReplicationId() + ", values=" + this.treatmentValues + ", seeds=" + this.seeds + "]";
+    }
+
+}
@@ -212,8 +212,8 @@ public abstract class AtomicModel<T extends Number & Comparable<T>> extends Abst
                 if (this.timeAdvance().doubleValue() != Double.POSITIVE_INFINITY)
                 {
                     this.nextEvent =
-                            new SimEvent<T>((SimTime.plus(SimTime.minus(this.simulator.getSimulatorTime(), this.timeAdvance()),
-                                    this.elapsedTime)), this,"deltaInternalEventHandler", null);
+                            new SimEvent<T>(SimTime.plus(this.simulator.getSimulatorTime(), this.timeAdvance()), this,
+                                    "deltaInternalEventHandler", null);
                     this.timeLastEvent = this.simulator.getSimulatorTime();
                     this.simulator.getLogger().filter(Cat.DSOL).trace("schedule {}", this.nextEvent.toString());
                     this.simulator.scheduleEvent(this.nextEvent);
@@ -0,0 +1,620 @@
+package nl.tudelft.simulation.dsol.formalisms.devs.esdevs;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.djutils.exceptions.Throw;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+import nl.tudelft.simulation.dsol.simulators.DevsSimulator;
+import nl.tudelft.simulation.dsol.simulators.DevsSimulatorInterface;
+
+/**
+ * ConservativeDevsSimulator executes the components of a {@link CoupledModel} in parallel, using the conservative
+ * synchronization of K.M. Chandy and J. Misra (1979), "Distributed Simulation: A Case Study in Design and Verification of
+ * Distributed Programs", IEEE Transactions on Software Engineering 5(5). The components of the coupled model are assigned to a
+ * number of partitions. Each partition has its own event list and clock, and is executed by its own worker thread. A partition
+ * only executes events that are safe: events before the time up to which all partitions that send messages to it have promised
+ * not to send any earlier message. The promises are carried by the messages between the partitions, and by null messages that
+ * are sent when a partition has no real message to send. Since events are never executed too early, no rollbacks are needed.
+ * <p>
+ * Messages between partitions can only travel over internal couplings of the coupled model whose output port has a positive
+ * lookahead, see {@link OutputPort#setLookahead(Number)}. Components that are connected through couplings without lookahead
+ * have to be assigned to the same partition. The lookahead is part of the model: the sequential {@link DevsSimulator} delivers
+ * the messages after the same lookahead, so the parallel execution gives the same results. Messages from different partitions
+ * that are delivered to the same component at exactly the same time are handled in the order of arrival.
+ * </p>
+ * <p>
+ * The coupled model is constructed and initialized on a DevsSimulator in the normal way. The run method then takes over the
+ * events of the components from the event list of that simulator, binds the components to the simulators of the partitions,
+ * and executes the events till the end time. After the run, the components are bound to the original simulator again, and the
+ * remaining events are put back on its event list. Events of other objects than the components, such as the end of the
+ * replication, stay on the event list of the original simulator, and are not executed by the run. The clock of the original
+ * simulator is not advanced. With one partition, the events are executed in the same order as by the DevsSimulator.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the time type, e.g., Double, Long, Duration
+ * @since 4.2.3
+ */
+public class ConservativeDevsSimulator<T extends Number & Comparable<T>>
+{
+    /** the id of the simulator. */
+    private final Serializable id;
+
+    /** the coupled model of which the components are executed in parallel. */
+    private final CoupledModel<T> model;
+
+    /** the number of partitions, each executed by its own worker thread. */
+    private final int numberOfPartitions;
+
+    /** the explicit assignment of components to partitions. */
+    private final Map<AbstractDevsModel<T>, Integer> assignment = new LinkedHashMap<>();
+
+    /** the partitions of the current or last run. */
+    private final List<Partition> partitions = new ArrayList<>();
+
+    /** the partition that is executed by the current thread. */
+    private final ThreadLocal<Partition> currentPartition = new ThreadLocal<>();
+
+    /** the first exception that occurred in a worker thread. */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /** whether the simulator is running. */
+    private volatile boolean running = false;
+
+    /** the end time of the current run. */
+    private T endTime;
+
+    /**
+     * Create a conservative parallel simulator for the components of a coupled model.
+     * @param id Serializable; the id of the simulator, used in the names of the partitions and worker threads
+     * @param model CoupledModel&lt;T&gt;; the coupled model of which the components are executed in parallel
+     * @param numberOfPartitions int; the number of partitions, e.g., Runtime.getRuntime().availableProcessors()
+     */
+    public ConservativeDevsSimulator(final Serializable id, final CoupledModel<T> model, final int numberOfPartitions)
+    {
+        Throw.whenNull(id, "id cannot be null");
+        Throw.whenNull(model, "model cannot be null");
+        Throw.when(numberOfPartitions < 1, IllegalArgumentException.class, "numberOfPartitions should be at least 1");
+        this.id = id;
+        this.model = model;
+        this.numberOfPartitions = numberOfPartitions;
+    }
+
+    /**
+     * Assign a component of the coupled model to a partition. Components that are not assigned explicitly are distributed
+     * round-robin over the partitions, in the order of the model components of the coupled model.
+     * @param component AbstractDevsModel&lt;T&gt;; a component of the coupled model
+     * @param partition int; the index of the partition, between 0 and the number of partitions
+     * @throws SimRuntimeException when the simulator is running
+     */
+    public void assign(final AbstractDevsModel<T> component, final int partition) throws SimRuntimeException
+    {
+        Throw.whenNull(component, "component cannot be null");
+        Throw.when(!this.model.getModelComponents().contains(component), IllegalArgumentException.class,
+                "%s is not a component of %s", component, this.model);
+        Throw.when(partition < 0 || partition >= this.numberOfPartitions, IndexOutOfBoundsException.class,
+                "partition %d out of range", partition);
+        Throw.when(this.running, SimRuntimeException.class, "cannot assign a component of a running simulator");
+        this.assignment.put(component, partition);
+    }
+
+    /**
+     * Execute the events of the components of the coupled model till the end time. The method blocks till all partitions have
+     * executed their events at or before the end time.
+     * @param runEndTime T; the end time of the run; events at the end time are executed
+     * @throws SimRuntimeException when the simulator is already running, when the simulator of the model is running or is not a
+     *             DevsSimulator, when components in different partitions are coupled without a positive lookahead, or when the
+     *             execution of an event failed
+     */
+    public void run(final T runEndTime) throws SimRuntimeException
+    {
+        Throw.whenNull(runEndTime, "runEndTime cannot be null");
+        Throw.when(this.running, SimRuntimeException.class, "the simulator is already running");
+        DevsSimulatorInterface<T> source = this.model.getSimulator();
+        Throw.when(!(source instanceof DevsSimulator), SimRuntimeException.class,
+                "the coupled model should be constructed on a DevsSimulator");
+        Throw.when(source.isStartingOrRunning(), SimRuntimeException.class, "the simulator of the coupled model is running");
+        Map<AbstractDevsModel<T>, Partition> partitionOf = createPartitions(source.getSimulatorTime());
+        this.endTime = runEndTime;
+        this.failure.set(null);
+        this.running = true;
+        try
+        {
+            bind(partitionOf, null);
+            distributeEvents(source, partitionOf);
+            List<Thread> workers = new ArrayList<>();
+            for (Partition partition : this.partitions)
+            {
+                Thread worker = new Thread(partition::work, "Conservative-" + this.id + "-" + partition.index);
+                workers.add(worker);
+                worker.start();
+            }
+            for (Thread worker : workers)
+            {
+                worker.join();
+            }
+        }
+        catch (InterruptedException exception)
+        {
+            this.failure.compareAndSet(null, exception);
+        }
+        finally
+        {
+            bind(partitionOf, source);
+            for (Partition partition : this.partitions)
+            {
+                partition.returnEvents(source);
+            }
+            this.running = false;
+        }
+        if (this.failure.get() != null)
+        {
+            throw new SimRuntimeException("Conservative simulation " + this.id + " failed", this.failure.get());
+        }
+    }
+
+    /**
+     * Create the partitions, assign the components to the partitions, and determine the lookahead of the channels between the
+     * partitions from the internal couplings of the coupled model.
+     * @param startTime T; the start time of the partitions
+     * @return Map&lt;AbstractDevsModel&lt;T&gt;, Partition&gt;; the partition of each component of the coupled model
+     * @throws SimRuntimeException when components in different partitions are coupled without a positive lookahead
+     */
+    @SuppressWarnings("unchecked")
+    private Map<AbstractDevsModel<T>, Partition> createPartitions(final T startTime) throws SimRuntimeException
+    {
+        this.partitions.clear();
+        for (int i = 0; i < this.numberOfPartitions; i++)
+        {
+            this.partitions.add(new Partition(i, startTime));
+        }
+        Map<AbstractDevsModel<T>, Partition> partitionOf = new LinkedHashMap<>();
+        int next = 0;
+        for (AbstractDevsModel<T> component : this.model.getModelComponents())
+        {
+            Integer index = this.assignment.get(component);
+            partitionOf.put(component, this.partitions.get(index != null ? index : next++ % this.numberOfPartitions));
+        }
+        for (InternalCoupling<T, ?> coupling : this.model.getInternalCouplingSet())
+        {
+            Partition from = partitionOf.get(coupling.getFromPort().getModel());
+            Partition to = partitionOf.get(coupling.getToPort().getModel());
+            if (from != to)
+            {
+                T lookahead = coupling.getFromPort() instanceof OutputPort
+                        ? ((OutputPort<T, ?>) coupling.getFromPort()).getLookahead() : null;
+                Throw.when(lookahead == null || lookahead.compareTo(SimTime.zero(lookahead)) <= 0, SimRuntimeException.class,
+                        "coupling from %s to %s crosses partitions, but has no positive lookahead",
+                        coupling.getFromPort().getModel(), coupling.getToPort().getModel());
+                T current = from.lookaheads.get(to);
+                if (current == null || lookahead.compareTo(current) < 0)
+                {
+                    from.lookaheads.put(to, lookahead);
+                }
+                to.clocks.put(from, startTime);
+            }
+        }
+        return partitionOf;
+    }
+
+    /**
+     * Bind the components, and the components within coupled components, to the simulator of their partition, or to the given
+     * simulator.
+     * @param partitionOf Map&lt;AbstractDevsModel&lt;T&gt;, Partition&gt;; the partition of each component
+     * @param simulator DevsSimulatorInterface&lt;T&gt;; the simulator to bind all components to, or null to bind them to the
+     *            simulator of their partition
+     */
+    private void bind(final Map<AbstractDevsModel<T>, Partition> partitionOf, final DevsSimulatorInterface<T> simulator)
+    {
+        for (Map.Entry<AbstractDevsModel<T>, Partition> entry : partitionOf.entrySet())
+        {
+            bind(entry.getKey(), simulator == null ? entry.getValue() : simulator);
+        }
+    }
+
+    /**
+     * Bind a component, and the components within a coupled component, to a simulator.
+     * @param component AbstractDevsModel&lt;T&gt;; the component
+     * @param simulator DevsSimulatorInterface&lt;T&gt;; the simulator to bind the component to
+     */
+    private void bind(final AbstractDevsModel<T> component, final DevsSimulatorInterface<T> simulator)
+    {
+        component.setSimulator(simulator);
+        if (component instanceof CoupledModel)
+        {
+            for (AbstractDevsModel<T> inner : ((CoupledModel<T>) component).modelComponents)
+            {
+                bind(inner, simulator);
+            }
+        }
+    }
+
+    /**
+     * Move the events of the components from the event list of the source simulator to the event lists of the partitions.
+     * @param source DevsSimulatorInterface&lt;T&gt;; the simulator on which the coupled model has been initialized
+     * @param partitionOf Map&lt;AbstractDevsModel&lt;T&gt;, Partition&gt;; the partition of each component
+     */
+    @SuppressWarnings("unchecked")
+    private void distributeEvents(final DevsSimulatorInterface<T> source, final Map<AbstractDevsModel<T>, Partition> partitionOf)
+    {
+        List<SimEventInterface<T>> others = new ArrayList<>();
+        while (!source.getEventList().isEmpty())
+        {
+            SimEventInterface<T> event = source.getEventList().removeFirst();
+            Partition partition = null;
+            if (event instanceof SimEvent)
+            {
+                Object target = ((SimEvent<T>) event).getTarget();
+                AbstractDevsModel<T> component = target instanceof AbstractDevsModel ? (AbstractDevsModel<T>) target
+                        : target instanceof InputPortInterface ? ((InputPortInterface<T, ?>) target).getModel() : null;
+                while (component != null && component.getParentModel() != this.model)
+                {
+                    component = component.getParentModel();
+                }
+                partition = component == null ? null : partitionOf.get(component);
+            }
+            if (partition == null)
+            {
+                others.add(event);
+            }
+            else
+            {
+                partition.getEventList().add(event);
+            }
+        }
+        for (SimEventInterface<T> event : others)
+        {
+            source.getEventList().add(event);
+        }
+    }
+
+    /**
+     * Store the first failure, and wake up the workers that wait for a message.
+     * @param throwable Throwable; the failure
+     */
+    private void fail(final Throwable throwable)
+    {
+        this.failure.compareAndSet(null, throwable);
+        for (Partition partition : this.partitions)
+        {
+            partition.inbox.offer(new Message(null, null, null));
+        }
+    }
+
+    /**
+     * Return the smallest of two times, where null stands for an unbounded time.
+     * @param t1 T; the first time, or null
+     * @param t2 T; the second time, or null
+     * @return T; the smallest of the two times, or null when both are unbounded
+     */
+    private T min(final T t1, final T t2)
+    {
+        return t1 == null ? t2 : t2 == null || t1.compareTo(t2) <= 0 ? t1 : t2;
+    }
+
+    /**
+     * Return the id of the simulator.
+     * @return Serializable; the id of the simulator
+     */
+    public Serializable getId()
+    {
+        return this.id;
+    }
+
+    /**
+     * Return the coupled model of which the components are executed in parallel.
+     * @return CoupledModel&lt;T&gt;; the coupled model
+     */
+    public CoupledModel<T> getModel()
+    {
+        return this.model;
+    }
+
+    /**
+     * Return the number of partitions.
+     * @return int; the number of partitions
+     */
+    public int getNumberOfPartitions()
+    {
+        return this.numberOfPartitions;
+    }
+
+    /**
+     * Return whether the simulator is running.
+     * @return boolean; whether the simulator is running
+     */
+    public boolean isRunning()
+    {
+        return this.running;
+    }
+
+    /**
+     * Return the number of events that have been executed in the last run.
+     * @return long; the number of executed events
+     */
+    public long getExecutedEvents()
+    {
+        return this.partitions.stream().mapToLong(p -> p.executedEvents).sum();
+    }
+
+    /**
+     * Return the number of messages that have been sent between the partitions in the last run.
+     * @return long; the number of messages between the partitions
+     */
+    public long getMessages()
+    {
+        return this.partitions.stream().mapToLong(p -> p.messages).sum();
+    }
+
+    /**
+     * Return the number of null messages that have been sent between the partitions in the last run.
+     * @return long; the number of null messages
+     */
+    public long getNullMessages()
+    {
+        return this.partitions.stream().mapToLong(p -> p.nullMessages).sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ConservativeDevsSimulator[" + this.id + "; model=" + this.model + "; partitions=" + this.numberOfPartitions
+                + "]";
+    }
+
+    /**
+     * A message between two partitions: an event to deliver and the promise of the sender, or only a promise (null message).
+     */
+    private class Message
+    {
+        /** the sending partition; null to wake up a waiting worker. */
+        private final Partition sender;
+
+        /** the time before which the sender will not send any other message, or null when it will not send messages anymore. */
+        private final T promise;
+
+        /** the event to deliver, or null for a null message. */
+        private final SimEventInterface<T> event;
+
+        /**
+         * @param sender Partition; the sending partition; null to wake up a waiting worker
+         * @param promise T; the time before which the sender will not send any other message, or null for no more messages
+         * @param event SimEventInterface&lt;T&gt;; the event to deliver, or null for a null message
+         */
+        Message(final Partition sender, final T promise, final SimEventInterface<T> event)
+        {
+            this.sender = sender;
+            this.promise = promise;
+            this.event = event;
+        }
+    }
+
+    /**
+     * A partition: the simulator on which a group of components schedule their events. The events of a partition are only
+     * executed by its worker thread. Events that are scheduled from another partition are messages, which are put in the inbox
+     * of the partition.
+     */
+    private class Partition extends DevsSimulator<T>
+    {
+        /** */
+        private static final long serialVersionUID = 20240101L;
+
+        /** the index of the partition. */
+        private final int index;
+
+        /** the lowest lookahead of the couplings to other partitions. */
+        private final Map<Partition, T> lookaheads = new LinkedHashMap<>();
+
+        /** the promises of the partitions that send messages to this partition; null when there are no more messages. */
+        private final Map<Partition, T> clocks = new LinkedHashMap<>();
+
+        /** the last promise sent to the other partitions. */
+        private final Map<Partition, T> sentPromises = new LinkedHashMap<>();
+
+        /** the messages from other partitions. */
+        private final LinkedBlockingQueue<Message> inbox = new LinkedBlockingQueue<>();
+
+        /** the worker thread of the partition. */
+        private transient volatile Thread worker;
+
+        /** the number of executed events. */
+        private long executedEvents = 0L;
+
+        /** the number of messages sent to other partitions. */
+        private long messages = 0L;
+
+        /** the number of null messages sent to other partitions. */
+        private long nullMessages = 0L;
+
+        /**
+         * @param index int; the index of the partition
+         * @param startTime T; the start time of the partition
+         */
+        Partition(final int index, final T startTime)
+        {
+            super(ConservativeDevsSimulator.this.id + "-" + index);
+            this.index = index;
+            this.simulatorTime = startTime;
+        }
+
+        @Override
+        public SimEventInterface<T> scheduleEvent(final SimEventInterface<T> event) throws SimRuntimeException
+        {
+            Partition sender = ConservativeDevsSimulator.this.currentPartition.get();
+            if (sender == null || sender == this)
+            {
+                addToEventList(event);
+            }
+            else
+            {
+                // a message over a coupling with lookahead: the sender will not send anything before now + lookahead
+                sender.messages++;
+                T promise = SimTime.plus(sender.simulatorTime, sender.lookaheads.get(this));
+                sender.sentPromises.put(this, promise);
+                this.inbox.offer(new Message(sender, promise, event));
+            }
+            return event;
+        }
+
+        @Override
+        public boolean cancelEvent(final SimEventInterface<T> event)
+        {
+            return this.eventList.remove(event);
+        }
+
+        @Override
+        protected boolean isLoopThread()
+        {
+            return Thread.currentThread() == this.worker;
+        }
+
+        /**
+         * The loop of the worker thread: receive messages, execute the safe events, and send null messages, till there are no
+         * more events at or before the end time.
+         */
+        void work()
+        {
+            this.worker = Thread.currentThread();
+            ConservativeDevsSimulator.this.currentPartition.set(this);
+            try
+            {
+                while (ConservativeDevsSimulator.this.failure.get() == null)
+                {
+                    for (Message message = this.inbox.poll(); message != null; message = this.inbox.poll())
+                    {
+                        receive(message);
+                    }
+                    T safeTime = null;
+                    for (T clock : this.clocks.values())
+                    {
+                        safeTime = min(safeTime, clock);
+                    }
+                    boolean executed = execute(safeTime);
+                    T bound = min(this.eventList.isEmpty() ? null : this.eventList.first().getAbsoluteExecutionTime(), safeTime);
+                    boolean finished = bound == null || bound.compareTo(ConservativeDevsSimulator.this.endTime) > 0;
+                    sendNullMessages(finished ? null : bound);
+                    if (finished)
+                    {
+                        return;
+                    }
+                    if (!executed)
+                    {
+                        receive(this.inbox.take());
+                    }
+                }
+            }
+            catch (Exception exception)
+            {
+                fail(exception);
+            }
+            finally
+            {
+                ConservativeDevsSimulator.this.currentPartition.remove();
+                this.worker = null;
+            }
+        }
+
+        /**
+         * Handle a message: update the promise of the sender, and add the event to the event list.
+         * @param message Message; the message
+         * @throws SimRuntimeException when the event is scheduled before the time of the partition
+         */
+        private void receive(final Message message) throws SimRuntimeException
+        {
+            if (message.sender == null)
+            {
+                return;
+            }
+            T clock = this.clocks.get(message.sender);
+            if (clock != null && (message.promise == null || message.promise.compareTo(clock) > 0))
+            {
+                this.clocks.put(message.sender, message.promise);
+            }
+            if (message.event != null)
+            {
+                addToEventList(message.event);
+            }
+        }
+
+        /**
+         * Execute the events before the safe time, and at or before the end time.
+         * @param safeTime T; the time before which no messages can arrive anymore, or null when no messages can arrive
+         * @return boolean; whether at least one event was executed
+         * @throws SimRuntimeException when the execution of an event failed
+         */
+        private boolean execute(final T safeTime) throws SimRuntimeException
+        {
+            boolean executed = false;
+            while (!this.eventList.isEmpty())
+            {
+                T time = this.eventList.first().getAbsoluteExecutionTime();
+                if (time.compareTo(ConservativeDevsSimulator.this.endTime) > 0
+                        || (safeTime != null && time.compareTo(safeTime) >= 0))
+                {
+                    break;
+                }
+                SimEventInterface<T> event = this.eventList.removeFirst();
+                this.simulatorTime = time;
+                event.execute();
+                this.executedEvents++;
+                executed = true;
+            }
+            return executed;
+        }
+
+        /**
+         * Send a null message to the partitions that receive messages from this partition, when the promise has increased.
+         * @param bound T; the earliest time of a future event of this partition, or null when the partition is finished
+         */
+        private void sendNullMessages(final T bound)
+        {
+            for (Map.Entry<Partition, T> entry : this.lookaheads.entrySet())
+            {
+                T promise = bound == null ? null : SimTime.plus(bound, entry.getValue());
+                T sent = this.sentPromises.get(entry.getKey());
+                boolean first = !this.sentPromises.containsKey(entry.getKey());
+                if (first || (sent != null && (promise == null || promise.compareTo(sent) > 0)))
+                {
+                    this.sentPromises.put(entry.getKey(), promise);
+                    this.nullMessages++;
+                    entry.getKey().inbox.offer(new Message(this, promise, null));
+                }
+            }
+        }
+
+        /**
+         * Move the remaining events, including the events of unhandled messages, to the event list of the source simulator.
+         * @param source DevsSimulatorInterface&lt;T&gt;; the simulator on which the coupled model has been initialized
+         */
+        void returnEvents(final DevsSimulatorInterface<T> source)
+        {
+            for (Message message = this.inbox.poll(); message != null; message = this.inbox.poll())
+            {
+                if (message.event != null)
+                {
+                    this.eventList.add(message.event);
+                }
+            }
+            while (!this.eventList.isEmpty())
+            {
+                source.getEventList().add(this.eventList.removeFirst());
+            }
+        }
+    }
+
+}
@@ -11,6 +11,8 @@ import org.djutils.event.reference.Reference;
 
 import nl.tudelft.simulation.dsol.SimRuntimeException;
 import nl.tudelft.simulation.dsol.formalisms.devs.esdevs.exceptions.PortNotFoundException;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEvent;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
 import nl.tudelft.simulation.dsol.simulators.DevsSimulatorInterface;
 
 /**
@@ -111,7 +113,8 @@ public abstract class CoupledModel<T extends Number & Comparable<T>> extends Abs
     // ///////////////////////////////////////////////////////////////////////////
 
     /**
-     * The transfer function takes care of transferring a value from this coupled model to the outside world.
+     * The transfer function takes care of transferring a value from this coupled model to the outside world. When the output
+     * port has a lookahead, the value is delivered to the input ports of internal couplings after the lookahead.
      * @param <TYPE> the type of message / event being transferred
      * @param x OutputPortInterface&lt;T,TYPE&gt;; the output port through which the transfer takes place
      * @param y TYPE; the value being transferred
@@ -121,11 +124,24 @@ public abstract class CoupledModel<T extends Number & Comparable<T>> extends Abs
     @SuppressWarnings("unchecked")
     public <TYPE> void transfer(final OutputPortInterface<T, TYPE> x, final TYPE y) throws RemoteException, SimRuntimeException
     {
+        T time = x.getModel().getSimulator().getSimulatorTime();
+        T lookahead = x instanceof OutputPort ? ((OutputPort<T, TYPE>) x).getLookahead() : null;
         for (InternalCoupling<T, ?> o : this.internalCouplingSet)
         {
             if (o.getFromPort() == x)
             {
-                ((InternalCoupling<T, TYPE>) o).getToPort().receive(y, this.simulator.getSimulatorTime());
+                InputPortInterface<T, TYPE> toPort = ((InternalCoupling<T, TYPE>) o).getToPort();
+                if (lookahead == null)
+                {
+                    toPort.receive(y, time);
+                }
+                else
+                {
+                    // delayed delivery on the simulator of the receiver, which can be another partition
+                    T deliveryTime = SimTime.plus(time, lookahead);
+                    toPort.getModel().getSimulator().scheduleEvent(
+                            new SimEvent<T>(deliveryTime, toPort, "receive", new Object[] {y, deliveryTime}));
+                }
             }
         }
         for (ExternalOutputCoupling<T, ?> o : this.externalOutputCouplingSet)
@@ -2,13 +2,21 @@ package nl.tudelft.simulation.dsol.formalisms.devs.esdevs;
 
 import java.rmi.RemoteException;
 
+import org.djutils.exceptions.Throw;
+
 import nl.tudelft.simulation.dsol.SimRuntimeException;
 import nl.tudelft.simulation.dsol.logger.Cat;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
 
 /**
  * OutputPort class. The output port transfers the event (message) to the next receiver. In case there is no next receiver (e.g.
  * in case of the model being the highest coupled model in the simulation, the event is currently not transferred.
  * <p>
+ * An output port can declare a lookahead: messages that are sent through the port over an internal coupling are then delivered
+ * to the receiving input port after the lookahead, instead of at the time of sending. The lookahead is the guarantee that the
+ * {@link ConservativeDevsSimulator} needs to execute the coupled components in parallel.
+ * </p>
+ * <p>
  * Copyright (c) 2009-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
  * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
  * project is distributed under a three-clause BSD-style license, which can be found at
@@ -24,6 +32,9 @@ public class OutputPort<T extends Number & Comparable<T>, TYPE> implements Outpu
     /** The model to which the port links. */
     private AbstractDevsModel<T> model;
 
+    /** the delay of the messages over internal couplings, or null when messages are delivered at the time of sending. */
+    private T lookahead = null;
+
     /**
      * Constructor for the output port where the model is a coupled model.
      * @param coupledModel CoupledModel&lt;T&gt;; the coupled model.
@@ -72,4 +83,25 @@ public class OutputPort<T extends Number & Comparable<T>, TYPE> implements Outpu
     {
         return this.model;
     }
+
+    /**
+     * Return the lookahead of the port: the delay with which messages are delivered over internal couplings.
+     * @return T; the lookahead of the port, or null when messages are delivered at the time of sending
+     */
+    public T getLookahead()
+    {
+        return this.lookahead;
+    }
+
+    /**
+     * Set the lookahead of the port: the delay with which messages are delivered over internal couplings. A positive lookahead
+     * allows the {@link ConservativeDevsSimulator} to place the sending and the receiving component in different partitions.
+     * @param lookahead T; the lookahead of the port, or null to deliver messages at the time of sending
+     */
+    public void setLookahead(final T lookahead)
+    {
+        Throw.when(lookahead != null && lookahead.compareTo(SimTime.zero(lookahead)) < 0, IllegalArgumentException.class,
+                "lookahead cannot be negative");
+        this.lookahead = lookahead;
+    }
 }
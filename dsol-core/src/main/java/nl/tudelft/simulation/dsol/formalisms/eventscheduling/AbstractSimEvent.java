@@ -1,6 +1,7 @@
 package nl.tudelft.simulation.dsol.formalisms.eventscheduling;
 
 import java.io.Serializable;
+import java.util.List;
 import java.util.concurrent.atomic.AtomicLong;
 
 import nl.tudelft.simulation.dsol.SimRuntimeException;
@@ -54,15 +55,86 @@ public abstract class AbstractSimEvent<T extends Number & Comparable<T>>
      * @param priority short; reflects the priority of the event
      */
     public AbstractSimEvent(final T executionTime, final short priority)
+    {
+        this(executionTime, priority, AbstractSimEvent.nextId());
+    }
+
+    /**
+     * The constructor of the event stores the time the event must be executed, the priority, and an id that has been obtained
+     * earlier, e.g., by an event pool when it hands out an event.
+     * @param executionTime T; reflects the time the event has to be executed.
+     * @param priority short; reflects the priority of the event
+     * @param id long; the unique id of the event
+     */
+    protected AbstractSimEvent(final T executionTime, final short priority, final long id)
     {
         this.absoluteExecutionTime = executionTime;
+        checkPriority(priority);
+        this.priority = priority;
+        this.id = id;
+    }
+
+    /**
+     * Check whether the priority is within the allowed range.
+     * @param priority short; the priority to check
+     * @throws IllegalArgumentException when the priority is outside the allowed range
+     */
+    static void checkPriority(final short priority)
+    {
         if (priority < SimEvent.MIN_PRIORITY - 1 || priority > SimEvent.MAX_PRIORITY + 1)
         {
             throw new IllegalArgumentException("priority must be between [" + SimEvent.MIN_PRIORITY + ".."
                     + SimEvent.MAX_PRIORITY + "]");
         }
-        this.priority = priority;
-        this.id = AbstractSimEvent.constructorCounter.incrementAndGet();
+    }
+
+    /**
+     * Return a new unique id for an event. The ids are shared by all event types, so events of different types that are
+     * scheduled in the same event list are ordered on their order of construction when time and priority are equal.
+     * @return long; a new unique id for an event
+     */
+    static long nextId()
+    {
+        return AbstractSimEvent.constructorCounter.incrementAndGet();
+    }
+
+    /**
+     * Reserve a block of consecutive unique ids, e.g., to give a list of events consecutive ids.
+     * @param count int; the number of ids to reserve
+     * @return long; the first id of the reserved block
+     */
+    static long reserveIds(final int count)
+    {
+        return AbstractSimEvent.constructorCounter.getAndAdd(count) + 1;
+    }
+
+    /**
+     * Give a list of events new unique ids in the order of the list, e.g., for events that have been constructed by different
+     * threads, so their order in the event list for the same time and priority does not depend on the order in which the
+     * threads constructed them. Only the ids of events that extend AbstractSimEvent, and of the primitive DoubleLambdaSimEvent
+     * and LongLambdaSimEvent, are changed. The events should not be on an event list, since the event list orders its events on
+     * their id.
+     * @param events List&lt;? extends SimEventInterface&lt;?&gt;&gt;; the events to renumber, in the order of the new ids
+     */
+    public static void renumber(final List<? extends SimEventInterface<?>> events)
+    {
+        long nextId = reserveIds(events.size());
+        for (SimEventInterface<?> event : events)
+        {
+            if (event instanceof AbstractSimEvent)
+            {
+                ((AbstractSimEvent<?>) event).id = nextId;
+            }
+            else if (event instanceof DoubleLambdaSimEvent)
+            {
+                ((DoubleLambdaSimEvent) event).id = nextId;
+            }
+            else if (event instanceof LongLambdaSimEvent)
+            {
+                ((LongLambdaSimEvent) event).id = nextId;
+            }
+            nextId++;
+        }
     }
 
     @Override
@@ -0,0 +1,114 @@
+package nl.tudelft.simulation.dsol.formalisms.eventscheduling;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+
+/**
+ * The DoubleLambdaSimEvent is the primitive-time counterpart of the LambdaSimEvent&lt;Double&gt;. The execution time is stored as a
+ * primitive double, so creating, comparing and ordering the event does not box the time. The event can be scheduled on any
+ * simulator with time type Double, and can be mixed with other events of that time type in the same event list.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public class DoubleLambdaSimEvent implements DoubleSimEventInterface
+{
+    /** */
+    private static final long serialVersionUID = 20240901L;
+
+    /** the absolute time at which the event is scheduled. */
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    protected final double executionTime;
+
+    /** the priority of the event. */
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    protected final short priority;
+
+    /** the id used in compare statements. */
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    protected long id;
+
+    /** the lambda expression that takes care of the state change. */
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    protected final Executable executable;
+
+    /**
+     * Create an event with normal priority for the given lambda expression.
+     * @param executionTime double; the absolute time the event has to be executed.
+     * @param executable Executable; the lambda method to invoke
+     */
+    public DoubleLambdaSimEvent(final double executionTime, final Executable executable)
+    {
+        this(executionTime, SimEventInterface.NORMAL_PRIORITY, executable);
+    }
+
+    /**
+     * Create an event with the given priority for the given lambda expression.
+     * @param executionTime double; the absolute time the event has to be executed.
+     * @param priority short; the priority of the event
+     * @param executable Executable; the lambda method to invoke
+     */
+    public DoubleLambdaSimEvent(final double executionTime, final short priority, final Executable executable)
+    {
+        AbstractSimEvent.checkPriority(priority);
+        if (executable == null)
+        {
+            throw new IllegalArgumentException("executable==null");
+        }
+        this.executionTime = executionTime;
+        this.priority = priority;
+        this.executable = executable;
+        this.id = AbstractSimEvent.nextId();
+    }
+
+    @Override
+    public double getDoubleExecutionTime()
+    {
+        return this.executionTime;
+    }
+
+    @Override
+    public short getPriority()
+    {
+        return this.priority;
+    }
+
+    @Override
+    public long getId()
+    {
+        return this.id;
+    }
+
+    /**
+     * Return the lambda method that the event invokes.
+     * @return Executable; the lambda method of the event
+     */
+    public Executable getExecutable()
+    {
+        return this.executable;
+    }
+
+    @Override
+    public void execute() throws SimRuntimeException
+    {
+        try
+        {
+            this.executable.execute();
+        }
+        catch (Exception exception)
+        {
+            throw new SimRuntimeException(exception);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SimEvent[time=" + this.executionTime + "; priority=" + this.priority + "; executable=" + this.executable + "]";
+    }
+
+}
@@ -0,0 +1,80 @@
+package nl.tudelft.simulation.dsol.formalisms.eventscheduling;
+
+/**
+ * DoubleSimEventInterface is a SimEventInterface&lt;Double&gt; that stores its execution time as a primitive double. Simulators and
+ * event lists that know about this interface compare and order events on the primitive time, without boxing and unboxing.
+ * Code that only knows the SimEventInterface&lt;Double&gt; uses the boxed time of {@link #getAbsoluteExecutionTime()}.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public interface DoubleSimEventInterface extends SimEventInterface<Double>
+{
+    /**
+     * Return the scheduled absolute execution time of the event as a primitive double.
+     * @return double; the scheduled absolute execution time of the event
+     */
+    double getDoubleExecutionTime();
+
+    /**
+     * Return the scheduled absolute execution time of the event as a boxed Double. Note that this allocates a new object, so
+     * code that knows the type of the event should use {@link #getDoubleExecutionTime()}.
+     * @return Double; the scheduled absolute execution time of the event
+     */
+    @Override
+    default Double getAbsoluteExecutionTime()
+    {
+        return Double.valueOf(getDoubleExecutionTime());
+    }
+
+    @Override
+    default int compareTo(final SimEventInterface<Double> simEvent)
+    {
+        if (this.equals(simEvent))
+        {
+            return 0;
+        }
+        int cmp = Double.compare(getDoubleExecutionTime(), DoubleSimEventInterface.timeOf(simEvent));
+        if (cmp != 0)
+        {
+            return cmp;
+        }
+        if (this.getPriority() < simEvent.getPriority())
+        {
+            return 1;
+        }
+        if (this.getPriority() > simEvent.getPriority())
+        {
+            return -1;
+        }
+        if (this.getId() < simEvent.getId())
+        {
+            return -1;
+        }
+        if (this.getId() > simEvent.getId())
+        {
+            return 1;
+        }
+        throw new IllegalStateException("This may never occur! " + this + " !=" + simEvent + ". Almost returned 0");
+    }
+
+    /**
+     * Return the execution time of an event as a primitive double, without boxing when the event is a DoubleSimEventInterface.
+     * @param event SimEventInterface&lt;Double&gt;; the event
+     * @return double; the scheduled absolute execution time of the event
+     */
+    static double timeOf(final SimEventInterface<Double> event)
+    {
+        if (event instanceof DoubleSimEventInterface)
+        {
+            return ((DoubleSimEventInterface) event).getDoubleExecutionTime();
+        }
+        return event.getAbsoluteExecutionTime().doubleValue();
+    }
+
+}
@@ -51,6 +51,24 @@ public class LambdaSimEvent<T extends Number & Comparable<T>> extends AbstractSi
         this.executable = executable;
     }
 
+    /**
+     * The constructor of the event stores the time the event must be executed, the priority, an id that has been obtained
+     * earlier, and the lambda method to invoke.
+     * @param executionTime T; the time the event has to be executed.
+     * @param priority short; the priority of the event
+     * @param executable Executable; the lambda method to invoke
+     * @param id long; the unique id of the event
+     */
+    protected LambdaSimEvent(final T executionTime, final short priority, final Executable executable, final long id)
+    {
+        super(executionTime, priority, id);
+        if (executable == null)
+        {
+            throw new IllegalArgumentException("executable==null");
+        }
+        this.executable = executable;
+    }
+
     @Override
     public synchronized void execute() throws SimRuntimeException
     {
@@ -64,6 +82,15 @@ public class LambdaSimEvent<T extends Number & Comparable<T>> extends AbstractSi
         }
     }
 
+    /**
+     * Return the lambda method that the event invokes.
+     * @return Executable; the lambda method of the event
+     */
+    public Executable getExecutable()
+    {
+        return this.executable;
+    }
+
     @Override
     public String toString()
     {
@@ -0,0 +1,80 @@
+package nl.tudelft.simulation.dsol.formalisms.eventscheduling;
+
+/**
+ * LongSimEventInterface is a SimEventInterface&lt;Long&gt; that stores its execution time as a primitive long. Simulators and
+ * event lists that know about this interface compare and order events on the primitive time, without boxing and unboxing.
+ * Code that only knows the SimEventInterface&lt;Long&gt; uses the boxed time of {@link #getAbsoluteExecutionTime()}.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public interface LongSimEventInterface extends SimEventInterface<Long>
+{
+    /**
+     * Return the scheduled absolute execution time of the event as a primitive long.
+     * @return long; the scheduled absolute execution time of the event
+     */
+    long getLongExecutionTime();
+
+    /**
+     * Return the scheduled absolute execution time of the event as a boxed Long. Note that this allocates a new object, so
+     * code that knows the type of the event should use {@link #getLongExecutionTime()}.
+     * @return Long; the scheduled absolute execution time of the event
+     */
+    @Override
+    default Long getAbsoluteExecutionTime()
+    {
+        return Long.valueOf(getLongExecutionTime());
+    }
+
+    @Override
+    default int compareTo(final SimEventInterface<Long> simEvent)
+    {
+        if (this.equals(simEvent))
+        {
+            return 0;
+        }
+        int cmp = Long.compare(getLongExecutionTime(), LongSimEventInterface.timeOf(simEvent));
+        if (cmp != 0)
+        {
+            return cmp;
+        }
+        if (this.getPriority() < simEvent.getPriority())
+        {
+            return 1;
+        }
+        if (this.getPriority() > simEvent.getPriority())
+        {
+            return -1;
+        }
+        if (this.getId() < simEvent.getId())
+        {
+            return -1;
+        }
+        if (this.getId() > simEvent.getId())
+        {
+            return 1;
+        }
+        throw new IllegalStateException("This may never occur! " + this + " !=" + simEvent + ". Almost returned 0");
+    }
+
+    /**
+     * Return the execution time of an event as a primitive long, without boxing when the event is a LongSimEventInterface.
+     * @param event SimEventInterface&lt;Long&gt;; the event
+     * @return long; the scheduled absolute execution time of the event
+     */
+    static long timeOf(final SimEventInterface<Long> event)
+    {
+        if (event instanceof LongSimEventInterface)
+        {
+            return ((LongSimEventInterface) event).getLongExecutionTime();
+        }
+        return event.getAbsoluteExecutionTime().longValue();
+    }
+
+}
@@ -0,0 +1,342 @@
+package nl.tudelft.simulation.dsol.formalisms.eventscheduling;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.djutils.reflection.ClassUtil;
+
+/**
+ * MethodHandleCache caches the resolved methods and constructors that are invoked by a SimEvent as a MethodHandle. The method
+ * resolution of <code>ClassUtil.resolveMethod</code> is carried out once for every combination of target class, method name and
+ * argument types; subsequent executions of a SimEvent with the same combination use the cached MethodHandle, without the
+ * resolution of the method, without <code>setAccessible(true)</code>, and without reflective invocation. The resolution rules
+ * are exactly the same as the ones of <code>ClassUtil</code>, since the cache stores the result of <code>ClassUtil</code>.
+ * <p>
+ * The cache is stored per target class in a <code>ClassValue</code>, so the cache does not prevent classes (e.g., of a model
+ * that is loaded in a separate class loader) from being unloaded.
+ * </p>
+ * <p>
+ * When the target is a <code>Class</code>, the method is first looked up as a static method of that class, and the handles are
+ * cached per target class in a separate cache. Only when the class has no fitting static method, the method is resolved on
+ * <code>java.lang.Class</code> itself, e.g., for <code>getName</code>, as <code>ClassUtil</code> would do.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ */
+public final class MethodHandleCache
+{
+    /** the generic type of a cached method handle: (Object target, Object[] args) -&gt; Object. */
+    private static final MethodType METHOD_TYPE = MethodType.methodType(Object.class, Object.class, Object[].class);
+
+    /** the generic type of a cached constructor handle: (Object[] args) -&gt; Object. */
+    private static final MethodType CONSTRUCTOR_TYPE = MethodType.methodType(Object.class, Object[].class);
+
+    /** the name that indicates a constructor. */
+    private static final String CONSTRUCTOR = "<init>";
+
+    /** an empty argument array, used when the args are null. */
+    private static final Object[] NO_ARGS = new Object[0];
+
+    /** the lookup that is used to turn accessible methods and constructors into method handles. */
+    private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+    /** the cache of method handles per target class. */
+    private static final ClassValue<ConcurrentHashMap<Signature, MethodHandle>> CACHE =
+            new ClassValue<ConcurrentHashMap<Signature, MethodHandle>>()
+            {
+                @Override
+                protected ConcurrentHashMap<Signature, MethodHandle> computeValue(final Class<?> type)
+                {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    /** the cache of method handles for static methods, per target class that is used as the target of a SimEvent. */
+    private static final ClassValue<ConcurrentHashMap<Signature, MethodHandle>> STATIC_CACHE =
+            new ClassValue<ConcurrentHashMap<Signature, MethodHandle>>()
+            {
+                @Override
+                protected ConcurrentHashMap<Signature, MethodHandle> computeValue(final Class<?> type)
+                {
+                    return new ConcurrentHashMap<>();
+                }
+            };
+
+    /**
+     * Utility class; do not instantiate.
+     */
+    private MethodHandleCache()
+    {
+        // utility class
+    }
+
+    /**
+     * Return a method handle for the method with the given name on the target that fits the arguments. The returned handle has
+     * the type (Object target, Object[] args) -&gt; Object. When the target is a Class, a static method of that class is
+     * resolved first; the target argument is then ignored by the handle.
+     * @param target Object; the object on which the method will be invoked, or the class for a static method
+     * @param methodName String; the name of the method
+     * @param args Object[]; the arguments to invoke the method with; may be null when the method has no arguments
+     * @return MethodHandle; a method handle of type (Object, Object[]) -&gt; Object for the resolved method
+     * @throws NoSuchMethodException when no method with the given name fits the arguments
+     * @throws IllegalAccessException when the method cannot be made accessible
+     */
+    public static MethodHandle resolveMethod(final Object target, final String methodName, final Object[] args)
+            throws NoSuchMethodException, IllegalAccessException
+    {
+        boolean classTarget = target instanceof Class;
+        ConcurrentHashMap<Signature, MethodHandle> classCache =
+                classTarget ? STATIC_CACHE.get((Class<?>) target) : CACHE.get(target.getClass());
+        MethodHandle handle = classCache.get(new Signature(methodName, args));
+        if (handle == null)
+        {
+            Method method = classTarget ? resolveStaticMethod((Class<?>) target, methodName, args)
+                    : ClassUtil.resolveMethod(target, methodName, args);
+            method.setAccessible(true);
+            handle = LOOKUP.unreflect(method).asFixedArity();
+            handle = handle.asSpreader(Object[].class, method.getParameterCount());
+            if (Modifier.isStatic(method.getModifiers()))
+            {
+                handle = MethodHandles.dropArguments(handle, 0, Object.class);
+            }
+            handle = handle.asType(METHOD_TYPE);
+            classCache.put(Signature.canonical(methodName, args), handle);
+        }
+        return handle;
+    }
+
+    /**
+     * Resolve the method for a target that is a class. A static method of the class itself has precedence; when the class has
+     * no fitting static method, the method is resolved on java.lang.Class, just like ClassUtil does for any other object.
+     * @param clazz Class&lt;?&gt;; the class that is the target of the method invocation
+     * @param methodName String; the name of the method
+     * @param args Object[]; the arguments to invoke the method with; may be null when the method has no arguments
+     * @return Method; the static method of the class, or the method of java.lang.Class
+     * @throws NoSuchMethodException when no method with the given name fits the arguments
+     */
+    private static Method resolveStaticMethod(final Class<?> clazz, final String methodName, final Object[] args)
+            throws NoSuchMethodException
+    {
+        try
+        {
+            Method method = ClassUtil.resolveMethod(clazz, methodName, ClassUtil.getClass(args == null ? NO_ARGS : args));
+            if (Modifier.isStatic(method.getModifiers()))
+            {
+                return method;
+            }
+        }
+        catch (NoSuchMethodException exception)
+        {
+            // fall through to the methods of java.lang.Class
+        }
+        return ClassUtil.resolveMethod((Object) clazz, methodName, args);
+    }
+
+    /**
+     * Return a method handle for the constructor of the given class that fits the arguments. The returned handle has the type
+     * (Object[] args) -&gt; Object.
+     * @param clazz Class&lt;?&gt;; the class to instantiate
+     * @param args Object[]; the arguments to invoke the constructor with; may be null when the constructor has no arguments
+     * @return MethodHandle; a method handle of type (Object[]) -&gt; Object for the resolved constructor
+     * @throws NoSuchMethodException when no constructor fits the arguments
+     * @throws IllegalAccessException when the constructor cannot be made accessible
+     */
+    public static MethodHandle resolveConstructor(final Class<?> clazz, final Object[] args)
+            throws NoSuchMethodException, IllegalAccessException
+    {
+        ConcurrentHashMap<Signature, MethodHandle> classCache = CACHE.get(clazz);
+        MethodHandle handle = classCache.get(new Signature(CONSTRUCTOR, args));
+        if (handle == null)
+        {
+            Constructor<?> constructor = ClassUtil.resolveConstructor(clazz, args);
+            constructor.setAccessible(true);
+            handle = LOOKUP.unreflectConstructor(constructor).asFixedArity();
+            handle = handle.asSpreader(Object[].class, constructor.getParameterCount()).asType(CONSTRUCTOR_TYPE);
+            classCache.put(Signature.canonical(CONSTRUCTOR, args), handle);
+        }
+        return handle;
+    }
+
+    /**
+     * Invoke the method with the given name on the target with the arguments, using a cached method handle.
+     * @param target Object; the object on which the method is invoked
+     * @param methodName String; the name of the method
+     * @param args Object[]; the arguments to invoke the method with; may be null when the method has no arguments
+     * @return Object; the return value of the method, or null for a void method
+     * @throws Throwable when the method cannot be resolved, or when the invoked method throws an exception
+     */
+    public static Object invoke(final Object target, final String methodName, final Object[] args) throws Throwable
+    {
+        Object[] arguments = args == null ? NO_ARGS : args;
+        return (Object) resolveMethod(target, methodName, args).invokeExact(target, arguments);
+    }
+
+    /**
+     * Invoke the constructor of the given class with the arguments, using a cached method handle.
+     * @param clazz Class&lt;?&gt;; the class to instantiate
+     * @param args Object[]; the arguments to invoke the constructor with; may be null when the constructor has no arguments
+     * @return Object; the newly constructed object
+     * @throws Throwable when the constructor cannot be resolved, or when the invoked constructor throws an exception
+     */
+    public static Object newInstance(final Class<?> clazz, final Object[] args) throws Throwable
+    {
+        Object[] arguments = args == null ? NO_ARGS : args;
+        return (Object) resolveConstructor(clazz, args).invokeExact(arguments);
+    }
+
+    /**
+     * Remove all cached method handles for the given class, e.g., when the class has been redefined.
+     * @param clazz Class&lt;?&gt;; the class for which the cached method handles should be removed
+     */
+    public static void clear(final Class<?> clazz)
+    {
+        CACHE.remove(clazz);
+        STATIC_CACHE.remove(clazz);
+    }
+
+    /**
+     * The combination of method name and argument types that identifies a cached method handle within a class. A signature
+     * that is used for a lookup only refers to the arguments, so no array of types has to be created for a cache hit. A
+     * canonical signature that is stored in the cache contains the argument types. A null argument is represented by a null
+     * type.
+     */
+    private static final class Signature
+    {
+        /** the method name. */
+        private final String name;
+
+        /** the arguments for a lookup signature, or null for a canonical signature. */
+        private final Object[] args;
+
+        /** the argument types for a canonical signature, or null for a lookup signature. */
+        private final Class<?>[] types;
+
+        /** the cached hash code. */
+        private final int hash;
+
+        /**
+         * Create a lookup signature that refers to the arguments.
+         * @param name String; the method name
+         * @param args Object[]; the arguments, may be null
+         */
+        Signature(final String name, final Object[] args)
+        {
+            this(name, args == null ? NO_ARGS : args, null);
+        }
+
+        /**
+         * Create a signature.
+         * @param name String; the method name
+         * @param args Object[]; the arguments for a lookup signature, or null for a canonical signature
+         * @param types Class&lt;?&gt;[]; the argument types for a canonical signature, or null for a lookup signature
+         */
+        private Signature(final String name, final Object[] args, final Class<?>[] types)
+        {
+            this.name = name;
+            this.args = args;
+            this.types = types;
+            int h = name.hashCode();
+            for (int i = 0; i < length(); i++)
+            {
+                Class<?> type = type(i);
+                h = 31 * h + (type == null ? 0 : type.hashCode());
+            }
+            this.hash = h;
+        }
+
+        /**
+         * Create a canonical signature that stores the argument types, to be stored in the cache.
+         * @param name String; the method name
+         * @param args Object[]; the arguments, may be null
+         * @return Signature; a canonical signature with the types of the arguments
+         */
+        static Signature canonical(final String name, final Object[] args)
+        {
+            Object[] a = args == null ? NO_ARGS : args;
+            Class<?>[] types = new Class<?>[a.length];
+            for (int i = 0; i < a.length; i++)
+            {
+                types[i] = a[i] == null ? null : a[i].getClass();
+            }
+            return new Signature(name, null, types);
+        }
+
+        /**
+         * Return the number of arguments.
+         * @return int; the number of arguments
+         */
+        private int length()
+        {
+            return this.types != null ? this.types.length : this.args.length;
+        }
+
+        /**
+         * Return the type of argument i, or null when the argument is null.
+         * @param i int; the argument index
+         * @return Class&lt;?&gt;; the type of argument i, or null when the argument is null
+         */
+        private Class<?> type(final int i)
+        {
+            if (this.types != null)
+            {
+                return this.types[i];
+            }
+            return this.args[i] == null ? null : this.args[i].getClass();
+        }
+
+        @Override
+        public int hashCode()
+        {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(final Object obj)
+        {
+            if (this == obj)
+            {
+                return true;
+            }
+            if (!(obj instanceof Signature))
+            {
+                return false;
+            }
+            Signature other = (Signature) obj;
+            if (this.hash != other.hash || length() != other.length() || !this.name.equals(other.name))
+            {
+                return false;
+            }
+            for (int i = 0; i < length(); i++)
+            {
+                if (type(i) != other.type(i))
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        @Override
+        public String toString()
+        {
+            Class<?>[] t = new Class<?>[length()];
+            for (int i = 0; i < t.length; i++)
+            {
+                t[i] = type(i);
+            }
+            return "Signature[" + this.name + Arrays.toString(t) + "]";
+        }
+    }
+
+}
@@ -0,0 +1,64 @@
+package nl.tudelft.simulation.dsol.formalisms.eventscheduling;
+
+/**
+ * PartitionedLambdaSimEvent is a LambdaSimEvent that only changes the state of one partition of the model. Partitioned events
+ * with the same time and priority of different partitions can be executed in parallel by a DevsSimulator, see
+ * {@link PartitionedSimEventInterface}.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the type of simulation time, e.g. Double, Long or Duration
+ * @since 4.2.3
+ */
+public class PartitionedLambdaSimEvent<T extends Number & Comparable<T>> extends LambdaSimEvent<T>
+        implements PartitionedSimEventInterface<T>
+{
+    /** */
+    private static final long serialVersionUID = 20240901L;
+
+    /** the key of the model partition whose state is changed by this event. */
+    private final int partition;
+
+    /**
+     * Create an event for a lambda expression that changes the state of one model partition.
+     * @param executionTime T; the absolute time the event has to be executed
+     * @param partition int; the key of the model partition whose state is changed by this event
+     * @param executable Executable; the lambda method to invoke
+     */
+    public PartitionedLambdaSimEvent(final T executionTime, final int partition, final Executable executable)
+    {
+        this(executionTime, SimEventInterface.NORMAL_PRIORITY, partition, executable);
+    }
+
+    /**
+     * Create an event for a lambda expression that changes the state of one model partition.
+     * @param executionTime T; the absolute time the event has to be executed
+     * @param priority short; the priority of the event
+     * @param partition int; the key of the model partition whose state is changed by this event
+     * @param executable Executable; the lambda method to invoke
+     */
+    public PartitionedLambdaSimEvent(final T executionTime, final short priority, final int partition,
+            final Executable executable)
+    {
+        super(executionTime, priority, executable);
+        this.partition = partition;
+    }
+
+    @Override
+    public int getPartition()
+    {
+        return this.partition;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SimEvent[time=" + this.absoluteExecutionTime + "; priority=" + this.priority + "; partition=" + this.partition
+                + "; executable=" + this.executable + "]";
+    }
+
+}
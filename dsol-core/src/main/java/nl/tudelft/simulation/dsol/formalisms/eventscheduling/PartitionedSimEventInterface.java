@@ -0,0 +1,27 @@
+package nl.tudelft.simulation.dsol.formalisms.eventscheduling;
+
+/**
+ * PartitionedSimEventInterface marks an event that only changes the state of one partition of the model, e.g., one zone of a
+ * large multi-zone model. Partitioned events with the same execution time and the same priority that belong to different
+ * partitions are independent of each other, and a DevsSimulator with parallel execution turned on can execute them
+ * concurrently. The events of one partition are always executed sequentially, in the order of the event list. The model is
+ * responsible for the independence of the partitions: an event should not read or change the state of another partition, and
+ * should not cancel events of another partition.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the time type, e.g., Double, Long, Duration
+ * @since 4.2.3
+ */
+public interface PartitionedSimEventInterface<T extends Number & Comparable<T>> extends SimEventInterface<T>
+{
+    /**
+     * Return the key of the model partition whose state is changed by this event.
+     * @return int; the key of the model partition whose state is changed by this event
+     */
+    int getPartition();
+}
@@ -0,0 +1,102 @@
+package nl.tudelft.simulation.dsol.formalisms.eventscheduling;
+
+/**
+ * A RecyclableLambdaSimEvent is a LambdaSimEvent that is handed out by a {@link SimEventPool}, and that is returned to that pool
+ * after it has been executed or cancelled, to be used again for another event. Every time the event is recycled, its generation
+ * is incremented. A model that keeps a reference to the event, e.g., to cancel it later, should also store the generation at the
+ * time of scheduling, and cancel the event with <code>DevsSimulator.cancelEvent(event, generation)</code>. That way, a stale
+ * reference to an event that has already been executed and recycled can never cancel the new event that reuses the object.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the type of simulation time, e.g. Double, Long or Duration
+ * @since 4.2.3
+ */
+public class RecyclableLambdaSimEvent<T extends Number & Comparable<T>> extends LambdaSimEvent<T>
+{
+    /** */
+    private static final long serialVersionUID = 20240901L;
+
+    /** the pool that owns this event. */
+    private final transient SimEventPool<T> pool;
+
+    /** the generation of the event, which is incremented every time the event is recycled. */
+    private int generation = 0;
+
+    /**
+     * Create a recyclable event for a pool.
+     * @param pool SimEventPool&lt;T&gt;; the pool that owns this event
+     * @param executionTime T; the time the event has to be executed.
+     * @param priority short; the priority of the event
+     * @param executable Executable; the lambda method to invoke
+     * @param id long; the unique id of the event
+     */
+    RecyclableLambdaSimEvent(final SimEventPool<T> pool, final T executionTime, final short priority,
+            final Executable executable, final long id)
+    {
+        super(executionTime, priority, executable, id);
+        this.pool = pool;
+    }
+
+    /**
+     * Reuse the event for a new execution time, priority and lambda method.
+     * @param executionTime T; the time the event has to be executed.
+     * @param newPriority short; the priority of the event
+     * @param newExecutable Executable; the lambda method to invoke
+     * @param newId long; the unique id of the event
+     */
+    void reuse(final T executionTime, final short newPriority, final Executable newExecutable, final long newId)
+    {
+        AbstractSimEvent.checkPriority(newPriority);
+        if (newExecutable == null)
+        {
+            throw new IllegalArgumentException("executable==null");
+        }
+        this.absoluteExecutionTime = executionTime;
+        this.priority = newPriority;
+        this.executable = newExecutable;
+        this.id = newId;
+    }
+
+    /**
+     * Invalidate the event when it is returned to the pool: the generation is incremented, and the references to the time and
+     * the lambda method are cleared. The generation is never negative; it wraps around to 0.
+     */
+    void recycle()
+    {
+        this.generation = (this.generation + 1) & Integer.MAX_VALUE;
+        this.absoluteExecutionTime = null;
+        this.executable = null;
+    }
+
+    /**
+     * Return the pool that owns this event.
+     * @return SimEventPool&lt;T&gt;; the pool that owns this event
+     */
+    SimEventPool<T> getPool()
+    {
+        return this.pool;
+    }
+
+    /**
+     * Return the generation of the event. The generation is incremented every time the event is recycled, so the combination of
+     * the event and its generation at the time of scheduling uniquely identifies one scheduled occurrence of the event.
+     * @return int; the generation of the event
+     */
+    public int getGeneration()
+    {
+        return this.generation;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "RecyclableSimEvent[time=" + this.absoluteExecutionTime + "; priority=" + this.priority + "; generation="
+                + this.generation + "; executable=" + this.executable + "]";
+    }
+
+}
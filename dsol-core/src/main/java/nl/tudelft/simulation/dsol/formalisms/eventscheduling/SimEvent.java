@@ -1,12 +1,11 @@
 package nl.tudelft.simulation.dsol.formalisms.eventscheduling;
 
-import java.lang.reflect.Constructor;
-import java.lang.reflect.Method;
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.List;
 
 import org.djutils.exceptions.Throw;
-import org.djutils.reflection.ClassUtil;
 
 import nl.tudelft.simulation.dsol.SimRuntimeException;
 
@@ -29,6 +28,9 @@ public class SimEvent<T extends Number & Comparable<T>> extends AbstractSimEvent
     /** */
     private static final long serialVersionUID = 20140804L;
 
+    /** an empty argument array, used when the args are null. */
+    private static final Object[] NO_ARGS = new Object[0];
+
     /** target the target on which a state change is scheduled. */
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected Object target = null;
@@ -71,26 +73,31 @@ public class SimEvent<T extends Number & Comparable<T>> extends AbstractSimEvent
         this.args = args;
     }
 
+    /**
+     * Execute the method or constructor of the event. The method or constructor is resolved only once for every combination of
+     * target class, method name and argument types, and then invoked through a cached MethodHandle, see
+     * {@link MethodHandleCache}. Just like with reflection, an exception thrown by the invoked method is wrapped in an
+     * InvocationTargetException, which is wrapped in the SimRuntimeException.
+     * @throws SimRuntimeException when the method cannot be resolved or accessed, or when the invoked method throws an exception
+     */
     @Override
-    public synchronized void execute() throws SimRuntimeException
+    public void execute() throws SimRuntimeException
     {
+        MethodHandle handle;
+        boolean constructor = this.methodName.equals("<init>");
         try
         {
-            if (this.methodName.equals("<init>"))
+            if (constructor)
             {
                 if (!(this.target instanceof Class))
                 {
                     throw new SimRuntimeException("Invoking a constructor implies that target should be instance of Class");
                 }
-                Constructor<?> constructor = ClassUtil.resolveConstructor((Class<?>) this.target, this.args);
-                constructor.setAccessible(true);
-                constructor.newInstance(this.args);
+                handle = MethodHandleCache.resolveConstructor((Class<?>) this.target, this.args);
             }
             else
             {
-                Method method = ClassUtil.resolveMethod(this.target, this.methodName, this.args);
-                method.setAccessible(true);
-                method.invoke(this.target, this.args);
+                handle = MethodHandleCache.resolveMethod(this.target, this.methodName, this.args);
             }
         }
         catch (Exception exception)
@@ -99,6 +106,36 @@ public class SimEvent<T extends Number & Comparable<T>> extends AbstractSimEvent
                     + printArgs());
             throw new SimRuntimeException(exception);
         }
+        Object[] arguments = this.args == null ? NO_ARGS : this.args;
+        try
+        {
+            invoke(handle, constructor, arguments);
+        }
+        catch (Throwable throwable)
+        {
+            InvocationTargetException exception = new InvocationTargetException(throwable);
+            System.err.println(exception.toString() + " calling " + printTarget() + "." + this.methodName + " with arguments "
+                    + printArgs());
+            throw new SimRuntimeException(exception);
+        }
+    }
+
+    /**
+     * Invoke the resolved method or constructor handle with the given arguments.
+     * @param handle MethodHandle; the cached method or constructor handle
+     * @param constructor boolean; whether the handle is a constructor handle of type (Object[]) -&gt; Object, or a method
+     *            handle of type (Object, Object[]) -&gt; Object
+     * @param arguments Object[]; the arguments, not null
+     * @return Object; the return value of the method, or the newly constructed object
+     * @throws Throwable when the invoked method or constructor throws an exception
+     */
+    private Object invoke(final MethodHandle handle, final boolean constructor, final Object[] arguments) throws Throwable
+    {
+        if (constructor)
+        {
+            return (Object) handle.invokeExact(arguments);
+        }
+        return (Object) handle.invokeExact(this.target, arguments);
     }
 
     /**
@@ -0,0 +1,148 @@
+package nl.tudelft.simulation.dsol.formalisms.eventscheduling;
+
+import java.util.Arrays;
+
+/**
+ * SimEventPool is a pool of {@link RecyclableLambdaSimEvent} objects for one simulator. Events are obtained from the pool when
+ * they are scheduled, and returned to the pool after they have been executed or cancelled, so models that schedule many events
+ * do not allocate a new event object for every event. An event gets a new id from the global event counter every time it is
+ * obtained from the pool, so pooled events and other events with the same time and priority are executed in the order in which
+ * they have been obtained or constructed.
+ * <p>
+ * The pool is not thread-safe. The simulator only uses the pool on the thread that executes the events.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the type of simulation time, e.g. Double, Long or Duration
+ * @since 4.2.3
+ */
+public class SimEventPool<T extends Number & Comparable<T>>
+{
+    /** the default maximum number of free events that is kept in the pool. */
+    public static final int DEFAULT_CAPACITY = 65536;
+
+    /** the maximum number of free events that is kept in the pool. */
+    private final int capacity;
+
+    /** the free events. */
+    private RecyclableLambdaSimEvent<T>[] free;
+
+    /** the number of free events. */
+    private int size = 0;
+
+    /** the number of events that have been created by the pool. */
+    private long created = 0L;
+
+    /** the number of events that have been reused. */
+    private long reused = 0L;
+
+    /**
+     * Create a pool that keeps at most DEFAULT_CAPACITY free events.
+     */
+    public SimEventPool()
+    {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Create a pool that keeps at most the given number of free events.
+     * @param capacity int; the maximum number of free events that is kept in the pool
+     * @throws IllegalArgumentException when capacity &lt; 0
+     */
+    @SuppressWarnings("unchecked")
+    public SimEventPool(final int capacity)
+    {
+        if (capacity < 0)
+        {
+            throw new IllegalArgumentException("capacity < 0");
+        }
+        this.capacity = capacity;
+        this.free = new RecyclableLambdaSimEvent[Math.min(capacity, 64)];
+    }
+
+    /**
+     * Return an event for the given time, priority and lambda method, reusing a free event when possible.
+     * @param executionTime T; the time the event has to be executed.
+     * @param priority short; the priority of the event
+     * @param executable Executable; the lambda method to invoke
+     * @return RecyclableLambdaSimEvent&lt;T&gt;; an event for the given time, priority and lambda method
+     */
+    public RecyclableLambdaSimEvent<T> obtain(final T executionTime, final short priority, final Executable executable)
+    {
+        if (this.size > 0)
+        {
+            RecyclableLambdaSimEvent<T> event = this.free[--this.size];
+            this.free[this.size] = null;
+            event.reuse(executionTime, priority, executable, AbstractSimEvent.nextId());
+            this.reused++;
+            return event;
+        }
+        this.created++;
+        return new RecyclableLambdaSimEvent<T>(this, executionTime, priority, executable, AbstractSimEvent.nextId());
+    }
+
+    /**
+     * Return an event to the pool, after it has been executed or cancelled. Events that are not owned by this pool are ignored.
+     * After the release, the generation of the event has been incremented, so stale references to the event can be detected.
+     * The event should not be on an event list anymore.
+     * @param event SimEventInterface&lt;T&gt;; the event to return to the pool
+     * @return boolean; whether the event was owned by this pool and has been recycled
+     */
+    public boolean release(final SimEventInterface<T> event)
+    {
+        if (!(event instanceof RecyclableLambdaSimEvent) || ((RecyclableLambdaSimEvent<T>) event).getPool() != this)
+        {
+            return false;
+        }
+        RecyclableLambdaSimEvent<T> recyclable = (RecyclableLambdaSimEvent<T>) event;
+        recyclable.recycle();
+        if (this.size < this.capacity)
+        {
+            if (this.size == this.free.length)
+            {
+                this.free = Arrays.copyOf(this.free, Math.min(this.capacity, 2 * this.free.length));
+            }
+            this.free[this.size++] = recyclable;
+        }
+        return true;
+    }
+
+    /**
+     * Return the number of free events in the pool.
+     * @return int; the number of free events in the pool
+     */
+    public int getFreeCount()
+    {
+        return this.size;
+    }
+
+    /**
+     * Return the number of events that have been created by the pool.
+     * @return long; the number of events that have been created by the pool
+     */
+    public long getCreatedCount()
+    {
+        return this.created;
+    }
+
+    /**
+     * Return the number of times a free event has been reused.
+     * @return long; the number of times a free event has been reused
+     */
+    public long getReusedCount()
+    {
+        return this.reused;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SimEventPool[free=" + this.size + "; created=" + this.created + "; reused=" + this.reused + "]";
+    }
+
+}
@@ -17,21 +17,6 @@ import nl.tudelft.simulation.language.DsolRuntimeException;
  */
 public final class SimTime
 {
-    /** hash for Double. */
-    private static final int hashDouble = Double.class.hashCode();
-
-    /** hash for Float. */
-    private static final int hashFloat = Float.class.hashCode();
-
-    /** hash for Long. */
-    private static final int hashLong = Long.class.hashCode();
-
-    /** hash for Duration. */
-    private static final int hashDuration = Duration.class.hashCode();
-
-    /** hash for FloatDuration. */
-    private static final int hashFloatDuration = FloatDuration.class.hashCode();
-
     /** dummy constructor. */
     private SimTime()
     {
@@ -48,16 +33,15 @@ public final class SimTime
     @SuppressWarnings({"unchecked", "checkstyle:needbraces"})
     public static <T extends Number & Comparable<T>> T plus(final T a, final T b)
     {
-        int hash = a.getClass().hashCode();
-        if (hash == hashDouble)
+        if (a instanceof Double)
             return (T) Double.valueOf(a.doubleValue() + b.doubleValue());
-        if (hash == hashFloat)
-            return (T) Float.valueOf(a.floatValue() + b.floatValue());
-        if (hash == hashLong)
+        if (a instanceof Long)
             return (T) Long.valueOf(a.longValue() + b.longValue());
-        if (hash == hashDuration)
+        if (a instanceof Float)
+            return (T) Float.valueOf(a.floatValue() + b.floatValue());
+        if (a instanceof Duration)
             return (T) ((Duration) a).plus((Duration) b);
-        if (hash == hashFloatDuration)
+        if (a instanceof FloatDuration)
             return (T) ((FloatDuration) a).plus((FloatDuration) b);
 
         throw new DsolRuntimeException("SimTime.plus called for unknown time class: " + a.getClass().getSimpleName());
@@ -73,41 +57,33 @@ public final class SimTime
     @SuppressWarnings({"unchecked", "checkstyle:needbraces"})
     public static <T extends Number & Comparable<T>> T minus(final T a, final T b)
     {
-        int hash = a.getClass().hashCode();
-        if (hash == hashDouble)
+        if (a instanceof Double)
             return (T) Double.valueOf(a.doubleValue() - b.doubleValue());
-        if (hash == hashFloat)
-            return (T) Float.valueOf(a.floatValue() - b.floatValue());
-        if (hash == hashLong)
+        if (a instanceof Long)
             return (T) Long.valueOf(a.longValue() - b.longValue());
-        if (hash == hashDuration)
+        if (a instanceof Float)
+            return (T) Float.valueOf(a.floatValue() - b.floatValue());
+        if (a instanceof Duration)
             return (T) ((Duration) a).minus((Duration) b);
-        if (hash == hashFloatDuration)
+        if (a instanceof FloatDuration)
             return (T) ((FloatDuration) a).minus((FloatDuration) b);
 
         throw new DsolRuntimeException("SimTime.minus called for unknown time class: " + a.getClass().getSimpleName());
     }
 
     /**
-     * Return a copy (clone) of the number.
+     * Return a copy (clone) of the number. All supported time types are immutable, so the number itself is returned without
+     * allocating a new object.
      * @param a Number; the number to copy
      * @return Number; a copy of the number
      * @param <T> The time type, e.g., Double, Long or Duration
      */
-    @SuppressWarnings({"unchecked", "checkstyle:needbraces"})
+    @SuppressWarnings({"checkstyle:needbraces"})
     public static <T extends Number & Comparable<T>> T copy(final T a)
     {
-        int hash = a.getClass().hashCode();
-        if (hash == hashDouble)
-            return (T) Double.valueOf(a.doubleValue());
-        if (hash == hashFloat)
-            return (T) Float.valueOf(a.floatValue());
-        if (hash == hashLong)
-            return (T) Long.valueOf(a.longValue());
-        if (hash == hashDuration)
-            return (T) new Duration((Duration) a);
-        if (hash == hashFloatDuration)
-            return (T) new FloatDuration((FloatDuration) a);
+        if (a instanceof Double || a instanceof Long || a instanceof Float || a instanceof Duration
+                || a instanceof FloatDuration)
+            return a;
 
         throw new DsolRuntimeException("SimTime.copy called for unknown time class: " + a.getClass().getSimpleName());
     }
@@ -121,16 +97,15 @@ public final class SimTime
     @SuppressWarnings({"unchecked", "checkstyle:needbraces"})
     public static <T extends Number & Comparable<T>> T zero(final T a)
     {
-        int hash = a.getClass().hashCode();
-        if (hash == hashDouble)
+        if (a instanceof Double)
             return (T) Double.valueOf(0.0d);
-        if (hash == hashFloat)
-            return (T) Float.valueOf(0.0f);
-        if (hash == hashLong)
+        if (a instanceof Long)
             return (T) Long.valueOf(0L);
-        if (hash == hashDuration)
+        if (a instanceof Float)
+            return (T) Float.valueOf(0.0f);
+        if (a instanceof Duration)
             return (T) Duration.ZERO;
-        if (hash == hashFloatDuration)
+        if (a instanceof FloatDuration)
             return (T) FloatDuration.ZERO;
 
         throw new DsolRuntimeException("SimTime.copy called for unknown time class: " + a.getClass().getSimpleName());
@@ -0,0 +1,588 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import org.djutils.exceptions.Throw;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+
+/**
+ * The Checkpointer writes checkpoints of a running DevsSimulator to a memory-mapped file at a fixed interval of simulation
+ * time, so a long run that is interrupted can be restored from the last checkpoint instead of being simulated again. A
+ * checkpoint contains the complete state of a SimulatorSnapshot: the simulator time, the model with all objects that can be
+ * reached from it, and the events of the model on the event list. The checkpoint is taken between two events, on the thread
+ * of the simulator.
+ * <p>
+ * The checkpoints are incremental, and are based on the compact state of the SimulatorSnapshot, in which the time, the streams
+ * and the events are written field by field, and only the model and the objects that the events refer to are serialized. A
+ * small change of the model therefore only changes the state in a few places. The state of the previous checkpoint is
+ * divided in blocks of BLOCK_SIZE bytes, and a delta checkpoint refers to runs of these blocks wherever they occur in the new
+ * state, and only contains the bytes in between. Like rsync, the blocks are found at any position with a rolling hash, so an
+ * object that grows or shrinks, and shifts the rest of the state, only adds its own bytes to the delta. Every n-th
+ * checkpoint, and every checkpoint for which the delta would be larger than half of the state, is a full checkpoint; a full
+ * checkpoint replaces the file, so the file only contains the last full checkpoint and the deltas after it. Every checkpoint
+ * is a record with a CRC32 checksum, which is forced to disk before the run continues; when the process is killed while a
+ * record is written, readLatest() ignores the incomplete record and restores the checkpoint before it.
+ * </p>
+ * <p>
+ * A run is restored by reading the last checkpoint with readLatest(), restoring it on a simulator with the replication of the
+ * run, and starting a new Checkpointer for the restored run:
+ * </p>
+ *
+ * <pre>
+ * SimulatorSnapshot&lt;Double&gt; snapshot = Checkpointer.readLatest(file);
+ * DsolModel&lt;Double, ?&gt; model = snapshot.restore(simulator, replication);
+ * new Checkpointer&lt;Double&gt;(simulator, file, 3600.0).start();
+ * simulator.start();
+ * </pre>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the time type
+ * @since 4.2.3
+ */
+public class Checkpointer<T extends Number & Comparable<T>>
+{
+    /** the size of the blocks of the previous state to which a delta checkpoint can refer. */
+    public static final int BLOCK_SIZE = 64;
+
+    /** the multiplier of the rolling hash. */
+    private static final int HASH_BASE = 0x01000193;
+
+    /** the magic number at the start of a checkpoint file: "DCKP". */
+    private static final int MAGIC = 0x44434B50;
+
+    /** the version of the file format; version 2 contains the compact snapshot state and runs of blocks in the deltas. */
+    private static final int VERSION = 2;
+
+    /** the size of the file header: magic number and version. */
+    private static final int FILE_HEADER_SIZE = 8;
+
+    /** the size of the record header: sequence number, kind, state length, number of events and payload length. */
+    private static final int RECORD_HEADER_SIZE = 21;
+
+    /** the size of the record trailer: the CRC32 checksum. */
+    private static final int RECORD_TRAILER_SIZE = 8;
+
+    /** the kind of a full checkpoint record. */
+    private static final byte FULL = 0;
+
+    /** the kind of a delta checkpoint record. */
+    private static final byte DELTA = 1;
+
+    /** the simulator to checkpoint. */
+    private final DevsSimulator<T> simulator;
+
+    /** the checkpoint file. */
+    private final Path file;
+
+    /** the interval in simulation time between two checkpoints. */
+    private final T interval;
+
+    /** every n-th checkpoint is a full checkpoint. */
+    private int fullCheckpointInterval = 10;
+
+    /** the compact state of the previous checkpoint, or null when no checkpoint has been written. */
+    private byte[] previousState = null;
+
+    /** the number of delta checkpoints since the last full checkpoint. */
+    private int deltasSinceFull = 0;
+
+    /** the length of the checkpoint file. */
+    private long fileLength = 0;
+
+    /** the number of checkpoints that have been written. */
+    private long numberOfCheckpoints = 0;
+
+    /** the number of full checkpoints that have been written. */
+    private long numberOfFullCheckpoints = 0;
+
+    /** the number of bytes that have been written for the checkpoints. */
+    private long bytesWritten = 0;
+
+    /** the simulator time of the last checkpoint, or null when no checkpoint has been written. */
+    private T lastCheckpointTime = null;
+
+    /** the scheduled checkpoint event, or null when the checkpointer has not been started. */
+    private SimEventInterface<T> nextEvent = null;
+
+    /**
+     * Construct a Checkpointer for a simulator. The checkpoints are only taken after start() has been called.
+     * @param simulator DevsSimulator&lt;T&gt;; the simulator to checkpoint
+     * @param file Path; the checkpoint file; it is replaced by the first checkpoint
+     * @param interval T; the interval in simulation time between two checkpoints
+     * @throws NullPointerException when simulator, file or interval is null
+     * @throws IllegalArgumentException when interval is zero or negative
+     */
+    public Checkpointer(final DevsSimulator<T> simulator, final Path file, final T interval)
+    {
+        Throw.whenNull(simulator, "simulator cannot be null");
+        Throw.whenNull(file, "file cannot be null");
+        Throw.whenNull(interval, "interval cannot be null");
+        Throw.when(interval.doubleValue() <= 0.0, IllegalArgumentException.class, "interval should be positive");
+        this.simulator = simulator;
+        this.file = file;
+        this.interval = interval;
+    }
+
+    /**
+     * Set how often a full checkpoint is written instead of a delta checkpoint. A larger value writes less data, but makes the
+     * chain of deltas that has to be applied on restore longer.
+     * @param fullCheckpointInterval int; every n-th checkpoint is a full checkpoint; 1 makes every checkpoint a full checkpoint
+     * @throws IllegalArgumentException when fullCheckpointInterval is zero or negative
+     */
+    public synchronized void setFullCheckpointInterval(final int fullCheckpointInterval)
+    {
+        Throw.when(fullCheckpointInterval < 1, IllegalArgumentException.class, "fullCheckpointInterval should be at least 1");
+        this.fullCheckpointInterval = fullCheckpointInterval;
+    }
+
+    /**
+     * Return how often a full checkpoint is written instead of a delta checkpoint.
+     * @return int; every n-th checkpoint is a full checkpoint
+     */
+    public int getFullCheckpointInterval()
+    {
+        return this.fullCheckpointInterval;
+    }
+
+    /**
+     * Start taking checkpoints. The first checkpoint is taken one interval after the current simulator time. Since the
+     * initialization of the simulator clears the event list, the checkpointer should be started after the simulator has been
+     * initialized, or after a snapshot has been restored on it.
+     * @throws SimRuntimeException when the simulator has not been initialized, or when the checkpointer has already been
+     *             started
+     */
+    public synchronized void start() throws SimRuntimeException
+    {
+        Throw.when(!this.simulator.isInitialized(), SimRuntimeException.class, "the simulator has not been initialized");
+        Throw.when(this.nextEvent != null, SimRuntimeException.class, "the checkpointer has already been started");
+        this.nextEvent = this.simulator.scheduleEventRel(this.interval, this, "checkpointEvent", null);
+    }
+
+    /**
+     * Stop taking checkpoints; the scheduled checkpoint is cancelled.
+     */
+    public synchronized void stop()
+    {
+        if (this.nextEvent != null)
+        {
+            this.simulator.cancelEvent(this.nextEvent);
+            this.nextEvent = null;
+        }
+    }
+
+    /**
+     * Take a checkpoint of a simulator that is not running, e.g., because it has been paused.
+     * @throws IOException when the checkpoint cannot be written
+     * @throws SimRuntimeException when the simulator is running or not initialized, or when the state is not Serializable
+     */
+    public synchronized void checkpoint() throws IOException, SimRuntimeException
+    {
+        Throw.when(!this.simulator.isInitialized(), SimRuntimeException.class, "the simulator has not been initialized");
+        Throw.when(this.simulator.isStartingOrRunning(), SimRuntimeException.class,
+                "cannot take a checkpoint of a running simulator outside of the checkpoint event");
+        writeCheckpoint(SimulatorSnapshot.captureState(this.simulator, this));
+    }
+
+    /**
+     * Take a checkpoint from the scheduled checkpoint event, and schedule the next one. A checkpoint that cannot be taken is
+     * logged, and does not stop the simulation.
+     */
+    protected synchronized void checkpointEvent()
+    {
+        this.nextEvent = null;
+        try
+        {
+            writeCheckpoint(SimulatorSnapshot.captureState(this.simulator, this));
+        }
+        catch (IOException | SimRuntimeException exception)
+        {
+            this.simulator.getLogger().always().error(exception, "checkpoint at time {}",
+                    this.simulator.getSimulatorTime());
+        }
+        this.nextEvent = this.simulator.scheduleEventRel(this.interval, this, "checkpointEvent", null);
+    }
+
+    /**
+     * Write a checkpoint as a full checkpoint or as a delta to the previous checkpoint.
+     * @param snapshot SimulatorSnapshot&lt;T&gt;; the snapshot to write
+     * @throws IOException when the checkpoint cannot be written
+     */
+    private void writeCheckpoint(final SimulatorSnapshot<T> snapshot) throws IOException
+    {
+        byte[] state = snapshot.getState();
+        byte[] delta = this.previousState == null || this.deltasSinceFull >= this.fullCheckpointInterval - 1 ? null
+                : delta(this.previousState, state);
+        if (delta == null)
+        {
+            byte[] record = makeRecord(this.numberOfCheckpoints, FULL, state.length, snapshot.getNumberOfEvents(), state);
+            Path temp = this.file.resolveSibling(this.file.getFileName() + ".tmp");
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE))
+            {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, FILE_HEADER_SIZE + record.length);
+                buffer.putInt(MAGIC).putInt(VERSION).put(record);
+                buffer.force();
+            }
+            Files.move(temp, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            this.fileLength = FILE_HEADER_SIZE + record.length;
+            this.bytesWritten += FILE_HEADER_SIZE + record.length;
+            this.deltasSinceFull = 0;
+            this.numberOfFullCheckpoints++;
+        }
+        else
+        {
+            byte[] record = makeRecord(this.numberOfCheckpoints, DELTA, state.length, snapshot.getNumberOfEvents(), delta);
+            try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.READ, StandardOpenOption.WRITE))
+            {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, this.fileLength, record.length);
+                buffer.put(record);
+                buffer.force();
+            }
+            this.fileLength += record.length;
+            this.bytesWritten += record.length;
+            this.deltasSinceFull++;
+        }
+        this.previousState = state;
+        this.numberOfCheckpoints++;
+        this.lastCheckpointTime = snapshot.getTime();
+    }
+
+    /**
+     * Make the payload of a delta checkpoint. The payload is a sequence of instructions, each starting with an int. A negative
+     * int -(i + 1) is followed by an int n, and copies the n consecutive blocks of the previous state that start with block i;
+     * a positive int n is followed by n literal bytes.
+     * @param previous byte[]; the state of the previous checkpoint
+     * @param current byte[]; the state of the current checkpoint
+     * @return byte[]; the payload of the delta, or null when the delta would be larger than half of the current state
+     */
+    static byte[] delta(final byte[] previous, final byte[] current)
+    {
+        Map<Integer, Integer> blocks = new HashMap<>();
+        for (int block = previous.length / BLOCK_SIZE - 1; block >= 0; block--)
+        {
+            blocks.put(hash(previous, block * BLOCK_SIZE), block); // the first block with a hash wins
+        }
+        int power = 1; // HASH_BASE ^ (BLOCK_SIZE - 1), to remove the first byte from the rolling hash
+        for (int i = 1; i < BLOCK_SIZE; i++)
+        {
+            power *= HASH_BASE;
+        }
+        ByteBuffer payload = ByteBuffer.allocate(current.length / 2 + 8);
+        int literalStart = 0;
+        int position = 0;
+        int runStart = -1; // the first block of the run of blocks that is copied, or -1 when there is no run
+        int runLength = 0;
+        int hash = current.length >= BLOCK_SIZE ? hash(current, 0) : 0;
+        while (position + BLOCK_SIZE <= current.length)
+        {
+            // the block after the current run is tried first, so a run is not broken by a block with the same hash
+            Integer block = runStart >= 0 && literalStart == position ? runStart + runLength : null;
+            if (block == null || block >= previous.length / BLOCK_SIZE || !Arrays.equals(previous, block * BLOCK_SIZE,
+                    (block + 1) * BLOCK_SIZE, current, position, position + BLOCK_SIZE))
+            {
+                block = blocks.get(hash);
+            }
+            if (block != null && Arrays.equals(previous, block * BLOCK_SIZE, (block + 1) * BLOCK_SIZE, current, position,
+                    position + BLOCK_SIZE))
+            {
+                if (literalStart == position && runStart >= 0 && runStart + runLength == block)
+                {
+                    runLength++;
+                }
+                else
+                {
+                    if (!putRun(payload, runStart, runLength) || !putLiteral(payload, current, literalStart, position))
+                    {
+                        return null;
+                    }
+                    runStart = block;
+                    runLength = 1;
+                }
+                position += BLOCK_SIZE;
+                literalStart = position;
+                if (position + BLOCK_SIZE <= current.length)
+                {
+                    hash = hash(current, position);
+                }
+            }
+            else
+            {
+                if (position + BLOCK_SIZE < current.length)
+                {
+                    hash = (hash - current[position] * power) * HASH_BASE + current[position + BLOCK_SIZE];
+                }
+                position++;
+            }
+        }
+        if (!putRun(payload, runStart, runLength) || !putLiteral(payload, current, literalStart, current.length))
+        {
+            return null;
+        }
+        return Arrays.copyOf(payload.array(), payload.position());
+    }
+
+    /**
+     * Add the instruction to copy a run of blocks of the previous state to the payload of a delta.
+     * @param payload ByteBuffer; the payload of the delta
+     * @param runStart int; the first block of the run, or -1 when there is no run
+     * @param runLength int; the number of blocks of the run
+     * @return boolean; whether the instruction fits in the payload
+     */
+    private static boolean putRun(final ByteBuffer payload, final int runStart, final int runLength)
+    {
+        if (runStart < 0)
+        {
+            return true;
+        }
+        if (payload.remaining() < 8)
+        {
+            return false;
+        }
+        payload.putInt(-runStart - 1).putInt(runLength);
+        return true;
+    }
+
+    /**
+     * Add the literal bytes between two positions of the current state to the payload of a delta.
+     * @param payload ByteBuffer; the payload of the delta
+     * @param current byte[]; the current state
+     * @param from int; the first position of the literal bytes
+     * @param to int; the position after the last literal byte
+     * @return boolean; whether the literal bytes fit in the payload
+     */
+    private static boolean putLiteral(final ByteBuffer payload, final byte[] current, final int from, final int to)
+    {
+        if (from == to)
+        {
+            return true;
+        }
+        if (payload.remaining() < 4 + to - from)
+        {
+            return false;
+        }
+        payload.putInt(to - from).put(current, from, to - from);
+        return true;
+    }
+
+    /**
+     * Calculate the polynomial hash of a block of bytes, which can be rolled forward one byte at a time.
+     * @param bytes byte[]; the bytes
+     * @param from int; the position of the block
+     * @return int; the hash of the bytes from position from to from + BLOCK_SIZE
+     */
+    private static int hash(final byte[] bytes, final int from)
+    {
+        int hash = 0;
+        for (int i = from; i < from + BLOCK_SIZE; i++)
+        {
+            hash = hash * HASH_BASE + bytes[i];
+        }
+        return hash;
+    }
+
+    /**
+     * Apply the payload of a delta checkpoint to the state of the previous checkpoint.
+     * @param previous byte[]; the state of the previous checkpoint
+     * @param payload ByteBuffer; the payload of the delta, positioned at its start
+     * @param stateLength int; the length of the new state
+     * @return byte[]; the new state
+     * @throws IOException when the delta does not fit the previous state or the length of the new state
+     */
+    static byte[] apply(final byte[] previous, final ByteBuffer payload, final int stateLength) throws IOException
+    {
+        byte[] state = new byte[stateLength];
+        int position = 0;
+        try
+        {
+            while (position < stateLength)
+            {
+                int instruction = payload.getInt();
+                if (instruction < 0)
+                {
+                    int from = (-instruction - 1) * BLOCK_SIZE;
+                    int length = payload.getInt() * BLOCK_SIZE;
+                    System.arraycopy(previous, from, state, position, length);
+                    position += length;
+                }
+                else
+                {
+                    payload.get(state, position, instruction);
+                    position += instruction;
+                }
+            }
+        }
+        catch (RuntimeException exception)
+        {
+            throw new IOException("The delta checkpoint does not fit the previous checkpoint", exception);
+        }
+        return state;
+    }
+
+    /**
+     * Make a checkpoint record with a header, the payload and a CRC32 checksum over the header and the payload.
+     * @param sequence long; the sequence number of the checkpoint
+     * @param kind byte; FULL or DELTA
+     * @param stateLength int; the length of the state
+     * @param numberOfEvents int; the number of events of the model in the state
+     * @param payload byte[]; the state for a full checkpoint, or the delta
+     * @return byte[]; the record
+     */
+    private static byte[] makeRecord(final long sequence, final byte kind, final int stateLength, final int numberOfEvents,
+            final byte[] payload)
+    {
+        ByteBuffer record = ByteBuffer.allocate(RECORD_HEADER_SIZE + payload.length + RECORD_TRAILER_SIZE);
+        record.putLong(sequence).put(kind).putInt(stateLength).putInt(numberOfEvents).putInt(payload.length).put(payload);
+        CRC32 crc = new CRC32();
+        crc.update(record.array(), 0, RECORD_HEADER_SIZE + payload.length);
+        record.putLong(crc.getValue());
+        return record.array();
+    }
+
+    /**
+     * Read the last complete checkpoint from a checkpoint file, by applying the deltas after the full checkpoint in the file.
+     * An incomplete or damaged record at the end of the file, e.g., because the process was killed while writing it, is
+     * ignored.
+     * @param file Path; the checkpoint file
+     * @param <T> the time type
+     * @return SimulatorSnapshot&lt;T&gt;; the snapshot of the last complete checkpoint
+     * @throws IOException when the file cannot be read, or does not contain a complete checkpoint
+     */
+    public static <T extends Number & Comparable<T>> SimulatorSnapshot<T> readLatest(final Path file) throws IOException
+    {
+        Throw.whenNull(file, "file cannot be null");
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.remaining() < FILE_HEADER_SIZE || buffer.getInt() != MAGIC)
+            {
+                throw new IOException("File " + file + " is not a checkpoint file");
+            }
+            int version = buffer.getInt();
+            if (version != VERSION)
+            {
+                throw new IOException("Unsupported checkpoint file version " + version);
+            }
+            byte[] state = null;
+            int numberOfEvents = 0;
+            long lastSequence = -1;
+            while (buffer.remaining() >= RECORD_HEADER_SIZE + RECORD_TRAILER_SIZE)
+            {
+                int start = buffer.position();
+                long sequence = buffer.getLong();
+                byte kind = buffer.get();
+                int stateLength = buffer.getInt();
+                int events = buffer.getInt();
+                int payloadLength = buffer.getInt();
+                if (stateLength < 0 || payloadLength < 0 || payloadLength > buffer.remaining() - RECORD_TRAILER_SIZE)
+                {
+                    break;
+                }
+                CRC32 crc = new CRC32();
+                crc.update(buffer.duplicate().position(start).limit(start + RECORD_HEADER_SIZE + payloadLength));
+                buffer.position(start + RECORD_HEADER_SIZE + payloadLength);
+                if (buffer.getLong() != crc.getValue()
+                        || (state == null ? kind != FULL : kind != DELTA || sequence != lastSequence + 1))
+                {
+                    break;
+                }
+                ByteBuffer payload = buffer.duplicate().position(start + RECORD_HEADER_SIZE);
+                if (kind == FULL)
+                {
+                    state = new byte[stateLength];
+                    payload.get(state);
+                }
+                else
+                {
+                    state = apply(state, payload, stateLength);
+                }
+                numberOfEvents = events;
+                lastSequence = sequence;
+            }
+            if (state == null)
+            {
+                throw new IOException("File " + file + " does not contain a complete checkpoint");
+            }
+            return SimulatorSnapshot.fromState(state, numberOfEvents);
+        }
+    }
+
+    /**
+     * Return the checkpoint file.
+     * @return Path; the checkpoint file
+     */
+    public Path getFile()
+    {
+        return this.file;
+    }
+
+    /**
+     * Return the interval in simulation time between two checkpoints.
+     * @return T; the interval in simulation time between two checkpoints
+     */
+    public T getInterval()
+    {
+        return this.interval;
+    }
+
+    /**
+     * Return the number of checkpoints that have been written.
+     * @return long; the number of checkpoints that have been written
+     */
+    public synchronized long getNumberOfCheckpoints()
+    {
+        return this.numberOfCheckpoints;
+    }
+
+    /**
+     * Return the number of full checkpoints that have been written; the other checkpoints are deltas.
+     * @return long; the number of full checkpoints that have been written
+     */
+    public synchronized long getNumberOfFullCheckpoints()
+    {
+        return this.numberOfFullCheckpoints;
+    }
+
+    /**
+     * Return the number of bytes that have been written for the checkpoints.
+     * @return long; the number of bytes that have been written for the checkpoints
+     */
+    public synchronized long getBytesWritten()
+    {
+        return this.bytesWritten;
+    }
+
+    /**
+     * Return the simulator time of the last checkpoint.
+     * @return T; the simulator time of the last checkpoint, or null when no checkpoint has been written
+     */
+    public synchronized T getLastCheckpointTime()
+    {
+        return this.lastCheckpointTime;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "Checkpointer[file=" + this.file + ", interval=" + this.interval + ", checkpoints=" + this.numberOfCheckpoints
+                + "]";
+    }
+
+}
@@ -1,6 +1,17 @@
 package nl.tudelft.simulation.dsol.simulators;
 
+import java.io.IOException;
+import java.io.ObjectInputStream;
 import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
 
 import org.djutils.exceptions.Throw;
 
@@ -8,10 +19,14 @@ import nl.tudelft.simulation.dsol.SimRuntimeException;
 import nl.tudelft.simulation.dsol.eventlists.EventListInterface;
 import nl.tudelft.simulation.dsol.eventlists.RedBlackTree;
 import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.AbstractSimEvent;
 import nl.tudelft.simulation.dsol.formalisms.eventscheduling.Executable;
 import nl.tudelft.simulation.dsol.formalisms.eventscheduling.LambdaSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.PartitionedSimEventInterface;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.RecyclableLambdaSimEvent;
 import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEvent;
 import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventPool;
 import nl.tudelft.simulation.dsol.model.DsolModel;
 import nl.tudelft.simulation.dsol.simtime.SimTime;
 
@@ -19,6 +34,28 @@ import nl.tudelft.simulation.dsol.simtime.SimTime;
  * The DEVS defines the interface of the DEVS simulator. DEVS stands for the Discrete Event System Specification. More
  * information on Discrete Event Simulation can be found in "Theory of Modeling and Simulation" by Bernard Zeigler et.al.
  * <p>
+ * The simulator can run in a single-threaded run mode, see {@link #setSingleThreadedRun(boolean)}. In that mode, the run()
+ * loop does not synchronize on the semaphore for every event, and scheduling from the model (i.e., from the thread that executes
+ * the events) does not take the semaphore either. Events that are scheduled or cancelled by other threads while the loop runs are
+ * put in a lock-free inbox, which is processed by the run loop between the execution of two events.
+ * </p>
+ * <p>
+ * The simulator can recycle the events for lambda expressions, see {@link #setEventRecycling(boolean)}. In that mode, events
+ * that are scheduled with an Executable by the model are taken from a simulator-local {@link SimEventPool}, and returned to the
+ * pool after execution or cancellation.
+ * </p>
+ * <p>
+ * The run() loop executes the events in batches: all events with the same execution time are taken from the event list in one
+ * operation, the simulator time is updated once, and the TIME_CHANGED_EVENT is fired at most once for the batch. The events in
+ * the batch are executed in the same order as they would be executed one by one. When an event in the batch schedules a new
+ * event at the same time with a higher priority than the remaining events in the batch, the remaining events are put back on the
+ * event list, so the execution order is not changed by the batching. In the normal run mode, the semaphore is held for the
+ * execution of the entire batch; in the single-threaded run mode, the inbox is processed between two batches.
+ * </p>
+ * <p>
+ * Within a batch, events of different model partitions can be executed in parallel, see {@link #setParallelExecution}.
+ * </p>
+ * <p>
  * Copyright (c) 2002-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
  * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
  * project is distributed under a three-clause BSD-style license, which can be found at
@@ -38,6 +75,45 @@ public class DevsSimulator<T extends Number & Comparable<T>> extends Simulator<T
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected EventListInterface<T> eventList = new RedBlackTree<T>();
 
+    /** whether the run() loop executes without synchronizing on the semaphore for every event. */
+    private boolean singleThreadedRun = false;
+
+    /** whether the single-threaded run loop is active; only changed while holding the semaphore. */
+    private transient volatile boolean singleThreadedLoopActive = false;
+
+    /** the thread that executes the single-threaded run loop, or null when the loop is not active. */
+    private transient volatile Thread loopThread = null;
+
+    /** the inbox for scheduling and cancellation requests of other threads while the single-threaded run loop is active. */
+    private transient ConcurrentLinkedQueue<InboxRequest<T>> inbox = new ConcurrentLinkedQueue<>();
+
+    /** the generation that indicates that the generation of a recyclable event should not be checked on cancellation. */
+    private static final int ANY_GENERATION = -1;
+
+    /** whether events for lambda expressions are recycled. */
+    private boolean eventRecycling = false;
+
+    /** the pool of recyclable events, or null when events are not recycled. */
+    private transient SimEventPool<T> eventPool = null;
+
+    /** the reusable buffer with the events with the same execution time that are executed by the run loop. */
+    private transient List<SimEventInterface<T>> batch = new ArrayList<>();
+
+    /** the index in the batch of the event that is being executed. */
+    private transient int batchIndex = 0;
+
+    /** the index in the batch up to which the partitioned events belong to one partition, and are executed sequentially. */
+    private transient int sequentialRunEnd = 0;
+
+    /** the pool that executes the events of different partitions in parallel, or null when events are executed sequentially. */
+    private transient ForkJoinPool parallelPool = null;
+
+    /** whether the events of different partitions are being executed in parallel. */
+    private transient volatile boolean parallelRunActive = false;
+
+    /** the partition group that is executed by the current thread during a parallel run. */
+    private transient ThreadLocal<PartitionGroup> partitionGroup = new ThreadLocal<>();
+
     /**
      * Constructs a new DevsSimulator.
      * @param id the id of the simulator, used in logging and firing of events.
@@ -47,10 +123,96 @@ public class DevsSimulator<T extends Number & Comparable<T>> extends Simulator<T
         super(id);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>
+     * A {@link RecyclableLambdaSimEvent} cannot be cancelled with this method, since a stale reference to an event that has
+     * been executed or cancelled and reused would cancel the wrong occurrence of the event; use
+     * {@link #cancelEvent(SimEventInterface, int)} with the generation of the event at the time it was scheduled.
+     * </p>
+     * @throws SimRuntimeException when the event is a recyclable event
+     */
     @Override
     public boolean cancelEvent(final SimEventInterface<T> event)
     {
-        return this.eventList.remove(event);
+        Throw.when(event instanceof RecyclableLambdaSimEvent, SimRuntimeException.class,
+                "recyclable event %s can only be cancelled with its generation, see cancelEvent(event, generation)", event);
+        return cancelEvent(event, ANY_GENERATION);
+    }
+
+    /**
+     * Cancel a recyclable event, but only when it still has the given generation, i.e., when it has not been executed or
+     * cancelled and reused for another event since it was scheduled. This is the safe way to cancel events when event recycling
+     * is on: store the generation of the event when it is scheduled, and use it to cancel the event. For events that are not
+     * recyclable, the generation is ignored.
+     * @param event SimEventInterface&lt;T&gt;; the event to cancel
+     * @param generation int; the generation of the event at the time it was scheduled
+     * @return boolean; whether the event was found in the event list and has been cancelled
+     */
+    public boolean cancelEvent(final SimEventInterface<T> event, final int generation)
+    {
+        PartitionGroup group = currentPartitionGroup();
+        if (group != null)
+        {
+            return group.cancel(event, generation);
+        }
+        if (isLoopThread())
+        {
+            return removeEvent(event, generation);
+        }
+        CompletableFuture<Boolean> result;
+        synchronized (super.semaphore)
+        {
+            if (!this.singleThreadedLoopActive)
+            {
+                return removeEvent(event, generation);
+            }
+            result = new CompletableFuture<>();
+            this.inbox.offer(new InboxRequest<T>(event, result, generation));
+        }
+        // the request is carried out by the run loop before the next event, or when the run loop ends
+        return result.join();
+    }
+
+    /**
+     * Remove the event from the event list when the generation matches, and return a recyclable event to the pool. The caller
+     * should make sure that it has access to the event list.
+     * @param event SimEventInterface&lt;T&gt;; the event to remove
+     * @param generation int; the expected generation of a recyclable event, or ANY_GENERATION
+     * @return boolean; whether the event was found in the event list and has been removed
+     */
+    private boolean removeEvent(final SimEventInterface<T> event, final int generation)
+    {
+        if (generation != ANY_GENERATION && event instanceof RecyclableLambdaSimEvent
+                && ((RecyclableLambdaSimEvent<T>) event).getGeneration() != generation)
+        {
+            return false;
+        }
+        boolean removed = this.eventList.remove(event) || removeFromBatch(event);
+        if (removed)
+        {
+            recycleEvent(event);
+        }
+        return removed;
+    }
+
+    /**
+     * Remove an event that has not yet been executed from the batch that is being executed by the run loop. The event is
+     * replaced by null, so the indexes of the other events in the batch do not change.
+     * @param event SimEventInterface&lt;T&gt;; the event to remove
+     * @return boolean; whether the event was found in the remainder of the batch and has been removed
+     */
+    private boolean removeFromBatch(final SimEventInterface<T> event)
+    {
+        for (int i = this.batchIndex + 1; i < this.batch.size(); i++)
+        {
+            if (this.batch.get(i) == event)
+            {
+                this.batch.set(i, null);
+                return true;
+            }
+        }
+        return false;
     }
 
     @Override
@@ -77,25 +239,115 @@ public class DevsSimulator<T extends Number & Comparable<T>> extends Simulator<T
         }
     }
 
+    /**
+     * Initialize the simulator with a replication for a model of which the state has been restored from a snapshot, see
+     * {@link SimulatorSnapshot}. The model is not constructed; the simulator time is set to the time of the snapshot, and the
+     * events of the model are put back on the event list. The warmup event is only scheduled when the warmup time of the
+     * replication lies after the time of the snapshot.
+     * @param model DsolModel&lt;T, ?&gt;; the restored model
+     * @param replication Replication&lt;T&gt;; the replication to use for running the model
+     * @param time T; the time of the snapshot
+     * @param events List&lt;SimEventInterface&lt;T&gt;&gt;; the restored events of the model
+     * @throws SimRuntimeException when the simulator is running, or when the replication ends before the time of the snapshot
+     */
+    void initialize(final DsolModel<T, ? extends SimulatorInterface<T>> model, final Replication<T> replication, final T time,
+            final List<SimEventInterface<T>> events) throws SimRuntimeException
+    {
+        Throw.when(isStartingOrRunning(), SimRuntimeException.class, "Cannot initialize a running simulator");
+        Throw.when(replication.getEndTime().compareTo(time) <= 0, SimRuntimeException.class,
+                "The replication ends before the time of the snapshot");
+        synchronized (super.semaphore)
+        {
+            this.eventList.clear();
+            super.initialize(model, replication, time, false);
+            for (SimEventInterface<T> event : events)
+            {
+                addToEventList(event);
+            }
+            if (replication.getWarmupTime().compareTo(time) > 0)
+            {
+                this.scheduleEvent(new SimEvent<T>(replication.getWarmupTime(), (short) (SimEventInterface.MAX_PRIORITY + 1),
+                        this, "warmup", null));
+            }
+            this.scheduleEvent(new SimEvent<T>(replication.getEndTime(), (short) (SimEventInterface.MIN_PRIORITY - 1), this,
+                    "endReplication", null));
+        }
+    }
+
     @Override
     public SimEventInterface<T> scheduleEvent(final SimEventInterface<T> event) throws SimRuntimeException
     {
+        PartitionGroup group = currentPartitionGroup();
+        if (group != null)
+        {
+            group.schedule(event);
+            return event;
+        }
+        if (isLoopThread())
+        {
+            addToEventList(event);
+            return event;
+        }
         synchronized (super.semaphore)
         {
-            if (event.getAbsoluteExecutionTime().compareTo(super.simulatorTime) < 0)
+            if (this.singleThreadedLoopActive)
+            {
+                this.inbox.offer(new InboxRequest<T>(event, null, ANY_GENERATION));
+            }
+            else
             {
-                throw new SimRuntimeException("cannot schedule event " + event.toString() + " in past " + this.simulatorTime
-                        + ">" + event.getAbsoluteExecutionTime());
+                addToEventList(event);
             }
-            this.eventList.add(event);
             return event;
         }
     }
 
+    /**
+     * Add the event to the event list after checking that it is not scheduled in the past. The caller should make sure that it
+     * has access to the event list, i.e., hold the semaphore or be the thread of the single-threaded run loop.
+     * @param event SimEventInterface&lt;T&gt;; the event to add
+     * @throws SimRuntimeException when the event is scheduled in the past
+     */
+    protected void addToEventList(final SimEventInterface<T> event) throws SimRuntimeException
+    {
+        if (event.getAbsoluteExecutionTime().compareTo(super.simulatorTime) < 0)
+        {
+            throw new SimRuntimeException("cannot schedule event " + event.toString() + " in past " + this.simulatorTime + ">"
+                    + event.getAbsoluteExecutionTime());
+        }
+        this.eventList.add(event);
+    }
+
+    /**
+     * Return whether the current thread is the thread that executes the single-threaded run loop, or a thread that executes
+     * partitioned events in parallel. In that case, the simulator time can be read, and the scheduling methods can be called,
+     * without synchronizing on the semaphore.
+     * @return boolean; whether the current thread is the thread that executes the single-threaded run loop or partitioned events
+     */
+    protected boolean isLoopThread()
+    {
+        return (this.singleThreadedLoopActive && Thread.currentThread() == this.loopThread) || currentPartitionGroup() != null;
+    }
+
+    /**
+     * Return the partition group that is executed by the current thread during a parallel run.
+     * @return PartitionGroup; the partition group that is executed by the current thread, or null when the current thread does
+     *         not execute partitioned events in parallel
+     */
+    private PartitionGroup currentPartitionGroup()
+    {
+        return this.parallelRunActive ? this.partitionGroup.get() : null;
+    }
+
     @Override
     public SimEventInterface<T> scheduleEventRel(final T relativeDelay, final short priority, final Object target,
             final String method, final Object[] args) throws SimRuntimeException
     {
+        if (isLoopThread())
+        {
+            return scheduleEvent(
+                    new SimEvent<T>(SimTime.plus(this.simulatorTime, relativeDelay), priority, target, method, args));
+        }
         synchronized (super.semaphore)
         {
             T absEventTime = SimTime.plus(this.simulatorTime, relativeDelay);
@@ -114,10 +366,7 @@ public class DevsSimulator<T extends Number & Comparable<T>> extends Simulator<T
     public SimEventInterface<T> scheduleEventAbs(final T absoluteTime, final short priority, final Object target,
             final String method, final Object[] args) throws SimRuntimeException
     {
-        synchronized (super.semaphore)
-        {
-            return scheduleEvent(new SimEvent<T>(absoluteTime, priority, target, method, args));
-        }
+        return scheduleEvent(new SimEvent<T>(absoluteTime, priority, target, method, args));
     }
 
     @Override
@@ -131,6 +380,10 @@ public class DevsSimulator<T extends Number & Comparable<T>> extends Simulator<T
     public SimEventInterface<T> scheduleEventNow(final short priority, final Object target, final String method,
             final Object[] args) throws SimRuntimeException
     {
+        if (isLoopThread())
+        {
+            return scheduleEvent(new SimEvent<T>(SimTime.copy(this.simulatorTime), priority, target, method, args));
+        }
         synchronized (super.semaphore)
         {
             T absEventTime = SimTime.copy(this.simulatorTime);
@@ -149,10 +402,14 @@ public class DevsSimulator<T extends Number & Comparable<T>> extends Simulator<T
     public SimEventInterface<T> scheduleEventRel(final T relativeDelay, final short priority, final Executable executable)
             throws SimRuntimeException
     {
+        if (isLoopThread())
+        {
+            return scheduleEvent(newLambdaSimEvent(SimTime.plus(this.simulatorTime, relativeDelay), priority, executable));
+        }
         synchronized (super.semaphore)
         {
             T absEventTime = SimTime.plus(this.simulatorTime, relativeDelay);
-            return scheduleEvent(new LambdaSimEvent<T>(absEventTime, priority, executable));
+            return scheduleEvent(newLambdaSimEvent(absEventTime, priority, executable));
         }
     }
 
@@ -166,10 +423,7 @@ public class DevsSimulator<T extends Number & Comparable<T>> extends Simulator<T
     public SimEventInterface<T> scheduleEventAbs(final T absoluteTime, final short priority, final Executable executable)
             throws SimRuntimeException
     {
-        synchronized (super.semaphore)
-        {
-            return scheduleEvent(new LambdaSimEvent<T>(absoluteTime, priority, executable));
-        }
+        return scheduleEvent(newLambdaSimEvent(absoluteTime, priority, executable));
     }
 
     @Override
@@ -181,10 +435,14 @@ public class DevsSimulator<T extends Number & Comparable<T>> extends Simulator<T
     @Override
     public SimEventInterface<T> scheduleEventNow(final short priority, final Executable executable) throws SimRuntimeException
     {
+        if (isLoopThread())
+        {
+            return scheduleEvent(newLambdaSimEvent(SimTime.copy(this.simulatorTime), priority, executable));
+        }
         synchronized (super.semaphore)
         {
             T absEventTime = SimTime.copy(this.simulatorTime);
-            return scheduleEvent(new LambdaSimEvent<T>(absEventTime, priority, executable));
+            return scheduleEvent(newLambdaSimEvent(absEventTime, priority, executable));
         }
     }
 
@@ -216,30 +474,234 @@ public class DevsSimulator<T extends Number & Comparable<T>> extends Simulator<T
         }
     }
 
+    /**
+     * Return whether the run() loop executes in single-threaded mode.
+     * @return boolean; whether the run() loop executes in single-threaded mode
+     */
+    public boolean isSingleThreadedRun()
+    {
+        return this.singleThreadedRun;
+    }
+
+    /**
+     * Set whether the run() loop executes in single-threaded mode. In single-threaded mode, the run loop does not synchronize on
+     * the semaphore for every event, and events that are scheduled by the model (on the thread that executes the events) are
+     * added to the event list without synchronization. Scheduling and cancellation requests from other threads are put in a
+     * lock-free inbox and carried out between two events. Note that the scheduling of events with a relative time or at the
+     * current time by other threads uses the simulator time at the moment of the call, which might already have passed when the
+     * request is carried out; such an event is handled as an error according to the ErrorStrategy. Cancellation from another
+     * thread blocks till the run loop has processed the request. The event list should not be inspected directly by other
+     * threads while the simulator runs in single-threaded mode. Subclasses that override run() with their own loop, such as the
+     * animators, are not affected by this setting.
+     * @param singleThreadedRun boolean; whether the run() loop should execute in single-threaded mode
+     * @throws SimRuntimeException when the simulator is running
+     */
+    public void setSingleThreadedRun(final boolean singleThreadedRun) throws SimRuntimeException
+    {
+        Throw.when(isStartingOrRunning(), SimRuntimeException.class, "Cannot change the run mode of a running simulator");
+        this.singleThreadedRun = singleThreadedRun;
+    }
+
+    /**
+     * Return the pool that executes the events of different partitions in parallel.
+     * @return ForkJoinPool; the pool that executes the events of different partitions in parallel, or null when parallel
+     *         execution is off
+     */
+    public ForkJoinPool getParallelExecutionPool()
+    {
+        return this.parallelPool;
+    }
+
+    /**
+     * Turn the parallel execution of partitioned events on or off. When a pool is set, the run() loop executes the events of a
+     * batch that implement {@link PartitionedSimEventInterface} and that have the same priority in parallel on the pool,
+     * grouped per partition. The events of one partition are executed sequentially, in the same order as in sequential
+     * execution; the run loop waits till all groups have been executed. Events that are scheduled by the partitioned events are
+     * collected per group, and are added to the event list after all groups have been executed, so the event list is never
+     * accessed concurrently. When an event schedules an event that has to be executed before the next event of its partition,
+     * the remaining events of that partition are put back on the event list, as in sequential execution. Exceptions are handled
+     * by the run loop after the parallel execution, in the order of the groups. The events of different partitions may only
+     * change the state of their own partition, and listeners to events that are fired by the model should be thread-safe. An
+     * event may only cancel the events of its own partition during a parallel run; cancelling another event results in a
+     * SimRuntimeException. The new events get their ids when they are added to the event list, in the order of the groups and
+     * in the order of construction within a group, so new events of different partitions with the same time and priority are
+     * executed in the same order in every run. The pool is not serialized, so parallel execution is off after
+     * deserialization.
+     * @param pool ForkJoinPool; the pool to execute partitioned events in parallel, e.g., ForkJoinPool.commonPool(), or null
+     *            to execute all events sequentially
+     * @throws SimRuntimeException when the simulator is running
+     */
+    public void setParallelExecution(final ForkJoinPool pool) throws SimRuntimeException
+    {
+        Throw.when(isStartingOrRunning(), SimRuntimeException.class, "Cannot change parallel execution of a running simulator");
+        this.parallelPool = pool;
+    }
+
+    /**
+     * Return whether events for lambda expressions are recycled.
+     * @return boolean; whether events for lambda expressions are recycled
+     */
+    public boolean isEventRecycling()
+    {
+        return this.eventRecycling;
+    }
+
+    /**
+     * Set whether events for lambda expressions are recycled. When recycling is on, the events that the model schedules with an
+     * Executable on the thread that executes the events are taken from a simulator-local {@link SimEventPool}, and they are
+     * returned to the pool after they have been executed or cancelled. The ids of these events are handed out by the pool
+     * without an atomic operation per event. Since an event object is reused, a reference to an executed or cancelled event
+     * becomes stale: store the generation of a {@link RecyclableLambdaSimEvent} when scheduling it, and cancel it with
+     * {@link #cancelEvent(SimEventInterface, int)}; {@link #cancelEvent(SimEventInterface)} refuses recyclable events. A
+     * recycled event should not be scheduled again by the model. Events that are scheduled by other threads, events for method
+     * invocations, and events that are executed with step() are not recycled. Subclasses that override run() with their own
+     * loop, such as the animators, only recycle events when they call {@link #recycleEvent(SimEventInterface)}.
+     * @param eventRecycling boolean; whether events for lambda expressions should be recycled
+     * @throws SimRuntimeException when the simulator is running
+     */
+    public void setEventRecycling(final boolean eventRecycling) throws SimRuntimeException
+    {
+        Throw.when(isStartingOrRunning(), SimRuntimeException.class, "Cannot change event recycling of a running simulator");
+        this.eventRecycling = eventRecycling;
+        this.eventPool = eventRecycling ? new SimEventPool<T>() : null;
+    }
+
+    /**
+     * Return the pool of recyclable events.
+     * @return SimEventPool&lt;T&gt;; the pool of recyclable events, or null when event recycling is off
+     */
+    public SimEventPool<T> getEventPool()
+    {
+        return this.eventPool;
+    }
+
+    /**
+     * Create an event for a lambda expression. When event recycling is on and the event is scheduled on the thread that executes
+     * the events, the event is taken from the event pool; otherwise, a new LambdaSimEvent is created.
+     * @param executionTime T; the absolute time the event has to be executed
+     * @param priority short; the priority of the event
+     * @param executable Executable; the lambda expression to execute
+     * @return SimEventInterface&lt;T&gt;; the event
+     */
+    protected SimEventInterface<T> newLambdaSimEvent(final T executionTime, final short priority, final Executable executable)
+    {
+        if (this.eventPool != null && isWorkerThread())
+        {
+            return this.eventPool.obtain(executionTime, priority, executable);
+        }
+        return new LambdaSimEvent<T>(executionTime, priority, executable);
+    }
+
+    /**
+     * Return an executed or cancelled event to the event pool, when event recycling is on and the event is owned by the pool.
+     * Only the thread that executes the events uses the pool.
+     * @param event SimEventInterface&lt;T&gt;; the executed or cancelled event
+     */
+    protected void recycleEvent(final SimEventInterface<T> event)
+    {
+        if (this.eventPool != null && isWorkerThread())
+        {
+            this.eventPool.release(event);
+        }
+    }
+
     @Override
     public void run()
     {
         // set the run flag semaphore to signal to startImpl() that the run method has started
         this.runflag = true;
+        if (this.singleThreadedRun)
+        {
+            runSingleThreaded();
+            return;
+        }
         while (!isStoppingOrStopped())
         {
             synchronized (super.semaphore)
             {
-                int cmp = this.eventList.isEmpty() ? 2
-                        : this.eventList.first().getAbsoluteExecutionTime().compareTo(this.runUntilTime);
-                if ((cmp == 0 && !this.runUntilIncluding) || cmp > 0)
+                if (!executeNextEvent())
                 {
-                    this.simulatorTime = SimTime.copy(this.runUntilTime);
-                    this.runState = RunState.STOPPING;
                     break;
                 }
+            }
+        }
+    }
 
-                SimEventInterface<T> event = this.eventList.removeFirst();
-                if (event.getAbsoluteExecutionTime().compareTo(super.simulatorTime) != 0)
-                {
-                    fireUnverifiedTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, null, event.getAbsoluteExecutionTime());
-                }
-                super.simulatorTime = event.getAbsoluteExecutionTime();
+    /**
+     * Execute the events with the first execution time of the event list as one batch, unless that time lies beyond the runUntil
+     * time. In that case, the simulator time is set to the runUntil time and the run state to STOPPING. The TIME_CHANGED_EVENT is
+     * only fired when the time changes. This method is called by the run loops for every batch; the caller should make sure that
+     * it has access to the event list. Subclasses can override it, or the methods {@link #isBeforeRunUntil(SimEventInterface)}
+     * and {@link #advanceTime(SimEventInterface)}, e.g., to compare and set the time without boxing.
+     * @return boolean; whether events were executed; false means that the run loop has to end
+     */
+    protected boolean executeNextEvent()
+    {
+        if (this.eventList.isEmpty() || !isBeforeRunUntil(this.eventList.first()))
+        {
+            this.simulatorTime = SimTime.copy(this.runUntilTime);
+            this.runState = RunState.STOPPING;
+            return false;
+        }
+        this.eventList.removeFirstBatch(this.batch);
+        advanceTime(this.batch.get(0));
+        try
+        {
+            executeBatch();
+        }
+        finally
+        {
+            this.batch.clear();
+            this.batchIndex = 0;
+            this.sequentialRunEnd = 0;
+        }
+        return true;
+    }
+
+    /**
+     * Return whether the event can be executed by the run loop, i.e., whether its execution time lies before the runUntil time,
+     * or at the runUntil time when the runUntil time is included.
+     * @param event SimEventInterface&lt;T&gt;; the first event of the event list
+     * @return boolean; whether the event lies before the runUntil time
+     */
+    protected boolean isBeforeRunUntil(final SimEventInterface<T> event)
+    {
+        int cmp = event.getAbsoluteExecutionTime().compareTo(this.runUntilTime);
+        return cmp < 0 || (cmp == 0 && this.runUntilIncluding);
+    }
+
+    /**
+     * Set the simulator time to the execution time of the event, and fire the TIME_CHANGED_EVENT when the time changes.
+     * @param event SimEventInterface&lt;T&gt;; the first event of the batch that is going to be executed
+     */
+    protected void advanceTime(final SimEventInterface<T> event)
+    {
+        T time = event.getAbsoluteExecutionTime();
+        if (time.compareTo(super.simulatorTime) != 0)
+        {
+            fireUnverifiedTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, null, time);
+        }
+        super.simulatorTime = time;
+    }
+
+    /**
+     * Execute the events in the batch in order. Before the next event of the batch is executed, the remainder of the batch is
+     * put back on the event list when the simulator has been stopped, or when an executed event has scheduled an event that has
+     * to be executed before the next event of the batch.
+     */
+    private void executeBatch()
+    {
+        int n = this.batch.size();
+        for (this.batchIndex = 0; this.batchIndex < n; this.batchIndex++)
+        {
+            SimEventInterface<T> event = this.batch.get(this.batchIndex);
+            if (event == null)
+            {
+                continue; // cancelled while the batch was executed
+            }
+            if (this.parallelPool == null || this.batchIndex < this.sequentialRunEnd
+                    || !(event instanceof PartitionedSimEventInterface) || !executeParallelRun())
+            {
                 try
                 {
                     event.execute();
@@ -248,6 +710,169 @@ public class DevsSimulator<T extends Number & Comparable<T>> extends Simulator<T
                 {
                     handleSimulationException(exception);
                 }
+                recycleEvent(event);
+            }
+            SimEventInterface<T> next = nextInBatch();
+            if (next != null && (isStoppingOrStopped()
+                    || (!this.eventList.isEmpty() && this.eventList.first().compareTo(next) < 0)))
+            {
+                returnBatchRemainder();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Execute the run of partitioned events with the same priority that starts at the current batch index in parallel, grouped
+     * per partition. When the run contains only one partition, nothing is executed, and the run is marked to be executed
+     * sequentially. After the parallel execution, the exceptions of the groups are handled, the events that the groups did not
+     * execute are put back on the event list, and the events that have been scheduled by the groups are added to the event
+     * list. The batch index is set to the last event of the run.
+     * @return boolean; whether the run has been executed in parallel
+     */
+    private boolean executeParallelRun()
+    {
+        short priority = this.batch.get(this.batchIndex).getPriority();
+        Map<Integer, PartitionGroup> groups = new LinkedHashMap<>();
+        int end = this.batchIndex;
+        for (; end < this.batch.size(); end++)
+        {
+            SimEventInterface<T> event = this.batch.get(end);
+            if (event != null)
+            {
+                if (!(event instanceof PartitionedSimEventInterface) || event.getPriority() != priority)
+                {
+                    break;
+                }
+                groups.computeIfAbsent(((PartitionedSimEventInterface<T>) event).getPartition(), p -> new PartitionGroup(p))
+                        .add(end);
+            }
+        }
+        if (groups.size() < 2)
+        {
+            this.sequentialRunEnd = end;
+            return false;
+        }
+        this.parallelRunActive = true;
+        try
+        {
+            this.parallelPool.invokeAll(groups.values());
+        }
+        finally
+        {
+            this.parallelRunActive = false;
+        }
+        for (PartitionGroup group : groups.values())
+        {
+            group.finish();
+        }
+        this.batchIndex = end - 1;
+        return true;
+    }
+
+    /**
+     * Return the next event in the batch that has not been cancelled.
+     * @return SimEventInterface&lt;T&gt;; the next event in the batch that has not been cancelled, or null when there is none
+     */
+    private SimEventInterface<T> nextInBatch()
+    {
+        for (int i = this.batchIndex + 1; i < this.batch.size(); i++)
+        {
+            if (this.batch.get(i) != null)
+            {
+                return this.batch.get(i);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Put the events of the batch that have not been executed back on the event list, unless the replication has ended.
+     */
+    private void returnBatchRemainder()
+    {
+        if (isReplicationEnding())
+        {
+            return;
+        }
+        for (int i = this.batchIndex + 1; i < this.batch.size(); i++)
+        {
+            if (this.batch.get(i) != null)
+            {
+                this.eventList.add(this.batch.get(i));
+            }
+        }
+    }
+
+    /**
+     * Return whether the replication is ending or has ended, in which case events that have not been executed are not put back
+     * on the event list.
+     * @return boolean; whether the replication is ending or has ended
+     */
+    private boolean isReplicationEnding()
+    {
+        return getReplicationState() == ReplicationState.ENDING || getReplicationState() == ReplicationState.ENDED;
+    }
+
+    /**
+     * The run loop for the single-threaded mode. The loop only synchronizes on the semaphore when it starts and ends; in between,
+     * requests of other threads are taken from the inbox between the execution of two events.
+     */
+    protected void runSingleThreaded()
+    {
+        synchronized (super.semaphore)
+        {
+            this.loopThread = Thread.currentThread();
+            this.singleThreadedLoopActive = true;
+        }
+        try
+        {
+            while (!isStoppingOrStopped())
+            {
+                if (!this.inbox.isEmpty())
+                {
+                    processInbox();
+                }
+                if (!executeNextEvent())
+                {
+                    break;
+                }
+            }
+        }
+        finally
+        {
+            synchronized (super.semaphore)
+            {
+                this.singleThreadedLoopActive = false;
+                this.loopThread = null;
+                processInbox();
+            }
+        }
+    }
+
+    /**
+     * Carry out the scheduling and cancellation requests that other threads have put in the inbox. Events that turn out to be
+     * scheduled in the past are handled according to the ErrorStrategy.
+     */
+    private void processInbox()
+    {
+        InboxRequest<T> request;
+        while ((request = this.inbox.poll()) != null)
+        {
+            if (request.cancellation != null)
+            {
+                request.cancellation.complete(removeEvent(request.event, request.generation));
+            }
+            else
+            {
+                try
+                {
+                    addToEventList(request.event);
+                }
+                catch (SimRuntimeException exception)
+                {
+                    handleSimulationException(exception);
+                }
             }
         }
     }
@@ -273,4 +898,228 @@ public class DevsSimulator<T extends Number & Comparable<T>> extends Simulator<T
         setErrorStrategy(pauseOnError ? ErrorStrategy.WARN_AND_PAUSE : ErrorStrategy.LOG_AND_CONTINUE);
     }
 
+    /**
+     * Recreate the transient inbox, event pool, batch buffer and partition group holder after deserialization.
+     * @param in ObjectInputStream; the input stream
+     * @throws IOException on I/O error
+     * @throws ClassNotFoundException when a class of a serialized object cannot be found
+     */
+    private void readObject(final ObjectInputStream in) throws IOException, ClassNotFoundException
+    {
+        in.defaultReadObject();
+        this.inbox = new ConcurrentLinkedQueue<>();
+        this.eventPool = this.eventRecycling ? new SimEventPool<T>() : null;
+        this.batch = new ArrayList<>();
+        this.partitionGroup = new ThreadLocal<>();
+    }
+
+    /**
+     * The events of one partition in a parallel run. The group executes its events sequentially on a thread of the pool, and
+     * collects the events that it schedules and the exceptions that occur, to be processed by the run loop afterwards.
+     */
+    private final class PartitionGroup implements Callable<Void>
+    {
+        /** the key of the partition. */
+        private final int partition;
+
+        /** the indexes in the batch of the events of this partition. */
+        private final List<Integer> indexes = new ArrayList<>();
+
+        /** the position in the indexes of the next event to execute. */
+        private int next = 0;
+
+        /** the events that have been scheduled by the events of this partition. */
+        private final List<SimEventInterface<T>> scheduled = new ArrayList<>();
+
+        /** the earliest event that has been scheduled by the events of this partition, or null when none has been scheduled. */
+        private SimEventInterface<T> earliest = null;
+
+        /** the exceptions that occurred in the execution of the events of this partition. */
+        private final List<Exception> exceptions = new ArrayList<>();
+
+        /**
+         * Create a group for the events of a partition.
+         * @param partition int; the key of the partition
+         */
+        PartitionGroup(final int partition)
+        {
+            this.partition = partition;
+        }
+
+        /**
+         * Add the index of an event in the batch to this group.
+         * @param index int; the index of the event in the batch
+         */
+        void add(final int index)
+        {
+            this.indexes.add(index);
+        }
+
+        @Override
+        public Void call()
+        {
+            DevsSimulator.this.partitionGroup.set(this);
+            try
+            {
+                while (this.next < this.indexes.size() && !isStoppingOrStopped())
+                {
+                    int index = this.indexes.get(this.next++);
+                    SimEventInterface<T> event = DevsSimulator.this.batch.get(index);
+                    if (event == null)
+                    {
+                        continue; // cancelled by an earlier event of this partition
+                    }
+                    // the batch index is not advanced during the parallel run, so clear the slot of an executed event
+                    DevsSimulator.this.batch.set(index, null);
+                    try
+                    {
+                        event.execute();
+                    }
+                    catch (Exception exception)
+                    {
+                        this.exceptions.add(exception);
+                    }
+                    if (this.earliest != null && nextEvent() != null && this.earliest.compareTo(nextEvent()) < 0)
+                    {
+                        break; // a new event has to be executed before the next event of this partition
+                    }
+                }
+            }
+            finally
+            {
+                DevsSimulator.this.partitionGroup.remove();
+            }
+            return null;
+        }
+
+        /**
+         * Return the next event of this partition that has not been cancelled.
+         * @return SimEventInterface&lt;T&gt;; the next event of this partition that has not been cancelled, or null when there
+         *         is none
+         */
+        private SimEventInterface<T> nextEvent()
+        {
+            for (int i = this.next; i < this.indexes.size(); i++)
+            {
+                SimEventInterface<T> event = DevsSimulator.this.batch.get(this.indexes.get(i));
+                if (event != null)
+                {
+                    return event;
+                }
+            }
+            return null;
+        }
+
+        /**
+         * Collect an event that is scheduled by an event of this partition.
+         * @param event SimEventInterface&lt;T&gt;; the scheduled event
+         */
+        void schedule(final SimEventInterface<T> event)
+        {
+            this.scheduled.add(event);
+            if (this.earliest == null || event.compareTo(this.earliest) < 0)
+            {
+                this.earliest = event;
+            }
+        }
+
+        /**
+         * Cancel an event on behalf of an event of this partition. The event is either one of the events that have been
+         * scheduled by this partition, or an event of this partition on the event list or in the batch. Events of other
+         * partitions, and events without a partition, cannot be cancelled, since the outcome would depend on the order in which
+         * the groups are executed.
+         * @param event SimEventInterface&lt;T&gt;; the event to cancel
+         * @param generation int; the expected generation of a recyclable event, or ANY_GENERATION
+         * @return boolean; whether the event was found and has been cancelled
+         * @throws SimRuntimeException when the event does not belong to this partition
+         */
+        boolean cancel(final SimEventInterface<T> event, final int generation)
+        {
+            for (int i = 0; i < this.scheduled.size(); i++)
+            {
+                if (this.scheduled.get(i) == event)
+                {
+                    this.scheduled.remove(i);
+                    return true;
+                }
+            }
+            Throw.when(
+                    !(event instanceof PartitionedSimEventInterface)
+                            || ((PartitionedSimEventInterface<T>) event).getPartition() != this.partition,
+                    SimRuntimeException.class, "an event of partition %d cannot cancel %s during parallel execution",
+                    this.partition, event);
+            synchronized (DevsSimulator.this.eventList)
+            {
+                return removeEvent(event, generation);
+            }
+        }
+
+        /**
+         * Process the results of this group on the run loop thread: handle the exceptions, put the events that have not been
+         * executed back on the event list, and add the scheduled events to the event list.
+         */
+        void finish()
+        {
+            for (Exception exception : this.exceptions)
+            {
+                handleSimulationException(exception);
+            }
+            if (!isReplicationEnding())
+            {
+                for (int i = this.next; i < this.indexes.size(); i++)
+                {
+                    SimEventInterface<T> event = DevsSimulator.this.batch.get(this.indexes.get(i));
+                    if (event != null)
+                    {
+                        DevsSimulator.this.eventList.add(event);
+                    }
+                }
+            }
+            // the ids of events that are constructed by different groups depend on the thread scheduling
+            this.scheduled.sort(Comparator.comparingLong(SimEventInterface::getId));
+            AbstractSimEvent.renumber(this.scheduled);
+            for (SimEventInterface<T> event : this.scheduled)
+            {
+                try
+                {
+                    addToEventList(event);
+                }
+                catch (SimRuntimeException exception)
+                {
+                    handleSimulationException(exception);
+                }
+            }
+        }
+    }
+
+    /**
+     * A scheduling or cancellation request of another thread for the single-threaded run loop.
+     * @param <T> the simulation time type
+     */
+    private static final class InboxRequest<T extends Number & Comparable<T>>
+    {
+        /** the event to schedule or to cancel. */
+        private final SimEventInterface<T> event;
+
+        /** the result of the cancellation, or null when the event has to be scheduled. */
+        private final CompletableFuture<Boolean> cancellation;
+
+        /** the expected generation of a recyclable event that has to be cancelled, or ANY_GENERATION. */
+        private final int generation;
+
+        /**
+         * Create a request for the inbox.
+         * @param event SimEventInterface&lt;T&gt;; the event to schedule or to cancel
+         * @param cancellation CompletableFuture&lt;Boolean&gt;; the result of the cancellation, or null when the event has to be
+         *            scheduled
+         * @param generation int; the expected generation of a recyclable event that has to be cancelled, or ANY_GENERATION
+         */
+        InboxRequest(final SimEventInterface<T> event, final CompletableFuture<Boolean> cancellation, final int generation)
+        {
+            this.event = event;
+            this.cancellation = cancellation;
+            this.generation = generation;
+        }
+    }
+
 }
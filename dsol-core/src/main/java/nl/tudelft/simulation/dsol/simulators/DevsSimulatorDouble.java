@@ -0,0 +1,165 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import java.io.Serializable;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.DoubleLambdaSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.DoubleSimEventInterface;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.Executable;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+
+/**
+ * DevsSimulatorDouble is a DEVS simulator for the time type Double that works with primitive double times internally. Events that
+ * are scheduled with an Executable are stored as a {@link DoubleLambdaSimEvent} with a primitive execution time, and the run
+ * loop of the {@link DevsSimulatorPrimitive} compares the event times with the simulator time and the runUntil time without
+ * boxing and without the type dispatch of SimTime. The simulator time is only boxed when the time advances. Overloads of the
+ * scheduling methods with a primitive double time avoid the boxing of the time argument. Since the simulator is a
+ * DevsSimulatorInterface&lt;Double&gt;, all existing models, event types and event lists for Double time keep working; events
+ * with a boxed time can be mixed with events with a primitive time in the same event list.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public class DevsSimulatorDouble extends DevsSimulatorPrimitive<Double>
+{
+    /** */
+    private static final long serialVersionUID = 20240901L;
+
+    /**
+     * Constructs a new DevsSimulatorDouble.
+     * @param id the id of the simulator, used in logging and firing of events.
+     */
+    public DevsSimulatorDouble(final Serializable id)
+    {
+        super(id);
+    }
+
+    /**
+     * Return the simulator time as a primitive double, without boxing.
+     * @return double; the simulator time, or Double.NaN when the simulator has not been initialized
+     */
+    public double getDoubleSimulatorTime()
+    {
+        return this.simulatorTime == null ? Double.NaN : this.simulatorTime.doubleValue();
+    }
+
+    @Override
+    protected int compareTime(final SimEventInterface<Double> event, final Double time)
+    {
+        return Double.compare(DoubleSimEventInterface.timeOf(event), time.doubleValue());
+    }
+
+    @Override
+    protected Double getExecutionTime(final SimEventInterface<Double> event)
+    {
+        return DoubleSimEventInterface.timeOf(event);
+    }
+
+    @Override
+    public SimEventInterface<Double> scheduleEventRel(final Double relativeDelay, final short priority, final Executable executable)
+            throws SimRuntimeException
+    {
+        return scheduleEventRel(relativeDelay.doubleValue(), priority, executable);
+    }
+
+    @Override
+    public SimEventInterface<Double> scheduleEventAbs(final Double absoluteTime, final short priority, final Executable executable)
+            throws SimRuntimeException
+    {
+        return scheduleEventAbs(absoluteTime.doubleValue(), priority, executable);
+    }
+
+    @Override
+    public SimEventInterface<Double> scheduleEventNow(final short priority, final Executable executable) throws SimRuntimeException
+    {
+        return scheduleEventRel(0, priority, executable);
+    }
+
+    /**
+     * Create an event for a lambda expression with a primitive execution time. When event recycling is on and the event is
+     * scheduled on the thread that executes the events, the event is taken from the event pool, as in
+     * {@link #newLambdaSimEvent(Number, short, Executable)}, and the time is boxed; otherwise, a new DoubleLambdaSimEvent is
+     * created.
+     * @param executionTime double; the absolute time the event has to be executed
+     * @param priority short; the priority of the event
+     * @param executable Executable; the lambda expression to execute
+     * @return SimEventInterface&lt;Double&gt;; the event
+     */
+    protected SimEventInterface<Double> newDoubleLambdaSimEvent(final double executionTime, final short priority,
+            final Executable executable)
+    {
+        if (getEventPool() != null && isWorkerThread())
+        {
+            return getEventPool().obtain(executionTime, priority, executable);
+        }
+        return new DoubleLambdaSimEvent(executionTime, priority, executable);
+    }
+
+    /**
+     * Schedule a lambda expression with a primitive execution time at a time relative to the current simulator time.
+     * @param relativeDelay double; the relative delay (positive) compared to the current simulator time
+     * @param priority short; the priority compared to other events scheduled at the same time
+     * @param executable Executable; the lambda expression to execute
+     * @return SimEventInterface&lt;Double&gt;; the event that was scheduled, which can be used to cancel the event
+     * @throws SimRuntimeException whenever the event is scheduled in the past
+     */
+    public SimEventInterface<Double> scheduleEventRel(final double relativeDelay, final short priority, final Executable executable)
+            throws SimRuntimeException
+    {
+        if (isLoopThread())
+        {
+            return scheduleEvent(newDoubleLambdaSimEvent(getDoubleSimulatorTime() + relativeDelay, priority, executable));
+        }
+        synchronized (super.semaphore)
+        {
+            return scheduleEvent(newDoubleLambdaSimEvent(getDoubleSimulatorTime() + relativeDelay, priority, executable));
+        }
+    }
+
+    /**
+     * Schedule a lambda expression with a primitive execution time and normal priority at a time relative to the current
+     * simulator time.
+     * @param relativeDelay double; the relative delay (positive) compared to the current simulator time
+     * @param executable Executable; the lambda expression to execute
+     * @return SimEventInterface&lt;Double&gt;; the event that was scheduled, which can be used to cancel the event
+     * @throws SimRuntimeException whenever the event is scheduled in the past
+     */
+    public SimEventInterface<Double> scheduleEventRel(final double relativeDelay, final Executable executable)
+            throws SimRuntimeException
+    {
+        return scheduleEventRel(relativeDelay, SimEventInterface.NORMAL_PRIORITY, executable);
+    }
+
+    /**
+     * Schedule a lambda expression with a primitive execution time at an absolute time.
+     * @param absoluteTime double; the absolute time to schedule the event
+     * @param priority short; the priority compared to other events scheduled at the same time
+     * @param executable Executable; the lambda expression to execute
+     * @return SimEventInterface&lt;Double&gt;; the event that was scheduled, which can be used to cancel the event
+     * @throws SimRuntimeException whenever the event is scheduled in the past
+     */
+    public SimEventInterface<Double> scheduleEventAbs(final double absoluteTime, final short priority, final Executable executable)
+            throws SimRuntimeException
+    {
+        return scheduleEvent(newDoubleLambdaSimEvent(absoluteTime, priority, executable));
+    }
+
+    /**
+     * Schedule a lambda expression with a primitive execution time and normal priority at an absolute time.
+     * @param absoluteTime double; the absolute time to schedule the event
+     * @param executable Executable; the lambda expression to execute
+     * @return SimEventInterface&lt;Double&gt;; the event that was scheduled, which can be used to cancel the event
+     * @throws SimRuntimeException whenever the event is scheduled in the past
+     */
+    public SimEventInterface<Double> scheduleEventAbs(final double absoluteTime, final Executable executable)
+            throws SimRuntimeException
+    {
+        return scheduleEventAbs(absoluteTime, SimEventInterface.NORMAL_PRIORITY, executable);
+    }
+
+}
@@ -0,0 +1,165 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import java.io.Serializable;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.LongLambdaSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.LongSimEventInterface;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.Executable;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+
+/**
+ * DevsSimulatorLong is a DEVS simulator for the time type Long that works with primitive long times internally. Events that
+ * are scheduled with an Executable are stored as a {@link LongLambdaSimEvent} with a primitive execution time, and the run
+ * loop of the {@link DevsSimulatorPrimitive} compares the event times with the simulator time and the runUntil time without
+ * boxing and without the type dispatch of SimTime. The simulator time is only boxed when the time advances. Overloads of the
+ * scheduling methods with a primitive long time avoid the boxing of the time argument. Since the simulator is a
+ * DevsSimulatorInterface&lt;Long&gt;, all existing models, event types and event lists for Long time keep working; events with
+ * a boxed time can be mixed with events with a primitive time in the same event list.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public class DevsSimulatorLong extends DevsSimulatorPrimitive<Long>
+{
+    /** */
+    private static final long serialVersionUID = 20240901L;
+
+    /**
+     * Constructs a new DevsSimulatorLong.
+     * @param id the id of the simulator, used in logging and firing of events.
+     */
+    public DevsSimulatorLong(final Serializable id)
+    {
+        super(id);
+    }
+
+    /**
+     * Return the simulator time as a primitive long, without boxing.
+     * @return long; the simulator time, or 0 when the simulator has not been initialized
+     */
+    public long getLongSimulatorTime()
+    {
+        return this.simulatorTime == null ? 0L : this.simulatorTime.longValue();
+    }
+
+    @Override
+    protected int compareTime(final SimEventInterface<Long> event, final Long time)
+    {
+        return Long.compare(LongSimEventInterface.timeOf(event), time.longValue());
+    }
+
+    @Override
+    protected Long getExecutionTime(final SimEventInterface<Long> event)
+    {
+        return LongSimEventInterface.timeOf(event);
+    }
+
+    @Override
+    public SimEventInterface<Long> scheduleEventRel(final Long relativeDelay, final short priority, final Executable executable)
+            throws SimRuntimeException
+    {
+        return scheduleEventRel(relativeDelay.longValue(), priority, executable);
+    }
+
+    @Override
+    public SimEventInterface<Long> scheduleEventAbs(final Long absoluteTime, final short priority, final Executable executable)
+            throws SimRuntimeException
+    {
+        return scheduleEventAbs(absoluteTime.longValue(), priority, executable);
+    }
+
+    @Override
+    public SimEventInterface<Long> scheduleEventNow(final short priority, final Executable executable) throws SimRuntimeException
+    {
+        return scheduleEventRel(0, priority, executable);
+    }
+
+    /**
+     * Create an event for a lambda expression with a primitive execution time. When event recycling is on and the event is
+     * scheduled on the thread that executes the events, the event is taken from the event pool, as in
+     * {@link #newLambdaSimEvent(Number, short, Executable)}, and the time is boxed; otherwise, a new LongLambdaSimEvent is
+     * created.
+     * @param executionTime long; the absolute time the event has to be executed
+     * @param priority short; the priority of the event
+     * @param executable Executable; the lambda expression to execute
+     * @return SimEventInterface&lt;Long&gt;; the event
+     */
+    protected SimEventInterface<Long> newLongLambdaSimEvent(final long executionTime, final short priority,
+            final Executable executable)
+    {
+        if (getEventPool() != null && isWorkerThread())
+        {
+            return getEventPool().obtain(executionTime, priority, executable);
+        }
+        return new LongLambdaSimEvent(executionTime, priority, executable);
+    }
+
+    /**
+     * Schedule a lambda expression with a primitive execution time at a time relative to the current simulator time.
+     * @param relativeDelay long; the relative delay (positive) compared to the current simulator time
+     * @param priority short; the priority compared to other events scheduled at the same time
+     * @param executable Executable; the lambda expression to execute
+     * @return SimEventInterface&lt;Long&gt;; the event that was scheduled, which can be used to cancel the event
+     * @throws SimRuntimeException whenever the event is scheduled in the past
+     */
+    public SimEventInterface<Long> scheduleEventRel(final long relativeDelay, final short priority, final Executable executable)
+            throws SimRuntimeException
+    {
+        if (isLoopThread())
+        {
+            return scheduleEvent(newLongLambdaSimEvent(getLongSimulatorTime() + relativeDelay, priority, executable));
+        }
+        synchronized (super.semaphore)
+        {
+            return scheduleEvent(newLongLambdaSimEvent(getLongSimulatorTime() + relativeDelay, priority, executable));
+        }
+    }
+
+    /**
+     * Schedule a lambda expression with a primitive execution time and normal priority at a time relative to the current
+     * simulator time.
+     * @param relativeDelay long; the relative delay (positive) compared to the current simulator time
+     * @param executable Executable; the lambda expression to execute
+     * @return SimEventInterface&lt;Long&gt;; the event that was scheduled, which can be used to cancel the event
+     * @throws SimRuntimeException whenever the event is scheduled in the past
+     */
+    public SimEventInterface<Long> scheduleEventRel(final long relativeDelay, final Executable executable)
+            throws SimRuntimeException
+    {
+        return scheduleEventRel(relativeDelay, SimEventInterface.NORMAL_PRIORITY, executable);
+    }
+
+    /**
+     * Schedule a lambda expression with a primitive execution time at an absolute time.
+     * @param absoluteTime long; the absolute time to schedule the event
+     * @param priority short; the priority compared to other events scheduled at the same time
+     * @param executable Executable; the lambda expression to execute
+     * @return SimEventInterface&lt;Long&gt;; the event that was scheduled, which can be used to cancel the event
+     * @throws SimRuntimeException whenever the event is scheduled in the past
+     */
+    public SimEventInterface<Long> scheduleEventAbs(final long absoluteTime, final short priority, final Executable executable)
+            throws SimRuntimeException
+    {
+        return scheduleEvent(newLongLambdaSimEvent(absoluteTime, priority, executable));
+    }
+
+    /**
+     * Schedule a lambda expression with a primitive execution time and normal priority at an absolute time.
+     * @param absoluteTime long; the absolute time to schedule the event
+     * @param executable Executable; the lambda expression to execute
+     * @return SimEventInterface&lt;Long&gt;; the event that was scheduled, which can be used to cancel the event
+     * @throws SimRuntimeException whenever the event is scheduled in the past
+     */
+    public SimEventInterface<Long> scheduleEventAbs(final long absoluteTime, final Executable executable)
+            throws SimRuntimeException
+    {
+        return scheduleEventAbs(absoluteTime, SimEventInterface.NORMAL_PRIORITY, executable);
+    }
+
+}
@@ -0,0 +1,82 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import java.io.Serializable;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+
+/**
+ * DevsSimulatorPrimitive is the common base class of the DEVS simulators that work with primitive times internally, such as the
+ * {@link DevsSimulatorDouble} and the {@link DevsSimulatorLong}. The run loop compares the event times with the simulator time
+ * and the runUntil time through {@link #compareTime(SimEventInterface, Number)}, which uses the primitive execution time of an
+ * event when it has one, so the times are not boxed and not dispatched through SimTime. The simulator time is only boxed when
+ * the time advances. Subclasses add the scheduling methods with a primitive time argument.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the simulation time type, e.g. Double or Long
+ * @since 4.2.3
+ */
+public abstract class DevsSimulatorPrimitive<T extends Number & Comparable<T>> extends DevsSimulator<T>
+{
+    /** */
+    private static final long serialVersionUID = 20240101L;
+
+    /**
+     * Constructs a new DevsSimulatorPrimitive.
+     * @param id the id of the simulator, used in logging and firing of events.
+     */
+    public DevsSimulatorPrimitive(final Serializable id)
+    {
+        super(id);
+    }
+
+    /**
+     * Compare the execution time of an event with a time, using the primitive execution time of the event when it has one.
+     * @param event SimEventInterface&lt;T&gt;; the event
+     * @param time T; the time to compare with, not null
+     * @return int; a negative value, zero or a positive value when the execution time of the event lies before, at or after
+     *         the time
+     */
+    protected abstract int compareTime(SimEventInterface<T> event, T time);
+
+    /**
+     * Return the execution time of an event, boxed from the primitive execution time of the event when it has one.
+     * @param event SimEventInterface&lt;T&gt;; the event
+     * @return T; the execution time of the event
+     */
+    protected abstract T getExecutionTime(SimEventInterface<T> event);
+
+    @Override
+    protected boolean isBeforeRunUntil(final SimEventInterface<T> event)
+    {
+        int cmp = compareTime(event, this.runUntilTime);
+        return cmp < 0 || (cmp == 0 && this.runUntilIncluding);
+    }
+
+    @Override
+    protected void advanceTime(final SimEventInterface<T> event)
+    {
+        if (compareTime(event, this.simulatorTime) != 0)
+        {
+            this.simulatorTime = getExecutionTime(event);
+            fireUnverifiedTimedEvent(SimulatorInterface.TIME_CHANGED_EVENT, null, this.simulatorTime);
+        }
+    }
+
+    @Override
+    protected void addToEventList(final SimEventInterface<T> event) throws SimRuntimeException
+    {
+        if (compareTime(event, this.simulatorTime) < 0)
+        {
+            throw new SimRuntimeException("cannot schedule event " + event.toString() + " in past " + this.simulatorTime + ">"
+                    + event.getAbsoluteExecutionTime());
+        }
+        this.eventList.add(event);
+    }
+
+}
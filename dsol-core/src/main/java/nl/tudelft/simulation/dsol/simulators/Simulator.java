@@ -5,7 +5,13 @@ import java.io.ObjectOutputStream;
 import java.io.Serializable;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
 
 import org.djutils.event.EventType;
 import org.djutils.event.LocalEventProducer;
@@ -21,7 +27,11 @@ import nl.tudelft.simulation.dsol.logger.SimLogger;
 import nl.tudelft.simulation.dsol.model.DsolModel;
 
 /**
- * The Simulator class is an abstract implementation of the SimulatorInterface.
+ * The Simulator class is an abstract implementation of the SimulatorInterface. By default, the run() method of the simulator is
+ * executed by a SimulatorWorkerThread that the simulator creates for every replication. When an Executor has been set with
+ * setExecutor(), the run() method is executed as a task on that executor instead, so the threads can be pooled over many
+ * simulators and replications. In that case, no thread is occupied while the simulator is not running, and the handoff
+ * between the simulator and the task is signaled with a Condition instead of polling.
  * <p>
  * Copyright (c) 2002-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
  * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
@@ -49,9 +59,12 @@ public abstract class Simulator<T extends Number & Comparable<T>> extends LocalE
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected boolean runUntilIncluding = true;
 
-    /** The run state of the simulator, that indicates the state of the Simulator state machine. */
+    /**
+     * The run state of the simulator, that indicates the state of the Simulator state machine. The field is volatile, since it
+     * is changed by other threads to stop a run loop that does not synchronize on the semaphore for every event.
+     */
     @SuppressWarnings("checkstyle:visibilitymodifier")
-    protected RunState runState = RunState.NOT_INITIALIZED;
+    protected volatile RunState runState = RunState.NOT_INITIALIZED;
 
     /** The replication state of the simulator, that indicates the state of the Replication state machine. */
     @SuppressWarnings("checkstyle:visibilitymodifier")
@@ -69,6 +82,13 @@ public abstract class Simulator<T extends Number & Comparable<T>> extends LocalE
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected transient SimulatorWorkerThread worker = null;
 
+    /** the task that executes the run() method on the executor; null when the simulator uses a SimulatorWorkerThread. */
+    @SuppressWarnings("checkstyle:visibilitymodifier")
+    protected transient SimulatorWorkerTask workerTask = null;
+
+    /** the executor for the run() method, or null when the run() method is executed by a SimulatorWorkerThread. */
+    private transient Executor executor = null;
+
     /** the simulatorSemaphore. */
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected transient Object semaphore = new Object();
@@ -106,22 +126,50 @@ public abstract class Simulator<T extends Number & Comparable<T>> extends LocalE
     @Override
     public void initialize(final DsolModel<T, ? extends SimulatorInterface<T>> model, final Replication<T> replication)
             throws SimRuntimeException
+    {
+        Throw.whenNull(replication, "Simulator.initialize: replication cannot be null");
+        initialize(model, replication, replication.getStartTime(), true);
+    }
+
+    /**
+     * Initialize the simulator with a replication for a model, starting at a given time. The model is constructed when the
+     * replication starts at its start time; when the state of the model has been restored from a snapshot, e.g., at the warmup
+     * time, the model is not constructed again.
+     * @param model DsolModel&lt;T, S&gt;; the model to initialize
+     * @param replication Replication&lt;T&gt;; the replication to use for running the model
+     * @param startTime T; the simulator time at which the replication starts or continues
+     * @param constructModel boolean; whether to clear the output statistics and call constructModel() on the model
+     * @throws SimRuntimeException when the simulator is running, or when the model cannot be constructed
+     */
+    protected void initialize(final DsolModel<T, ? extends SimulatorInterface<T>> model, final Replication<T> replication,
+            final T startTime, final boolean constructModel) throws SimRuntimeException
     {
         Throw.whenNull(model, "Simulator.initialize: model cannot be null");
         Throw.whenNull(replication, "Simulator.initialize: replication cannot be null");
+        Throw.whenNull(startTime, "Simulator.initialize: startTime cannot be null");
         Throw.when(isStartingOrRunning(), SimRuntimeException.class, "Cannot initialize a running simulator");
         synchronized (this.semaphore)
         {
-            if (this.worker != null)
+            if (this.worker != null || this.workerTask != null)
             {
                 cleanUp();
             }
-            this.worker = new SimulatorWorkerThread(this.id.toString(), this);
+            if (this.executor == null)
+            {
+                this.worker = new SimulatorWorkerThread(this.id.toString(), this);
+            }
+            else
+            {
+                this.workerTask = new SimulatorWorkerTask(this);
+            }
             this.replication = replication;
             this.model = model;
-            this.simulatorTime = replication.getStartTime();
-            this.model.getOutputStatistics().clear();
-            this.model.constructModel();
+            this.simulatorTime = startTime;
+            if (constructModel)
+            {
+                this.model.getOutputStatistics().clear();
+                this.model.constructModel();
+            }
             this.runState = RunState.INITIALIZED;
             this.replicationState = ReplicationState.INITIALIZED;
             this.runflag = false;
@@ -131,6 +179,10 @@ public abstract class Simulator<T extends Number & Comparable<T>> extends LocalE
                 initialMethodCall.execute();
             }
         }
+        if (this.worker == null)
+        {
+            return; // a task on the executor does not exist before the start
+        }
         // sleep maximally 1 second till the SimulatorWorkerThread gets into the WAITING state
         int count = 0;
         while (!this.worker.isWaiting() && this.worker.isAlive() && count < 1000)
@@ -147,6 +199,42 @@ public abstract class Simulator<T extends Number & Comparable<T>> extends LocalE
         }
     }
 
+    /**
+     * Set the executor that executes the run() method of the simulator as a task, e.g., a fixed thread pool that is shared by
+     * many simulators, or a virtual thread executor on Java 21 and higher. The executor is used from the next call of
+     * initialize() onwards. Each start of the simulator submits one task, which ends when the run() method returns; the
+     * END_REPLICATION_EVENT is fired by a task as well. An executor that runs the task in the calling thread makes start()
+     * return after the run has stopped.
+     * @param executor Executor; the executor for the run() method, or null to create a SimulatorWorkerThread per replication
+     * @throws SimRuntimeException when the simulator is starting or running
+     */
+    public void setExecutor(final Executor executor) throws SimRuntimeException
+    {
+        Throw.when(isStartingOrRunning(), SimRuntimeException.class, "Cannot change the executor of a running simulator");
+        this.executor = executor;
+    }
+
+    /**
+     * Return the executor that executes the run() method of the simulator as a task.
+     * @return Executor; the executor for the run() method, or null when the simulator creates a SimulatorWorkerThread per
+     *         replication
+     */
+    public Executor getExecutor()
+    {
+        return this.executor;
+    }
+
+    /**
+     * Return whether the current thread executes the run() method of this simulator, either as the SimulatorWorkerThread or
+     * as the task on the executor.
+     * @return boolean; whether the current thread executes the run() method of this simulator
+     */
+    protected boolean isWorkerThread()
+    {
+        SimulatorWorkerTask task = this.workerTask;
+        return task != null ? task.isCurrentThread() : Thread.currentThread() == this.worker;
+    }
+
     @Override
     public void addScheduledMethodOnInitialize(final Object target, final String method, final Object[] args)
             throws SimRuntimeException
@@ -177,6 +265,21 @@ public abstract class Simulator<T extends Number & Comparable<T>> extends LocalE
                 this.replicationState = ReplicationState.STARTED;
             }
             this.fireEvent(SimulatorInterface.STARTING_EVENT, null);
+            if (this.workerTask != null)
+            {
+                // submit the task that will start the Simulator's run() method, and wait till it has been called
+                try
+                {
+                    this.workerTask.submit();
+                }
+                catch (RejectedExecutionException exception)
+                {
+                    this.runState = RunState.STOPPED;
+                    throw new SimRuntimeException("The executor did not accept the simulator " + this.id, exception);
+                }
+                this.workerTask.awaitStarted();
+                return;
+            }
             // continue the run() of the SimulatorWorkerThread that will start the Simulator's run() method
             this.worker.interrupt();
             // wait maximally 1 second till the Simulator.run() method has been called
@@ -267,6 +370,14 @@ public abstract class Simulator<T extends Number & Comparable<T>> extends LocalE
     protected void stopImpl()
     {
         this.runState = RunState.STOPPING;
+        if (this.workerTask != null)
+        {
+            if (!this.workerTask.isCurrentThread())
+            {
+                this.workerTask.awaitIdle();
+            }
+            return;
+        }
         // sleep maximally 1 second till the SimulatorWorkerThread gets into the WAITING state
         int count = 0;
         while (!this.worker.isWaiting() && this.worker.isAlive() && count < 1000)
@@ -314,6 +425,11 @@ public abstract class Simulator<T extends Number & Comparable<T>> extends LocalE
             this.worker.cleanUp();
             this.worker = null;
         }
+        if (this.workerTask != null)
+        {
+            this.workerTask.cleanUp();
+            this.workerTask = null;
+        }
         this.runState = RunState.NOT_INITIALIZED;
         this.replicationState = ReplicationState.NOT_INITIALIZED;
     }
@@ -330,13 +446,26 @@ public abstract class Simulator<T extends Number & Comparable<T>> extends LocalE
         {
             this.runState = RunState.STOPPING;
         }
-        this.worker.interrupt(); // just to be sure that the run will end, and the state will be moved to 'ENDED'
+        boolean workerThread = isWorkerThread();
+        if (this.worker != null && !workerThread)
+        {
+            this.worker.interrupt(); // just to be sure that the run will end, and the state will be moved to 'ENDED'
+        }
         if (this.simulatorTime.compareTo(this.getReplication().getEndTime()) < 0)
         {
             Logger.warn("endReplication executed, but the simulation time " + this.simulatorTime
                     + " is earlier than the replication length " + this.getReplication().getEndTime());
             this.simulatorTime = this.getReplication().getEndTime();
         }
+        if (this.workerTask != null)
+        {
+            this.workerTask.end();
+            return;
+        }
+        if (workerThread)
+        {
+            return; // the run() method returns to the SimulatorWorkerThread, which will finalize the replication
+        }
         // sleep maximally 1 second till the SimulatorWorkerThread finalizes
         int count = 0;
         while (this.worker.isAlive() && count < 1000)
@@ -624,4 +753,282 @@ public abstract class Simulator<T extends Number & Comparable<T>> extends LocalE
             }
         }
     }
+
+    /**
+     * The task to execute the run() method of the Simulator on an executor. The task is submitted for every start of the
+     * simulator, and ends when the run() method returns, so it does not occupy a thread while the simulator is not running. The
+     * state changes of the task are signaled with a Condition, on which the simulator waits for at most 1 second, just like it
+     * waits for a SimulatorWorkerThread.
+     */
+    protected static class SimulatorWorkerTask implements Runnable
+    {
+        /** the maximum time to wait for a state change of the task. */
+        private static final long HANDOFF_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+        /** the job to execute. */
+        private final Simulator<?> job;
+
+        /** the lock that guards the state of the task. */
+        private final ReentrantLock lock = new ReentrantLock();
+
+        /** the condition that is signaled on every state change of the task. */
+        private final Condition changed = this.lock.newCondition();
+
+        /** whether the task has been submitted to the executor, and has not yet finished. */
+        private boolean scheduled = false;
+
+        /** whether the run of the job has started since the last call of awaitStarted(). */
+        private boolean started = false;
+
+        /** whether the replication has ended, or the task has been cleaned up. */
+        private boolean finalized = false;
+
+        /** the thread that executes the task, or null when the task is not executing. */
+        private volatile Thread thread = null;
+
+        /**
+         * Construct a task for the run() method of the simulator.
+         * @param job Simulator&lt;?&gt;; the simulator of which the run() method is executed
+         */
+        protected SimulatorWorkerTask(final Simulator<?> job)
+        {
+            this.job = job;
+        }
+
+        /**
+         * Submit the task to the executor of the simulator, unless it has already been submitted or the task has been
+         * finalized.
+         * @throws RejectedExecutionException when the executor does not accept the task
+         */
+        protected void submit()
+        {
+            this.lock.lock();
+            try
+            {
+                if (!this.scheduled && !this.finalized)
+                {
+                    this.scheduled = true;
+                    this.started = false;
+                    try
+                    {
+                        this.job.executor.execute(this);
+                    }
+                    catch (RejectedExecutionException exception)
+                    {
+                        this.scheduled = false;
+                        throw exception;
+                    }
+                }
+            }
+            finally
+            {
+                this.lock.unlock();
+            }
+        }
+
+        /**
+         * Wait till the run of the job has started, and clear the flag.
+         */
+        protected void awaitStarted()
+        {
+            await(() -> this.started || this.finalized);
+            this.lock.lock();
+            try
+            {
+                this.started = false;
+            }
+            finally
+            {
+                this.lock.unlock();
+            }
+        }
+
+        /**
+         * Wait till the task is not executing or scheduled anymore.
+         */
+        protected void awaitIdle()
+        {
+            await(() -> !this.scheduled || this.finalized);
+        }
+
+        /**
+         * End the replication: when the task is executing, it will fire the END_REPLICATION_EVENT after the run() method of
+         * the job returns; otherwise, the task is submitted to fire the END_REPLICATION_EVENT. Unless called by the task
+         * itself, wait till the END_REPLICATION_EVENT has been fired.
+         */
+        protected void end()
+        {
+            this.lock.lock();
+            try
+            {
+                if (!this.scheduled && !this.finalized)
+                {
+                    submit();
+                }
+            }
+            finally
+            {
+                this.lock.unlock();
+            }
+            if (!isCurrentThread())
+            {
+                await(() -> this.finalized);
+            }
+        }
+
+        /**
+         * Clean up the task; a task that has been submitted, but that has not started yet, will not run the job.
+         */
+        public void cleanUp()
+        {
+            this.lock.lock();
+            try
+            {
+                this.finalized = true;
+                this.changed.signalAll();
+            }
+            finally
+            {
+                this.lock.unlock();
+            }
+        }
+
+        /**
+         * @return whether the run method of the job is running or not
+         */
+        public boolean isRunning()
+        {
+            return this.thread != null;
+        }
+
+        /**
+         * @return whether the current thread executes this task
+         */
+        public boolean isCurrentThread()
+        {
+            return Thread.currentThread() == this.thread;
+        }
+
+        /**
+         * Wait till a condition on the state of the task holds, or till the handoff timeout has passed.
+         * @param condition BooleanSupplier; the condition on the state of the task, evaluated while holding the lock
+         */
+        private void await(final BooleanSupplier condition)
+        {
+            this.lock.lock();
+            try
+            {
+                long nanos = HANDOFF_TIMEOUT_NANOS;
+                while (!condition.getAsBoolean() && nanos > 0L)
+                {
+                    nanos = this.changed.awaitNanos(nanos);
+                }
+            }
+            catch (InterruptedException exception)
+            {
+                Thread.currentThread().interrupt();
+            }
+            finally
+            {
+                this.lock.unlock();
+            }
+        }
+
+        /**
+         * Set a field of the state of the task while holding the lock, and signal the change.
+         * @param change Runnable; the change of the state
+         */
+        private void signal(final Runnable change)
+        {
+            this.lock.lock();
+            try
+            {
+                change.run();
+                this.changed.signalAll();
+            }
+            finally
+            {
+                this.lock.unlock();
+            }
+        }
+
+        @Override
+        public void run()
+        {
+            this.lock.lock();
+            try
+            {
+                if (this.finalized)
+                {
+                    this.scheduled = false;
+                    this.started = true;
+                    this.changed.signalAll();
+                    return;
+                }
+                this.thread = Thread.currentThread();
+            }
+            finally
+            {
+                this.lock.unlock();
+            }
+            boolean ending = false;
+            try
+            {
+                if (this.job.replicationState != ReplicationState.ENDING)
+                {
+                    try
+                    {
+                        this.job.fireTimedEvent(SimulatorInterface.START_EVENT);
+                        this.job.runState = RunState.STARTED;
+                        signal(() -> this.started = true);
+                        this.job.run();
+                        this.job.fireTimedEvent(SimulatorInterface.STOP_EVENT);
+                        this.job.runState = RunState.STOPPED;
+                    }
+                    catch (Exception exception)
+                    {
+                        CategoryLogger.always().error(exception);
+                        exception.printStackTrace();
+                    }
+                }
+                // decide under the lock whether this task ends the replication, so a concurrent end() resubmits otherwise
+                this.lock.lock();
+                try
+                {
+                    ending = this.job.replicationState == ReplicationState.ENDING;
+                    if (!ending)
+                    {
+                        this.thread = null;
+                        this.scheduled = false;
+                        this.started = true;
+                        this.changed.signalAll();
+                    }
+                }
+                finally
+                {
+                    this.lock.unlock();
+                }
+                if (ending)
+                {
+                    this.job.replicationState = ReplicationState.ENDED;
+                    this.job.runState = RunState.ENDED;
+                    this.job.fireTimedEvent(Replication.END_REPLICATION_EVENT);
+                }
+            }
+            finally
+            {
+                if (ending || this.thread != null)
+                {
+                    final boolean finished = ending;
+                    signal(() ->
+                    {
+                        this.thread = null;
+                        this.scheduled = false;
+                        this.started = true;
+                        this.finalized |= finished;
+                    });
+                }
+            }
+        }
+    }
 }
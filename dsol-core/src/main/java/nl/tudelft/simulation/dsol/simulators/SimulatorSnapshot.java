@@ -0,0 +1,835 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInput;
+import java.io.DataInputStream;
+import java.io.DataOutput;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import org.djutils.event.EventListener;
+import org.djutils.event.reference.ReferenceType;
+import org.djutils.exceptions.Throw;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.Replication;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.AbstractSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.DoubleLambdaSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.Executable;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.LambdaSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.LongLambdaSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.PartitionedLambdaSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.RecyclableLambdaSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.model.DsolModel;
+import nl.tudelft.simulation.jstats.streams.RandomNumberGenerator;
+import nl.tudelft.simulation.jstats.streams.StreamInterface;
+
+/**
+ * A SimulatorSnapshot contains the state of a DevsSimulator and its model at one point in time: the simulator time, the model
+ * with all objects that can be reached from it, such as the entities, the streams and the statistics, and the events of the
+ * model on the event list. The typical use is a warm start: the model is run once up to the warmup time, the state is
+ * captured, and every replication is restored from the snapshot with re-seeded streams, instead of running the warmup period
+ * again. A snapshot can be restored many times, also concurrently on different simulators.
+ * <p>
+ * The model, the objects that can be reached from it, and the events on the event list should be Serializable; lambda events
+ * are only Serializable when their Executable is Serializable as well. The object graph is written at once, so objects that
+ * are shared by several model objects, such as streams, remain shared after a restore. The simulator and its replication are
+ * not part of the snapshot: references to them are replaced by references to the simulator and replication of the restore.
+ * The warmup and end-of-replication events of the simulator are scheduled again for the replication of the restore.
+ * </p>
+ * <p>
+ * The state has a compact binary encoding: the time, the events and the streams of the model are written with a
+ * DataOutputStream, and Java serialization is only used for the opaque objects, i.e., the model and the objects that the
+ * events refer to, such as their targets, arguments and executables. These are written with one ObjectOutputStream, so they
+ * keep sharing objects. A stream of the model that extends RandomNumberGenerator and has a public constructor with a seed is
+ * written with its writeState() method, and the references to it in the model are replaced by a placeholder. The events are
+ * written in the order of the event list, without their ids, and get new ids in the same order when they are restored, so
+ * events that are scheduled after a restore come after the restored events with the same time and priority. Events of other
+ * classes than the (primitive) lambda events and SimEvent are serialized as a whole.
+ * </p>
+ * <p>
+ * A snapshot can be stored with write() and read again with read(). The stored format is a small header with a magic number,
+ * a format version and the length, followed by the state.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the time type
+ * @since 4.2.3
+ */
+public final class SimulatorSnapshot<T extends Number & Comparable<T>>
+{
+    /** the magic number at the start of a stored snapshot: "DSNP". */
+    private static final int MAGIC = 0x44534E50;
+
+    /** the version of the stored format. */
+    private static final int VERSION = 2;
+
+    /** the tag of a time that is serialized. */
+    private static final byte TIME_OBJECT = 0;
+
+    /** the tag of a Double time. */
+    private static final byte TIME_DOUBLE = 1;
+
+    /** the tag of a Long time. */
+    private static final byte TIME_LONG = 2;
+
+    /** the tag of a Float time. */
+    private static final byte TIME_FLOAT = 3;
+
+    /** the tag of an Integer time. */
+    private static final byte TIME_INTEGER = 4;
+
+    /** the tag of an event that is serialized as a whole. */
+    private static final byte EVENT_OBJECT = 0;
+
+    /** the tag of a SimEvent. */
+    private static final byte EVENT_SIM = 1;
+
+    /** the tag of a LambdaSimEvent or a RecyclableLambdaSimEvent, which is restored as a LambdaSimEvent. */
+    private static final byte EVENT_LAMBDA = 2;
+
+    /** the tag of a PartitionedLambdaSimEvent. */
+    private static final byte EVENT_PARTITIONED = 3;
+
+    /** the tag of a DoubleLambdaSimEvent. */
+    private static final byte EVENT_DOUBLE = 4;
+
+    /** the tag of a LongLambdaSimEvent. */
+    private static final byte EVENT_LONG = 5;
+
+    /** the simulator time of the snapshot. */
+    private final T time;
+
+    /** the number of events of the model in the snapshot. */
+    private final int numberOfEvents;
+
+    /** the serialized state. */
+    private final byte[] state;
+
+    /**
+     * Construct a snapshot from its serialized state.
+     * @param time T; the simulator time of the snapshot
+     * @param numberOfEvents int; the number of events of the model in the snapshot
+     * @param state byte[]; the serialized state
+     */
+    private SimulatorSnapshot(final T time, final int numberOfEvents, final byte[] state)
+    {
+        this.time = time;
+        this.numberOfEvents = numberOfEvents;
+        this.state = state;
+    }
+
+    /**
+     * Capture the state of a simulator that has been initialized, and is not running, e.g., because it has been paused with
+     * runUpToAndIncluding().
+     * @param simulator DevsSimulator&lt;T&gt;; the simulator to capture
+     * @param <T> the time type
+     * @return SimulatorSnapshot&lt;T&gt;; the snapshot with the state of the simulator and its model
+     * @throws SimRuntimeException when the simulator is running or not initialized, or when the state is not Serializable
+     */
+    public static <T extends Number & Comparable<T>> SimulatorSnapshot<T> capture(final DevsSimulator<T> simulator)
+            throws SimRuntimeException
+    {
+        Throw.whenNull(simulator, "simulator cannot be null");
+        Throw.when(!simulator.isInitialized(), SimRuntimeException.class, "Cannot capture an uninitialized simulator");
+        Throw.when(simulator.isStartingOrRunning(), SimRuntimeException.class, "Cannot capture a running simulator");
+        return captureState(simulator, null);
+    }
+
+    /**
+     * Capture the state of an initialized simulator without checking whether it is running. This method can be called from an
+     * event that is executed by the simulator itself, since the state of the model and the event list is consistent between
+     * two events.
+     * @param simulator DevsSimulator&lt;T&gt;; the simulator to capture
+     * @param excludedTarget Object; the target of events that are not part of the snapshot, besides the simulator itself, or
+     *            null to only exclude the events of the simulator
+     * @param <T> the time type
+     * @return SimulatorSnapshot&lt;T&gt;; the snapshot with the state of the simulator and its model
+     * @throws SimRuntimeException when the state is not Serializable
+     */
+    static <T extends Number & Comparable<T>> SimulatorSnapshot<T> captureState(final DevsSimulator<T> simulator,
+            final Object excludedTarget) throws SimRuntimeException
+    {
+        List<SimEventInterface<T>> events = new ArrayList<>();
+        for (SimEventInterface<T> event : simulator.getEventList())
+        {
+            // the warmup and end-of-replication events are scheduled again on restore
+            if (!(event instanceof SimEvent && (((SimEvent<T>) event).getTarget() == simulator
+                    || (excludedTarget != null && ((SimEvent<T>) event).getTarget() == excludedTarget))))
+            {
+                events.add(event);
+            }
+        }
+        events.sort(null);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try
+        {
+            DataOutputStream out = new DataOutputStream(bytes);
+            writeTime(out, simulator.getSimulatorTime());
+            List<StreamInterface> streams = compactStreams(simulator.getModel());
+            out.writeInt(streams.size());
+            for (StreamInterface stream : streams)
+            {
+                out.writeUTF(stream.getClass().getName());
+                out.writeLong(stream.getOriginalSeed());
+                stream.writeState(out);
+            }
+            // the events are encoded first, to collect the opaque objects that they refer to
+            References references = new References();
+            ByteArrayOutputStream eventBytes = new ByteArrayOutputStream();
+            DataOutputStream eventOut = new DataOutputStream(eventBytes);
+            for (SimEventInterface<T> event : events)
+            {
+                writeEvent(eventOut, event, references);
+            }
+            eventOut.flush();
+            ByteArrayOutputStream opaqueBytes = new ByteArrayOutputStream();
+            try (SnapshotOutputStream opaque =
+                    new SnapshotOutputStream(opaqueBytes, simulator, simulator.getReplication(), streams))
+            {
+                opaque.writeObject(simulator.getModel());
+                opaque.writeObject(references.toArray());
+            }
+            out.writeInt(opaqueBytes.size());
+            opaqueBytes.writeTo(out);
+            out.writeInt(events.size());
+            eventBytes.writeTo(out);
+            out.flush();
+        }
+        catch (IOException exception)
+        {
+            throw new SimRuntimeException(
+                    "Cannot capture the state of the simulator; the model and its events should be Serializable", exception);
+        }
+        return new SimulatorSnapshot<T>(simulator.getSimulatorTime(), events.size(), bytes.toByteArray());
+    }
+
+    /**
+     * Initialize the simulator with the model and the replication, run the model up to and including the warmup time of the
+     * replication, and capture the state. The statistics of the model have been reset at the warmup time when the state is
+     * captured. The simulator remains paused at the warmup time.
+     * @param simulator DevsSimulator&lt;T&gt;; the simulator to run the warmup period on
+     * @param model DsolModel&lt;T, ?&gt;; the model to run
+     * @param replication Replication&lt;T&gt;; the replication with the start time and the warmup time
+     * @param <T> the time type
+     * @return SimulatorSnapshot&lt;T&gt;; the snapshot with the state at the warmup time
+     * @throws SimRuntimeException when the simulator cannot run the warmup period, or when the state is not Serializable
+     */
+    public static <T extends Number & Comparable<T>> SimulatorSnapshot<T> captureAtWarmup(final DevsSimulator<T> simulator,
+            final DsolModel<T, ? extends SimulatorInterface<T>> model, final Replication<T> replication)
+            throws SimRuntimeException
+    {
+        Throw.whenNull(simulator, "simulator cannot be null");
+        simulator.initialize(model, replication);
+        CountDownLatch stopped = new CountDownLatch(1);
+        EventListener listener = event -> stopped.countDown();
+        simulator.addListener(listener, SimulatorInterface.STOP_EVENT, ReferenceType.STRONG);
+        try
+        {
+            simulator.runUpToAndIncluding(replication.getWarmupTime());
+            stopped.await();
+        }
+        catch (InterruptedException exception)
+        {
+            throw new SimRuntimeException("Interrupted while running the warmup period", exception);
+        }
+        finally
+        {
+            simulator.removeListener(listener, SimulatorInterface.STOP_EVENT);
+        }
+        return capture(simulator);
+    }
+
+    /**
+     * Restore the state of the snapshot on a simulator with a replication, and return the restored model. The restored model
+     * is a new object; references from the model to the simulator and the replication of the snapshot point to the simulator
+     * and the replication of the restore. The simulator is ready to be started.
+     * @param simulator DevsSimulator&lt;T&gt;; the simulator to restore the state on
+     * @param replication Replication&lt;T&gt;; the replication to run after the restore; it should end after the time of the
+     *            snapshot
+     * @return DsolModel&lt;T, ?&gt;; the restored model
+     * @throws SimRuntimeException when the simulator is running, when the replication ends before the time of the snapshot, or
+     *             when the state cannot be deserialized
+     */
+    @SuppressWarnings("unchecked")
+    public DsolModel<T, ? extends SimulatorInterface<T>> restore(final DevsSimulator<T> simulator,
+            final Replication<T> replication) throws SimRuntimeException
+    {
+        Throw.whenNull(simulator, "simulator cannot be null");
+        Throw.whenNull(replication, "replication cannot be null");
+        DsolModel<T, ? extends SimulatorInterface<T>> model;
+        List<SimEventInterface<T>> events = new ArrayList<>();
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(this.state)))
+        {
+            readTime(in);
+            StreamInterface[] streams = new StreamInterface[in.readInt()];
+            for (int i = 0; i < streams.length; i++)
+            {
+                Class<?> streamClass = Class.forName(in.readUTF());
+                if (!RandomNumberGenerator.class.isAssignableFrom(streamClass))
+                {
+                    throw new IOException("Class " + streamClass.getName() + " is not a RandomNumberGenerator");
+                }
+                streams[i] = (StreamInterface) streamClass.getConstructor(long.class).newInstance(in.readLong());
+                streams[i].readState(in);
+            }
+            byte[] opaqueBytes = new byte[in.readInt()];
+            in.readFully(opaqueBytes);
+            Object[] references;
+            try (SnapshotInputStream opaque =
+                    new SnapshotInputStream(new ByteArrayInputStream(opaqueBytes), simulator, replication, streams))
+            {
+                model = (DsolModel<T, ? extends SimulatorInterface<T>>) opaque.readObject();
+                references = (Object[]) opaque.readObject();
+            }
+            int n = in.readInt();
+            for (int i = 0; i < n; i++)
+            {
+                events.add(readEvent(in, references));
+            }
+        }
+        catch (IOException | ReflectiveOperationException | ClassCastException exception)
+        {
+            throw new SimRuntimeException("Cannot restore the snapshot on the simulator", exception);
+        }
+        simulator.initialize(model, replication, this.time, events);
+        return model;
+    }
+
+    /**
+     * Write the snapshot to an output stream.
+     * @param out OutputStream; the stream to write to; it is not closed
+     * @throws IOException when the snapshot cannot be written
+     */
+    public void write(final OutputStream out) throws IOException
+    {
+        DataOutputStream data = new DataOutputStream(out);
+        data.writeInt(MAGIC);
+        data.writeInt(VERSION);
+        data.writeInt(this.numberOfEvents);
+        data.writeInt(this.state.length);
+        data.write(this.state);
+        data.flush();
+    }
+
+    /**
+     * Read a snapshot that has been written with write().
+     * @param in InputStream; the stream to read from; it is not closed
+     * @param <T> the time type
+     * @return SimulatorSnapshot&lt;T&gt;; the snapshot
+     * @throws IOException when the snapshot cannot be read, or when the stream does not contain a snapshot
+     */
+    public static <T extends Number & Comparable<T>> SimulatorSnapshot<T> read(final InputStream in) throws IOException
+    {
+        DataInputStream data = new DataInputStream(in);
+        if (data.readInt() != MAGIC)
+        {
+            throw new IOException("The stream does not contain a simulator snapshot");
+        }
+        int version = data.readInt();
+        if (version != VERSION)
+        {
+            throw new IOException("Unsupported simulator snapshot version " + version);
+        }
+        int numberOfEvents = data.readInt();
+        byte[] state = new byte[data.readInt()];
+        data.readFully(state);
+        return fromState(state, numberOfEvents);
+    }
+
+    /**
+     * Make a snapshot from a serialized state that has been stored elsewhere, e.g., in a checkpoint file.
+     * @param state byte[]; the serialized state
+     * @param numberOfEvents int; the number of events of the model in the snapshot
+     * @param <T> the time type
+     * @return SimulatorSnapshot&lt;T&gt;; the snapshot
+     * @throws IOException when the time of the snapshot cannot be read from the state
+     */
+    @SuppressWarnings("unchecked")
+    static <T extends Number & Comparable<T>> SimulatorSnapshot<T> fromState(final byte[] state, final int numberOfEvents)
+            throws IOException
+    {
+        try
+        {
+            return new SimulatorSnapshot<T>((T) readTime(new DataInputStream(new ByteArrayInputStream(state))), numberOfEvents,
+                    state);
+        }
+        catch (ClassCastException exception)
+        {
+            throw new IOException("Cannot read the time of the simulator snapshot", exception);
+        }
+    }
+
+    /**
+     * Return the streams of the model that are written in the compact section of the state: the streams that extend
+     * RandomNumberGenerator, since these write their state compactly, and that can be constructed again with a public
+     * constructor with a seed. A stream that has been registered under more than one id is returned once.
+     * @param model DsolModel&lt;?, ?&gt;; the model
+     * @return List&lt;StreamInterface&gt;; the streams of the model that are written in the compact section
+     */
+    private static List<StreamInterface> compactStreams(final DsolModel<?, ?> model)
+    {
+        List<StreamInterface> streams = new ArrayList<>();
+        if (model.getStreamInformation() == null)
+        {
+            return streams;
+        }
+        Map<StreamInterface, Boolean> added = new IdentityHashMap<>();
+        for (StreamInterface stream : model.getStreams().values())
+        {
+            if (stream instanceof RandomNumberGenerator && Modifier.isPublic(stream.getClass().getModifiers())
+                    && hasSeedConstructor(stream.getClass()) && added.put(stream, Boolean.TRUE) == null)
+            {
+                streams.add(stream);
+            }
+        }
+        return streams;
+    }
+
+    /**
+     * Return whether a stream class has a public constructor with a seed.
+     * @param streamClass Class&lt;?&gt;; the stream class
+     * @return boolean; whether the stream class has a public constructor with a long seed
+     */
+    private static boolean hasSeedConstructor(final Class<?> streamClass)
+    {
+        try
+        {
+            streamClass.getConstructor(long.class);
+            return true;
+        }
+        catch (NoSuchMethodException exception)
+        {
+            return false;
+        }
+    }
+
+    /**
+     * Write a time with a tag for its type; a time of another type than Double, Long, Float or Integer is serialized.
+     * @param out DataOutput; the output to write to
+     * @param time Object; the time to write
+     * @throws IOException when the time cannot be written
+     */
+    private static void writeTime(final DataOutput out, final Object time) throws IOException
+    {
+        if (time instanceof Double)
+        {
+            out.writeByte(TIME_DOUBLE);
+            out.writeDouble((Double) time);
+        }
+        else if (time instanceof Long)
+        {
+            out.writeByte(TIME_LONG);
+            out.writeLong((Long) time);
+        }
+        else if (time instanceof Float)
+        {
+            out.writeByte(TIME_FLOAT);
+            out.writeFloat((Float) time);
+        }
+        else if (time instanceof Integer)
+        {
+            out.writeByte(TIME_INTEGER);
+            out.writeInt((Integer) time);
+        }
+        else
+        {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream object = new ObjectOutputStream(bytes))
+            {
+                object.writeObject(time);
+            }
+            out.writeByte(TIME_OBJECT);
+            out.writeInt(bytes.size());
+            out.write(bytes.toByteArray());
+        }
+    }
+
+    /**
+     * Read a time that has been written with writeTime().
+     * @param in DataInput; the input to read from
+     * @return Object; the time
+     * @throws IOException when the time cannot be read
+     */
+    private static Object readTime(final DataInput in) throws IOException
+    {
+        byte tag = in.readByte();
+        if (tag == TIME_DOUBLE)
+        {
+            return in.readDouble();
+        }
+        if (tag == TIME_LONG)
+        {
+            return in.readLong();
+        }
+        if (tag == TIME_FLOAT)
+        {
+            return in.readFloat();
+        }
+        if (tag == TIME_INTEGER)
+        {
+            return in.readInt();
+        }
+        if (tag != TIME_OBJECT)
+        {
+            throw new IOException("Unknown time tag " + tag + " in the simulator snapshot");
+        }
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        try (ObjectInputStream object = new ObjectInputStream(new ByteArrayInputStream(bytes)))
+        {
+            return object.readObject();
+        }
+        catch (ClassNotFoundException exception)
+        {
+            throw new IOException("Cannot read the time in the simulator snapshot", exception);
+        }
+    }
+
+    /**
+     * Write an event with a tag for its class; the opaque objects of the event are written as their index in the references.
+     * @param out DataOutput; the output to write to
+     * @param event SimEventInterface&lt;?&gt;; the event to write
+     * @param references References; the opaque objects that the events refer to
+     * @throws IOException when the event cannot be written
+     */
+    private static void writeEvent(final DataOutput out, final SimEventInterface<?> event, final References references)
+            throws IOException
+    {
+        Class<?> eventClass = event.getClass();
+        if (eventClass == SimEvent.class)
+        {
+            SimEvent<?> simEvent = (SimEvent<?>) event;
+            out.writeByte(EVENT_SIM);
+            writeTime(out, event.getAbsoluteExecutionTime());
+            out.writeShort(event.getPriority());
+            out.writeInt(references.indexOf(simEvent.getTarget()));
+            out.writeUTF(simEvent.getMethod());
+            out.writeInt(references.indexOf(simEvent.getArgs()));
+        }
+        else if (eventClass == LambdaSimEvent.class || eventClass == RecyclableLambdaSimEvent.class)
+        {
+            out.writeByte(EVENT_LAMBDA);
+            writeTime(out, event.getAbsoluteExecutionTime());
+            out.writeShort(event.getPriority());
+            out.writeInt(references.indexOf(((LambdaSimEvent<?>) event).getExecutable()));
+        }
+        else if (eventClass == PartitionedLambdaSimEvent.class)
+        {
+            out.writeByte(EVENT_PARTITIONED);
+            writeTime(out, event.getAbsoluteExecutionTime());
+            out.writeShort(event.getPriority());
+            out.writeInt(((PartitionedLambdaSimEvent<?>) event).getPartition());
+            out.writeInt(references.indexOf(((PartitionedLambdaSimEvent<?>) event).getExecutable()));
+        }
+        else if (eventClass == DoubleLambdaSimEvent.class)
+        {
+            out.writeByte(EVENT_DOUBLE);
+            out.writeDouble(((DoubleLambdaSimEvent) event).getDoubleExecutionTime());
+            out.writeShort(event.getPriority());
+            out.writeInt(references.indexOf(((DoubleLambdaSimEvent) event).getExecutable()));
+        }
+        else if (eventClass == LongLambdaSimEvent.class)
+        {
+            out.writeByte(EVENT_LONG);
+            out.writeLong(((LongLambdaSimEvent) event).getLongExecutionTime());
+            out.writeShort(event.getPriority());
+            out.writeInt(references.indexOf(((LongLambdaSimEvent) event).getExecutable()));
+        }
+        else
+        {
+            out.writeByte(EVENT_OBJECT);
+            out.writeInt(references.indexOf(event));
+        }
+    }
+
+    /**
+     * Read an event that has been written with writeEvent(). The event gets a new id, so the events that are read in the order
+     * of the event list keep their order for the same time and priority.
+     * @param in DataInput; the input to read from
+     * @param references Object[]; the opaque objects that the events refer to
+     * @param <T> the time type
+     * @return SimEventInterface&lt;T&gt;; the event
+     * @throws IOException when the event cannot be read
+     */
+    @SuppressWarnings("unchecked")
+    private static <T extends Number & Comparable<T>> SimEventInterface<T> readEvent(final DataInput in,
+            final Object[] references) throws IOException
+    {
+        byte tag = in.readByte();
+        if (tag == EVENT_OBJECT)
+        {
+            SimEventInterface<T> event = (SimEventInterface<T>) references[in.readInt()];
+            AbstractSimEvent.renumber(Collections.singletonList(event));
+            return event;
+        }
+        if (tag == EVENT_DOUBLE)
+        {
+            double time = in.readDouble();
+            short priority = in.readShort();
+            return (SimEventInterface<T>) new DoubleLambdaSimEvent(time, priority, (Executable) references[in.readInt()]);
+        }
+        if (tag == EVENT_LONG)
+        {
+            long time = in.readLong();
+            short priority = in.readShort();
+            return (SimEventInterface<T>) new LongLambdaSimEvent(time, priority, (Executable) references[in.readInt()]);
+        }
+        T time = (T) readTime(in);
+        short priority = in.readShort();
+        if (tag == EVENT_SIM)
+        {
+            Object target = references[in.readInt()];
+            String method = in.readUTF();
+            int args = in.readInt();
+            return new SimEvent<T>(time, priority, target, method, args < 0 ? null : (Object[]) references[args]);
+        }
+        if (tag == EVENT_LAMBDA)
+        {
+            return new LambdaSimEvent<T>(time, priority, (Executable) references[in.readInt()]);
+        }
+        if (tag == EVENT_PARTITIONED)
+        {
+            int partition = in.readInt();
+            return new PartitionedLambdaSimEvent<T>(time, priority, partition, (Executable) references[in.readInt()]);
+        }
+        throw new IOException("Unknown event tag " + tag + " in the simulator snapshot");
+    }
+
+    /**
+     * Return the simulator time of the snapshot.
+     * @return T; the simulator time of the snapshot
+     */
+    public T getTime()
+    {
+        return this.time;
+    }
+
+    /**
+     * Return the number of events of the model in the snapshot.
+     * @return int; the number of events of the model on the event list at the time of the snapshot
+     */
+    public int getNumberOfEvents()
+    {
+        return this.numberOfEvents;
+    }
+
+    /**
+     * Return the serialized state; the array is not copied and should not be changed.
+     * @return byte[]; the serialized state
+     */
+    byte[] getState()
+    {
+        return this.state;
+    }
+
+    /**
+     * Return the size of the serialized state.
+     * @return int; the number of bytes of the serialized state
+     */
+    public int getSize()
+    {
+        return this.state.length;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SimulatorSnapshot[time=" + this.time + ", events=" + this.numberOfEvents + ", size=" + this.state.length + "]";
+    }
+
+    /** The placeholders for the simulator and the replication in the serialized state. */
+    private enum Placeholder
+    {
+        /** the simulator. */
+        SIMULATOR,
+
+        /** the replication. */
+        REPLICATION;
+    }
+
+    /** The placeholder for a stream of the model, of which the state is written in the compact section. */
+    private static final class StreamPlaceholder implements Serializable
+    {
+        /** */
+        private static final long serialVersionUID = 20240101L;
+
+        /** the index of the stream in the compact section. */
+        private final int index;
+
+        /**
+         * Construct the placeholder.
+         * @param index int; the index of the stream in the compact section
+         */
+        StreamPlaceholder(final int index)
+        {
+            this.index = index;
+        }
+    }
+
+    /** The opaque objects that the events refer to, such as their targets, arguments and executables, with their index. */
+    private static final class References
+    {
+        /** the index of each object. */
+        private final Map<Object, Integer> indices = new IdentityHashMap<>();
+
+        /** the objects in the order of their index. */
+        private final List<Object> objects = new ArrayList<>();
+
+        /**
+         * Return the index of an object, and add the object when it has no index yet.
+         * @param object Object; the object, may be null
+         * @return int; the index of the object, or -1 for null
+         */
+        int indexOf(final Object object)
+        {
+            if (object == null)
+            {
+                return -1;
+            }
+            Integer index = this.indices.get(object);
+            if (index == null)
+            {
+                index = this.objects.size();
+                this.indices.put(object, index);
+                this.objects.add(object);
+            }
+            return index;
+        }
+
+        /**
+         * Return the objects in the order of their index.
+         * @return Object[]; the objects
+         */
+        Object[] toArray()
+        {
+            return this.objects.toArray();
+        }
+    }
+
+    /** The object output stream that replaces the simulator, the replication and the compact streams by placeholders. */
+    private static final class SnapshotOutputStream extends ObjectOutputStream
+    {
+        /** the simulator. */
+        private final Object simulator;
+
+        /** the replication. */
+        private final Object replication;
+
+        /** the placeholders of the streams that are written in the compact section. */
+        private final Map<Object, StreamPlaceholder> streams = new IdentityHashMap<>();
+
+        /**
+         * Construct the output stream.
+         * @param out OutputStream; the underlying stream
+         * @param simulator Object; the simulator to replace
+         * @param replication Object; the replication to replace
+         * @param streams List&lt;StreamInterface&gt;; the streams that are written in the compact section
+         * @throws IOException on I/O error
+         */
+        SnapshotOutputStream(final OutputStream out, final Object simulator, final Object replication,
+                final List<StreamInterface> streams) throws IOException
+        {
+            super(out);
+            this.simulator = simulator;
+            this.replication = replication;
+            for (int i = 0; i < streams.size(); i++)
+            {
+                this.streams.put(streams.get(i), new StreamPlaceholder(i));
+            }
+            enableReplaceObject(true);
+        }
+
+        @Override
+        protected Object replaceObject(final Object object) throws IOException
+        {
+            if (object == this.simulator)
+            {
+                return Placeholder.SIMULATOR;
+            }
+            if (object == this.replication)
+            {
+                return Placeholder.REPLICATION;
+            }
+            StreamPlaceholder placeholder = this.streams.get(object);
+            if (placeholder != null)
+            {
+                return placeholder;
+            }
+            return object;
+        }
+    }
+
+    /**
+     * The object input stream that resolves the placeholders to the simulator and the replication of the restore, and to the
+     * streams that have been read from the compact section.
+     */
+    private static final class SnapshotInputStream extends ObjectInputStream
+    {
+        /** the simulator. */
+        private final Object simulator;
+
+        /** the replication. */
+        private final Object replication;
+
+        /** the streams that have been read from the compact section. */
+        private final StreamInterface[] streams;
+
+        /**
+         * Construct the input stream.
+         * @param in InputStream; the underlying stream
+         * @param simulator Object; the simulator of the restore
+         * @param replication Object; the replication of the restore
+         * @param streams StreamInterface[]; the streams that have been read from the compact section
+         * @throws IOException on I/O error
+         */
+        SnapshotInputStream(final InputStream in, final Object simulator, final Object replication,
+                final StreamInterface[] streams) throws IOException
+        {
+            super(in);
+            this.simulator = simulator;
+            this.replication = replication;
+            this.streams = streams;
+            enableResolveObject(true);
+        }
+
+        @Override
+        protected Object resolveObject(final Object object) throws IOException
+        {
+            if (object == Placeholder.SIMULATOR)
+            {
+                return this.simulator;
+            }
+            if (object == Placeholder.REPLICATION)
+            {
+                return this.replication;
+            }
+            if (object instanceof StreamPlaceholder)
+            {
+                return this.streams[((StreamPlaceholder) object).index];
+            }
+            return object;
+        }
+    }
+
+}
@@ -0,0 +1,578 @@
+package nl.tudelft.simulation.dsol.simulators.timewarp;
+
+import java.io.Serializable;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.djutils.exceptions.Throw;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.eventlists.EventListBinaryHeap;
+import nl.tudelft.simulation.dsol.eventlists.EventListInterface;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.simtime.SimTime;
+import nl.tudelft.simulation.language.DsolException;
+import nl.tudelft.simulation.language.reflection.StateSaver;
+
+/**
+ * LogicalProcess is a part of a model that is simulated by a TimeWarpSimulator. A logical process has its own event list and
+ * local clock, and it only changes its own state. Logical processes interact by sending messages, which are executed as a
+ * {@link TimeWarpEvent} by the receiving logical process. Each logical process is executed by one worker thread of the
+ * simulator, and it processes its events optimistically: when a message arrives with a time before the local clock (a
+ * straggler), the logical process rolls back its state to the time of the straggler, and sends anti-messages for all messages
+ * that were sent by the rolled back events.
+ * <p>
+ * The state of the logical process is saved before every event. The default implementation of {@link #saveState()} and
+ * {@link #restoreState(Object)} uses the StateSaver, which makes a deep copy of all non-transient fields of the logical process
+ * through serialization. References to other logical processes, and to other objects that are not part of the state of this
+ * logical process, should therefore be transient. Subclasses can override both methods with a faster mechanism, e.g., by copying
+ * a few primitive fields, or by keeping an incremental log of changes.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the time type, e.g., Double, Long, Duration
+ * @since 4.2.3
+ */
+public abstract class LogicalProcess<T extends Number & Comparable<T>> implements Serializable
+{
+    /** */
+    private static final long serialVersionUID = 20240901L;
+
+    /** the number of bits of the event id that are used for the sequence number of the sender. */
+    private static final int SEQUENCE_BITS = 43;
+
+    /** the maximum number of logical processes, limited by the number of bits for the index in the event id. */
+    static final int MAX_LOGICAL_PROCESSES = 1 << (63 - SEQUENCE_BITS);
+
+    /** the name of the logical process. */
+    private final String name;
+
+    /** the simulator that executes this logical process. */
+    private transient TimeWarpSimulator<T> simulator = null;
+
+    /** the index of this logical process in the simulator. */
+    private transient int index = -1;
+
+    /** the event list with the unprocessed events. */
+    private final transient EventListInterface<T> eventList;
+
+    /** the messages and anti-messages that have been sent to this logical process by other logical processes. */
+    private final transient ConcurrentLinkedQueue<Message<T>> inbox = new ConcurrentLinkedQueue<>();
+
+    /** the processed events that have not been committed yet, in order of execution. */
+    private final transient ArrayDeque<ProcessedEvent<T>> processed = new ArrayDeque<>();
+
+    /** the anti-messages that arrived before their positive message. */
+    private final transient Set<TimeWarpEvent<T>> pendingAntiMessages = Collections.newSetFromMap(new IdentityHashMap<>());
+
+    /** the local clock. */
+    private transient T localTime = null;
+
+    /** the sequence number for the next event that is sent by this logical process. */
+    private transient long sequence = 0L;
+
+    /** the processed event that is being executed, or null when no event is being executed. */
+    private transient ProcessedEvent<T> current = null;
+
+    /** the number of executed events, including the events that have been rolled back. */
+    private transient long executedEvents = 0L;
+
+    /** the number of events that have been rolled back. */
+    private transient long rolledBackEvents = 0L;
+
+    /** the number of anti-messages that have been sent. */
+    private transient long antiMessages = 0L;
+
+    /** the number of committed events. */
+    private transient long committedEvents = 0L;
+
+    /**
+     * Create a logical process with an EventListBinaryHeap as the event list.
+     * @param name String; the name of the logical process
+     */
+    public LogicalProcess(final String name)
+    {
+        this(name, new EventListBinaryHeap<T>());
+    }
+
+    /**
+     * Create a logical process with the given event list. The event list should support an efficient removal of events, since
+     * annihilation with anti-messages removes events from the event list.
+     * @param name String; the name of the logical process
+     * @param eventList EventListInterface&lt;T&gt;; the (empty) event list of the logical process
+     */
+    public LogicalProcess(final String name, final EventListInterface<T> eventList)
+    {
+        Throw.whenNull(name, "name cannot be null");
+        Throw.whenNull(eventList, "eventList cannot be null");
+        this.name = name;
+        this.eventList = eventList;
+    }
+
+    /**
+     * Execute an event that has been received by this logical process. The method is called by the worker thread of the logical
+     * process, and it may only change the state of this logical process. New events are scheduled with the send() methods.
+     * @param event TimeWarpEvent&lt;T&gt;; the event to execute
+     * @throws Exception when the execution of the event fails; the simulation is stopped in that case
+     */
+    protected abstract void handleEvent(TimeWarpEvent<T> event) throws Exception;
+
+    /**
+     * Save the state of this logical process before an event is executed. The default implementation makes a deep copy of all
+     * non-transient fields with the StateSaver.
+     * @return Object; the saved state
+     * @throws SimRuntimeException when the state cannot be saved
+     */
+    protected Object saveState() throws SimRuntimeException
+    {
+        try
+        {
+            return StateSaver.saveState(this);
+        }
+        catch (DsolException exception)
+        {
+            throw new SimRuntimeException("cannot save the state of logical process " + this.name, exception);
+        }
+    }
+
+    /**
+     * Restore the state of this logical process to a state that has been saved earlier by {@link #saveState()}.
+     * @param state Object; the saved state
+     * @throws SimRuntimeException when the state cannot be restored
+     */
+    protected void restoreState(final Object state) throws SimRuntimeException
+    {
+        try
+        {
+            StateSaver.restoreState(this, (byte[]) state);
+        }
+        catch (DsolException exception)
+        {
+            throw new SimRuntimeException("cannot restore the state of logical process " + this.name, exception);
+        }
+    }
+
+    /**
+     * Carry out an action that cannot be undone, such as writing output, for an event that has been committed. An event is
+     * committed when its time lies before the global virtual time, so it will never be rolled back. The default implementation
+     * does nothing.
+     * @param event TimeWarpEvent&lt;T&gt;; the committed event
+     */
+    protected void commit(final TimeWarpEvent<T> event)
+    {
+        // nothing to do by default
+    }
+
+    /**
+     * Send a message with normal priority to a logical process. Before the simulator runs, this method can be used to schedule
+     * the initial events; while the simulator runs, it may only be called from handleEvent().
+     * @param receiver LogicalProcess&lt;T&gt;; the logical process that receives the message; may be this logical process
+     * @param delay T; the time between the local time and the time at which the receiver executes the message
+     * @param payload Object; the content of the message, may be null
+     * @return TimeWarpEvent&lt;T&gt;; the event that has been sent
+     * @throws SimRuntimeException when the delay is negative, or when the message is sent outside handleEvent() while the
+     *             simulator runs
+     */
+    public final TimeWarpEvent<T> send(final LogicalProcess<T> receiver, final T delay, final Object payload)
+            throws SimRuntimeException
+    {
+        return send(receiver, delay, SimEventInterface.NORMAL_PRIORITY, payload);
+    }
+
+    /**
+     * Send a message to a logical process. Before the simulator runs, this method can be used to schedule the initial events;
+     * while the simulator runs, it may only be called from handleEvent().
+     * @param receiver LogicalProcess&lt;T&gt;; the logical process that receives the message; may be this logical process
+     * @param delay T; the time between the local time and the time at which the receiver executes the message
+     * @param priority short; the priority of the message
+     * @param payload Object; the content of the message, may be null
+     * @return TimeWarpEvent&lt;T&gt;; the event that has been sent
+     * @throws SimRuntimeException when the delay is negative, or when the message is sent outside handleEvent() while the
+     *             simulator runs
+     */
+    public final TimeWarpEvent<T> send(final LogicalProcess<T> receiver, final T delay, final short priority,
+            final Object payload) throws SimRuntimeException
+    {
+        Throw.whenNull(receiver, "receiver cannot be null");
+        Throw.whenNull(delay, "delay cannot be null");
+        Throw.when(this.simulator == null || receiver.simulator != this.simulator, SimRuntimeException.class,
+                "sender and receiver should both have been added to the same simulator");
+        Throw.when(this.simulator.isRunning() && this.current == null, SimRuntimeException.class,
+                "a running logical process can only send messages from handleEvent()");
+        T receiveTime = SimTime.plus(this.localTime, delay);
+        Throw.when(receiveTime.compareTo(this.localTime) < 0, SimRuntimeException.class,
+                "cannot send a message into the past of logical process " + this.name);
+        TimeWarpEvent<T> event = new TimeWarpEvent<T>(receiveTime, priority,
+                ((long) this.index << SEQUENCE_BITS) | this.sequence++, this, receiver, this.localTime, payload);
+        if (this.current != null)
+        {
+            this.current.sent.add(event);
+        }
+        if (receiver == this || !this.simulator.isRunning())
+        {
+            receiver.eventList.add(event);
+        }
+        else
+        {
+            receiver.inbox.offer(new Message<T>(event, false));
+        }
+        return event;
+    }
+
+    /**
+     * Return the name of the logical process.
+     * @return String; the name of the logical process
+     */
+    public String getName()
+    {
+        return this.name;
+    }
+
+    /**
+     * Return the local clock of the logical process.
+     * @return T; the local clock of the logical process
+     */
+    public T getLocalTime()
+    {
+        return this.localTime;
+    }
+
+    /**
+     * Return the simulator that executes this logical process.
+     * @return TimeWarpSimulator&lt;T&gt;; the simulator, or null when the logical process has not been added to a simulator
+     */
+    public TimeWarpSimulator<T> getSimulator()
+    {
+        return this.simulator;
+    }
+
+    /**
+     * Return the number of executed events, including the events that have been rolled back.
+     * @return long; the number of executed events
+     */
+    public long getExecutedEvents()
+    {
+        return this.executedEvents;
+    }
+
+    /**
+     * Return the number of events that have been rolled back.
+     * @return long; the number of events that have been rolled back
+     */
+    public long getRolledBackEvents()
+    {
+        return this.rolledBackEvents;
+    }
+
+    /**
+     * Return the number of anti-messages that have been sent.
+     * @return long; the number of anti-messages that have been sent
+     */
+    public long getAntiMessages()
+    {
+        return this.antiMessages;
+    }
+
+    /**
+     * Return the number of committed events.
+     * @return long; the number of committed events
+     */
+    public long getCommittedEvents()
+    {
+        return this.committedEvents;
+    }
+
+    /**
+     * Add the logical process to a simulator.
+     * @param timeWarpSimulator TimeWarpSimulator&lt;T&gt;; the simulator
+     * @param processIndex int; the index of the logical process in the simulator
+     * @param startTime T; the start time of the simulation
+     */
+    final void initialize(final TimeWarpSimulator<T> timeWarpSimulator, final int processIndex, final T startTime)
+    {
+        Throw.when(this.simulator != null, IllegalStateException.class,
+                "logical process " + this.name + " has already been added to a simulator");
+        this.simulator = timeWarpSimulator;
+        this.index = processIndex;
+        this.localTime = startTime;
+    }
+
+    /**
+     * Process the messages and anti-messages in the inbox. A straggler message or an anti-message for a processed event leads to
+     * a rollback. Called by the worker thread of the logical process.
+     * @throws SimRuntimeException when the state cannot be restored
+     */
+    final void processInbox() throws SimRuntimeException
+    {
+        Message<T> message;
+        while ((message = this.inbox.poll()) != null)
+        {
+            if (message.anti)
+            {
+                annihilate(message.event);
+            }
+            else
+            {
+                receive(message.event);
+            }
+        }
+    }
+
+    /**
+     * Receive a positive message, and roll back when it is a straggler.
+     * @param event TimeWarpEvent&lt;T&gt;; the received message
+     * @throws SimRuntimeException when the state cannot be restored
+     */
+    private void receive(final TimeWarpEvent<T> event) throws SimRuntimeException
+    {
+        if (this.pendingAntiMessages.remove(event))
+        {
+            return;
+        }
+        if (!this.processed.isEmpty() && event.compareTo(this.processed.peekLast().event) < 0)
+        {
+            rollback(event, false);
+        }
+        this.eventList.add(event);
+    }
+
+    /**
+     * Annihilate a message with its anti-message. When the message has already been processed, the logical process is rolled back
+     * to just before the message.
+     * @param event TimeWarpEvent&lt;T&gt;; the message to annihilate
+     * @throws SimRuntimeException when the state cannot be restored
+     */
+    private void annihilate(final TimeWarpEvent<T> event) throws SimRuntimeException
+    {
+        if (this.eventList.remove(event))
+        {
+            return;
+        }
+        if (!this.processed.isEmpty() && event.compareTo(this.processed.peekLast().event) <= 0)
+        {
+            rollback(event, true);
+            this.eventList.remove(event);
+            return;
+        }
+        this.pendingAntiMessages.add(event);
+    }
+
+    /**
+     * Roll back all processed events that come after the given event, or at the given event when inclusive is true. The rolled
+     * back events are put back on the event list, anti-messages are sent for the messages that they sent, and the state, local
+     * clock and sequence number are restored to the values before the earliest rolled back event.
+     * @param event TimeWarpEvent&lt;T&gt;; the event to roll back to
+     * @param inclusive boolean; whether a processed event that is equal to the given event should be rolled back as well
+     * @throws SimRuntimeException when the state cannot be restored
+     */
+    private void rollback(final TimeWarpEvent<T> event, final boolean inclusive) throws SimRuntimeException
+    {
+        ProcessedEvent<T> earliest = null;
+        while (!this.processed.isEmpty())
+        {
+            ProcessedEvent<T> record = this.processed.peekLast();
+            int cmp = record.event.compareTo(event);
+            if (cmp < 0 || (cmp == 0 && !inclusive))
+            {
+                break;
+            }
+            this.processed.pollLast();
+            for (int i = record.sent.size() - 1; i >= 0; i--)
+            {
+                cancel(record.sent.get(i));
+            }
+            this.eventList.add(record.event);
+            this.rolledBackEvents++;
+            earliest = record;
+        }
+        if (earliest != null)
+        {
+            restoreState(earliest.state);
+            this.localTime = earliest.localTime;
+            this.sequence = earliest.sequence;
+        }
+    }
+
+    /**
+     * Cancel a message that was sent by a rolled back event. A message to this logical process is removed from the event list;
+     * it has already been put back on the event list when it had been processed, since it was processed after the event that
+     * sent it. For a message to another logical process, an anti-message is sent.
+     * @param event TimeWarpEvent&lt;T&gt;; the message to cancel
+     */
+    private void cancel(final TimeWarpEvent<T> event)
+    {
+        if (event.getReceiver() == this)
+        {
+            this.eventList.remove(event);
+        }
+        else
+        {
+            event.getReceiver().inbox.offer(new Message<T>(event, true));
+            this.antiMessages++;
+        }
+    }
+
+    /**
+     * Return the first unprocessed event when it lies at or before the end time.
+     * @param endTime T; the end time of the simulation
+     * @return SimEventInterface&lt;T&gt;; the first unprocessed event, or null when there is no event at or before the end time
+     */
+    final SimEventInterface<T> nextEvent(final T endTime)
+    {
+        SimEventInterface<T> first = this.eventList.first();
+        return first == null || first.getAbsoluteExecutionTime().compareTo(endTime) > 0 ? null : first;
+    }
+
+    /**
+     * Execute the first event of the event list after saving the state. Called by the worker thread of the logical process.
+     * @throws SimRuntimeException when the state cannot be saved, or when the execution of the event fails
+     */
+    final void executeNextEvent() throws SimRuntimeException
+    {
+        @SuppressWarnings("unchecked")
+        TimeWarpEvent<T> event = (TimeWarpEvent<T>) this.eventList.removeFirst();
+        ProcessedEvent<T> record = new ProcessedEvent<T>(event, saveState(), this.localTime, this.sequence);
+        this.localTime = event.getAbsoluteExecutionTime();
+        this.current = record;
+        try
+        {
+            event.execute();
+        }
+        finally
+        {
+            this.current = null;
+        }
+        this.processed.addLast(record);
+        this.executedEvents++;
+    }
+
+    /**
+     * Return the earliest time of the unprocessed events and of the messages in the inbox. This method may only be called when
+     * no worker thread is active.
+     * @return T; the earliest time of the unprocessed events and messages, or null when there are none
+     */
+    final T earliestTime()
+    {
+        T earliest = this.eventList.isEmpty() ? null : this.eventList.first().getAbsoluteExecutionTime();
+        for (Message<T> message : this.inbox)
+        {
+            T time = message.event.getAbsoluteExecutionTime();
+            if (earliest == null || time.compareTo(earliest) < 0)
+            {
+                earliest = time;
+            }
+        }
+        return earliest;
+    }
+
+    /**
+     * Commit and remove the processed events with a time before the global virtual time, since they can never be rolled back.
+     * Called by the worker thread of the logical process.
+     * @param gvt T; the global virtual time
+     */
+    final void fossilCollect(final T gvt)
+    {
+        while (!this.processed.isEmpty() && this.processed.peekFirst().event.getAbsoluteExecutionTime().compareTo(gvt) < 0)
+        {
+            commitFirst();
+        }
+    }
+
+    /**
+     * Commit all processed events at the end of the simulation.
+     */
+    final void commitAll()
+    {
+        while (!this.processed.isEmpty())
+        {
+            commitFirst();
+        }
+    }
+
+    /**
+     * Commit and remove the first processed event.
+     */
+    private void commitFirst()
+    {
+        commit(this.processed.pollFirst().event);
+        this.committedEvents++;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "LogicalProcess[" + this.name + "; time=" + this.localTime + "]";
+    }
+
+    /**
+     * A processed event with the information that is needed to roll it back.
+     * @param <T> the time type
+     */
+    private static final class ProcessedEvent<T extends Number & Comparable<T>>
+    {
+        /** the processed event. */
+        private final TimeWarpEvent<T> event;
+
+        /** the state of the logical process before the event was executed. */
+        private final Object state;
+
+        /** the local clock before the event was executed. */
+        private final T localTime;
+
+        /** the sequence number before the event was executed. */
+        private final long sequence;
+
+        /** the messages that were sent by the event. */
+        private final List<TimeWarpEvent<T>> sent = new ArrayList<>(2);
+
+        /**
+         * Create a record for a processed event.
+         * @param event TimeWarpEvent&lt;T&gt;; the processed event
+         * @param state Object; the state of the logical process before the event was executed
+         * @param localTime T; the local clock before the event was executed
+         * @param sequence long; the sequence number before the event was executed
+         */
+        ProcessedEvent(final TimeWarpEvent<T> event, final Object state, final T localTime, final long sequence)
+        {
+            this.event = event;
+            this.state = state;
+            this.localTime = localTime;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * A message or anti-message in the inbox of a logical process.
+     * @param <T> the time type
+     */
+    private static final class Message<T extends Number & Comparable<T>>
+    {
+        /** the event. */
+        private final TimeWarpEvent<T> event;
+
+        /** whether this is an anti-message for the event. */
+        private final boolean anti;
+
+        /**
+         * Create a message or anti-message.
+         * @param event TimeWarpEvent&lt;T&gt;; the event
+         * @param anti boolean; whether this is an anti-message for the event
+         */
+        Message(final TimeWarpEvent<T> event, final boolean anti)
+        {
+            this.event = event;
+            this.anti = anti;
+        }
+    }
+
+}
@@ -0,0 +1,118 @@
+package nl.tudelft.simulation.dsol.simulators.timewarp;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.AbstractSimEvent;
+
+/**
+ * TimeWarpEvent is a message between two logical processes of a TimeWarpSimulator. The event is executed by the receiving
+ * logical process at the receive time, which is the absolute execution time of the event. The id of the event consists of the
+ * index of the sending logical process and a sequence number of the sender, so events with the same time and priority are
+ * ordered in the same way when they are sent again after a rollback.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the time type, e.g., Double, Long, Duration
+ * @since 4.2.3
+ */
+public class TimeWarpEvent<T extends Number & Comparable<T>> extends AbstractSimEvent<T>
+{
+    /** */
+    private static final long serialVersionUID = 20240901L;
+
+    /** the logical process that sent the event. */
+    private final transient LogicalProcess<T> sender;
+
+    /** the logical process that receives and executes the event. */
+    private final transient LogicalProcess<T> receiver;
+
+    /** the local time of the sender when the event was sent. */
+    private final T sendTime;
+
+    /** the content of the message. */
+    private final Object payload;
+
+    /**
+     * Create a message between two logical processes.
+     * @param receiveTime T; the time at which the receiver executes the event
+     * @param priority short; the priority of the event
+     * @param id long; the id of the event, composed of the index of the sender and a sequence number
+     * @param sender LogicalProcess&lt;T&gt;; the logical process that sends the event
+     * @param receiver LogicalProcess&lt;T&gt;; the logical process that receives and executes the event
+     * @param sendTime T; the local time of the sender when the event was sent
+     * @param payload Object; the content of the message, may be null
+     */
+    TimeWarpEvent(final T receiveTime, final short priority, final long id, final LogicalProcess<T> sender,
+            final LogicalProcess<T> receiver, final T sendTime, final Object payload)
+    {
+        super(receiveTime, priority, id);
+        this.sender = sender;
+        this.receiver = receiver;
+        this.sendTime = sendTime;
+        this.payload = payload;
+    }
+
+    @Override
+    public void execute() throws SimRuntimeException
+    {
+        try
+        {
+            this.receiver.handleEvent(this);
+        }
+        catch (SimRuntimeException exception)
+        {
+            throw exception;
+        }
+        catch (Exception exception)
+        {
+            throw new SimRuntimeException(exception);
+        }
+    }
+
+    /**
+     * Return the logical process that sent the event.
+     * @return LogicalProcess&lt;T&gt;; the logical process that sent the event
+     */
+    public LogicalProcess<T> getSender()
+    {
+        return this.sender;
+    }
+
+    /**
+     * Return the logical process that receives and executes the event.
+     * @return LogicalProcess&lt;T&gt;; the logical process that receives and executes the event
+     */
+    public LogicalProcess<T> getReceiver()
+    {
+        return this.receiver;
+    }
+
+    /**
+     * Return the local time of the sender when the event was sent.
+     * @return T; the local time of the sender when the event was sent
+     */
+    public T getSendTime()
+    {
+        return this.sendTime;
+    }
+
+    /**
+     * Return the content of the message.
+     * @return Object; the content of the message, may be null
+     */
+    public Object getPayload()
+    {
+        return this.payload;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TimeWarpEvent[time=" + this.absoluteExecutionTime + "; priority=" + this.priority + "; sender="
+                + this.sender.getName() + "; receiver=" + this.receiver.getName() + "; payload=" + this.payload + "]";
+    }
+
+}
@@ -0,0 +1,359 @@
+package nl.tudelft.simulation.dsol.simulators.timewarp;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.BrokenBarrierException;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.djutils.exceptions.Throw;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+
+/**
+ * TimeWarpSimulator is an optimistic parallel discrete event simulator, based on D.R. Jefferson (1985), "Virtual Time", ACM
+ * Transactions on Programming Languages and Systems 7(3). The model is split into {@link LogicalProcess}es, each with its own
+ * event list and local clock. The logical processes are distributed over a number of worker threads; each worker repeatedly
+ * processes the inboxes of its logical processes, and executes the earliest event of its logical processes without waiting for
+ * the other workers. Causality errors are repaired by rollback and anti-messages in the logical processes.
+ * <p>
+ * The global virtual time (GVT) is computed synchronously: after a number of events, the workers meet at a barrier, and the GVT
+ * is determined as the earliest time of all unprocessed events and all messages in the inboxes. Since messages are delivered
+ * directly into the inbox of the receiver, there are no messages in transit at the barrier. Processed events with a time before
+ * the GVT are committed and their saved states are discarded (fossil collection). The simulation ends when there are no more
+ * events at or before the end time.
+ * </p>
+ * <p>
+ * With one worker thread, the events are executed in timestamp order without rollbacks, which gives the same results as a
+ * sequential simulation. Events with the same time and priority are ordered on the index of the sending logical process and a
+ * sequence number of the sender, so the order does not depend on the thread scheduling.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @param <T> the time type, e.g., Double, Long, Duration
+ * @since 4.2.3
+ */
+public class TimeWarpSimulator<T extends Number & Comparable<T>>
+{
+    /** the id of the simulator. */
+    private final Serializable id;
+
+    /** the start time of the simulation. */
+    private final T startTime;
+
+    /** the number of worker threads. */
+    private final int numberOfThreads;
+
+    /** the number of events that a worker executes between two GVT computations. */
+    private int gvtInterval = 1000;
+
+    /** the logical processes. */
+    private final List<LogicalProcess<T>> logicalProcesses = new ArrayList<>();
+
+    /** whether the simulator is running. */
+    private volatile boolean running = false;
+
+    /** the global virtual time. */
+    private volatile T gvt;
+
+    /** whether the simulation has ended; only changed in the barrier action. */
+    private volatile boolean done = false;
+
+    /** the first exception that occurred in a worker thread. */
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /** the end time of the current run. */
+    private T endTime;
+
+    /**
+     * Create a Time Warp simulator.
+     * @param id Serializable; the id of the simulator, used in the names of the worker threads
+     * @param startTime T; the start time of the simulation, which is the initial local time of the logical processes
+     * @param numberOfThreads int; the number of worker threads, e.g., Runtime.getRuntime().availableProcessors()
+     */
+    public TimeWarpSimulator(final Serializable id, final T startTime, final int numberOfThreads)
+    {
+        Throw.whenNull(id, "id cannot be null");
+        Throw.whenNull(startTime, "startTime cannot be null");
+        Throw.when(numberOfThreads < 1, IllegalArgumentException.class, "numberOfThreads should be at least 1");
+        this.id = id;
+        this.startTime = startTime;
+        this.numberOfThreads = numberOfThreads;
+        this.gvt = startTime;
+    }
+
+    /**
+     * Add a logical process to the simulator. The logical processes are distributed round-robin over the worker threads in the
+     * order in which they are added.
+     * @param logicalProcess LogicalProcess&lt;T&gt;; the logical process to add
+     * @throws SimRuntimeException when the simulator is running
+     */
+    public void addLogicalProcess(final LogicalProcess<T> logicalProcess) throws SimRuntimeException
+    {
+        Throw.whenNull(logicalProcess, "logicalProcess cannot be null");
+        Throw.when(this.running, SimRuntimeException.class, "cannot add a logical process to a running simulator");
+        Throw.when(this.logicalProcesses.size() >= LogicalProcess.MAX_LOGICAL_PROCESSES, SimRuntimeException.class,
+                "too many logical processes");
+        logicalProcess.initialize(this, this.logicalProcesses.size(), this.startTime);
+        this.logicalProcesses.add(logicalProcess);
+    }
+
+    /**
+     * Set the number of events that a worker executes between two GVT computations. A larger interval reduces the
+     * synchronization between the workers, but increases the memory for saved states and the time before events are committed.
+     * @param gvtInterval int; the number of events between two GVT computations
+     * @throws SimRuntimeException when the simulator is running
+     */
+    public void setGvtInterval(final int gvtInterval) throws SimRuntimeException
+    {
+        Throw.when(gvtInterval < 1, IllegalArgumentException.class, "gvtInterval should be at least 1");
+        Throw.when(this.running, SimRuntimeException.class, "cannot change the GVT interval of a running simulator");
+        this.gvtInterval = gvtInterval;
+    }
+
+    /**
+     * Run the simulation till there are no more events at or before the end time. The method blocks till the simulation has
+     * ended, and all processed events have been committed.
+     * @param runEndTime T; the end time of the simulation; events at the end time are executed
+     * @throws SimRuntimeException when the simulator is already running, or when the execution of an event failed
+     */
+    public void run(final T runEndTime) throws SimRuntimeException
+    {
+        Throw.whenNull(runEndTime, "runEndTime cannot be null");
+        Throw.when(this.running, SimRuntimeException.class, "the simulator is already running");
+        this.endTime = runEndTime;
+        this.done = false;
+        this.failure.set(null);
+        this.running = true;
+        try
+        {
+            CyclicBarrier barrier = new CyclicBarrier(this.numberOfThreads, this::computeGvt);
+            List<Thread> workers = new ArrayList<>();
+            for (int w = 0; w < this.numberOfThreads; w++)
+            {
+                List<LogicalProcess<T>> own = new ArrayList<>();
+                for (int i = w; i < this.logicalProcesses.size(); i += this.numberOfThreads)
+                {
+                    own.add(this.logicalProcesses.get(i));
+                }
+                Thread worker = new Thread(() -> work(own, barrier), "TimeWarp-" + this.id + "-" + w);
+                workers.add(worker);
+                worker.start();
+            }
+            for (Thread worker : workers)
+            {
+                worker.join();
+            }
+        }
+        catch (InterruptedException exception)
+        {
+            this.failure.compareAndSet(null, exception);
+        }
+        finally
+        {
+            this.running = false;
+        }
+        for (LogicalProcess<T> logicalProcess : this.logicalProcesses)
+        {
+            logicalProcess.commitAll();
+        }
+        if (this.failure.get() != null)
+        {
+            throw new SimRuntimeException("Time Warp simulation " + this.id + " failed", this.failure.get());
+        }
+    }
+
+    /**
+     * The loop of a worker thread: execute events of the own logical processes, and meet the other workers at the barrier for
+     * the GVT computation after gvtInterval events, or when there is nothing to do.
+     * @param own List&lt;LogicalProcess&lt;T&gt;&gt;; the logical processes of this worker
+     * @param barrier CyclicBarrier; the barrier for the GVT computation
+     */
+    private void work(final List<LogicalProcess<T>> own, final CyclicBarrier barrier)
+    {
+        while (!this.done)
+        {
+            try
+            {
+                for (int step = 0; step < this.gvtInterval && this.failure.get() == null; step++)
+                {
+                    LogicalProcess<T> next = null;
+                    SimEventInterface<T> nextEvent = null;
+                    for (LogicalProcess<T> logicalProcess : own)
+                    {
+                        logicalProcess.processInbox();
+                        SimEventInterface<T> event = logicalProcess.nextEvent(this.endTime);
+                        if (event != null && (nextEvent == null || event.compareTo(nextEvent) < 0))
+                        {
+                            next = logicalProcess;
+                            nextEvent = event;
+                        }
+                    }
+                    if (next == null)
+                    {
+                        break;
+                    }
+                    next.executeNextEvent();
+                }
+            }
+            catch (Exception exception)
+            {
+                this.failure.compareAndSet(null, exception);
+            }
+            try
+            {
+                barrier.await();
+            }
+            catch (InterruptedException | BrokenBarrierException exception)
+            {
+                this.failure.compareAndSet(null, exception);
+                barrier.reset();
+                return;
+            }
+            if (!this.done)
+            {
+                for (LogicalProcess<T> logicalProcess : own)
+                {
+                    logicalProcess.fossilCollect(this.gvt);
+                }
+            }
+        }
+    }
+
+    /**
+     * Compute the global virtual time as the earliest time of all unprocessed events and all messages in the inboxes. This is
+     * the barrier action, which is carried out while all workers wait at the barrier. The simulation ends when there is no event
+     * at or before the end time, or when a worker failed.
+     */
+    private void computeGvt()
+    {
+        T earliest = null;
+        for (LogicalProcess<T> logicalProcess : this.logicalProcesses)
+        {
+            T time = logicalProcess.earliestTime();
+            if (time != null && (earliest == null || time.compareTo(earliest) < 0))
+            {
+                earliest = time;
+            }
+        }
+        if (earliest == null || earliest.compareTo(this.endTime) > 0)
+        {
+            this.gvt = this.endTime;
+            this.done = true;
+        }
+        else
+        {
+            this.gvt = earliest;
+        }
+        if (this.failure.get() != null)
+        {
+            this.done = true;
+        }
+    }
+
+    /**
+     * Return the id of the simulator.
+     * @return Serializable; the id of the simulator
+     */
+    public Serializable getId()
+    {
+        return this.id;
+    }
+
+    /**
+     * Return the start time of the simulation.
+     * @return T; the start time of the simulation
+     */
+    public T getStartTime()
+    {
+        return this.startTime;
+    }
+
+    /**
+     * Return the global virtual time: no event before this time will be rolled back anymore.
+     * @return T; the global virtual time
+     */
+    public T getGvt()
+    {
+        return this.gvt;
+    }
+
+    /**
+     * Return whether the simulator is running.
+     * @return boolean; whether the simulator is running
+     */
+    public boolean isRunning()
+    {
+        return this.running;
+    }
+
+    /**
+     * Return the number of worker threads.
+     * @return int; the number of worker threads
+     */
+    public int getNumberOfThreads()
+    {
+        return this.numberOfThreads;
+    }
+
+    /**
+     * Return the logical processes.
+     * @return List&lt;LogicalProcess&lt;T&gt;&gt;; an unmodifiable list of the logical processes
+     */
+    public List<LogicalProcess<T>> getLogicalProcesses()
+    {
+        return Collections.unmodifiableList(this.logicalProcesses);
+    }
+
+    /**
+     * Return the total number of executed events, including the events that have been rolled back.
+     * @return long; the total number of executed events
+     */
+    public long getExecutedEvents()
+    {
+        return this.logicalProcesses.stream().mapToLong(LogicalProcess::getExecutedEvents).sum();
+    }
+
+    /**
+     * Return the total number of events that have been rolled back.
+     * @return long; the total number of events that have been rolled back
+     */
+    public long getRolledBackEvents()
+    {
+        return this.logicalProcesses.stream().mapToLong(LogicalProcess::getRolledBackEvents).sum();
+    }
+
+    /**
+     * Return the total number of anti-messages that have been sent.
+     * @return long; the total number of anti-messages
+     */
+    public long getAntiMessages()
+    {
+        return this.logicalProcesses.stream().mapToLong(LogicalProcess::getAntiMessages).sum();
+    }
+
+    /**
+     * Return the total number of committed events.
+     * @return long; the total number of committed events
+     */
+    public long getCommittedEvents()
+    {
+        return this.logicalProcesses.stream().mapToLong(LogicalProcess::getCommittedEvents).sum();
+    }
+
+    @Override
+    public String toString()
+    {
+        return "TimeWarpSimulator[" + this.id + "; gvt=" + this.gvt + "; logicalProcesses=" + this.logicalProcesses.size()
+                + "; threads=" + this.numberOfThreads + "]";
+    }
+
+}
@@ -0,0 +1,14 @@
+/**
+ * Provides an optimistic parallel discrete event simulator based on the Time Warp mechanism of Jefferson. The model is split
+ * into logical processes with their own event list and local clock, which are executed on a number of worker threads. Causality
+ * errors are repaired by rolling back the state of a logical process and sending anti-messages for the messages that were sent
+ * by the rolled back events.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ */
+package nl.tudelft.simulation.dsol.simulators.timewarp;
@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import org.djutils.exceptions.Throw;
 
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
@@ -55,6 +57,17 @@ public class DistBernoulli extends DistDiscrete
         return 0L;
     }
 
+    @Override
+    public void draw(final long[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        UniformBuffer u = new UniformBuffer(this.stream, length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            buffer[i] = u.next() <= this.p ? 1L : 0L;
+        }
+    }
+
     @Override
     public double probability(final long observation)
     {
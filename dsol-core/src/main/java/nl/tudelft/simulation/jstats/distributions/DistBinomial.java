@@ -1,5 +1,8 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.io.Serializable;
+import java.util.Objects;
+
 import org.djutils.exceptions.Throw;
 
 import nl.tudelft.simulation.jstats.math.ProbMath;
@@ -9,7 +12,10 @@ import nl.tudelft.simulation.jstats.streams.StreamInterface;
  * The Binomial distribution. The binomial distribution is the probability of the number of successes in a sequence of n
  * independent experiments, each with success (probability p) or failure (probability q = 1 − p). For more information on this
  * distribution see <a href="https://mathworld.wolfram.com/BinomialDistribution.html">
- * https://mathworld.wolfram.com/BinomialDistribution.html </a>
+ * https://mathworld.wolfram.com/BinomialDistribution.html </a><br>
+ * By default, the values are drawn as the number of successes of n uniform numbers, which takes n uniform numbers per value.
+ * With setSamplingAlgorithm(SamplingAlgorithm.BTPE), the values are drawn with the BTPE method of Kachitvichyanukul and
+ * Schmeiser when n min(p, 1-p) &ge; 30, and by inversion otherwise, so the time per value does not depend on n.
  * <p>
  * Copyright (c) 2002-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
  * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
@@ -30,6 +36,12 @@ public class DistBinomial extends DistDiscrete
     /** p is the probability of success for each individual trial in the binomial distribution. */
     private final double p;
 
+    /** the algorithm to draw the values with. */
+    private SamplingAlgorithm samplingAlgorithm = SamplingAlgorithm.DEFAULT;
+
+    /** the constants of the BTPE method, or null when the default algorithm is used. */
+    private Btpe btpe = null;
+
     /**
      * constructs a Binomial distribution. It calculates the probability for a number of successes in n independent Bernoulli
      * trials with probability p of success on each trial.
@@ -49,6 +61,10 @@ public class DistBinomial extends DistDiscrete
     @Override
     public long draw()
     {
+        if (this.btpe != null)
+        {
+            return this.btpe.draw(this.stream);
+        }
         long x = 0;
         for (int i = 0; i < this.n; i++)
         {
@@ -60,13 +76,44 @@ public class DistBinomial extends DistDiscrete
         return x;
     }
 
+    @Override
+    public void draw(final long[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        if (this.btpe != null)
+        {
+            for (int i = offset; i < offset + length; i++)
+            {
+                buffer[i] = this.btpe.draw(this.stream);
+            }
+            return;
+        }
+        UniformBuffer u = new UniformBuffer(this.stream, (long) this.n * length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            long x = 0;
+            for (int j = 0; j < this.n; j++)
+            {
+                if (u.next() <= this.p)
+                {
+                    x++;
+                }
+            }
+            buffer[i] = x;
+        }
+    }
+
+    /**
+     * {@inheritDoc} The probability is calculated with the logarithms of the factors, so it does not overflow for n &gt; 170.
+     */
     @Override
     public double probability(final long observation)
     {
         if (observation <= this.n && observation >= 0)
         {
-            return ProbMath.combinations(this.n, observation) * Math.pow(this.p, observation)
-                    * Math.pow(1 - this.p, this.n - observation);
+            return Math.exp(ProbMath.gammaln(this.n + 1.0) - ProbMath.gammaln(observation + 1.0)
+                    - ProbMath.gammaln(this.n - observation + 1.0) + observation * Math.log(this.p)
+                    + (this.n - observation) * Math.log(1.0 - this.p));
         }
         return 0.0;
     }
@@ -89,9 +136,294 @@ public class DistBinomial extends DistDiscrete
         return this.p;
     }
 
+    /**
+     * Return the algorithm with which the values are drawn.
+     * @return SamplingAlgorithm; the algorithm with which the values are drawn
+     */
+    public SamplingAlgorithm getSamplingAlgorithm()
+    {
+        return this.samplingAlgorithm;
+    }
+
+    /**
+     * Set the algorithm with which the values are drawn. SamplingAlgorithm.DEFAULT counts the successes of n uniform numbers,
+     * which reproduces the values of earlier versions; SamplingAlgorithm.BTPE is the method of Kachitvichyanukul and
+     * Schmeiser, with inversion for n min(p, 1-p) &lt; 30.
+     * @param samplingAlgorithm SamplingAlgorithm; the algorithm with which the values are drawn
+     * @throws NullPointerException when samplingAlgorithm is null
+     * @throws IllegalArgumentException when samplingAlgorithm is not DEFAULT or BTPE
+     */
+    public void setSamplingAlgorithm(final SamplingAlgorithm samplingAlgorithm)
+    {
+        Throw.whenNull(samplingAlgorithm, "samplingAlgorithm cannot be null");
+        Throw.when(samplingAlgorithm != SamplingAlgorithm.DEFAULT && samplingAlgorithm != SamplingAlgorithm.BTPE,
+                IllegalArgumentException.class, "%s does not support sampling algorithm %s", toString(), samplingAlgorithm);
+        this.samplingAlgorithm = samplingAlgorithm;
+        this.btpe = samplingAlgorithm == SamplingAlgorithm.BTPE ? new Btpe(this.n, this.p) : null;
+    }
+
     @Override
     public String toString()
     {
         return "Binomial(" + this.n + "," + this.p + ")";
     }
+
+    /**
+     * The BTPE (binomial, triangle, parallelogram, exponential) method, described in V. Kachitvichyanukul and B.W. Schmeiser,
+     * <a href="https://doi.org/10.1145/42372.42381">Binomial Random Variate Generation</a>, Communications of the ACM 31(2),
+     * 1988. The method draws from a hat function of a triangle, two parallelograms and two exponential tails around the mode,
+     * and accepts most values with two uniform numbers. For n min(p, 1-p) &lt; 30, the values are drawn by inversion from 0,
+     * which takes about n min(p, 1-p) + 1 steps. The method draws for r = min(p, 1-p), and mirrors the value when p &gt; 0.5.
+     */
+    private static final class Btpe implements Serializable
+    {
+        /** */
+        private static final long serialVersionUID = 20240101L;
+
+        /** the lowest n r for which BTPE is used; below it, inversion is faster. */
+        private static final double BTPE_THRESHOLD = 30.0;
+
+        /** the number of trials. */
+        private final int n;
+
+        /** whether the values are mirrored, because p &gt; 0.5. */
+        private final boolean mirror;
+
+        /** min(p, 1-p). */
+        private final double r;
+
+        /** 1 - r. */
+        private final double q;
+
+        /** n r q, the variance. */
+        private final double nrq;
+
+        /** the mode of the distribution. */
+        private final long m;
+
+        /** (1 - r)^n, the probability of 0, for inversion. */
+        private final double qn;
+
+        /** the largest value before inversion starts again, to protect against round-off. */
+        private final double bound;
+
+        /** the half width of the triangle. */
+        private final double p1;
+
+        /** the mode + 0.5, the center of the triangle. */
+        private final double xm;
+
+        /** the left edge of the triangle. */
+        private final double xl;
+
+        /** the right edge of the triangle. */
+        private final double xr;
+
+        /** the height of the parallelograms relative to the triangle. */
+        private final double c;
+
+        /** the rate of the left exponential tail. */
+        private final double laml;
+
+        /** the rate of the right exponential tail. */
+        private final double lamr;
+
+        /** the cumulative area of the triangle and the parallelograms. */
+        private final double p2;
+
+        /** the cumulative area including the left exponential tail. */
+        private final double p3;
+
+        /** the total area of the hat function. */
+        private final double p4;
+
+        /**
+         * Calculate the constants of the BTPE method.
+         * @param n int; the number of trials
+         * @param p double; the probability of success of a trial
+         */
+        Btpe(final int n, final double p)
+        {
+            this.n = n;
+            this.mirror = p > 0.5;
+            this.r = Math.min(p, 1.0 - p);
+            this.q = 1.0 - this.r;
+            this.nrq = n * this.r * this.q;
+            double fm = n * this.r + this.r;
+            this.m = (long) Math.floor(fm);
+            this.qn = Math.exp(n * Math.log(this.q));
+            double np = n * this.r;
+            this.bound = Math.min(n, np + 10.0 * Math.sqrt(np * this.q + 1.0));
+            this.p1 = Math.floor(2.195 * Math.sqrt(this.nrq) - 4.6 * this.q) + 0.5;
+            this.xm = this.m + 0.5;
+            this.xl = this.xm - this.p1;
+            this.xr = this.xm + this.p1;
+            this.c = 0.134 + 20.5 / (15.3 + this.m);
+            double a = (fm - this.xl) / (fm - this.xl * this.r);
+            this.laml = a * (1.0 + a / 2.0);
+            a = (this.xr - fm) / (this.xr * this.q);
+            this.lamr = a * (1.0 + a / 2.0);
+            this.p2 = this.p1 * (1.0 + 2.0 * this.c);
+            this.p3 = this.p2 + this.c / this.laml;
+            this.p4 = this.p3 + this.c / this.lamr;
+        }
+
+        /**
+         * Draw a value.
+         * @param stream StreamInterface; the stream to draw from
+         * @return long; the drawn value
+         */
+        long draw(final StreamInterface stream)
+        {
+            long y = this.n * this.r < BTPE_THRESHOLD ? drawInversion(stream) : drawBtpe(stream);
+            return this.mirror ? this.n - y : y;
+        }
+
+        /**
+         * Draw a value for r by inversion, searching from 0.
+         * @param stream StreamInterface; the stream to draw from
+         * @return long; the drawn value
+         */
+        private long drawInversion(final StreamInterface stream)
+        {
+            long x = 0;
+            double px = this.qn;
+            double u = stream.nextDouble();
+            while (u > px)
+            {
+                x++;
+                if (x > this.bound)
+                {
+                    x = 0;
+                    px = this.qn;
+                    u = stream.nextDouble();
+                }
+                else
+                {
+                    u -= px;
+                    px = ((this.n - x + 1) * this.r * px) / (x * this.q);
+                }
+            }
+            return x;
+        }
+
+        /**
+         * Draw a value for r with BTPE.
+         * @param stream StreamInterface; the stream to draw from
+         * @return long; the drawn value
+         */
+        private long drawBtpe(final StreamInterface stream)
+        {
+            while (true)
+            {
+                // step 1: the triangle
+                double u = stream.nextDouble() * this.p4;
+                double v = stream.nextDouble();
+                if (u <= this.p1)
+                {
+                    return (long) Math.floor(this.xm - this.p1 * v + u);
+                }
+                long y;
+                if (u <= this.p2)
+                {
+                    // step 2: the parallelograms
+                    double x = this.xl + (u - this.p1) / this.c;
+                    v = v * this.c + 1.0 - Math.abs(this.m - x + 0.5) / this.p1;
+                    if (v > 1.0)
+                    {
+                        continue;
+                    }
+                    y = (long) Math.floor(x);
+                }
+                else if (u <= this.p3)
+                {
+                    // step 3: the left exponential tail
+                    y = (long) Math.floor(this.xl + Math.log(v) / this.laml);
+                    if (y < 0 || v == 0.0)
+                    {
+                        continue;
+                    }
+                    v = v * (u - this.p2) * this.laml;
+                }
+                else
+                {
+                    // step 4: the right exponential tail
+                    y = (long) Math.floor(this.xr - Math.log(v) / this.lamr);
+                    if (y > this.n || v == 0.0)
+                    {
+                        continue;
+                    }
+                    v = v * (u - this.p3) * this.lamr;
+                }
+                if (accept(y, v))
+                {
+                    return y;
+                }
+            }
+        }
+
+        /**
+         * Test whether a candidate of the parallelograms or the tails is accepted (step 5).
+         * @param y long; the candidate value
+         * @param v double; the scaled uniform number to compare with the ratio of the probabilities of y and the mode
+         * @return boolean; whether the candidate is accepted
+         */
+        private boolean accept(final long y, final double v)
+        {
+            long k = Math.abs(y - this.m);
+            if (k <= 20 || k >= this.nrq / 2.0 - 1.0)
+            {
+                // step 5.1: the ratio f(y) / f(m) by recursion
+                double s = this.r / this.q;
+                double a = s * (this.n + 1);
+                double f = 1.0;
+                if (this.m < y)
+                {
+                    for (long i = this.m + 1; i <= y; i++)
+                    {
+                        f *= (a / i - s);
+                    }
+                }
+                else if (this.m > y)
+                {
+                    for (long i = y + 1; i <= this.m; i++)
+                    {
+                        f /= (a / i - s);
+                    }
+                }
+                return v <= f;
+            }
+            // step 5.2: squeeze with the normal approximation of ln(f(y) / f(m))
+            double rho = (k / this.nrq) * ((k * (k / 3.0 + 0.625) + 0.16666666666666666) / this.nrq + 0.5);
+            double t = -(double) (k * k) / (2.0 * this.nrq);
+            double logV = Math.log(v);
+            if (logV < t - rho)
+            {
+                return true;
+            }
+            if (logV > t + rho)
+            {
+                return false;
+            }
+            // step 5.3: the final comparison with Stirling's formula
+            double x1 = y + 1;
+            double f1 = this.m + 1;
+            double z = this.n + 1 - this.m;
+            double w = this.n - y + 1;
+            return logV <= this.xm * Math.log(f1 / x1) + (this.n - this.m + 0.5) * Math.log(z / w)
+                    + (y - this.m) * Math.log(w * this.r / (x1 * this.q)) + stirling(f1) + stirling(z) + stirling(x1)
+                    + stirling(w);
+        }
+
+        /**
+         * Return the correction term of Stirling's formula that BTPE uses.
+         * @param x double; the argument
+         * @return double; the correction term for x
+         */
+        private static double stirling(final double x)
+        {
+            double x2 = x * x;
+            return (13680.0 - (462.0 - (132.0 - (99.0 - 140.0 / x2) / x2) / x2) / x2) / x / 166320.0;
+        }
+    }
 }
@@ -1,5 +1,8 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Arrays;
+import java.util.Objects;
+
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
 
 /**
@@ -41,6 +44,14 @@ public class DistConstant extends DistContinuous
         return this.constant;
     }
 
+    @Override
+    public void draw(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        this.stream.nextDoubles(buffer, offset, length);
+        Arrays.fill(buffer, offset, offset + length, this.constant);
+    }
+
     @Override
     public double getProbabilityDensity(final double x)
     {
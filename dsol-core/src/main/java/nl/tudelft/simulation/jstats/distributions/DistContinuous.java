@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
 
 /**
@@ -35,6 +37,36 @@ public abstract class DistContinuous extends Dist
      */
     public abstract double draw();
 
+    /**
+     * draws values according to the probability of this distribution, and stores them in an array.
+     * @param buffer double[]; the array to fill with values
+     * @throws NullPointerException when buffer is null
+     */
+    public void draw(final double[] buffer)
+    {
+        draw(buffer, 0, buffer.length);
+    }
+
+    /**
+     * draws values according to the probability of this distribution, and stores them in a part of an array. The values are
+     * the same as the values of <code>length</code> successive calls of <code>draw()</code>. Distributions override this
+     * method to draw the uniform numbers of the stream in bulk, and to transform them in a loop without a method call per
+     * value.
+     * @param buffer double[]; the array to fill with values
+     * @param offset int; the index of the first value in the array
+     * @param length int; the number of values to draw
+     * @throws NullPointerException when buffer is null
+     * @throws IndexOutOfBoundsException when offset or length is negative, or offset + length &gt; buffer.length
+     */
+    public void draw(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            buffer[i] = draw();
+        }
+    }
+
     /**
      * returns the probability density value of a value x.
      * @param x double; the value for which the density function needs to be calculated
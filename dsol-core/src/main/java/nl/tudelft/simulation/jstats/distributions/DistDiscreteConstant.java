@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
 
 /**
@@ -39,6 +41,18 @@ public class DistDiscreteConstant extends DistDiscrete
         return this.constant;
     }
 
+    @Override
+    public void draw(final long[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        UniformBuffer u = new UniformBuffer(this.stream, length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            u.next();
+            buffer[i] = this.constant;
+        }
+    }
+
     @Override
     public double probability(final long observation)
     {
@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import nl.tudelft.simulation.jstats.distributions.empirical.DiscreteEmpiricalDistribution;
 import nl.tudelft.simulation.jstats.distributions.empirical.DistributionEntry;
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
@@ -45,6 +47,17 @@ public class DistEmpiricalDiscreteDouble extends DistContinuous
         return this.empiricalDistribution.getCeilingEntry(u).getValue().doubleValue();
     }
 
+    @Override
+    public void draw(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        this.stream.nextDoubles(buffer, offset, length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            buffer[i] = this.empiricalDistribution.getCeilingEntry(buffer[i]).getValue().doubleValue();
+        }
+    }
+
     @Override
     public double getProbabilityDensity(final double x)
     {
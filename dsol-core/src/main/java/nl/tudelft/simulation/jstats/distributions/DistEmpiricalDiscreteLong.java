@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import org.djutils.exceptions.Throw;
 
 import nl.tudelft.simulation.jstats.distributions.empirical.DiscreteEmpiricalDistribution;
@@ -50,6 +52,17 @@ public class DistEmpiricalDiscreteLong extends DistDiscrete
         return this.empiricalDistribution.getCeilingEntry(u).getValue().longValue();
     }
 
+    @Override
+    public void draw(final long[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        UniformBuffer u = new UniformBuffer(this.stream, length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            buffer[i] = this.empiricalDistribution.getCeilingEntry(u.next()).getValue().longValue();
+        }
+    }
+
     @Override
     public double probability(final long observation)
     {
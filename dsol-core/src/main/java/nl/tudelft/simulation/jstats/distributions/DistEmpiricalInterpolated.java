@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import nl.tudelft.simulation.jstats.distributions.empirical.DistributionEntry;
 import nl.tudelft.simulation.jstats.distributions.empirical.InterpolatedEmpiricalDistribution;
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
@@ -39,7 +41,16 @@ public class DistEmpiricalInterpolated extends DistContinuous
     @Override
     public double draw()
     {
-        double u = this.stream.nextDouble();
+        return interpolate(this.stream.nextDouble());
+    }
+
+    /**
+     * Return the value of the distribution for a uniform number, interpolated between the entries around the number.
+     * @param u double; the uniform number
+     * @return double; the interpolated value
+     */
+    private double interpolate(final double u)
+    {
         DistributionEntry entry0 = this.empiricalDistribution.getFloorEntry(u);
         DistributionEntry entry1 = this.empiricalDistribution.getCeilingEntry(u);
         double v1 = entry1.getValue().doubleValue();
@@ -49,6 +60,17 @@ public class DistEmpiricalInterpolated extends DistContinuous
         return v0 + (v1 - v0) * (u - c0) / (c1 - c0);
     }
 
+    @Override
+    public void draw(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        this.stream.nextDoubles(buffer, offset, length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            buffer[i] = interpolate(buffer[i]);
+        }
+    }
+
     @Override
     public double getProbabilityDensity(final double x)
     {
@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import org.djutils.exceptions.Throw;
 
 import nl.tudelft.simulation.jstats.math.ProbMath;
@@ -10,7 +12,10 @@ import nl.tudelft.simulation.jstats.streams.StreamInterface;
  * <a href="https://mathworld.wolfram.com/ErlangDistribution.html"> http://mathworld.wolfram.com/ErlangDistribution.html
  * </a><br>
  * The Erlang distribution is the distribution of a sum of k independent exponential variables with the scale parameter as the
- * mean. The scale parameter is equal to 1/rate or 1/&lambda;, giving the entire Erlang distribution a mean of k*scale.
+ * mean. The scale parameter is equal to 1/rate or 1/&lambda;, giving the entire Erlang distribution a mean of k*scale.<br>
+ * By default, the values for k &lt;= 10 are drawn as the product of k uniform numbers, and the values for a larger k with the
+ * gamma distribution. With setSamplingAlgorithm(SamplingAlgorithm.MARSAGLIA_TSANG), all values are drawn with the method of
+ * Marsaglia and Tsang for the gamma distribution, of which the time per value does not depend on k.
  * <p>
  * Copyright (c) 2002-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
  * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
@@ -40,6 +45,9 @@ public class DistErlang extends DistContinuous
     /** distGamma is the underlying gamma distribution. */
     private final DistGamma distGamma;
 
+    /** the algorithm to draw the values with. */
+    private SamplingAlgorithm samplingAlgorithm = SamplingAlgorithm.DEFAULT;
+
     /** GAMMATHRESHOLD is the threshold above which we use a gamma function and below repeated drawing. */
     private static final short GAMMATHRESHOLD = 10;
 
@@ -62,13 +70,13 @@ public class DistErlang extends DistContinuous
         this.k = k;
         this.scale = scale;
         this.lambda = 1.0 / scale;
-        this.distGamma = this.k <= DistErlang.GAMMATHRESHOLD ? null : new DistGamma(stream, this.k, this.scale);
+        this.distGamma = new DistGamma(stream, this.k, this.scale);
     }
 
     @Override
     public double draw()
     {
-        if (this.k <= DistErlang.GAMMATHRESHOLD)
+        if (useProduct())
         {
             // according to Law and Kelton, Simulation Modeling and Analysis
             // repeated drawing and composition is usually faster for k<=10
@@ -83,6 +91,36 @@ public class DistErlang extends DistContinuous
         return this.distGamma.draw();
     }
 
+    @Override
+    public void draw(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        if (!useProduct())
+        {
+            this.distGamma.draw(buffer, offset, length);
+            return;
+        }
+        UniformBuffer u = new UniformBuffer(this.stream, (long) this.k * length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            double product = 1.0;
+            for (int j = 1; j <= this.k; j++)
+            {
+                product = product * u.next();
+            }
+            buffer[i] = -this.scale * Math.log(product);
+        }
+    }
+
+    /**
+     * Return whether the values are drawn as the product of k uniform numbers, rather than with the gamma distribution.
+     * @return boolean; whether the values are drawn as the product of k uniform numbers
+     */
+    private boolean useProduct()
+    {
+        return this.k <= DistErlang.GAMMATHRESHOLD && this.samplingAlgorithm == SamplingAlgorithm.DEFAULT;
+    }
+
     @Override
     public double getProbabilityDensity(final double x)
     {
@@ -114,10 +152,32 @@ public class DistErlang extends DistContinuous
     public void setStream(final StreamInterface stream)
     {
         super.setStream(stream);
-        if (this.distGamma != null)
-        {
-            this.distGamma.setStream(stream);
-        }
+        this.distGamma.setStream(stream);
+    }
+
+    /**
+     * Return the algorithm with which the values are drawn.
+     * @return SamplingAlgorithm; the algorithm with which the values are drawn
+     */
+    public SamplingAlgorithm getSamplingAlgorithm()
+    {
+        return this.samplingAlgorithm;
+    }
+
+    /**
+     * Set the algorithm with which the values are drawn. SamplingAlgorithm.DEFAULT reproduces the values of earlier versions;
+     * SamplingAlgorithm.MARSAGLIA_TSANG draws all values with the method of Marsaglia and Tsang for the gamma distribution.
+     * @param samplingAlgorithm SamplingAlgorithm; the algorithm with which the values are drawn
+     * @throws NullPointerException when samplingAlgorithm is null
+     * @throws IllegalArgumentException when samplingAlgorithm is not DEFAULT or MARSAGLIA_TSANG
+     */
+    public void setSamplingAlgorithm(final SamplingAlgorithm samplingAlgorithm)
+    {
+        Throw.whenNull(samplingAlgorithm, "samplingAlgorithm cannot be null");
+        Throw.when(samplingAlgorithm != SamplingAlgorithm.DEFAULT && samplingAlgorithm != SamplingAlgorithm.MARSAGLIA_TSANG,
+                IllegalArgumentException.class, "%s does not support sampling algorithm %s", toString(), samplingAlgorithm);
+        this.samplingAlgorithm = samplingAlgorithm;
+        this.distGamma.setSamplingAlgorithm(samplingAlgorithm);
     }
 
     @Override
@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import org.djutils.exceptions.Throw;
 
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
@@ -10,7 +12,9 @@ import nl.tudelft.simulation.jstats.streams.StreamInterface;
  * https://mathworld.wolfram.com/ExponentialDistribution.html </a><br>
  * The exponential distribution describes the interarrival times of entities to a system that occur randomly at a constant rate.
  * The exponential distribution here is characterized by the mean interarrival time, but can also be characterized by this rate
- * parameter &lambda;; mean = 1 / &lambda;.
+ * parameter &lambda;; mean = 1 / &lambda;. By default, the values are drawn by inversion; with
+ * setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT), they are drawn with the faster ziggurat method, which gives other values
+ * for the same seed.
  * <p>
  * Copyright (c) 2002-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
  * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
@@ -28,6 +32,9 @@ public class DistExponential extends DistContinuous
     /** mean is the mean value of the exponential distribution. */
     private final double mean;
 
+    /** the algorithm to draw the values with. */
+    private SamplingAlgorithm samplingAlgorithm = SamplingAlgorithm.DEFAULT;
+
     /**
      * constructs a new exponential function. The exponential distribution describes the interarrival times of entities to a
      * system that occur randomly at a constant rate. The exponential distribution can also be characterized by this rate
@@ -47,9 +54,32 @@ public class DistExponential extends DistContinuous
     @Override
     public double draw()
     {
+        if (this.samplingAlgorithm == SamplingAlgorithm.ZIGGURAT)
+        {
+            return this.mean * Ziggurat.nextExponential(this.stream);
+        }
         return -this.mean * Math.log(this.stream.nextDouble());
     }
 
+    @Override
+    public void draw(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        if (this.samplingAlgorithm == SamplingAlgorithm.ZIGGURAT)
+        {
+            for (int i = offset; i < offset + length; i++)
+            {
+                buffer[i] = this.mean * Ziggurat.nextExponential(this.stream);
+            }
+            return;
+        }
+        this.stream.nextDoubles(buffer, offset, length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            buffer[i] = -this.mean * Math.log(buffer[i]);
+        }
+    }
+
     @Override
     public double getProbabilityDensity(final double x)
     {
@@ -68,6 +98,30 @@ public class DistExponential extends DistContinuous
         return this.mean;
     }
 
+    /**
+     * Return the algorithm with which the values are drawn.
+     * @return SamplingAlgorithm; the algorithm with which the values are drawn
+     */
+    public SamplingAlgorithm getSamplingAlgorithm()
+    {
+        return this.samplingAlgorithm;
+    }
+
+    /**
+     * Set the algorithm with which the values are drawn. SamplingAlgorithm.DEFAULT is inversion, which reproduces the values
+     * of earlier versions; SamplingAlgorithm.ZIGGURAT is the faster ziggurat method.
+     * @param samplingAlgorithm SamplingAlgorithm; the algorithm with which the values are drawn
+     * @throws NullPointerException when samplingAlgorithm is null
+     * @throws IllegalArgumentException when samplingAlgorithm is not DEFAULT or ZIGGURAT
+     */
+    public void setSamplingAlgorithm(final SamplingAlgorithm samplingAlgorithm)
+    {
+        Throw.whenNull(samplingAlgorithm, "samplingAlgorithm cannot be null");
+        Throw.when(samplingAlgorithm != SamplingAlgorithm.DEFAULT && samplingAlgorithm != SamplingAlgorithm.ZIGGURAT,
+                IllegalArgumentException.class, "%s does not support sampling algorithm %s", toString(), samplingAlgorithm);
+        this.samplingAlgorithm = samplingAlgorithm;
+    }
+
     @Override
     public String toString()
     {
@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import org.djutils.exceptions.Throw;
 import org.djutils.logger.CategoryLogger;
 
@@ -10,7 +12,10 @@ import nl.tudelft.simulation.jstats.streams.StreamInterface;
  * The Gamma distribution. For more information on this distribution see
  * <a href="https://mathworld.wolfram.com/GammaDistribution.html"> https://mathworld.wolfram.com/GammaDistribution.html </a><br>
  * The parameters are not rate-related, but average-related, so the mean is shape*scale (or &alpha;&theta;), and the variance is
- * &alpha;&theta;<sup>2</sup>.
+ * &alpha;&theta;<sup>2</sup>.<br>
+ * By default, the values are drawn with the acceptance-rejection methods of Law and Kelton. With
+ * setSamplingAlgorithm(SamplingAlgorithm.MARSAGLIA_TSANG), they are drawn with the method of Marsaglia and Tsang, which needs
+ * a normal and a uniform number for at least 95% of the values for any shape, and has no cap on the number of tries.
  * <p>
  * Copyright (c) 2002-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
  * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
@@ -25,12 +30,24 @@ public class DistGamma extends DistContinuous
     /** */
     private static final long serialVersionUID = 1L;
 
+    /** the constant theta of the acceptance-rejection method for a shape &gt; 1. */
+    private static final double THETA = 4.5d;
+
     /** the shape parameter of the distribution, also often called &alpha; or k. */
     private final double shape;
 
     /** the scale parameter of the distribution, also often called &theta;. */
     private final double scale;
 
+    /** the constant d = a - 1/3 of the method of Marsaglia and Tsang, with a the shape, or the shape + 1 when it is &lt; 1. */
+    private final double marsagliaD;
+
+    /** the constant c = 1 / sqrt(9d) of the method of Marsaglia and Tsang. */
+    private final double marsagliaC;
+
+    /** the algorithm to draw the values with. */
+    private SamplingAlgorithm samplingAlgorithm = SamplingAlgorithm.DEFAULT;
+
     /**
      * constructs a new gamma distribution. The gamma distribution represents the time to complete some task, e.g. customer
      * service or machine repair. The parameters are not rate-related, but average-related, so the mean is shape*scale (or
@@ -46,87 +63,188 @@ public class DistGamma extends DistContinuous
         Throw.when(shape <= 0.0 || scale <= 0.0, IllegalArgumentException.class, "Error Gamma - shape <= 0.0 or scale <= 0.0");
         this.shape = shape;
         this.scale = scale;
+        this.marsagliaD = (shape < 1.0 ? shape + 1.0 : shape) - 1.0 / 3.0;
+        this.marsagliaC = 1.0 / Math.sqrt(9.0 * this.marsagliaD);
     }
 
     @Override
     public double draw()
     {
+        if (this.samplingAlgorithm == SamplingAlgorithm.MARSAGLIA_TSANG)
+        {
+            return drawMarsagliaTsang();
+        }
         // according to Law and Kelton, Simulation Modeling and Analysis, 1991
         // pages 488-489
         if (this.shape < 1.0)
+        {
+            return drawSmallShape((Math.E + this.shape) / Math.E);
+        }
+        else if (this.shape > 1.0)
+        {
+            double a = 1.0d / Math.sqrt(2.0d * this.shape - 1.0d);
+            return drawLargeShape(a, this.shape - Math.log(4.0d), this.shape + (1.0d / a), 1.0d + Math.log(THETA));
+        }
+        else
+        // shape == 1.0
+        {
+            // Gamma(1.0, scale) ~ exponential with mean = scale
+            return -this.scale * Math.log(this.stream.nextDouble());
+        }
+    }
+
+    /**
+     * {@inheritDoc} The constants of the acceptance-rejection method are calculated once for all values.
+     */
+    @Override
+    public void draw(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        if (this.samplingAlgorithm == SamplingAlgorithm.MARSAGLIA_TSANG)
+        {
+            for (int i = offset; i < offset + length; i++)
+            {
+                buffer[i] = drawMarsagliaTsang();
+            }
+        }
+        else if (this.shape < 1.0)
         {
             double b = (Math.E + this.shape) / Math.E;
-            int counter = 0;
-            while (counter < 1000)
+            for (int i = offset; i < offset + length; i++)
             {
-                // step 1.
-                double p = b * this.stream.nextDouble();
-                if (p <= 1.0d)
-                {
-                    // step 2.
-                    double y = Math.pow(p, 1.0d / this.shape);
-                    double u2 = this.stream.nextDouble();
-                    if (u2 <= Math.exp(-y))
-                    {
-                        return this.scale * y;
-                    }
-                }
-                else
-                {
-                    // step 3.
-                    double y = -Math.log((b - p) / this.shape);
-                    double u2 = this.stream.nextDouble();
-                    if (u2 <= Math.pow(y, this.shape - 1.0d))
-                    {
-                        return this.scale * y;
-                    }
-                }
-                counter++;
+                buffer[i] = drawSmallShape(b);
             }
-            CategoryLogger.always().info("Gamma distribution -- 1000 tries for alpha<1.0");
-            return 1.0d;
         }
         else if (this.shape > 1.0)
         {
-            // according to Law and Kelton, Simulation Modeling and
-            // Analysis, 1991, pages 488-489
             double a = 1.0d / Math.sqrt(2.0d * this.shape - 1.0d);
             double b = this.shape - Math.log(4.0d);
             double q = this.shape + (1.0d / a);
-            double theta = 4.5d;
-            double d = 1.0d + Math.log(theta);
-            int counter = 0;
-            while (counter < 1000)
+            double d = 1.0d + Math.log(THETA);
+            for (int i = offset; i < offset + length; i++)
+            {
+                buffer[i] = drawLargeShape(a, b, q, d);
+            }
+        }
+        else
+        {
+            this.stream.nextDoubles(buffer, offset, length);
+            for (int i = offset; i < offset + length; i++)
+            {
+                buffer[i] = -this.scale * Math.log(buffer[i]);
+            }
+        }
+    }
+
+    /**
+     * Draw a value for a shape &lt; 1, according to Law and Kelton, Simulation Modeling and Analysis, 1991, pages 488-489.
+     * @param b double; the constant b = (e + shape) / e
+     * @return double; the drawn value
+     */
+    private double drawSmallShape(final double b)
+    {
+        int counter = 0;
+        while (counter < 1000)
+        {
+            // step 1.
+            double p = b * this.stream.nextDouble();
+            if (p <= 1.0d)
             {
-                // step 1.
-                double u1 = this.stream.nextDouble();
-                double u2 = this.stream.nextDouble();
                 // step 2.
-                double v = a * Math.log(u1 / (1.0d - u1));
-                double y = this.shape * Math.exp(v);
-                double z = u1 * u1 * u2;
-                double w = b + q * v - y;
-                // step 3.
-                if ((w + d - theta * z) >= 0.0d)
+                double y = Math.pow(p, 1.0d / this.shape);
+                double u2 = this.stream.nextDouble();
+                if (u2 <= Math.exp(-y))
                 {
                     return this.scale * y;
                 }
-                // step 4.
-                if (w > Math.log(z))
+            }
+            else
+            {
+                // step 3.
+                double y = -Math.log((b - p) / this.shape);
+                double u2 = this.stream.nextDouble();
+                if (u2 <= Math.pow(y, this.shape - 1.0d))
                 {
                     return this.scale * y;
                 }
-                counter++;
             }
-            CategoryLogger.always().info("Gamma distribution -- 1000 tries for alpha>1.0");
-            return 1.0d;
+            counter++;
         }
-        else
-        // shape == 1.0
+        CategoryLogger.always().info("Gamma distribution -- 1000 tries for alpha<1.0");
+        return 1.0d;
+    }
+
+    /**
+     * Draw a value for a shape &gt; 1, according to Law and Kelton, Simulation Modeling and Analysis, 1991, pages 488-489.
+     * @param a double; the constant a = 1 / sqrt(2 * shape - 1)
+     * @param b double; the constant b = shape - ln(4)
+     * @param q double; the constant q = shape + 1 / a
+     * @param d double; the constant d = 1 + ln(theta)
+     * @return double; the drawn value
+     */
+    private double drawLargeShape(final double a, final double b, final double q, final double d)
+    {
+        int counter = 0;
+        while (counter < 1000)
         {
-            // Gamma(1.0, scale) ~ exponential with mean = scale
-            return -this.scale * Math.log(this.stream.nextDouble());
+            // step 1.
+            double u1 = this.stream.nextDouble();
+            double u2 = this.stream.nextDouble();
+            // step 2.
+            double v = a * Math.log(u1 / (1.0d - u1));
+            double y = this.shape * Math.exp(v);
+            double z = u1 * u1 * u2;
+            double w = b + q * v - y;
+            // step 3.
+            if ((w + d - THETA * z) >= 0.0d)
+            {
+                return this.scale * y;
+            }
+            // step 4.
+            if (w > Math.log(z))
+            {
+                return this.scale * y;
+            }
+            counter++;
         }
+        CategoryLogger.always().info("Gamma distribution -- 1000 tries for alpha>1.0");
+        return 1.0d;
+    }
+
+    /**
+     * Draw a value with the method of Marsaglia and Tsang, described in <a href="https://doi.org/10.1145/358407.358414">A
+     * Simple Method for Generating Gamma Variables</a>, ACM Transactions on Mathematical Software 26(3), 2000. A value for a
+     * shape &lt; 1 is drawn for the shape + 1, and multiplied with U<sup>1/shape</sup>. The normal values are drawn with the
+     * ziggurat method.
+     * @return double; the drawn value
+     */
+    private double drawMarsagliaTsang()
+    {
+        double v;
+        while (true)
+        {
+            double x;
+            do
+            {
+                x = Ziggurat.nextNormal(this.stream);
+                v = 1.0 + this.marsagliaC * x;
+            }
+            while (v <= 0.0);
+            v = v * v * v;
+            double u = 1.0 - this.stream.nextDouble();
+            double x2 = x * x;
+            // squeeze, and else the exact test
+            if (u < 1.0 - 0.0331 * x2 * x2 || Math.log(u) < 0.5 * x2 + this.marsagliaD * (1.0 - v + Math.log(v)))
+            {
+                break;
+            }
+        }
+        double y = this.marsagliaD * v;
+        if (this.shape < 1.0)
+        {
+            y *= Math.pow(1.0 - this.stream.nextDouble(), 1.0 / this.shape);
+        }
+        return this.scale * y;
     }
 
     @Override
@@ -156,6 +274,31 @@ public class DistGamma extends DistContinuous
         return this.scale;
     }
 
+    /**
+     * Return the algorithm with which the values are drawn.
+     * @return SamplingAlgorithm; the algorithm with which the values are drawn
+     */
+    public SamplingAlgorithm getSamplingAlgorithm()
+    {
+        return this.samplingAlgorithm;
+    }
+
+    /**
+     * Set the algorithm with which the values are drawn. SamplingAlgorithm.DEFAULT is the method of Law and Kelton, which
+     * reproduces the values of earlier versions; SamplingAlgorithm.MARSAGLIA_TSANG is the faster method of Marsaglia and
+     * Tsang.
+     * @param samplingAlgorithm SamplingAlgorithm; the algorithm with which the values are drawn
+     * @throws NullPointerException when samplingAlgorithm is null
+     * @throws IllegalArgumentException when samplingAlgorithm is not DEFAULT or MARSAGLIA_TSANG
+     */
+    public void setSamplingAlgorithm(final SamplingAlgorithm samplingAlgorithm)
+    {
+        Throw.whenNull(samplingAlgorithm, "samplingAlgorithm cannot be null");
+        Throw.when(samplingAlgorithm != SamplingAlgorithm.DEFAULT && samplingAlgorithm != SamplingAlgorithm.MARSAGLIA_TSANG,
+                IllegalArgumentException.class, "%s does not support sampling algorithm %s", toString(), samplingAlgorithm);
+        this.samplingAlgorithm = samplingAlgorithm;
+    }
+
     @Override
     public String toString()
     {
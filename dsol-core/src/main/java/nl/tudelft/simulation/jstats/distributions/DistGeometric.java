@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import org.djutils.exceptions.Throw;
 
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
@@ -53,6 +55,17 @@ public class DistGeometric extends DistDiscrete
         return (long) (Math.floor(Math.log(u) / this.lnp));
     }
 
+    @Override
+    public void draw(final long[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        UniformBuffer u = new UniformBuffer(this.stream, length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            buffer[i] = (long) (Math.floor(Math.log(u.next()) / this.lnp));
+        }
+    }
+
     @Override
     public double probability(final long observation)
     {
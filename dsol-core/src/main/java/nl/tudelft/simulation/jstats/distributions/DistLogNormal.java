@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
 
 /**
@@ -49,6 +51,17 @@ public class DistLogNormal extends DistNormal
         return Math.exp(y);
     }
 
+    @Override
+    public void draw(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        super.draw(buffer, offset, length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            buffer[i] = Math.exp(buffer[i]);
+        }
+    }
+
     @Override
     public double getProbabilityDensity(final double x)
     {
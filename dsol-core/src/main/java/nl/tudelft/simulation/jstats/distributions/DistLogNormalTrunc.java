@@ -1,9 +1,12 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
 
 /**
- * The Truncated Lognormal distribution.
+ * The Truncated Lognormal distribution. The values are drawn by inversion of the truncated cumulative probability with one
+ * draw from the stream, so the sampling algorithm of the underlying lognormal distribution is not used.
  * <p>
  * (c) copyright 2020-2021 <a href="http://www.simulation.tudelft.nl">Delft University of Technology </a>, the Netherlands. <br>
  * See for project information <a href="http://www.simulation.tudelft.nl"> www.simulation.tudelft.nl </a> <br>
@@ -67,6 +70,18 @@ public class DistLogNormalTrunc extends DistLogNormal
                 this.lognormalProbMin + (this.lognormalProbMax - this.lognormalProbMin) * this.stream.nextDouble());
     }
 
+    @Override
+    public void draw(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        this.stream.nextDoubles(buffer, offset, length);
+        double range = this.lognormalProbMax - this.lognormalProbMin;
+        for (int i = offset; i < offset + length; i++)
+        {
+            buffer[i] = super.getInverseCumulativeProbability(this.lognormalProbMin + range * buffer[i]);
+        }
+    }
+
     @Override
     public double getCumulativeProbability(final double x)
     {
@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import org.djutils.exceptions.Throw;
 
 import nl.tudelft.simulation.jstats.math.ProbMath;
@@ -63,6 +65,22 @@ public class DistNegBinomial extends DistDiscrete
         return x;
     }
 
+    @Override
+    public void draw(final long[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        UniformBuffer u = new UniformBuffer(this.stream, (long) this.s * length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            long x = 0;
+            for (int j = 0; j < this.s; j++)
+            {
+                x = x + (long) (Math.floor(Math.log(u.next()) / this.lnp));
+            }
+            buffer[i] = x;
+        }
+    }
+
     @Override
     public double probability(final long observation)
     {
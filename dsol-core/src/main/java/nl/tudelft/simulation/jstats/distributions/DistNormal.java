@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import org.djutils.exceptions.Throw;
 
 import nl.tudelft.simulation.jstats.math.ProbMath;
@@ -8,6 +10,9 @@ import nl.tudelft.simulation.jstats.streams.StreamInterface;
 /**
  * The Normal distribution. For more information on this distribution see
  * <a href="https://mathworld.wolfram.com/NormalDistribution.html"> https://mathworld.wolfram.com/NormalDistribution.html </a>
+ * <br>
+ * By default, the values are drawn with the polar method of Marsaglia. With setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT),
+ * the values are drawn with the faster ziggurat method, which does not need a lock, but gives other values for the same seed.
  * <p>
  * Copyright (c) 2002-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
  * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
@@ -37,6 +42,9 @@ public class DistNormal extends DistContinuous
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected boolean haveNextNextGaussian;
 
+    /** the algorithm to draw the values with. */
+    private SamplingAlgorithm samplingAlgorithm = SamplingAlgorithm.DEFAULT;
+
     /**
      * constructs a standard normal distribution with mu=0 and sigma=1. Models probabilities that are the sum of a large number
      * of other probabilities by the virtue of the central limit theorem.
@@ -70,6 +78,30 @@ public class DistNormal extends DistContinuous
         return this.mu + this.sigma * nextGaussian();
     }
 
+    /**
+     * {@inheritDoc} For the polar method, the lock for the pairs of Gaussian values is taken once for all values.
+     */
+    @Override
+    public void draw(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        if (this.samplingAlgorithm == SamplingAlgorithm.ZIGGURAT)
+        {
+            for (int i = offset; i < offset + length; i++)
+            {
+                buffer[i] = this.mu + this.sigma * Ziggurat.nextNormal(this.stream);
+            }
+            return;
+        }
+        synchronized (this)
+        {
+            for (int i = offset; i < offset + length; i++)
+            {
+                buffer[i] = this.mu + this.sigma * gaussian();
+            }
+        }
+    }
+
     /**
      * returns the cumulative probability of the x-value.
      * @param x double; the observation x
@@ -92,10 +124,27 @@ public class DistNormal extends DistContinuous
 
     /**
      * Generates the next pseudorandom, Gaussian (normally) distributed double value, with mean 0.0 and standard deviation 1.0
-     * see section 3.4.1 of The Art of Computer Programming, Volume 2 by Donald Knuth.
+     * see section 3.4.1 of The Art of Computer Programming, Volume 2 by Donald Knuth, or with the ziggurat method when that
+     * sampling algorithm has been selected.
      * @return double the next Gaussian value
      */
-    protected synchronized double nextGaussian()
+    protected double nextGaussian()
+    {
+        if (this.samplingAlgorithm == SamplingAlgorithm.ZIGGURAT)
+        {
+            return Ziggurat.nextNormal(this.stream);
+        }
+        synchronized (this)
+        {
+            return gaussian();
+        }
+    }
+
+    /**
+     * Generate the next Gaussian value without synchronization, with the polar method of Marsaglia.
+     * @return double the next Gaussian value
+     */
+    private double gaussian()
     {
         if (this.haveNextNextGaussian)
         {
@@ -138,6 +187,32 @@ public class DistNormal extends DistContinuous
         return this.sigma;
     }
 
+    /**
+     * Return the algorithm with which the values are drawn.
+     * @return SamplingAlgorithm; the algorithm with which the values are drawn
+     */
+    public SamplingAlgorithm getSamplingAlgorithm()
+    {
+        return this.samplingAlgorithm;
+    }
+
+    /**
+     * Set the algorithm with which the values are drawn. SamplingAlgorithm.DEFAULT is the polar method, which reproduces the
+     * values of earlier versions; SamplingAlgorithm.ZIGGURAT is the faster ziggurat method. A stored second value of the polar
+     * method is discarded.
+     * @param samplingAlgorithm SamplingAlgorithm; the algorithm with which the values are drawn
+     * @throws NullPointerException when samplingAlgorithm is null
+     * @throws IllegalArgumentException when samplingAlgorithm is not DEFAULT or ZIGGURAT
+     */
+    public synchronized void setSamplingAlgorithm(final SamplingAlgorithm samplingAlgorithm)
+    {
+        Throw.whenNull(samplingAlgorithm, "samplingAlgorithm cannot be null");
+        Throw.when(samplingAlgorithm != SamplingAlgorithm.DEFAULT && samplingAlgorithm != SamplingAlgorithm.ZIGGURAT,
+                IllegalArgumentException.class, "%s does not support sampling algorithm %s", toString(), samplingAlgorithm);
+        this.samplingAlgorithm = samplingAlgorithm;
+        this.haveNextNextGaussian = false;
+    }
+
     @Override
     public void setStream(final StreamInterface stream)
     {
@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import org.djutils.exceptions.Throw;
 
 import nl.tudelft.simulation.jstats.math.ProbMath;
@@ -85,8 +87,18 @@ public class DistNormalTrunc extends DistContinuous
     @Override
     public double draw()
     {
-        double d =
-                getInverseCumulativeProbabilityNotTruncated(this.cumulProbMin + this.cumulProbDiff * this.stream.nextDouble());
+        return truncate(this.stream.nextDouble());
+    }
+
+    /**
+     * Return the value of the truncated distribution for a uniform number, using the inverse cumulative probability.
+     * @param u double; the uniform number
+     * @return double; the value of the truncated distribution, in [min, max]
+     * @throws IllegalStateException when the value lies outside [min, max] by more than a rounding error
+     */
+    private double truncate(final double u)
+    {
+        double d = getInverseCumulativeProbabilityNotTruncated(this.cumulProbMin + this.cumulProbDiff * u);
         if (Double.isInfinite(d))
         {
             // if inverse cumulative probability gets close to 1, Infinity is returned.
@@ -116,6 +128,17 @@ public class DistNormalTrunc extends DistContinuous
         return d;
     }
 
+    @Override
+    public void draw(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        this.stream.nextDoubles(buffer, offset, length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            buffer[i] = truncate(buffer[i]);
+        }
+    }
+
     /**
      * returns the cumulative probability of the x-value.
      * @param x double; the observation x
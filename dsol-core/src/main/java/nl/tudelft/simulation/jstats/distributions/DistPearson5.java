@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import org.djutils.exceptions.Throw;
 
 import nl.tudelft.simulation.jstats.math.ProbMath;
@@ -57,6 +59,17 @@ public class DistPearson5 extends DistContinuous
         return 1.0d / this.dist.draw();
     }
 
+    @Override
+    public void draw(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        this.dist.draw(buffer, offset, length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            buffer[i] = 1.0d / buffer[i];
+        }
+    }
+
     @Override
     public double getProbabilityDensity(final double x)
     {
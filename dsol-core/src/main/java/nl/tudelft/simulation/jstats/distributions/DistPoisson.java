@@ -8,6 +8,10 @@ import nl.tudelft.simulation.jstats.streams.StreamInterface;
 /**
  * The Poisson distribution. For more information on this distribution see
  * <a href="https://mathworld.wolfram.com/PoissonDistribution.html"> https://mathworld.wolfram.com/PoissonDistribution.html </a>
+ * <br>
+ * By default, the values are drawn by multiplying uniform numbers until the product is below exp(-lambda), which takes lambda
+ * + 1 uniform numbers on average. With setSamplingAlgorithm(SamplingAlgorithm.PTRS), the values for lambda &ge; 10 are drawn
+ * with the transformed rejection method of H&ouml;rmann, of which the time per value does not depend on lambda.
  * <p>
  * Copyright (c) 2002-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
  * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
@@ -28,6 +32,27 @@ public class DistPoisson extends DistDiscrete
     /** expl is a helper variable. */
     private final double expl;
 
+    /** the natural logarithm of lambda. */
+    private final double logLambda;
+
+    /** the constant b of the PTRS method, the scale of the transformation. */
+    private final double ptrsB;
+
+    /** the constant a of the PTRS method, the shape of the transformation. */
+    private final double ptrsA;
+
+    /** the natural logarithm of the constant 1 / alpha of the PTRS method. */
+    private final double ptrsLogInvAlpha;
+
+    /** the constant v_r of the PTRS method, the bound for immediate acceptance. */
+    private final double ptrsVr;
+
+    /** the algorithm to draw the values with. */
+    private SamplingAlgorithm samplingAlgorithm = SamplingAlgorithm.DEFAULT;
+
+    /** the lowest lambda for which PTRS is used; below it, the default method is faster. */
+    private static final double PTRS_THRESHOLD = 10.0;
+
     /**
      * constructs a new Poisson distribution.
      * @param stream StreamInterface; the random number stream
@@ -40,11 +65,20 @@ public class DistPoisson extends DistDiscrete
         Throw.when(lambda <= 0.0, IllegalArgumentException.class, "Error Poisson - lambda<=0");
         this.lambda = lambda;
         this.expl = Math.exp(-this.lambda);
+        this.logLambda = Math.log(this.lambda);
+        this.ptrsB = 0.931 + 2.53 * Math.sqrt(this.lambda);
+        this.ptrsA = -0.059 + 0.02483 * this.ptrsB;
+        this.ptrsLogInvAlpha = Math.log(1.1239 + 1.1328 / (this.ptrsB - 3.4));
+        this.ptrsVr = 0.9277 - 3.6224 / (this.ptrsB - 2.0);
     }
 
     @Override
     public long draw()
     {
+        if (this.samplingAlgorithm == SamplingAlgorithm.PTRS && this.lambda >= PTRS_THRESHOLD)
+        {
+            return drawPtrs();
+        }
         // Adapted from Fortran program in Shannon, Systems Simulation, 1975, p. 359
         double s = 1.0;
         long x = -1;
@@ -57,12 +91,48 @@ public class DistPoisson extends DistDiscrete
         return x;
     }
 
+    /**
+     * Draw a value with the transformed rejection method with squeeze (PTRS), described in W. H&ouml;rmann,
+     * <a href="https://doi.org/10.1016/0167-6687(93)90997-4">The transformed rejection method for generating Poisson random
+     * variables</a>, Insurance: Mathematics and Economics 12(1), 1993. The method is valid for lambda &ge; 10.
+     * @return long; the drawn value
+     */
+    private long drawPtrs()
+    {
+        double a = this.ptrsA;
+        double b = this.ptrsB;
+        while (true)
+        {
+            double u = this.stream.nextDouble() - 0.5;
+            double v = this.stream.nextDouble();
+            double us = 0.5 - Math.abs(u);
+            long k = (long) Math.floor((2.0 * a / us + b) * u + this.lambda + 0.43);
+            if (us >= 0.07 && v <= this.ptrsVr)
+            {
+                return k;
+            }
+            if (k < 0 || (us < 0.013 && v > us))
+            {
+                continue;
+            }
+            if (Math.log(v) + this.ptrsLogInvAlpha - Math.log(a / (us * us) + b) <= -this.lambda + k * this.logLambda
+                    - ProbMath.gammaln(k + 1.0))
+            {
+                return k;
+            }
+        }
+    }
+
+    /**
+     * {@inheritDoc} The probability is calculated as exp(x ln(lambda) - lambda - ln(x!)), so it does not overflow for a large
+     * observation or lambda.
+     */
     @Override
     public double probability(final long observation)
     {
         if (observation >= 0)
         {
-            return (Math.exp(-this.lambda) * Math.pow(this.lambda, observation)) / ProbMath.factorial(observation);
+            return Math.exp(observation * this.logLambda - this.lambda - ProbMath.gammaln(observation + 1.0));
         }
         return 0;
     }
@@ -75,6 +145,31 @@ public class DistPoisson extends DistDiscrete
         return this.lambda;
     }
 
+    /**
+     * Return the algorithm with which the values are drawn.
+     * @return SamplingAlgorithm; the algorithm with which the values are drawn
+     */
+    public SamplingAlgorithm getSamplingAlgorithm()
+    {
+        return this.samplingAlgorithm;
+    }
+
+    /**
+     * Set the algorithm with which the values are drawn. SamplingAlgorithm.DEFAULT is the multiplication method, which
+     * reproduces the values of earlier versions; SamplingAlgorithm.PTRS is the transformed rejection method of H&ouml;rmann,
+     * which is used for lambda &ge; 10, where it is faster.
+     * @param samplingAlgorithm SamplingAlgorithm; the algorithm with which the values are drawn
+     * @throws NullPointerException when samplingAlgorithm is null
+     * @throws IllegalArgumentException when samplingAlgorithm is not DEFAULT or PTRS
+     */
+    public void setSamplingAlgorithm(final SamplingAlgorithm samplingAlgorithm)
+    {
+        Throw.whenNull(samplingAlgorithm, "samplingAlgorithm cannot be null");
+        Throw.when(samplingAlgorithm != SamplingAlgorithm.DEFAULT && samplingAlgorithm != SamplingAlgorithm.PTRS,
+                IllegalArgumentException.class, "%s does not support sampling algorithm %s", toString(), samplingAlgorithm);
+        this.samplingAlgorithm = samplingAlgorithm;
+    }
+
     @Override
     public String toString()
     {
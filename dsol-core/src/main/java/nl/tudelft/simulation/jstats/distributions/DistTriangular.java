@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import org.djutils.exceptions.Throw;
 
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
@@ -60,6 +62,21 @@ public class DistTriangular extends DistContinuous
         return this.max - Math.sqrt((this.max - this.min) * (this.max - this.mode) * (1.0d - u));
     }
 
+    @Override
+    public void draw(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        this.stream.nextDoubles(buffer, offset, length);
+        double modeProbability = (this.mode - this.min) / (this.max - this.min);
+        double lower = (this.mode - this.min) * (this.max - this.min);
+        double upper = (this.max - this.min) * (this.max - this.mode);
+        for (int i = offset; i < offset + length; i++)
+        {
+            double u = buffer[i];
+            buffer[i] = u <= modeProbability ? this.min + Math.sqrt(lower * u) : this.max - Math.sqrt(upper * (1.0d - u));
+        }
+    }
+
     @Override
     public double getProbabilityDensity(final double x)
     {
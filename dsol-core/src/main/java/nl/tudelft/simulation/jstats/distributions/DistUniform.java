@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import org.djutils.exceptions.Throw;
 
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
@@ -48,6 +50,18 @@ public class DistUniform extends DistContinuous
         return this.min + (this.max - this.min) * this.stream.nextDouble();
     }
 
+    @Override
+    public void draw(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        this.stream.nextDoubles(buffer, offset, length);
+        double range = this.max - this.min;
+        for (int i = offset; i < offset + length; i++)
+        {
+            buffer[i] = this.min + range * buffer[i];
+        }
+    }
+
     @Override
     public double getProbabilityDensity(final double x)
     {
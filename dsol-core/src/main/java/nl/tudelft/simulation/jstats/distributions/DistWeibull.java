@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.jstats.distributions;
 
+import java.util.Objects;
+
 import org.djutils.exceptions.Throw;
 
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
@@ -48,6 +50,18 @@ public class DistWeibull extends DistContinuous
         return this.beta * Math.pow(-Math.log(this.stream.nextDouble()), 1.0d / this.alpha);
     }
 
+    @Override
+    public void draw(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        this.stream.nextDoubles(buffer, offset, length);
+        double exponent = 1.0d / this.alpha;
+        for (int i = offset; i < offset + length; i++)
+        {
+            buffer[i] = this.beta * Math.pow(-Math.log(buffer[i]), exponent);
+        }
+    }
+
     @Override
     public double getProbabilityDensity(final double x)
     {
@@ -0,0 +1,49 @@
+package nl.tudelft.simulation.jstats.distributions;
+
+/**
+ * SamplingAlgorithm indicates the algorithm with which a distribution that supports more than one algorithm draws its values,
+ * such as DistNormal, DistExponential, DistGamma, DistErlang, DistPoisson and DistBinomial. The algorithms draw from the same
+ * distribution, but they use the numbers of the stream in a different way, so the values that are drawn from the same seed
+ * differ. A distribution throws an IllegalArgumentException for an algorithm that it does not support.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public enum SamplingAlgorithm
+{
+    /**
+     * The original algorithm of the distribution, e.g., the polar method for the normal distribution and inversion for the
+     * exponential distribution, which reproduces the values of experiments with earlier versions. Supported by all
+     * distributions.
+     */
+    DEFAULT,
+
+    /**
+     * The ziggurat method of Marsaglia and Tsang, which returns most values with one draw from the stream, one table lookup
+     * and one multiplication. Supported by DistNormal (and DistLogNormal) and DistExponential.
+     */
+    ZIGGURAT,
+
+    /**
+     * The method of Marsaglia and Tsang for the gamma distribution, which transforms a normal value and accepts it with a
+     * probability of at least 95% for any shape. Supported by DistGamma and DistErlang.
+     */
+    MARSAGLIA_TSANG,
+
+    /**
+     * The transformed rejection method with squeeze (PTRS) of H&ouml;rmann for the Poisson distribution, which needs about
+     * two uniform numbers per value for any lambda &ge; 10. Supported by DistPoisson.
+     */
+    PTRS,
+
+    /**
+     * The triangle, parallelogram and exponential method (BTPE) of Kachitvichyanukul and Schmeiser for the binomial
+     * distribution, of which the time per value does not depend on n for n min(p, 1-p) &ge; 30. Supported by DistBinomial.
+     */
+    BTPE;
+}
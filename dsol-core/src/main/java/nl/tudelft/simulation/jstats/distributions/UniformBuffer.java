@@ -0,0 +1,70 @@
+package nl.tudelft.simulation.jstats.distributions;
+
+import nl.tudelft.simulation.jstats.streams.StreamInterface;
+
+/**
+ * A UniformBuffer draws a known number of uniform numbers from a stream in chunks with the bulk method of the stream, and
+ * returns them one by one, for the batch draws of the distributions. Exactly the requested number of uniform numbers is drawn
+ * from the stream, so the stream is in the same state after a batch draw as after the same number of single draws.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+final class UniformBuffer
+{
+    /** the maximum number of uniform numbers that is drawn at once. */
+    static final int CHUNK_SIZE = 1024;
+
+    /** the stream. */
+    private final StreamInterface stream;
+
+    /** the uniform numbers of the current chunk. */
+    private final double[] chunk;
+
+    /** the number of uniform numbers that still has to be drawn from the stream. */
+    private long remaining;
+
+    /** the number of uniform numbers in the current chunk. */
+    private int size = 0;
+
+    /** the index of the next uniform number in the current chunk. */
+    private int index = 0;
+
+    /**
+     * Create a buffer that draws a number of uniform numbers from a stream.
+     * @param stream StreamInterface; the stream
+     * @param count long; the number of uniform numbers to draw
+     */
+    UniformBuffer(final StreamInterface stream, final long count)
+    {
+        this.stream = stream;
+        this.remaining = count;
+        this.chunk = new double[(int) Math.min(count, CHUNK_SIZE)];
+    }
+
+    /**
+     * Return the next uniform number.
+     * @return double; the next uniform number of the stream
+     * @throws IllegalStateException when all requested uniform numbers have been returned
+     */
+    double next()
+    {
+        if (this.index == this.size)
+        {
+            if (this.remaining == 0)
+            {
+                throw new IllegalStateException("all uniform numbers of the buffer have been used");
+            }
+            this.size = (int) Math.min(this.remaining, this.chunk.length);
+            this.stream.nextDoubles(this.chunk, 0, this.size);
+            this.remaining -= this.size;
+            this.index = 0;
+        }
+        return this.chunk[this.index++];
+    }
+}
@@ -0,0 +1,166 @@
+package nl.tudelft.simulation.jstats.distributions;
+
+import nl.tudelft.simulation.jstats.streams.AntitheticStream;
+import nl.tudelft.simulation.jstats.streams.StreamInterface;
+
+/**
+ * Ziggurat draws standard normal and standard exponential values with the ziggurat method of George Marsaglia and Wai Wan
+ * Tsang, described in <a href="https://doi.org/10.18637/jss.v005.i08">The Ziggurat Method for Generating Random Variables</a>,
+ * Journal of Statistical Software 5(8), 2000. The area under the density is covered with 256 layers of equal area: a base
+ * layer with the tail, and 255 rectangles. A draw picks a layer and a point in the layer with the bits of one nextLong() of the
+ * stream, and returns the point when it lies within the rectangle of the layer above, which is the case for about 99% of the
+ * draws. Otherwise the point is tested against the density (wedge), or a value is drawn from the tail.
+ * <p>
+ * Following Doornik's correction of the original method, the layer is taken from the lowest 8 bits and the point from the
+ * highest 53 bits of the number, so the layer and the point are independent, and the points have double precision.
+ * </p>
+ * <p>
+ * The complement of the number, which an antithetic AntitheticStream returns, picks another layer, so the ziggurat does not
+ * mirror antithetic numbers. For an AntitheticStream, a normal value is therefore drawn from the wrapped stream and negated
+ * when the stream is antithetic, which is the exact mirror of the symmetric normal distribution, and an exponential value is
+ * drawn by inversion, of which the antithetic value is the mirror.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+final class Ziggurat
+{
+    /** the number of layers. */
+    private static final int LAYERS = 256;
+
+    /** the distance between two doubles of the 53-bit grid in [0,1). */
+    private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+
+    /** the start of the tail of the normal density exp(-x^2/2). */
+    private static final double NORMAL_R = 3.6541528853610088;
+
+    /** the area of each layer under the normal density exp(-x^2/2), r f(r) plus the area of the tail. */
+    private static final double NORMAL_V = 4.928673233974658E-3;
+
+    /** the start of the tail of the exponential density exp(-x). */
+    private static final double EXPONENTIAL_R = 7.69711747013104972;
+
+    /** the area of each layer under the exponential density exp(-x), r f(r) plus the area of the tail. */
+    private static final double EXPONENTIAL_V = (EXPONENTIAL_R + 1.0) * Math.exp(-EXPONENTIAL_R);
+
+    /** the right edges of the layers of the normal density; x[0] is the width of a rectangle with the area of the base. */
+    private static final double[] NORMAL_X = new double[LAYERS + 1];
+
+    /** the normal density at the right edges of the layers. */
+    private static final double[] NORMAL_F = new double[LAYERS + 1];
+
+    /** the right edges of the layers of the exponential density; x[0] is the width of a rectangle with the area of the base. */
+    private static final double[] EXPONENTIAL_X = new double[LAYERS + 1];
+
+    /** the exponential density at the right edges of the layers. */
+    private static final double[] EXPONENTIAL_F = new double[LAYERS + 1];
+
+    static
+    {
+        NORMAL_X[0] = NORMAL_V / Math.exp(-0.5 * NORMAL_R * NORMAL_R);
+        NORMAL_X[1] = NORMAL_R;
+        EXPONENTIAL_X[0] = EXPONENTIAL_V / Math.exp(-EXPONENTIAL_R);
+        EXPONENTIAL_X[1] = EXPONENTIAL_R;
+        for (int i = 2; i < LAYERS; i++)
+        {
+            double fn = NORMAL_V / NORMAL_X[i - 1] + Math.exp(-0.5 * NORMAL_X[i - 1] * NORMAL_X[i - 1]);
+            NORMAL_X[i] = Math.sqrt(-2.0 * Math.log(fn));
+            double fe = EXPONENTIAL_V / EXPONENTIAL_X[i - 1] + Math.exp(-EXPONENTIAL_X[i - 1]);
+            EXPONENTIAL_X[i] = -Math.log(fe);
+        }
+        NORMAL_X[LAYERS] = 0.0;
+        EXPONENTIAL_X[LAYERS] = 0.0;
+        for (int i = 0; i <= LAYERS; i++)
+        {
+            NORMAL_F[i] = Math.exp(-0.5 * NORMAL_X[i] * NORMAL_X[i]);
+            EXPONENTIAL_F[i] = Math.exp(-EXPONENTIAL_X[i]);
+        }
+    }
+
+    /** */
+    private Ziggurat()
+    {
+        // utility class
+    }
+
+    /**
+     * Draw a value from the standard normal distribution, with mean 0 and standard deviation 1.
+     * @param stream StreamInterface; the stream to draw from
+     * @return double; a standard normal value
+     */
+    static double nextNormal(final StreamInterface stream)
+    {
+        if (stream instanceof AntitheticStream)
+        {
+            AntitheticStream antitheticStream = (AntitheticStream) stream;
+            double z = nextNormal(antitheticStream.getStream());
+            return antitheticStream.isAntithetic() ? -z : z;
+        }
+        while (true)
+        {
+            long bits = stream.nextLong();
+            int i = (int) (bits & (LAYERS - 1));
+            double u = 2.0 * ((bits >>> 11) * DOUBLE_UNIT) - 1.0;
+            double x = u * NORMAL_X[i];
+            if (Math.abs(x) < NORMAL_X[i + 1])
+            {
+                return x;
+            }
+            if (i == 0)
+            {
+                // the tail beyond r, with the method of Marsaglia (1964)
+                double xt;
+                double yt;
+                do
+                {
+                    xt = -Math.log(1.0 - stream.nextDouble()) / NORMAL_R;
+                    yt = -Math.log(1.0 - stream.nextDouble());
+                }
+                while (yt + yt < xt * xt);
+                return u < 0.0 ? -NORMAL_R - xt : NORMAL_R + xt;
+            }
+            if (NORMAL_F[i + 1] + (NORMAL_F[i] - NORMAL_F[i + 1]) * stream.nextDouble() < Math.exp(-0.5 * x * x))
+            {
+                return x;
+            }
+        }
+    }
+
+    /**
+     * Draw a value from the standard exponential distribution, with mean 1.
+     * @param stream StreamInterface; the stream to draw from
+     * @return double; a standard exponential value
+     */
+    static double nextExponential(final StreamInterface stream)
+    {
+        if (stream instanceof AntitheticStream)
+        {
+            return -Math.log(stream.nextDouble());
+        }
+        while (true)
+        {
+            long bits = stream.nextLong();
+            int i = (int) (bits & (LAYERS - 1));
+            double x = ((bits >>> 11) * DOUBLE_UNIT) * EXPONENTIAL_X[i];
+            if (x < EXPONENTIAL_X[i + 1])
+            {
+                return x;
+            }
+            if (i == 0)
+            {
+                // the tail beyond r is an exponential distribution shifted by r
+                return EXPONENTIAL_R - Math.log(1.0 - stream.nextDouble());
+            }
+            if (EXPONENTIAL_F[i + 1] + (EXPONENTIAL_F[i] - EXPONENTIAL_F[i + 1]) * stream.nextDouble() < Math.exp(-x))
+            {
+                return x;
+            }
+        }
+    }
+}
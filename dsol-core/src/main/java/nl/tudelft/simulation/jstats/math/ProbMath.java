@@ -461,4 +461,60 @@ public final class ProbMath
         return Math.exp(gammaln(z) + gammaln(w) - gammaln(z + w));
     }
 
+    /**
+     * Calculates the quantile of the Student t distribution, i.e., the value t for which P(T &lt;= t) = p for a Student t
+     * distributed variable T with the given degrees of freedom. The quantile is exact for 1 and 2 degrees of freedom; for more
+     * degrees of freedom it uses the approximation of G.W. Hill, Algorithm 396: Student's t-quantiles, Communications of the
+     * ACM 13(10), 1970, pp. 619-620, which is accurate to about 6 significant digits.
+     * @param p double; the cumulative probability, between 0 and 1 (exclusive)
+     * @param degreesOfFreedom int; the degrees of freedom of the distribution
+     * @return double; the quantile of the Student t distribution
+     * @throws IllegalArgumentException when p is not between 0 and 1, or when degreesOfFreedom &lt; 1
+     */
+    public static double studentTQuantile(final double p, final int degreesOfFreedom)
+    {
+        Throw.when(!(p > 0.0 && p < 1.0), IllegalArgumentException.class, "p should be between 0 and 1");
+        Throw.when(degreesOfFreedom < 1, IllegalArgumentException.class, "degreesOfFreedom should be at least 1");
+        if (p < 0.5)
+        {
+            return -studentTQuantile(1.0 - p, degreesOfFreedom);
+        }
+        int n = degreesOfFreedom;
+        if (n == 1)
+        {
+            return Math.tan(Math.PI * (p - 0.5));
+        }
+        double twoSided = 2.0 * (1.0 - p);
+        if (n == 2)
+        {
+            return Math.sqrt(2.0 / (twoSided * (2.0 - twoSided)) - 2.0);
+        }
+        double a = 1.0 / (n - 0.5);
+        double b = 48.0 / (a * a);
+        double c = ((20700.0 * a / b - 98.0) * a - 16.0) * a + 96.36;
+        double d = ((94.5 / (b + c) - 3.0) / b + 1.0) * Math.sqrt(a * Math.PI / 2.0) * n;
+        double x = d * twoSided;
+        double y = Math.pow(x, 2.0 / n);
+        if (y > 0.05 + a)
+        {
+            // asymptotic inverse expansion about the normal quantile of the lower tail
+            x = Math.sqrt(2.0) * erfInv(twoSided - 1.0);
+            y = x * x;
+            if (n < 5)
+            {
+                c += 0.3 * (n - 4.5) * (x + 0.6);
+            }
+            c = (((0.05 * d * x - 5.0) * x - 7.0) * x - 2.0) * x + b + c;
+            y = (((((0.4 * y + 6.3) * y + 36.0) * y + 94.5) / c - y - 3.0) / b + 1.0) * x;
+            y = a * y * y;
+            y = y > 0.002 ? Math.exp(y) - 1.0 : 0.5 * y * y + y;
+        }
+        else
+        {
+            y = ((1.0 / (((n + 6.0) / (n * y) - 0.089 * d - 0.822) * (n + 2.0) * 3.0) + 0.5 / (n + 4.0)) * y - 1.0)
+                    * (n + 1.0) / (n + 2.0) + 1.0 / y;
+        }
+        return Math.sqrt(n * y);
+    }
+
 }
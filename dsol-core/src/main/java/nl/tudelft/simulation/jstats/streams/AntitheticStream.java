@@ -0,0 +1,201 @@
+package nl.tudelft.simulation.jstats.streams;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.djutils.exceptions.Throw;
+
+/**
+ * The AntitheticStream wraps a stream, and returns the antithetic values of that stream when it is set to be antithetic: for a
+ * uniform value u from the wrapped stream it returns 1 - u. Two replications with the same seed, one with a normal and one
+ * with an antithetic stream, therefore have negatively correlated random numbers, and the average of the pair has a lower
+ * variance than the average of two independent replications when the output is monotone in the random numbers. The
+ * AntitheticStreamUpdater sets the seed and the antithetic flag for pairs of replications.
+ * <p>
+ * The antithetic value of nextDouble() and nextFloat() is mirrored on the grid of the generated numbers, so it stays in the
+ * interval [0, 1). The antithetic value of nextInt(i, j) is i + j minus the value of the wrapped stream, and the antithetic
+ * values of nextInt(), nextLong() and nextBoolean() are their complements. The antithetic flag is not part of the seed or of
+ * the saved state of the stream.
+ * </p>
+ * <p>
+ * The antithetic pairs are mirrored for samplers that transform the uniform values monotonically, such as inversion. The
+ * ziggurat samplers of the normal and exponential distributions recognize an AntitheticStream: the normal value of the
+ * wrapped stream is negated, and exponential values are drawn by inversion. Other rejection samplers, such as the method of
+ * Marsaglia and Tsang for the gamma distribution, may use a different number of values in both replications of a pair, after
+ * which the values of the pair are no longer mirrored.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public class AntitheticStream implements StreamInterface
+{
+    /** */
+    private static final long serialVersionUID = 20240101L;
+
+    /** the largest double smaller than 1, on the grid of 53-bit uniform values. */
+    private static final double DOUBLE_MIRROR = 1.0 - 1.0 / (1L << 53);
+
+    /** the largest float smaller than 1, on the grid of 24-bit uniform values. */
+    private static final float FLOAT_MIRROR = 1.0f - 1.0f / (1 << 24);
+
+    /** the wrapped stream. */
+    private final StreamInterface stream;
+
+    /** whether the stream returns antithetic values. */
+    private boolean antithetic = false;
+
+    /**
+     * Construct an antithetic wrapper around a stream. The wrapper starts as a normal stream that returns the values of the
+     * wrapped stream.
+     * @param stream StreamInterface; the stream to wrap
+     * @throws NullPointerException when stream is null
+     */
+    public AntitheticStream(final StreamInterface stream)
+    {
+        Throw.whenNull(stream, "stream cannot be null");
+        this.stream = stream;
+    }
+
+    /**
+     * Set whether the stream returns antithetic values.
+     * @param antithetic boolean; true to return the antithetic values of the wrapped stream, false to return its values
+     */
+    public void setAntithetic(final boolean antithetic)
+    {
+        this.antithetic = antithetic;
+    }
+
+    /**
+     * Return whether the stream returns antithetic values.
+     * @return boolean; whether the stream returns the antithetic values of the wrapped stream
+     */
+    public boolean isAntithetic()
+    {
+        return this.antithetic;
+    }
+
+    /**
+     * Return the wrapped stream.
+     * @return StreamInterface; the wrapped stream
+     */
+    public StreamInterface getStream()
+    {
+        return this.stream;
+    }
+
+    @Override
+    public boolean nextBoolean()
+    {
+        return this.antithetic ^ this.stream.nextBoolean();
+    }
+
+    @Override
+    public double nextDouble()
+    {
+        double u = this.stream.nextDouble();
+        return this.antithetic ? DOUBLE_MIRROR - u : u;
+    }
+
+    @Override
+    public void nextDoubles(final double[] buffer, final int offset, final int length)
+    {
+        this.stream.nextDoubles(buffer, offset, length);
+        if (this.antithetic)
+        {
+            for (int i = offset; i < offset + length; i++)
+            {
+                buffer[i] = DOUBLE_MIRROR - buffer[i];
+            }
+        }
+    }
+
+    @Override
+    public float nextFloat()
+    {
+        float u = this.stream.nextFloat();
+        return this.antithetic ? FLOAT_MIRROR - u : u;
+    }
+
+    @Override
+    public int nextInt()
+    {
+        int value = this.stream.nextInt();
+        return this.antithetic ? ~value : value;
+    }
+
+    @Override
+    public int nextInt(final int i, final int j)
+    {
+        int value = this.stream.nextInt(i, j);
+        return this.antithetic ? i + j - value : value;
+    }
+
+    @Override
+    public long nextLong()
+    {
+        long value = this.stream.nextLong();
+        return this.antithetic ? ~value : value;
+    }
+
+    @Override
+    public long getSeed()
+    {
+        return this.stream.getSeed();
+    }
+
+    @Override
+    public long getOriginalSeed()
+    {
+        return this.stream.getOriginalSeed();
+    }
+
+    @Override
+    public void setSeed(final long seed)
+    {
+        this.stream.setSeed(seed);
+    }
+
+    @Override
+    public void reset()
+    {
+        this.stream.reset();
+    }
+
+    @Override
+    public byte[] saveState() throws StreamException
+    {
+        return this.stream.saveState();
+    }
+
+    @Override
+    public void restoreState(final byte[] state) throws StreamException
+    {
+        this.stream.restoreState(state);
+    }
+
+    @Override
+    public void writeState(final DataOutput out) throws IOException
+    {
+        this.stream.writeState(out);
+    }
+
+    @Override
+    public void readState(final DataInput in) throws IOException
+    {
+        this.stream.readState(in);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "AntitheticStream[" + this.stream + (this.antithetic ? ", antithetic" : "") + "]";
+    }
+
+}
@@ -1,10 +1,19 @@
 package nl.tudelft.simulation.jstats.streams;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Objects;
+
 /**
  * The DX-120-4 pseudo random number generator. This generator is described in
  * <a href="http://www.cs.memphis.edu/~dengl/dx-rng/dengxu2002.pdf"> A System of High-dimensional, Efficient, Long-cycle and
  * Portable Uniform Random Number Generators </a>.
  * <p>
+ * The methods that draw numbers are synchronized, so the generator can be shared between threads. A stream that is only used
+ * by the thread of a simulator can use the UnsynchronizedDX120Generator, which returns the same numbers without taking a lock.
+ * </p>
+ * <p>
  * Copyright (c) 2002-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
  * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
  * project is distributed under a three-clause BSD-style license, which can be found at
@@ -27,6 +36,9 @@ public class DX120Generator extends RandomNumberGenerator
     /** the LCG multiplier. */
     private static final long MULTIPLIER = 16807;
 
+    /** the distance between two doubles of the 53-bit grid in [0,1). */
+    private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+
     /** the buffer for this generator. */
     private long[] buffer = null;
 
@@ -83,8 +95,12 @@ public class DX120Generator extends RandomNumberGenerator
         this.k23 = 2 * K / 3 - 1; // (k23 = 79)
     }
 
-    @Override
-    public synchronized long next(final int bits)
+    /**
+     * Return the next value in the stream without synchronization.
+     * @param bits int; the number of bits used
+     * @return long; the next value
+     */
+    protected final long generate(final int bits)
     {
         // u_dx4 (BB4) variant of http://www.cs.memphis.edu/~dengl/dx-rng/dx-120.c
         // note that the DX120 RNG provides 31 bits max.
@@ -111,10 +127,85 @@ public class DX120Generator extends RandomNumberGenerator
         return (this.buffer[this.index]) >>> (63 - bits);
     }
 
+    /**
+     * Return the next double in the stream without synchronization. The double is the same as the double of
+     * <code>RandomNumberGenerator.nextDouble()</code>, built from 26 bits of one value and 27 bits of the next value.
+     * @return double; the next double in [0,1)
+     */
+    protected final double generateDouble()
+    {
+        long high = generate(26);
+        long low = generate(27);
+        return ((high << 27) + low) * DOUBLE_UNIT;
+    }
+
+    /**
+     * Fill a part of an array with the next doubles in the stream without synchronization.
+     * @param buffer double[]; the array to fill
+     * @param offset int; the index of the first double in the array
+     * @param length int; the number of doubles to draw
+     * @throws IndexOutOfBoundsException when offset or length is negative, or offset + length &gt; buffer.length
+     */
+    protected final void generateDoubles(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            buffer[i] = generateDouble();
+        }
+    }
+
+    @Override
+    public synchronized long next(final int bits)
+    {
+        return generate(bits);
+    }
+
+    /**
+     * {@inheritDoc} The two values of the double are drawn while holding the lock once.
+     */
+    @Override
+    public synchronized double nextDouble()
+    {
+        return generateDouble();
+    }
+
+    @Override
+    public synchronized void nextDoubles(final double[] buffer, final int offset, final int length)
+    {
+        generateDoubles(buffer, offset, length);
+    }
+
     @Override
     public synchronized void setSeed(final long seed)
     {
         this.seed = seed;
         this.initialize();
     }
+
+    @Override
+    public synchronized void writeState(final DataOutput out) throws IOException
+    {
+        out.writeLong(this.seed);
+        out.writeInt(this.index);
+        out.writeInt(this.k13);
+        out.writeInt(this.k23);
+        for (int i = 0; i < K; i++)
+        {
+            out.writeLong(this.buffer[i]);
+        }
+    }
+
+    @Override
+    public synchronized void readState(final DataInput in) throws IOException
+    {
+        this.seed = in.readLong();
+        this.index = in.readInt();
+        this.k13 = in.readInt();
+        this.k23 = in.readInt();
+        for (int i = 0; i < K; i++)
+        {
+            this.buffer[i] = in.readLong();
+        }
+    }
 }
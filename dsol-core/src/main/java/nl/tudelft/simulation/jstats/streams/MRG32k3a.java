@@ -0,0 +1,380 @@
+package nl.tudelft.simulation.jstats.streams;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Objects;
+
+import org.djutils.exceptions.Throw;
+
+/**
+ * The MRG32k3a combined multiple recursive pseudo random number generator of Pierre L'Ecuyer, with a period of about 2^191. The
+ * generator is described in <a href="https://doi.org/10.1287/opre.47.1.159">Good Parameters and Implementations for Combined
+ * Multiple Recursive Random Number Generators</a>, Operations Research 47(1), 1999, and its streams and substreams in
+ * <a href="https://doi.org/10.1287/opre.50.6.1073.358">An Object-Oriented Random-Number Package with Many Long Streams and
+ * Substreams</a>, Operations Research 50(6), 2002. The six words of state are initialized from the seed with the SplitMix64
+ * generator.
+ * <p>
+ * As in the RngStreams package, the sequence of a seed is divided into streams of 2^127 numbers, which are divided into
+ * substreams of 2^76 numbers. The jumps are the multiplication of the state with the 2^127-th and 2^76-th power of the
+ * transition matrices of the two components, which are calculated when the class is loaded; setSubstream() multiplies the
+ * state with the powers of these matrices for the stream and substream index, by repeated squaring.
+ * </p>
+ * <p>
+ * nextDouble() returns the output of the generator, which has a resolution of 2^-32 and lies in (0,1). The methods that draw
+ * numbers are not synchronized, so a stream should only be used by one thread at a time.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public class MRG32k3a extends RandomNumberGenerator implements SplittableStreamInterface
+{
+    /** */
+    private static final long serialVersionUID = 20240101L;
+
+    /** the modulus of the first component. */
+    private static final long M1 = 4294967087L;
+
+    /** the modulus of the second component. */
+    private static final long M2 = 4294944443L;
+
+    /** the multiplier a12 of the first component. */
+    private static final long A12 = 1403580L;
+
+    /** the negated multiplier a13 of the first component. */
+    private static final long A13N = 810728L;
+
+    /** the multiplier a21 of the second component. */
+    private static final long A21 = 527612L;
+
+    /** the negated multiplier a23 of the second component. */
+    private static final long A23N = 1370589L;
+
+    /** the normalization factor 1 / (M1 + 1). */
+    private static final double NORM = 1.0 / (M1 + 1);
+
+    /** the transition matrix of the first component, over 2^76 steps. */
+    private static final long[][] A1P76;
+
+    /** the transition matrix of the second component, over 2^76 steps. */
+    private static final long[][] A2P76;
+
+    /** the transition matrix of the first component, over 2^127 steps. */
+    private static final long[][] A1P127;
+
+    /** the transition matrix of the second component, over 2^127 steps. */
+    private static final long[][] A2P127;
+
+    static
+    {
+        long[][] a1 = {{0L, 1L, 0L}, {0L, 0L, 1L}, {M1 - A13N, A12, 0L}};
+        long[][] a2 = {{0L, 1L, 0L}, {0L, 0L, 1L}, {M2 - A23N, 0L, A21}};
+        for (int i = 0; i < 76; i++)
+        {
+            a1 = multiply(a1, a1, M1);
+            a2 = multiply(a2, a2, M2);
+        }
+        A1P76 = a1;
+        A2P76 = a2;
+        for (int i = 76; i < 127; i++)
+        {
+            a1 = multiply(a1, a1, M1);
+            a2 = multiply(a2, a2, M2);
+        }
+        A1P127 = a1;
+        A2P127 = a2;
+    }
+
+    /** the state of the first component, the oldest value first. */
+    private long[] s1;
+
+    /** the state of the second component, the oldest value first. */
+    private long[] s2;
+
+    /** the state to which reset() returns the stream, the first component followed by the second component. */
+    private long[] start;
+
+    /** the index of the stream of the start state. */
+    private int streamIndex;
+
+    /** the index of the substream of the start state. */
+    private int substreamIndex;
+
+    /**
+     * Construct a new MRG32k3a generator. <code>System.currentTimeMillis()</code> is used as seed value.
+     */
+    public MRG32k3a()
+    {
+        this(System.currentTimeMillis());
+    }
+
+    /**
+     * Construct a new MRG32k3a generator with a given seed.
+     * @param seed long; the initial seed
+     */
+    public MRG32k3a(final long seed)
+    {
+        super(seed);
+    }
+
+    @Override
+    public void setSeed(final long seed)
+    {
+        this.seed = seed;
+        this.start = new long[6];
+        long x = seed;
+        while (isZero(this.start, 0) || isZero(this.start, 3))
+        {
+            for (int i = 0; i < 6; i++)
+            {
+                // SplitMix64
+                x += 0x9e3779b97f4a7c15L;
+                long z = x;
+                z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+                z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+                this.start[i] = Long.remainderUnsigned(z ^ (z >>> 31), i < 3 ? M1 : M2);
+            }
+        }
+        this.streamIndex = 0;
+        this.substreamIndex = 0;
+        reset();
+    }
+
+    /**
+     * Return whether the three words of a component of a state are zero.
+     * @param state long[]; the state
+     * @param from int; the index of the first word of the component
+     * @return boolean; whether the three words of the component are zero
+     */
+    private static boolean isZero(final long[] state, final int from)
+    {
+        return state[from] == 0L && state[from + 1] == 0L && state[from + 2] == 0L;
+    }
+
+    @Override
+    public void reset()
+    {
+        this.s1 = new long[] {this.start[0], this.start[1], this.start[2]};
+        this.s2 = new long[] {this.start[3], this.start[4], this.start[5]};
+    }
+
+    /**
+     * Return the next output of the generator in (0,1), and advance the state.
+     * @return double; the next output
+     */
+    private double nextOutput()
+    {
+        long p1 = (A12 * this.s1[1] - A13N * this.s1[0]) % M1;
+        if (p1 < 0)
+        {
+            p1 += M1;
+        }
+        this.s1[0] = this.s1[1];
+        this.s1[1] = this.s1[2];
+        this.s1[2] = p1;
+        long p2 = (A21 * this.s2[2] - A23N * this.s2[0]) % M2;
+        if (p2 < 0)
+        {
+            p2 += M2;
+        }
+        this.s2[0] = this.s2[1];
+        this.s2[1] = this.s2[2];
+        this.s2[2] = p2;
+        return (p1 > p2 ? p1 - p2 : p1 - p2 + M1) * NORM;
+    }
+
+    @Override
+    public long next(final int bits)
+    {
+        if (bits < 0 || bits > 64)
+        {
+            throw new IllegalArgumentException("bits (" + bits + ") not in range [0,64]");
+        }
+        if (bits > 32)
+        {
+            return (next(32) << (bits - 32)) | next(bits - 32);
+        }
+        return (long) (nextOutput() * (1L << bits));
+    }
+
+    @Override
+    public double nextDouble()
+    {
+        return nextOutput();
+    }
+
+    @Override
+    public void nextDoubles(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            buffer[i] = nextOutput();
+        }
+    }
+
+    @Override
+    public void setSubstream(final int stream, final int substream)
+    {
+        Throw.when(stream < 0 || substream < 0, IllegalArgumentException.class,
+                "stream (%d) and substream (%d) cannot be negative", stream, substream);
+        setSeed(this.seed);
+        long[] v1 = {this.start[0], this.start[1], this.start[2]};
+        long[] v2 = {this.start[3], this.start[4], this.start[5]};
+        v1 = multiply(power(A1P127, stream, M1), v1, M1);
+        v2 = multiply(power(A2P127, stream, M2), v2, M2);
+        v1 = multiply(power(A1P76, substream, M1), v1, M1);
+        v2 = multiply(power(A2P76, substream, M2), v2, M2);
+        this.start = new long[] {v1[0], v1[1], v1[2], v2[0], v2[1], v2[2]};
+        this.streamIndex = stream;
+        this.substreamIndex = substream;
+        reset();
+    }
+
+    @Override
+    public int getStreamIndex()
+    {
+        return this.streamIndex;
+    }
+
+    @Override
+    public int getSubstreamIndex()
+    {
+        return this.substreamIndex;
+    }
+
+    @Override
+    public void jump()
+    {
+        this.s1 = multiply(A1P76, this.s1, M1);
+        this.s2 = multiply(A2P76, this.s2, M2);
+    }
+
+    @Override
+    public MRG32k3a split()
+    {
+        MRG32k3a stream = new MRG32k3a(getOriginalSeed());
+        stream.setSeed(this.seed);
+        stream.start = new long[] {this.s1[0], this.s1[1], this.s1[2], this.s2[0], this.s2[1], this.s2[2]};
+        stream.reset();
+        this.s1 = multiply(A1P127, this.s1, M1);
+        this.s2 = multiply(A2P127, this.s2, M2);
+        return stream;
+    }
+
+    @Override
+    public void writeState(final DataOutput out) throws IOException
+    {
+        out.writeLong(this.seed);
+        out.writeInt(this.streamIndex);
+        out.writeInt(this.substreamIndex);
+        for (long word : this.start)
+        {
+            out.writeLong(word);
+        }
+        for (int i = 0; i < 3; i++)
+        {
+            out.writeLong(this.s1[i]);
+            out.writeLong(this.s2[i]);
+        }
+    }
+
+    @Override
+    public void readState(final DataInput in) throws IOException
+    {
+        this.seed = in.readLong();
+        this.streamIndex = in.readInt();
+        this.substreamIndex = in.readInt();
+        this.start = new long[6];
+        for (int i = 0; i < this.start.length; i++)
+        {
+            this.start[i] = in.readLong();
+        }
+        this.s1 = new long[3];
+        this.s2 = new long[3];
+        for (int i = 0; i < 3; i++)
+        {
+            this.s1[i] = in.readLong();
+            this.s2[i] = in.readLong();
+        }
+    }
+
+    /**
+     * Multiply two values modulo m, of which the product can exceed the range of a signed long.
+     * @param a long; the first value, 0 &lt;= a &lt; m
+     * @param b long; the second value, 0 &lt;= b &lt; m
+     * @param m long; the modulus, m &lt; 2^32
+     * @return long; a * b mod m
+     */
+    private static long multiplyMod(final long a, final long b, final long m)
+    {
+        return Long.remainderUnsigned(a * b, m);
+    }
+
+    /**
+     * Multiply a 3x3 matrix with a vector modulo m.
+     * @param a long[][]; the matrix
+     * @param v long[]; the vector
+     * @param m long; the modulus
+     * @return long[]; the product a * v mod m
+     */
+    private static long[] multiply(final long[][] a, final long[] v, final long m)
+    {
+        long[] result = new long[3];
+        for (int i = 0; i < 3; i++)
+        {
+            result[i] = (multiplyMod(a[i][0], v[0], m) + multiplyMod(a[i][1], v[1], m) + multiplyMod(a[i][2], v[2], m)) % m;
+        }
+        return result;
+    }
+
+    /**
+     * Multiply two 3x3 matrices modulo m.
+     * @param a long[][]; the first matrix
+     * @param b long[][]; the second matrix
+     * @param m long; the modulus
+     * @return long[][]; the product a * b mod m
+     */
+    private static long[][] multiply(final long[][] a, final long[][] b, final long m)
+    {
+        long[][] result = new long[3][3];
+        for (int i = 0; i < 3; i++)
+        {
+            for (int j = 0; j < 3; j++)
+            {
+                result[i][j] =
+                        (multiplyMod(a[i][0], b[0][j], m) + multiplyMod(a[i][1], b[1][j], m) + multiplyMod(a[i][2], b[2][j], m))
+                                % m;
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Return the power of a 3x3 matrix modulo m, by repeated squaring.
+     * @param a long[][]; the matrix
+     * @param exponent int; the exponent, 0 or more
+     * @param m long; the modulus
+     * @return long[][]; a^exponent mod m
+     */
+    private static long[][] power(final long[][] a, final int exponent, final long m)
+    {
+        long[][] result = {{1L, 0L, 0L}, {0L, 1L, 0L}, {0L, 0L, 1L}};
+        long[][] square = a;
+        for (int e = exponent; e > 0; e >>>= 1)
+        {
+            if ((e & 1) != 0)
+            {
+                result = multiply(square, result, m);
+            }
+            square = multiply(square, square, m);
+        }
+        return result;
+    }
+}
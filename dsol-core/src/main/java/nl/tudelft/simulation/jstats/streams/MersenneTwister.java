@@ -1,5 +1,10 @@
 package nl.tudelft.simulation.jstats.streams;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Objects;
+
 /**
  * A java implementation of the Mersenne Twister pseudo random number generator.
  * <p>
@@ -14,6 +19,11 @@ package nl.tudelft.simulation.jstats.streams;
  * <a href="https://en.wikipedia.org/wiki/Mersenne_Twister"> https://en.wikipedia.org/wiki/Mersenne_Twister</a>.
  * </p>
  * <p>
+ * The methods that draw numbers are synchronized, so the generator can be shared between threads. A stream that is only used
+ * by the thread of a simulator can use the UnsynchronizedMersenneTwister, which returns the same numbers without taking a lock.
+ * The bulk method <code>nextDoubles</code> converts whole blocks of 624 words into doubles, two words per double.
+ * </p>
+ * <p>
  * Copyright (c) 2002-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
  * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
  * project is distributed under a three-clause BSD-style license, which can be found at
@@ -51,6 +61,9 @@ public class MersenneTwister extends RandomNumberGenerator
     /** unsigned mask for promoting int -> long. */
     private static final int UMASK = (1 << 31) - 1;
 
+    /** the distance between two doubles of the 53-bit grid in [0,1). */
+    private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+
     /** the array for the state vector. */
     private int[] mt;
 
@@ -102,41 +115,140 @@ public class MersenneTwister extends RandomNumberGenerator
         this.mag01[1] = MATRIX_A;
     }
 
-    @Override
-    public synchronized long next(final int bits)
+    /**
+     * Generate the next block of N words of the state vector.
+     */
+    private void generateBlock()
     {
-        if (bits < 0 || bits > 64)
+        int y;
+        int kk;
+        for (kk = 0; kk < N - M; kk++)
         {
-            throw new IllegalArgumentException("bits (" + bits + ") not in range [0,64]");
+            y = (this.mt[kk] & UPPER_MASK) | (this.mt[kk + 1] & LOWER_MASK);
+            this.mt[kk] = this.mt[kk + M] ^ (y >>> 1) ^ this.mag01[y & 0x1];
         }
-        int y;
-        if (this.mti >= N) // generate N words at one time
+        for (; kk < N - 1; kk++)
         {
-            int kk;
-            for (kk = 0; kk < N - M; kk++)
-            {
-                y = (this.mt[kk] & UPPER_MASK) | (this.mt[kk + 1] & LOWER_MASK);
-                this.mt[kk] = this.mt[kk + M] ^ (y >>> 1) ^ this.mag01[y & 0x1];
-            }
-            for (; kk < N - 1; kk++)
-            {
-                y = (this.mt[kk] & UPPER_MASK) | (this.mt[kk + 1] & LOWER_MASK);
-                this.mt[kk] = this.mt[kk + (M - N)] ^ (y >>> 1) ^ this.mag01[y & 0x1];
-            }
-            y = (this.mt[N - 1] & UPPER_MASK) | (this.mt[0] & LOWER_MASK);
-            this.mt[N - 1] = this.mt[M - 1] ^ (y >>> 1) ^ this.mag01[y & 0x1];
-            this.mti = 0;
+            y = (this.mt[kk] & UPPER_MASK) | (this.mt[kk + 1] & LOWER_MASK);
+            this.mt[kk] = this.mt[kk + (M - N)] ^ (y >>> 1) ^ this.mag01[y & 0x1];
         }
-        y = this.mt[this.mti++];
+        y = (this.mt[N - 1] & UPPER_MASK) | (this.mt[0] & LOWER_MASK);
+        this.mt[N - 1] = this.mt[M - 1] ^ (y >>> 1) ^ this.mag01[y & 0x1];
+        this.mti = 0;
+    }
+
+    /**
+     * Temper a word of the state vector.
+     * @param word int; the word of the state vector
+     * @return int; the tempered word
+     */
+    private static int temper(final int word)
+    {
+        int y = word;
         y ^= y >>> 11; // TEMPERING_SHIFT_U(y)
         y ^= (y << 7) & TEMPERING_MASK_B; // TEMPERING_SHIFT_S(y)
         y ^= (y << 15) & TEMPERING_MASK_C; // TEMPERING_SHIFT_T(y)
         y ^= (y >>> 18); // TEMPERING_SHIFT_L(y)
+        return y;
+    }
+
+    /**
+     * Return the next tempered word, and generate a new block of words when the current block has been used.
+     * @return int; the next tempered word
+     */
+    private int nextWord()
+    {
+        if (this.mti >= N) // generate N words at one time
+        {
+            generateBlock();
+        }
+        return temper(this.mt[this.mti++]);
+    }
+
+    /**
+     * Return the next value in the stream without synchronization.
+     * @param bits int; the number of bits used
+     * @return long; the next value
+     */
+    protected final long generate(final int bits)
+    {
+        if (bits < 0 || bits > 64)
+        {
+            throw new IllegalArgumentException("bits (" + bits + ") not in range [0,64]");
+        }
+        int y = nextWord();
         if (bits <= 32)
         {
             return y >>> (32 - bits);
         }
-        return y << 32 + this.next(bits - 32);
+        return y << 32 + this.generate(bits - 32);
+    }
+
+    /**
+     * Return the next double in the stream without synchronization. The double is the same as the double of
+     * <code>RandomNumberGenerator.nextDouble()</code>, built from 26 bits of one word and 27 bits of the next word.
+     * @return double; the next double in [0,1)
+     */
+    protected final double generateDouble()
+    {
+        long high = nextWord() >>> 6;
+        long low = nextWord() >>> 5;
+        return ((high << 27) + low) * DOUBLE_UNIT;
+    }
+
+    /**
+     * Fill a part of an array with the next doubles in the stream without synchronization. The words of the current block are
+     * converted in one loop, without a check for the end of the block per word.
+     * @param buffer double[]; the array to fill
+     * @param offset int; the index of the first double in the array
+     * @param length int; the number of doubles to draw
+     * @throws IndexOutOfBoundsException when offset or length is negative, or offset + length &gt; buffer.length
+     */
+    protected final void generateDoubles(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        int i = offset;
+        int end = offset + length;
+        while (i < end)
+        {
+            if (this.mti >= N - 1)
+            {
+                // the two words of this double are in different blocks
+                buffer[i++] = generateDouble();
+                continue;
+            }
+            int[] state = this.mt;
+            int k = this.mti;
+            int count = Math.min((N - k) / 2, end - i);
+            for (int c = 0; c < count; c++)
+            {
+                long high = temper(state[k++]) >>> 6;
+                long low = temper(state[k++]) >>> 5;
+                buffer[i++] = ((high << 27) + low) * DOUBLE_UNIT;
+            }
+            this.mti = k;
+        }
+    }
+
+    @Override
+    public synchronized long next(final int bits)
+    {
+        return generate(bits);
+    }
+
+    /**
+     * {@inheritDoc} The two words of the double are drawn while holding the lock once.
+     */
+    @Override
+    public synchronized double nextDouble()
+    {
+        return generateDouble();
+    }
+
+    @Override
+    public synchronized void nextDoubles(final double[] buffer, final int offset, final int length)
+    {
+        generateDoubles(buffer, offset, length);
     }
 
     @Override
@@ -145,4 +257,26 @@ public class MersenneTwister extends RandomNumberGenerator
         super.seed = seed;
         this.initialize();
     }
+
+    @Override
+    public synchronized void writeState(final DataOutput out) throws IOException
+    {
+        out.writeLong(super.seed);
+        out.writeInt(this.mti);
+        for (int i = 0; i < N; i++)
+        {
+            out.writeInt(this.mt[i]);
+        }
+    }
+
+    @Override
+    public synchronized void readState(final DataInput in) throws IOException
+    {
+        super.seed = in.readLong();
+        this.mti = in.readInt();
+        for (int i = 0; i < N; i++)
+        {
+            this.mt[i] = in.readInt();
+        }
+    }
 }
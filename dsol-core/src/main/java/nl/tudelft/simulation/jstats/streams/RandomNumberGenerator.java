@@ -87,8 +87,12 @@ public abstract class RandomNumberGenerator implements StreamInterface
         return (int) this.next(32);
     }
 
+    /**
+     * {@inheritDoc} The method is not synchronized; it draws a single double, which is drawn atomically by the synchronized
+     * generators.
+     */
     @Override
-    public synchronized int nextInt(final int i, final int j)
+    public int nextInt(final int i, final int j)
     {
         if (i < 0 || j <= 0 || i >= j)
         {
@@ -0,0 +1,55 @@
+package nl.tudelft.simulation.jstats.streams;
+
+/**
+ * The SplittableStreamInterface defines a stream of which the sequence of numbers for a seed is divided into streams, which are
+ * divided into substreams. Streams and substreams do not overlap, as long as no more numbers are drawn from a substream than
+ * its length. The start of a substream can be reached from the state of the seed in a number of steps that is logarithmic in
+ * the index of the stream and the substream, so every stream of a model and every replication can be given its own substream
+ * in (nearly) constant time, e.g., with the SubstreamUpdater of the experiment package.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public interface SplittableStreamInterface extends StreamInterface
+{
+    /**
+     * Set the state of the stream to the start of a substream of a stream, counted from the state of the current seed. After
+     * this, reset() returns the stream to the start of the substream, and setSeed() returns the stream to substream 0 of
+     * stream 0 of the new seed.
+     * @param streamIndex int; the index of the stream, 0 or more
+     * @param substreamIndex int; the index of the substream within the stream, 0 or more
+     * @throws IllegalArgumentException when streamIndex or substreamIndex is negative
+     */
+    void setSubstream(int streamIndex, int substreamIndex);
+
+    /**
+     * Return the index of the stream of the last call of setSubstream(), or 0 after setSeed().
+     * @return int; the index of the stream
+     */
+    int getStreamIndex();
+
+    /**
+     * Return the index of the substream of the last call of setSubstream(), or 0 after setSeed().
+     * @return int; the index of the substream within the stream
+     */
+    int getSubstreamIndex();
+
+    /**
+     * Advance the state of the stream by the length of a substream. The state to which reset() returns the stream, and the
+     * indices of the stream and substream, do not change.
+     */
+    void jump();
+
+    /**
+     * Split off a new stream that starts at the current state of this stream, and advance the state of this stream by the
+     * length of a stream, so the numbers of the two streams do not overlap for the length of a stream. The new stream has the
+     * same seed, and its reset() returns it to the state at which it was split off.
+     * @return SplittableStreamInterface; the new stream
+     */
+    SplittableStreamInterface split();
+}
@@ -1,6 +1,10 @@
 package nl.tudelft.simulation.jstats.streams;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.io.Serializable;
+import java.util.Objects;
 
 /**
  * The StreamInterface defines the streams to be used within the JSTATS package. Potential implementations include the pseudo
@@ -29,6 +33,26 @@ public interface StreamInterface extends Serializable
      */
     double nextDouble();
 
+    /**
+     * Fill a part of an array with pseudo-random numbers from the stream over the interval (0,1), after advancing the state of
+     * the stream by one step per number. The numbers are the same as the numbers of <code>length</code> successive calls of
+     * <code>nextDouble()</code>, so a model can switch between single and bulk draws without changing its results. Generators
+     * override this method to draw the numbers without a method call or lock per number.
+     * @param buffer double[]; the array to fill
+     * @param offset int; the index of the first number in the array
+     * @param length int; the number of pseudo-random numbers to draw
+     * @throws NullPointerException when buffer is null
+     * @throws IndexOutOfBoundsException when offset or length is negative, or offset + length &gt; buffer.length
+     */
+    default void nextDoubles(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            buffer[i] = nextDouble();
+        }
+    }
+
     /**
      * Return a pseudo-random number from the stream over the interval (0,1) using this stream, after advancing its
      * state by one step.
@@ -92,4 +116,44 @@ public interface StreamInterface extends Serializable
      * @throws StreamException when resetting the state fails.
      */
     void restoreState(byte[] state) throws StreamException;
+
+    /**
+     * Write the seed and the state of the RNG in a compact binary form, e.g., for a snapshot of a simulation. The default
+     * implementation writes the bytes of saveState(); the generators of this package override it to write the fields of their
+     * state directly. The state can be read again with readState() by a generator of the same class.
+     * @param out DataOutput; the output to write the state to
+     * @throws IOException when writing the state fails
+     */
+    default void writeState(final DataOutput out) throws IOException
+    {
+        try
+        {
+            byte[] state = saveState();
+            out.writeInt(state.length);
+            out.write(state);
+        }
+        catch (StreamException exception)
+        {
+            throw new IOException(exception);
+        }
+    }
+
+    /**
+     * Read the seed and the state of the RNG that have been written with writeState() by a generator of the same class.
+     * @param in DataInput; the input to read the state from
+     * @throws IOException when reading the state fails
+     */
+    default void readState(final DataInput in) throws IOException
+    {
+        try
+        {
+            byte[] state = new byte[in.readInt()];
+            in.readFully(state);
+            restoreState(state);
+        }
+        catch (StreamException exception)
+        {
+            throw new IOException(exception);
+        }
+    }
 }
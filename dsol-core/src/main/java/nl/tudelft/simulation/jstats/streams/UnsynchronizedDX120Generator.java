@@ -0,0 +1,55 @@
+package nl.tudelft.simulation.jstats.streams;
+
+/**
+ * The UnsynchronizedDX120Generator is a DX-120-4 generator of which the methods that draw numbers are not synchronized. It
+ * returns the same numbers as a DX120Generator with the same seed, but it does not take a lock per number, so it should only be
+ * used by one thread at a time, e.g., as a stream of a model that is only drawn from by the thread of its simulator.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public class UnsynchronizedDX120Generator extends DX120Generator
+{
+    /** */
+    private static final long serialVersionUID = 20240101L;
+
+    /**
+     * Construct a new UnsynchronizedDX120Generator. <code>System.currentTimeMillis()</code> is used as seed value.
+     */
+    public UnsynchronizedDX120Generator()
+    {
+        this(System.currentTimeMillis());
+    }
+
+    /**
+     * Construct a new UnsynchronizedDX120Generator with a given seed.
+     * @param seed long; the initial seed
+     */
+    public UnsynchronizedDX120Generator(final long seed)
+    {
+        super(seed);
+    }
+
+    @Override
+    public long next(final int bits)
+    {
+        return generate(bits);
+    }
+
+    @Override
+    public double nextDouble()
+    {
+        return generateDouble();
+    }
+
+    @Override
+    public void nextDoubles(final double[] buffer, final int offset, final int length)
+    {
+        generateDoubles(buffer, offset, length);
+    }
+}
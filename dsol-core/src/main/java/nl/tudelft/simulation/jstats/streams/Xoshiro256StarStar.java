@@ -0,0 +1,415 @@
+package nl.tudelft.simulation.jstats.streams;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Objects;
+
+import org.djutils.exceptions.Throw;
+
+/**
+ * The xoshiro256** pseudo random number generator of David Blackman and Sebastiano Vigna, with a period of 2^256-1. The
+ * generator is described in <a href="https://doi.org/10.1145/3460772">Scrambled Linear Pseudorandom Number Generators</a>, ACM
+ * Transactions on Mathematical Software 47(4), 2021, and at <a href="https://prng.di.unimi.it/">https://prng.di.unimi.it/</a>.
+ * The 256 bits of state are initialized from the seed with the SplitMix64 generator.
+ * <p>
+ * The sequence of a seed is divided into streams of 2^192 numbers, which are divided into substreams of 2^128 numbers. The
+ * jump to the next substream and the split to the next stream use the jump polynomials of the authors. Because the state
+ * transition is linear over GF(2), the jump over 2^i substreams or streams is a 256x256 bit matrix; the matrices for i &lt; 31
+ * are calculated once, when setSubstream() is first called, so setSubstream() applies at most 62 matrices to the state.
+ * </p>
+ * <p>
+ * Every draw uses one 64-bit output of the generator, so nextDouble() returns a multiple of 2^-53 in [0,1). The methods that
+ * draw numbers are not synchronized, so a stream should only be used by one thread at a time.
+ * </p>
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ * @since 4.2.3
+ */
+public class Xoshiro256StarStar extends RandomNumberGenerator implements SplittableStreamInterface
+{
+    /** */
+    private static final long serialVersionUID = 20240101L;
+
+    /** the jump polynomial for 2^128 numbers, the length of a substream. */
+    private static final long[] JUMP = {0x180ec6d33cfd0abaL, 0xd5a61266f0c9392cL, 0xa9582618e03fc9aaL, 0x39abdc4529b1661cL};
+
+    /** the jump polynomial for 2^192 numbers, the length of a stream. */
+    private static final long[] LONG_JUMP =
+            {0x76e15d3efefdcbbfL, 0xc5004e441c522fb3L, 0x77710069854ee241L, 0x39109bb02acbe635L};
+
+    /** the number of bits of the state. */
+    private static final int STATE_BITS = 256;
+
+    /** the distance between two doubles of the 53-bit grid in [0,1). */
+    private static final double DOUBLE_UNIT = 1.0 / (1L << 53);
+
+    /** the distance between two floats of the 24-bit grid in [0,1). */
+    private static final float FLOAT_UNIT = 1.0f / (1 << 24);
+
+    /** the first word of the state. */
+    private long s0;
+
+    /** the second word of the state. */
+    private long s1;
+
+    /** the third word of the state. */
+    private long s2;
+
+    /** the fourth word of the state. */
+    private long s3;
+
+    /** the state to which reset() returns the stream. */
+    private long[] start;
+
+    /** the index of the stream of the start state. */
+    private int streamIndex;
+
+    /** the index of the substream of the start state. */
+    private int substreamIndex;
+
+    /**
+     * Construct a new xoshiro256** generator. <code>System.currentTimeMillis()</code> is used as seed value.
+     */
+    public Xoshiro256StarStar()
+    {
+        this(System.currentTimeMillis());
+    }
+
+    /**
+     * Construct a new xoshiro256** generator with a given seed.
+     * @param seed long; the initial seed
+     */
+    public Xoshiro256StarStar(final long seed)
+    {
+        super(seed);
+    }
+
+    @Override
+    public void setSeed(final long seed)
+    {
+        this.seed = seed;
+        long x = seed;
+        this.start = new long[4];
+        for (int i = 0; i < 4; i++)
+        {
+            // SplitMix64
+            x += 0x9e3779b97f4a7c15L;
+            long z = x;
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            this.start[i] = z ^ (z >>> 31);
+        }
+        this.streamIndex = 0;
+        this.substreamIndex = 0;
+        reset();
+    }
+
+    @Override
+    public void reset()
+    {
+        setState(this.start);
+    }
+
+    /**
+     * Return the next 64-bit output of the generator, and advance the state.
+     * @return long; the next output
+     */
+    private long nextOutput()
+    {
+        long result = Long.rotateLeft(this.s1 * 5, 7) * 9;
+        long t = this.s1 << 17;
+        this.s2 ^= this.s0;
+        this.s3 ^= this.s1;
+        this.s1 ^= this.s2;
+        this.s0 ^= this.s3;
+        this.s2 ^= t;
+        this.s3 = Long.rotateLeft(this.s3, 45);
+        return result;
+    }
+
+    @Override
+    public long next(final int bits)
+    {
+        if (bits < 0 || bits > 64)
+        {
+            throw new IllegalArgumentException("bits (" + bits + ") not in range [0,64]");
+        }
+        return bits == 0 ? 0L : nextOutput() >>> (64 - bits);
+    }
+
+    @Override
+    public boolean nextBoolean()
+    {
+        return nextOutput() < 0L;
+    }
+
+    @Override
+    public double nextDouble()
+    {
+        return (nextOutput() >>> 11) * DOUBLE_UNIT;
+    }
+
+    @Override
+    public void nextDoubles(final double[] buffer, final int offset, final int length)
+    {
+        Objects.checkFromIndexSize(offset, length, buffer.length);
+        for (int i = offset; i < offset + length; i++)
+        {
+            buffer[i] = (nextOutput() >>> 11) * DOUBLE_UNIT;
+        }
+    }
+
+    @Override
+    public float nextFloat()
+    {
+        return (nextOutput() >>> 40) * FLOAT_UNIT;
+    }
+
+    @Override
+    public int nextInt()
+    {
+        return (int) (nextOutput() >>> 32);
+    }
+
+    @Override
+    public long nextLong()
+    {
+        return nextOutput();
+    }
+
+    @Override
+    public void setSubstream(final int stream, final int substream)
+    {
+        Throw.when(stream < 0 || substream < 0, IllegalArgumentException.class,
+                "stream (%d) and substream (%d) cannot be negative", stream, substream);
+        setSeed(this.seed);
+        long[] state = getState();
+        applyPowers(JumpMatrices.STREAM, stream, state);
+        applyPowers(JumpMatrices.SUBSTREAM, substream, state);
+        this.start = state;
+        this.streamIndex = stream;
+        this.substreamIndex = substream;
+        reset();
+    }
+
+    @Override
+    public int getStreamIndex()
+    {
+        return this.streamIndex;
+    }
+
+    @Override
+    public int getSubstreamIndex()
+    {
+        return this.substreamIndex;
+    }
+
+    @Override
+    public void jump()
+    {
+        long[] state = getState();
+        jump(state, JUMP);
+        setState(state);
+    }
+
+    @Override
+    public Xoshiro256StarStar split()
+    {
+        Xoshiro256StarStar stream = new Xoshiro256StarStar(getOriginalSeed());
+        stream.setSeed(this.seed);
+        stream.start = getState();
+        stream.reset();
+        long[] state = getState();
+        jump(state, LONG_JUMP);
+        setState(state);
+        return stream;
+    }
+
+    @Override
+    public void writeState(final DataOutput out) throws IOException
+    {
+        out.writeLong(this.seed);
+        out.writeInt(this.streamIndex);
+        out.writeInt(this.substreamIndex);
+        for (long word : this.start)
+        {
+            out.writeLong(word);
+        }
+        for (long word : getState())
+        {
+            out.writeLong(word);
+        }
+    }
+
+    @Override
+    public void readState(final DataInput in) throws IOException
+    {
+        this.seed = in.readLong();
+        this.streamIndex = in.readInt();
+        this.substreamIndex = in.readInt();
+        long[] state = new long[4];
+        for (int i = 0; i < state.length; i++)
+        {
+            state[i] = in.readLong();
+        }
+        this.start = state;
+        state = new long[4];
+        for (int i = 0; i < state.length; i++)
+        {
+            state[i] = in.readLong();
+        }
+        setState(state);
+    }
+
+    /**
+     * Return a copy of the state.
+     * @return long[]; the four words of the state
+     */
+    private long[] getState()
+    {
+        return new long[] {this.s0, this.s1, this.s2, this.s3};
+    }
+
+    /**
+     * Set the state.
+     * @param state long[]; the four words of the state
+     */
+    private void setState(final long[] state)
+    {
+        this.s0 = state[0];
+        this.s1 = state[1];
+        this.s2 = state[2];
+        this.s3 = state[3];
+    }
+
+    /**
+     * Advance a state by one step of the linear state transition.
+     * @param state long[]; the four words of the state, which are changed
+     */
+    private static void step(final long[] state)
+    {
+        long t = state[1] << 17;
+        state[2] ^= state[0];
+        state[3] ^= state[1];
+        state[1] ^= state[2];
+        state[0] ^= state[3];
+        state[2] ^= t;
+        state[3] = Long.rotateLeft(state[3], 45);
+    }
+
+    /**
+     * Advance a state with a jump polynomial.
+     * @param state long[]; the four words of the state, which are changed
+     * @param polynomial long[]; the jump polynomial
+     */
+    private static void jump(final long[] state, final long[] polynomial)
+    {
+        long[] result = new long[4];
+        for (long word : polynomial)
+        {
+            for (int b = 0; b < 64; b++)
+            {
+                if ((word & (1L << b)) != 0)
+                {
+                    for (int w = 0; w < 4; w++)
+                    {
+                        result[w] ^= state[w];
+                    }
+                }
+                step(state);
+            }
+        }
+        System.arraycopy(result, 0, state, 0, 4);
+    }
+
+    /**
+     * Apply the powers of a jump matrix for the set bits of a number of jumps to a state.
+     * @param powers long[][][]; the matrices of 2^i jumps
+     * @param jumps int; the number of jumps
+     * @param state long[]; the four words of the state, which are changed
+     */
+    private static void applyPowers(final long[][][] powers, final int jumps, final long[] state)
+    {
+        for (int i = 0; i < powers.length; i++)
+        {
+            if ((jumps & (1 << i)) != 0)
+            {
+                System.arraycopy(multiply(powers[i], state), 0, state, 0, 4);
+            }
+        }
+    }
+
+    /**
+     * Multiply a bit matrix with a bit vector over GF(2).
+     * @param matrix long[][]; the columns of the matrix, each with four words
+     * @param vector long[]; the four words of the vector
+     * @return long[]; the four words of the product
+     */
+    private static long[] multiply(final long[][] matrix, final long[] vector)
+    {
+        long[] result = new long[4];
+        for (int j = 0; j < STATE_BITS; j++)
+        {
+            if ((vector[j >>> 6] & (1L << (j & 63))) != 0)
+            {
+                long[] column = matrix[j];
+                for (int w = 0; w < 4; w++)
+                {
+                    result[w] ^= column[w];
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Calculate the matrices of 2^i jumps with a jump polynomial, for i &lt; 31.
+     * @param polynomial long[]; the jump polynomial
+     * @return long[][][]; the matrices of 2^i jumps, of which every column is the jump of a unit vector
+     */
+    private static long[][][] powers(final long[] polynomial)
+    {
+        long[][][] powers = new long[31][][];
+        powers[0] = new long[STATE_BITS][];
+        for (int j = 0; j < STATE_BITS; j++)
+        {
+            long[] unit = new long[4];
+            unit[j >>> 6] = 1L << (j & 63);
+            jump(unit, polynomial);
+            powers[0][j] = unit;
+        }
+        for (int i = 1; i < powers.length; i++)
+        {
+            powers[i] = new long[STATE_BITS][];
+            for (int j = 0; j < STATE_BITS; j++)
+            {
+                powers[i][j] = multiply(powers[i - 1], powers[i - 1][j]);
+            }
+        }
+        return powers;
+    }
+
+    /**
+     * The matrices of 2^i jumps over substreams and streams, which are calculated when the class is first used.
+     */
+    private static final class JumpMatrices
+    {
+        /** the matrices of 2^i substreams. */
+        static final long[][][] SUBSTREAM = powers(JUMP);
+
+        /** the matrices of 2^i streams. */
+        static final long[][][] STREAM = powers(LONG_JUMP);
+
+        /** */
+        private JumpMatrices()
+        {
+            // utility class
+        }
+    }
+}
@@ -3,6 +3,8 @@ package nl.tudelft.simulation.dsol.eventList;
 import java.util.ArrayList;
 import java.util.List;
 
+import nl.tudelft.simulation.dsol.eventlists.EventListBinaryHeap;
+import nl.tudelft.simulation.dsol.eventlists.EventListCalendarQueue;
 import nl.tudelft.simulation.dsol.eventlists.EventListInterface;
 import nl.tudelft.simulation.dsol.eventlists.EventListPriorityQueue;
 import nl.tudelft.simulation.dsol.eventlists.RedBlackTree;
@@ -23,28 +25,36 @@ import nl.tudelft.simulation.jstats.streams.StreamInterface;
  */
 public final class EventListPerformanceTest
 {
+    /** every how many events an event is cancelled. */
+    private static final int CANCEL_INTERVAL = 10;
+
+    /** the maximum number of cancelled events (the priority queue has an O(n) remove). */
+    private static final int MAX_CANCEL = 1000;
+
     /** test eventlist. */
     @SuppressWarnings({"unchecked", "rawtypes"})
     private EventListPerformanceTest()
     {
         Test test = new Test();
         List<String[]> results = new ArrayList<>();
-        EventListInterface[] testLists = {new RedBlackTree<Double>(), new EventListPriorityQueue<Double>()};
-        String[] line = new String[2 * testLists.length + 1];
+        EventListInterface[] testLists = {new RedBlackTree<Double>(), new EventListPriorityQueue<Double>(),
+                new EventListBinaryHeap<Double>(), new EventListCalendarQueue<Double>()};
+        String[] line = new String[3 * testLists.length + 1];
         results.add(line);
         line[0] = "nr_events";
         int eventlistCount = 1;
         for (EventListInterface<Double> elist : testLists)
         {
             line[eventlistCount] = elist.getClass().getSimpleName() + ".add";
-            line[eventlistCount + 1] = elist.getClass().getSimpleName() + ".exec";
-            eventlistCount += 2;
+            line[eventlistCount + 1] = elist.getClass().getSimpleName() + ".cancel";
+            line[eventlistCount + 2] = elist.getClass().getSimpleName() + ".exec";
+            eventlistCount += 3;
         }
 
         for (int max : new int[] {100, 1000, 10000, 100_000, 1_000_000})
         {
             System.out.println("Testing with #events = " + max);
-            line = new String[2 * testLists.length + 1];
+            line = new String[3 * testLists.length + 1];
             results.add(line);
             line[0] = Integer.toString(max);
             eventlistCount = 1;
@@ -53,19 +63,31 @@ public final class EventListPerformanceTest
                 long t0 = System.currentTimeMillis();
                 StreamInterface stream = new MersenneTwister(42 + max);
                 DistUniform dist = new DistUniform(stream, 1.0, 1000.0);
+                List<SimEvent<Double>> cancelList = new ArrayList<>();
                 for (int i = 0; i < max; i++)
                 {
-                    elist.add(new SimEvent<Double>(dist.draw(), test, "mArg1", new Object[] {12.7}));
+                    SimEvent<Double> event = new SimEvent<Double>(dist.draw(), test, "mArg1", new Object[] {12.7});
+                    elist.add(event);
+                    if (i % CANCEL_INTERVAL == 0 && cancelList.size() < MAX_CANCEL)
+                    {
+                        cancelList.add(event);
+                    }
                 }
                 long t1 = System.currentTimeMillis();
                 line[eventlistCount] = Double.toString((t1 - t0) / 1000.0);
-                while (!elist.isEmpty())
+                for (SimEvent<Double> event : cancelList)
                 {
-                    elist.removeFirst().execute();
+                    elist.remove(event);
                 }
                 long t2 = System.currentTimeMillis();
                 line[eventlistCount + 1] = Double.toString((t2 - t1) / 1000.0);
-                eventlistCount += 2;
+                while (!elist.isEmpty())
+                {
+                    elist.removeFirst().execute();
+                }
+                long t3 = System.currentTimeMillis();
+                line[eventlistCount + 2] = Double.toString((t3 - t2) / 1000.0);
+                eventlistCount += 3;
             }
         }
         System.out.println();
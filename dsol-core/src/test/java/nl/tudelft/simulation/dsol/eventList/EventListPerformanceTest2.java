@@ -1,5 +1,7 @@
 package nl.tudelft.simulation.dsol.eventList;
 
+import nl.tudelft.simulation.dsol.eventlists.EventListBinaryHeap;
+import nl.tudelft.simulation.dsol.eventlists.EventListCalendarQueue;
 import nl.tudelft.simulation.dsol.eventlists.EventListInterface;
 import nl.tudelft.simulation.dsol.eventlists.EventListPriorityQueue;
 import nl.tudelft.simulation.dsol.eventlists.RedBlackTree;
@@ -24,7 +26,8 @@ public final class EventListPerformanceTest2
     @SuppressWarnings({"unchecked", "rawtypes"})
     private EventListPerformanceTest2()
     {
-        EventListInterface[] testLists = {new RedBlackTree<Double>(), new EventListPriorityQueue<Double>()};
+        EventListInterface[] testLists = {new RedBlackTree<Double>(), new EventListPriorityQueue<Double>(),
+                new EventListBinaryHeap<Double>(), new EventListCalendarQueue<Double>()};
         Test test = new Test();
         int max = 1_000_000;
         for (EventListInterface<Double> elist : testLists)
@@ -6,11 +6,18 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
 import org.junit.jupiter.api.Test;
 
+import nl.tudelft.simulation.dsol.eventlists.EventListBinaryHeap;
+import nl.tudelft.simulation.dsol.eventlists.EventListCalendarQueue;
 import nl.tudelft.simulation.dsol.eventlists.EventListInterface;
 import nl.tudelft.simulation.dsol.eventlists.EventListPriorityQueue;
 import nl.tudelft.simulation.dsol.eventlists.RedBlackTree;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.DoubleLambdaSimEvent;
 import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEvent;
 import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
 
@@ -35,6 +42,180 @@ public class EventListTest
     {
         testEventList(new RedBlackTree<>());
         testEventList(new EventListPriorityQueue<>());
+        testEventList(new EventListBinaryHeap<>());
+        testEventList(new EventListBinaryHeap<>(1));
+        testEventList(new EventListCalendarQueue<>());
+        testEventList(new EventListCalendarQueue<>(1.0E-6));
+    }
+
+    /**
+     * test the cancellation of events in the different event list implementations.
+     */
+    @Test
+    public void testCancelEvents()
+    {
+        testCancelEvents(new RedBlackTree<>());
+        testCancelEvents(new EventListPriorityQueue<>());
+        testCancelEvents(new EventListBinaryHeap<>());
+        testCancelEvents(new EventListCalendarQueue<>());
+        testCancelEvents(new EventListCalendarQueue<>(1.0E-6));
+        testCancelEvents(new EventListCalendarQueue<>(1000.0));
+    }
+
+    /**
+     * test the order of the events in the different event list implementations when events are removed and added in turn.
+     */
+    @Test
+    public void testHoldModel()
+    {
+        testHoldModel(new RedBlackTree<>());
+        testHoldModel(new EventListPriorityQueue<>());
+        testHoldModel(new EventListBinaryHeap<>());
+        testHoldModel(new EventListCalendarQueue<>());
+        testHoldModel(new EventListCalendarQueue<>(1000.0));
+    }
+
+    /**
+     * test the bulk removal of the events at the head timestamp in the different event list implementations.
+     */
+    @Test
+    public void testRemoveFirstBatch()
+    {
+        testRemoveFirstBatch(new RedBlackTree<>());
+        testRemoveFirstBatch(new EventListPriorityQueue<>());
+        testRemoveFirstBatch(new EventListBinaryHeap<>());
+        testRemoveFirstBatch(new EventListCalendarQueue<>());
+        testRemoveFirstBatch(new EventListCalendarQueue<>(1000.0));
+    }
+
+    /**
+     * Run a hold model on the event list: remove the first event and add a new event after it, at the same time and priority,
+     * or at a later time, which can be before some of the other events. Check that the events are removed in the right order.
+     * @param eventList EventListInterface; the event list to test
+     */
+    public void testHoldModel(final EventListInterface<Double> eventList)
+    {
+        Random random = new Random(333L);
+        for (int i = 0; i < 500; i++)
+        {
+            eventList.add(new SimEvent<Double>((double) random.nextInt(100), new String(), "trim", null));
+        }
+        SimEventInterface<Double> previous = null;
+        for (int i = 0; i < 20000; i++)
+        {
+            SimEventInterface<Double> event = eventList.removeFirst();
+            if (previous != null)
+            {
+                assertTrue(previous.compareTo(event) < 0);
+            }
+            previous = event;
+            double time = event.getAbsoluteExecutionTime();
+            int kind = random.nextInt(3);
+            if (kind == 0)
+            {
+                eventList.add(new SimEvent<Double>(time, event.getPriority(), new String(), "trim", null));
+            }
+            else
+            {
+                double next = kind == 1 ? time + 1 + random.nextInt(5) : time + 0.5 + 10.0 * random.nextDouble();
+                eventList.add(new SimEvent<Double>(next, (short) (1 + random.nextInt(10)), new String(), "trim", null));
+            }
+        }
+        assertEquals(500, eventList.size());
+    }
+
+    /**
+     * Fill the event list with events with few distinct times, and check that removeFirstBatch returns the events in the same
+     * order as removeFirst, grouped per execution time.
+     * @param eventList EventListInterface; the event list to test
+     */
+    public void testRemoveFirstBatch(final EventListInterface<Double> eventList)
+    {
+        List<SimEventInterface<Double>> buffer = new ArrayList<>();
+        assertEquals(0, eventList.removeFirstBatch(buffer));
+        assertTrue(buffer.isEmpty());
+
+        Random random = new Random(222L);
+        List<SimEventInterface<Double>> expected = new ArrayList<>();
+        for (int i = 0; i < 2000; i++)
+        {
+            double time = random.nextInt(50);
+            short priority = (short) (1 + random.nextInt(10));
+            // mix events with a boxed time and events with a primitive time
+            SimEventInterface<Double> event = i % 2 == 0 ? new SimEvent<Double>(time, priority, new String(), "trim", null)
+                    : new DoubleLambdaSimEvent(time, priority, () -> {});
+            expected.add(event);
+            eventList.add(event);
+        }
+        expected.sort(null);
+
+        int index = 0;
+        int batches = 0;
+        while (!eventList.isEmpty())
+        {
+            int count = eventList.removeFirstBatch(buffer);
+            assertEquals(count, buffer.size());
+            assertTrue(count > 0);
+            double time = buffer.get(0).getAbsoluteExecutionTime();
+            for (SimEventInterface<Double> event : buffer)
+            {
+                assertEquals(time, event.getAbsoluteExecutionTime(), 0.0);
+                assertEquals(expected.get(index++), event);
+            }
+            assertTrue(eventList.isEmpty() || eventList.first().getAbsoluteExecutionTime() > time);
+            buffer.clear();
+            batches++;
+        }
+        assertEquals(2000, index);
+        assertEquals(50, batches);
+
+        // the buffer is appended to, not cleared
+        eventList.add(new SimEvent<Double>(1.0, new String(), "trim", null));
+        eventList.add(new SimEvent<Double>(2.0, new String(), "trim", null));
+        eventList.removeFirstBatch(buffer);
+        eventList.removeFirstBatch(buffer);
+        assertEquals(2, buffer.size());
+        assertEquals(0, eventList.size());
+    }
+
+    /**
+     * Test the removal of random events from the event list, and check that the order of the remaining events is correct.
+     * @param eventList EventListInterface; the event list to test
+     */
+    public void testCancelEvents(final EventListInterface<Double> eventList)
+    {
+        Random random = new Random(111L);
+        List<SimEventInterface<Double>> events = new ArrayList<>();
+        for (int i = 0; i < 2000; i++)
+        {
+            // use few distinct times to test the tie breaking on priority and id as well
+            SimEventInterface<Double> event = new SimEvent<Double>((double) random.nextInt(50),
+                    (short) (1 + random.nextInt(10)), new String(), "trim", null);
+            events.add(event);
+            eventList.add(event);
+        }
+        assertEquals(2000, eventList.size());
+        List<SimEventInterface<Double>> cancelled = new ArrayList<>();
+        for (int i = 0; i < events.size(); i += 3)
+        {
+            assertTrue(eventList.contains(events.get(i)));
+            assertTrue(eventList.remove(events.get(i)));
+            assertFalse(eventList.contains(events.get(i)));
+            assertFalse(eventList.remove(events.get(i)));
+            cancelled.add(events.get(i));
+        }
+        assertEquals(2000 - cancelled.size(), eventList.size());
+        SimEventInterface<Double> previous = null;
+        while (!eventList.isEmpty())
+        {
+            SimEventInterface<Double> event = eventList.removeFirst();
+            assertFalse(cancelled.contains(event));
+            if (previous != null)
+            {
+                assertTrue(previous.compareTo(event) < 0);
+            }
+            previous = event;
+        }
     }
 
     /**
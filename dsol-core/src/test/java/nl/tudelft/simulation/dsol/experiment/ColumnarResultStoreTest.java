@@ -0,0 +1,215 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.djutils.event.Event;
+import org.djutils.exceptions.Try;
+import org.djutils.stats.summarizers.Tally;
+import org.junit.jupiter.api.Test;
+
+import nl.tudelft.simulation.dsol.experiment.Experiment.SummaryValue;
+import nl.tudelft.simulation.dsol.experiment.ExperimentTest.MM1Model;
+import nl.tudelft.simulation.dsol.experiment.ParameterSweepTest.SweepModel;
+import nl.tudelft.simulation.dsol.simulators.DevsSimulator;
+import nl.tudelft.simulation.dsol.simulators.DevsSimulatorInterface;
+
+/**
+ * ColumnarResultStoreTest tests the columnar result store of experiments and sweeps, and the aggregates of the reader.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ */
+public class ColumnarResultStoreTest
+{
+    /**
+     * Test the rows, chunks, resumption and errors of a store with explicit values.
+     * @throws IOException on error
+     */
+    @Test
+    public void testStore() throws IOException
+    {
+        Path file = Files.createTempFile("dsol-results", ".bin");
+        Files.delete(file);
+        try
+        {
+            try (ColumnarResultStore store = new ColumnarResultStore(file, 4))
+            {
+                assertEquals(0, store.getNumberOfColumns());
+                for (int row = 0; row < 10; row++)
+                {
+                    assertTrue(store.append(row, row(row)));
+                }
+                assertFalse(store.append(3, row(3)));
+                Try.testFail(() -> store.append(11, row(11)), IllegalArgumentException.class);
+                // a value of a column that is not in the first row is dropped
+                assertTrue(store.append(10, Arrays.asList(new SummaryValue("a", "SampleMean", 10.0),
+                        new SummaryValue("c", "N", 1.0))));
+                assertEquals(1, store.getNumberOfDroppedValues());
+                assertEquals(11, store.getNumberOfRows());
+                assertEquals(Arrays.asList("a", "a", "b"), store.getStatistics());
+                assertEquals(Arrays.asList("SampleMean", "N", "SampleMean"), store.getFields());
+            }
+
+            // resume the store, and read it while it is being written
+            try (ColumnarResultStore store = new ColumnarResultStore(file, 100);
+                    ColumnarResultReader reader = new ColumnarResultReader(file))
+            {
+                assertEquals(4, store.getChunkRows());
+                assertEquals(11, store.getNumberOfRows());
+                assertEquals(11, reader.getNumberOfRows());
+                assertTrue(store.append(11, row(11)));
+                assertEquals(11, reader.getNumberOfRows());
+                assertEquals(12, reader.refresh());
+
+                assertEquals(3, reader.getNumberOfColumns());
+                int a = reader.getColumnIndex("a", "SampleMean");
+                int b = reader.getColumnIndex("b", "SampleMean");
+                assertEquals(-1, reader.getColumnIndex("c", "N"));
+                assertEquals(5.0, reader.getValue(5, a), 0.0);
+                assertTrue(Double.isNaN(reader.getValue(10, b)));
+                assertArrayEquals(new double[] {4.0, 5.0, 6.0, 7.0, 8.0, 9.0}, reader.getColumn(a, 4, 10), 0.0);
+
+                // aggregate over rows that span three chunks
+                SummaryAccumulator accumulator = reader.aggregate(2, 12);
+                int index = accumulator.getStatisticIndex("a");
+                assertEquals(10, accumulator.getN(index, SummaryField.SAMPLE_MEAN));
+                assertEquals(6.5, accumulator.getMean(index, SummaryField.SAMPLE_MEAN), 1E-12);
+                assertEquals(2.0, accumulator.getMin(index, SummaryField.SAMPLE_MEAN), 0.0);
+                assertEquals(11.0, accumulator.getMax(index, SummaryField.SAMPLE_MEAN), 0.0);
+                assertEquals(9, accumulator.getN(accumulator.getStatisticIndex("b"), SummaryField.SAMPLE_MEAN));
+                assertEquals(0, reader.aggregate(5, 5).getN(0, SummaryField.SAMPLE_MEAN));
+
+                Try.testFail(() -> reader.getValue(12, a), IndexOutOfBoundsException.class);
+                Try.testFail(() -> reader.getValue(0, 3), IndexOutOfBoundsException.class);
+                Try.testFail(() -> reader.aggregate(5, 4), IndexOutOfBoundsException.class);
+            }
+            Files.write(file, new byte[] {1, 2, 3, 4});
+            Try.testFail(() -> new ColumnarResultReader(file), IOException.class);
+            Try.testFail(() -> new ColumnarResultStore(file), IOException.class);
+        }
+        finally
+        {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Make the values of a row.
+     * @param row int; the row
+     * @return List&lt;SummaryValue&gt;; the values of the row
+     */
+    private static List<SummaryValue> row(final int row)
+    {
+        return Arrays.asList(new SummaryValue("a", "SampleMean", row), new SummaryValue("a", "N", 10.0 * row),
+                new SummaryValue("b", "SampleMean", -row));
+    }
+
+    /**
+     * Test that the store of a parallel experiment contains the values of the replications.
+     * @throws IOException on error
+     * @throws InterruptedException on error
+     */
+    @Test
+    public void testExperiment() throws IOException, InterruptedException
+    {
+        Path file = Files.createTempFile("dsol-results", ".bin");
+        Files.delete(file);
+        try (ColumnarResultStore store = new ColumnarResultStore(file, 5))
+        {
+            DevsSimulator<Double> simulator = new DevsSimulator<Double>("simulator");
+            Experiment<Double, DevsSimulatorInterface<Double>> experiment =
+                    new Experiment<>("Store", simulator, new MM1Model(simulator), 0.0, 10.0, 100.0, 12);
+            experiment.setParallelExecution(w -> new MM1Model(new DevsSimulator<Double>("w" + w)), 3);
+            experiment.setResultStore(store);
+            Object lock = new Object();
+            experiment.addListener((final Event event) ->
+            {
+                synchronized (lock)
+                {
+                    lock.notifyAll();
+                }
+            }, Experiment.END_EXPERIMENT_EVENT);
+            synchronized (lock)
+            {
+                experiment.start();
+                while (experiment.isRunning())
+                {
+                    lock.wait(100);
+                }
+            }
+            assertEquals(12, store.getNumberOfRows());
+            try (ColumnarResultReader reader = new ColumnarResultReader(file))
+            {
+                assertEquals(12, reader.getNumberOfRows());
+                int column = reader.getColumnIndex("timeInQueue", "SampleMean");
+                double[] expected = experiment.getReplicationValues("timeInQueue", "SampleMean");
+                assertArrayEquals(expected, reader.getColumn(column, 0, 12), 0.0);
+                SummaryAccumulator accumulator = reader.aggregate(0, 12);
+                Tally tally = experiment.getSummaryStatistics().get("timeInQueue").get("SampleMean");
+                assertEquals(tally.getSampleMean(),
+                        accumulator.getMean(accumulator.getStatisticIndex("timeInQueue"), SummaryField.SAMPLE_MEAN), 1E-12);
+            }
+        }
+        finally
+        {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Test that the aggregates per treatment of the store of a sweep are the same as the summary statistics of the sweep.
+     * @throws Exception on error
+     */
+    @Test
+    public void testSweep() throws Exception
+    {
+        Path file = Files.createTempFile("dsol-results", ".bin");
+        Files.delete(file);
+        try (ColumnarResultStore store = new ColumnarResultStore(file))
+        {
+            ParameterSweep<Double, DevsSimulatorInterface<Double>> sweep = new ParameterSweep<>("sweep",
+                    new SweepModel(new DevsSimulator<Double>("sweep")).getInputParameterMap(), new FullFactorialDesign(),
+                    new ExperimentRunControl<Double>("rc", 0.0, 10.0, 100.0, 3),
+                    w -> new SweepModel(new DevsSimulator<Double>("worker" + w)));
+            sweep.addFactor(new SweepFactor("meanIat", Arrays.asList("1.5", "1.0")));
+            sweep.addFactor(new SweepFactor("batch", 1.0, 2.0, 2));
+            sweep.setNumberOfThreads(2);
+            sweep.setResultStore(store);
+            sweep.run();
+            assertEquals(12, store.getNumberOfRows());
+            try (ColumnarResultReader reader = new ColumnarResultReader(file))
+            {
+                for (int t = 0; t < 4; t++)
+                {
+                    SummaryAccumulator accumulator = reader.aggregate(3 * t, 3 * t + 3);
+                    int index = accumulator.getStatisticIndex("timeInQueue");
+                    for (String field : sweep.getSummaryStatistics(t).get("timeInQueue").keySet())
+                    {
+                        Tally tally = sweep.getSummaryStatistics(t).get("timeInQueue").get(field);
+                        SummaryField summaryField = SummaryField.of(field);
+                        assertEquals(tally.getN(), accumulator.getN(index, summaryField));
+                        assertEquals(tally.getSampleMean(), accumulator.getMean(index, summaryField),
+                                1E-12 * Math.abs(tally.getSampleMean()));
+                    }
+                }
+            }
+        }
+        finally
+        {
+            Files.deleteIfExists(file);
+        }
+    }
+}
@@ -1,9 +1,16 @@
 package nl.tudelft.simulation.dsol.experiment;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.Serializable;
 import java.rmi.RemoteException;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -15,6 +22,7 @@ import java.util.TreeMap;
 import org.djunits.value.vdouble.scalar.Duration;
 import org.djunits.value.vfloat.scalar.FloatDuration;
 import org.djutils.exceptions.Try;
+import org.djutils.stats.summarizers.Tally;
 import org.junit.jupiter.api.Test;
 
 import nl.tudelft.simulation.dsol.SimRuntimeException;
@@ -23,12 +31,15 @@ import nl.tudelft.simulation.dsol.model.AbstractDsolModel;
 import nl.tudelft.simulation.dsol.model.DsolModel;
 import nl.tudelft.simulation.dsol.simulators.DevsSimulator;
 import nl.tudelft.simulation.dsol.simulators.DevsSimulatorInterface;
+import nl.tudelft.simulation.dsol.simulators.SimulatorSnapshot;
 import nl.tudelft.simulation.dsol.statistics.SimCounter;
 import nl.tudelft.simulation.dsol.statistics.SimPersistent;
 import nl.tudelft.simulation.dsol.statistics.SimTally;
 import nl.tudelft.simulation.jstats.distributions.DistContinuous;
 import nl.tudelft.simulation.jstats.distributions.DistExponential;
+import nl.tudelft.simulation.jstats.streams.AntitheticStream;
 import nl.tudelft.simulation.jstats.streams.MersenneTwister;
+import nl.tudelft.simulation.jstats.streams.StreamInterface;
 import nl.tudelft.simulation.naming.context.ContextInterface;
 
 /**
@@ -334,6 +345,389 @@ public class ExperimentTest
         System.out.println(expd.getSummaryStatistics());
     }
 
+    /**
+     * test that an experiment with replications in parallel gives the same summary statistics as a sequential experiment.
+     * @throws RemoteException on error
+     */
+    @Test
+    public void testParallelExperiment() throws RemoteException
+    {
+        DevsSimulator<Double> simulator = new DevsSimulator<Double>("simulator");
+        Experiment<Double, DevsSimulatorInterface<Double>> sequential =
+                new Experiment<>("Seq", simulator, new MM1Model(simulator), 0.0, 10.0, 100.0, 12);
+        sequential.start();
+        int count = 0;
+        while (sequential.isRunning() && count < 25000)
+        {
+            count++;
+            Sleep.sleep(1);
+        }
+        assertTrue(count < 25000);
+
+        DevsSimulator<Double> simulator2 = new DevsSimulator<Double>("simulator2");
+        Experiment<Double, DevsSimulatorInterface<Double>> parallel =
+                new Experiment<>("Par", simulator2, new MM1Model(simulator2), 0.0, 10.0, 100.0, 12);
+        Try.testFail(() -> parallel.setParallelExecution(w -> new MM1Model(new DevsSimulator<Double>("w" + w)), 0));
+        parallel.setParallelExecution(w -> new MM1Model(new DevsSimulator<Double>("w" + w)), 4);
+        assertEquals(4, parallel.getNumberOfThreads());
+        assertNotNull(parallel.getModelFactory());
+        List<Integer> ended = new ArrayList<>();
+        parallel.addListener(event -> ended.add(ended.size()), Replication.END_REPLICATION_EVENT);
+        parallel.start();
+        count = 0;
+        while (parallel.isRunning() && count < 25000)
+        {
+            count++;
+            Sleep.sleep(1);
+        }
+        assertTrue(count < 25000);
+
+        assertEquals(12, parallel.getStartedReplications().size());
+        assertEquals(12, ended.size());
+        assertEquals(sequential.getSummaryStatistics().keySet(), parallel.getSummaryStatistics().keySet());
+        for (String statistic : sequential.getSummaryStatistics().keySet())
+        {
+            SortedMap<String, Tally> seqFields = sequential.getSummaryStatistics().get(statistic);
+            SortedMap<String, Tally> parFields = parallel.getSummaryStatistics().get(statistic);
+            assertEquals(seqFields.keySet(), parFields.keySet());
+            for (String field : seqFields.keySet())
+            {
+                assertEquals(seqFields.get(field).getN(), parFields.get(field).getN());
+                assertEquals(seqFields.get(field).getSampleMean(), parFields.get(field).getSampleMean(), 0.0);
+                assertEquals(seqFields.get(field).getSampleVariance(), parFields.get(field).getSampleVariance(), 0.0);
+
+                // the accumulator that is merged from the workers has the same summary as the tallies
+                SummaryAccumulator accumulator = parallel.getSummaryAccumulator();
+                int index = accumulator.getStatisticIndex(statistic);
+                SummaryField summaryField = SummaryField.of(field);
+                assertEquals(seqFields.get(field).getN(), accumulator.getN(index, summaryField));
+                assertEquals(seqFields.get(field).getSampleMean(), accumulator.getMean(index, summaryField),
+                        1E-12 * Math.abs(seqFields.get(field).getSampleMean()));
+                assertEquals(seqFields.get(field).getSampleVariance(), accumulator.getSampleVariance(index, summaryField),
+                        1E-9 * Math.abs(seqFields.get(field).getSampleVariance()));
+                assertEquals(seqFields.get(field).getN(),
+                        sequential.getSummaryAccumulator().getN(sequential.getSummaryAccumulator().getStatisticIndex(statistic),
+                                summaryField));
+            }
+        }
+    }
+
+    /**
+     * Test the sequential stopping of an experiment based on the precision of the summary statistics.
+     * @throws RemoteException on error
+     */
+    @Test
+    public void testSequentialStopping() throws RemoteException
+    {
+        Try.testFail(() -> new SequentialStoppingRule(0.0, 4, 2));
+        Try.testFail(() -> new SequentialStoppingRule(0.05, 1, 2));
+        Try.testFail(() -> new SequentialStoppingRule(0.05, 4, 0));
+        Try.testFail(() -> new SequentialStoppingRule(0.05, 4, 2).addTarget("timeInQueue", "SampleMean", 0.0));
+        SequentialStoppingRule empty = new SequentialStoppingRule(0.05, 4, 2);
+        assertFalse(empty.isSatisfied(new TreeMap<>()));
+        Tally tally = new Tally("tally");
+        assertEquals(Double.POSITIVE_INFINITY, empty.getRelativeHalfWidth(tally), 0.0);
+        tally.register(2.0);
+        tally.register(2.0);
+        assertEquals(0.0, empty.getRelativeHalfWidth(tally), 0.0);
+        // a small number of replications uses the t quantile with n-1 degrees of freedom, not the normal quantile 1.96
+        Tally small = new Tally("small");
+        small.register(9.0);
+        small.register(10.0);
+        small.register(11.0);
+        assertEquals(4.3027 / Math.sqrt(3.0) / 10.0, empty.getRelativeHalfWidth(small), 1E-4);
+        small.register(10.0);
+        assertEquals(3.1824 * Math.sqrt(2.0 / 3.0) / Math.sqrt(4.0) / 10.0, empty.getRelativeHalfWidth(small), 1E-4);
+
+        // a loose target is reached before the budget of 100 replications has been used
+        SequentialStoppingRule loose = new SequentialStoppingRule(0.05, 4, 3).addTarget("timeInQueue", "SampleMean", 0.25)
+                .addTarget("nrInQueue", "WeightedSampleMean", 0.25);
+        assertEquals(2, loose.getTargets().size());
+        Experiment<Double, DevsSimulatorInterface<Double>> sequential = runStoppingExperiment("SeqStop", loose, 100, 0);
+        int replications = sequential.getStartedReplications().size();
+        assertTrue(sequential.isPrecisionReached());
+        assertTrue(replications >= 4 && replications < 100);
+        assertEquals(0, (replications - 4) % 3);
+        Experiment<Double, DevsSimulatorInterface<Double>> parallel = runStoppingExperiment("ParStop", loose, 100, 3);
+        assertEquals(replications, parallel.getStartedReplications().size());
+        assertEquals(sequential.getSummaryStatistics().get("timeInQueue").get("SampleMean").getSampleMean(),
+                parallel.getSummaryStatistics().get("timeInQueue").get("SampleMean").getSampleMean(), 0.0);
+
+        // a tight target uses the whole budget
+        SequentialStoppingRule tight = new SequentialStoppingRule(0.05, 4, 3).addTarget("timeInQueue", "SampleMean", 1.0E-6);
+        Experiment<Double, DevsSimulatorInterface<Double>> budget = runStoppingExperiment("Budget", tight, 9, 4);
+        assertEquals(9, budget.getStartedReplications().size());
+        assertFalse(budget.isPrecisionReached());
+        assertTrue(tight.toString().contains("timeInQueue"));
+    }
+
+    /**
+     * Run an experiment with the MM1 model and a stopping rule.
+     * @param id String; the id of the experiment
+     * @param rule SequentialStoppingRule; the stopping rule
+     * @param budget int; the maximum number of replications
+     * @param threads int; the number of threads, or 0 for a sequential experiment
+     * @return Experiment; the experiment after it has ended
+     * @throws RemoteException on error
+     */
+    private Experiment<Double, DevsSimulatorInterface<Double>> runStoppingExperiment(final String id,
+            final SequentialStoppingRule rule, final int budget, final int threads) throws RemoteException
+    {
+        DevsSimulator<Double> simulator = new DevsSimulator<Double>("simulator" + id);
+        Experiment<Double, DevsSimulatorInterface<Double>> experiment =
+                new Experiment<>(id, simulator, new MM1Model(simulator), 0.0, 10.0, 100.0, budget);
+        experiment.setStoppingRule(rule);
+        assertEquals(rule, experiment.getStoppingRule());
+        if (threads > 0)
+        {
+            experiment.setParallelExecution(w -> new MM1Model(new DevsSimulator<Double>(id + w)), threads);
+        }
+        experiment.start();
+        int count = 0;
+        while (experiment.isRunning() && count < 25000)
+        {
+            count++;
+            Sleep.sleep(1);
+        }
+        assertTrue(count < 25000);
+        return experiment;
+    }
+
+    /**
+     * Test the common random numbers and antithetic stream updaters, and the paired comparison of replications.
+     * @throws RemoteException on error
+     */
+    @Test
+    public void testVarianceReduction() throws RemoteException
+    {
+        PairedComparison difference =
+                PairedComparison.difference("s", "f", new double[] {1, 2, 3, 4}, new double[] {2, 4, 6, 8, Double.NaN});
+        assertEquals(4, difference.getNumberOfPairs());
+        assertEquals(-2.5, difference.getMean(), 1E-12);
+        assertEquals(5.0 / 3.0, difference.getPairedVariance(), 1E-12);
+        assertEquals(25.0 / 3.0, difference.getIndependentVariance(), 1E-12);
+        assertEquals(0.8, difference.getVarianceReduction(), 1E-12);
+        assertEquals(1.0, difference.getCorrelation(), 1E-12);
+        PairedComparison antithetic = PairedComparison.antithetic("s", "f", new double[] {1, 3, 2, 2, 3, 1, 5});
+        assertTrue(antithetic.isAntithetic());
+        assertEquals(3, antithetic.getNumberOfPairs());
+        assertEquals(2.0, antithetic.getMean(), 1E-12);
+        assertEquals(0.5, antithetic.getIndependentVariance(), 1E-12);
+        assertEquals(1.0, antithetic.getVarianceReduction(), 1E-12);
+        assertEquals(-1.0, antithetic.getCorrelation(), 1E-12);
+
+        // common random numbers give the same seeds to streams with the same id, whatever their original seed
+        StreamInformation reference = makeStreamInformation(1L);
+        CommonRandomNumbersUpdater crn = new CommonRandomNumbersUpdater(reference);
+        StreamInterface first = new MersenneTwister(5L);
+        StreamInterface second = new MersenneTwister(6L);
+        crn.updateSeed("iatStream", first, 3);
+        crn.updateSeed("iatStream", second, 3);
+        assertEquals(first.getSeed(), second.getSeed());
+        assertEquals(2L, crn.getBaseSeed("iatStream"));
+        assertEquals(1L, crn.getBaseSeed("unknown"));
+        StreamSeedUpdater stored = crn.makeStreamSeedUpdater(List.of("iatStream"), 4);
+        assertEquals(crn.getSeed("iatStream", 3), stored.getStreamSeedMap().get("iatStream").get(3).longValue());
+        assertEquals(crn, stored.getFallbackStreamUpdater());
+        // streams with the same base seed get different seeds, also for replication 0
+        CommonRandomNumbersUpdater fixed = new CommonRandomNumbersUpdater(7L);
+        assertEquals(fixed.getSeed("x", 2), new CommonRandomNumbersUpdater(7L).getSeed("x", 2));
+        assertNotEquals(fixed.getSeed("x", 0), fixed.getSeed("y", 0));
+        assertNotEquals(fixed.getSeed("x", 0), fixed.getSeed("x", 1));
+        assertNotEquals(crn.getSeed("unknown", 0), crn.getSeed("other", 0));
+        assertTrue(fixed.getSeed("x", 0) > 0L);
+
+        // two run lengths of the MM1 model with common random numbers are strongly positively correlated
+        Experiment<Double, DevsSimulatorInterface<Double>> shortRun =
+                runVarianceExperiment("CrnShort", makeStreamInformation(1L), crn, 100.0, 12);
+        Experiment<Double, DevsSimulatorInterface<Double>> longRun =
+                runVarianceExperiment("CrnLong", makeStreamInformation(11L), crn, 120.0, 12);
+        assertEquals(12, shortRun.getReplicationValues("timeInQueue", "SampleMean").length);
+        PairedComparison crnComparison = shortRun.comparePaired(longRun, "timeInQueue", "SampleMean");
+        assertEquals(12, crnComparison.getNumberOfPairs());
+        assertTrue(crnComparison.getCorrelation() > 0.5, crnComparison.toString());
+        assertTrue(crnComparison.getVarianceReduction() > 0.5, crnComparison.toString());
+        Try.testFail(() -> shortRun.getReplicationValues("timeInQueue", "unknown"));
+
+        // antithetic pairs of the MM1 model are negatively correlated
+        Try.testFail(() -> new AntitheticStreamUpdater().updateSeed("default", new MersenneTwister(1L), 0));
+        StreamInformation wrapped = AntitheticStreamUpdater.wrapStreams(makeStreamInformation(21L));
+        assertTrue(wrapped.getStream("iatStream") instanceof AntitheticStream);
+        Experiment<Double, DevsSimulatorInterface<Double>> pairs =
+                runVarianceExperiment("Anti", wrapped, new AntitheticStreamUpdater(crn), 100.0, 12);
+        assertTrue(((AntitheticStream) wrapped.getStream("iatStream")).isAntithetic());
+        double[] values = pairs.getReplicationValues("timeInQueue", "SampleMean");
+        assertEquals(values[0], shortRun.getReplicationValues("timeInQueue", "SampleMean")[0], 0.0);
+        PairedComparison antitheticComparison = pairs.getAntitheticComparison("timeInQueue", "SampleMean");
+        assertEquals(6, antitheticComparison.getNumberOfPairs());
+        assertTrue(antitheticComparison.getCorrelation() < 0.0, antitheticComparison.toString());
+        assertTrue(antitheticComparison.getVarianceReduction() > 0.0, antitheticComparison.toString());
+    }
+
+    /**
+     * Test the warm start of an experiment from a snapshot at the warmup time, and the snapshot itself.
+     * @throws RemoteException on error
+     * @throws IOException on error
+     */
+    @Test
+    public void testWarmStart() throws RemoteException, IOException
+    {
+        Try.testFail(() -> SimulatorSnapshot.capture(new DevsSimulator<Double>("uninitialized")));
+        Try.testFail(() -> SimulatorSnapshot.read(new ByteArrayInputStream(new byte[] {1, 2, 3, 4, 5, 6, 7, 8})));
+
+        // a sequential and a parallel warm start give the same results for every replication
+        Experiment<Double, DevsSimulatorInterface<Double>> sequential = runWarmStartExperiment("WarmSeq", 0);
+        Experiment<Double, DevsSimulatorInterface<Double>> parallel = runWarmStartExperiment("WarmPar", 3);
+        assertTrue(sequential.isWarmStart());
+        SimulatorSnapshot<Double> snapshot = sequential.getWarmStartSnapshot();
+        assertEquals(10.0, snapshot.getTime(), 0.0);
+        assertTrue(snapshot.getNumberOfEvents() > 0);
+        assertTrue(snapshot.getSize() > 0);
+        assertTrue(snapshot.toString().startsWith("SimulatorSnapshot"));
+        double[] values = sequential.getReplicationValues("timeInQueue", "SampleMean");
+        assertEquals(6, values.length);
+        assertFalse(values[0] == values[1]);
+        assertEquals(6, sequential.getStartedReplications().size());
+        double[] parallelValues = parallel.getReplicationValues("timeInQueue", "SampleMean");
+        for (int i = 0; i < values.length; i++)
+        {
+            assertEquals(values[i], parallelValues[i], 0.0);
+        }
+
+        // a snapshot that has been written and read restores the same state
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        snapshot.write(bytes);
+        SimulatorSnapshot<Double> copy = SimulatorSnapshot.read(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(snapshot.getTime(), copy.getTime());
+        assertEquals(snapshot.getNumberOfEvents(), copy.getNumberOfEvents());
+        assertEquals(snapshot.getSize(), copy.getSize());
+        List<Double> original = runRestored(snapshot, "restore1");
+        List<Double> restored = runRestored(copy, "restore2");
+        assertEquals(original, restored);
+
+        // the streams of the model are restored from their compact state, and continue with the same numbers
+        SingleReplication<Double> replication1 = new SingleReplication<Double>("streams1", 0.0, 10.0, 100.0);
+        SingleReplication<Double> replication2 = new SingleReplication<Double>("streams2", 0.0, 10.0, 100.0);
+        DsolModel<Double, ?> model1 = snapshot.restore(new DevsSimulator<Double>("streams1"), replication1);
+        DsolModel<Double, ?> model2 = copy.restore(new DevsSimulator<Double>("streams2"), replication2);
+        assertTrue(model1.getStream("iatStream") instanceof MersenneTwister);
+        assertNotSame(model1.getStream("iatStream"), model2.getStream("iatStream"));
+        for (int i = 0; i < 1000; i++)
+        {
+            assertEquals(model1.getStream("iatStream").nextDouble(), model2.getStream("iatStream").nextDouble(), 0.0);
+        }
+        replication1.removeFromContext();
+        replication2.removeFromContext();
+
+        // a snapshot cannot be restored for a replication that ends before the snapshot
+        Try.testFail(() -> snapshot.restore(new DevsSimulator<Double>("early"),
+                new SingleReplication<Double>("early", 0.0, 0.0, 5.0)));
+        sequential.setWarmStart(false);
+        assertFalse(sequential.isWarmStart());
+    }
+
+    /**
+     * Run an experiment with the MM1 model that starts its replications from a snapshot at the warmup time.
+     * @param id String; the id of the experiment
+     * @param threads int; the number of threads for a parallel experiment, or 0 for a sequential experiment
+     * @return Experiment; the experiment after it has ended
+     * @throws RemoteException on error
+     */
+    private Experiment<Double, DevsSimulatorInterface<Double>> runWarmStartExperiment(final String id, final int threads)
+            throws RemoteException
+    {
+        DevsSimulator<Double> simulator = new DevsSimulator<Double>("simulator" + id);
+        Experiment<Double, DevsSimulatorInterface<Double>> experiment = new Experiment<>(id, simulator,
+                new MM1Model(simulator, makeStreamInformation(31L)), 0.0, 10.0, 100.0, 6);
+        if (threads > 0)
+        {
+            experiment.setParallelExecution(
+                    w -> new MM1Model(new DevsSimulator<Double>(id + w), makeStreamInformation(31L)), threads);
+        }
+        experiment.setWarmStart(true);
+        experiment.start();
+        int count = 0;
+        while (experiment.isRunning() && count < 25000)
+        {
+            count++;
+            Sleep.sleep(1);
+        }
+        assertTrue(count < 25000);
+        return experiment;
+    }
+
+    /**
+     * Restore a snapshot on a new simulator, run the replication, and return the summary values of the restored model.
+     * @param snapshot SimulatorSnapshot&lt;Double&gt;; the snapshot to restore
+     * @param id String; the id of the simulator and the replication
+     * @return List&lt;Double&gt;; the summary values of the restored model after the replication
+     */
+    private List<Double> runRestored(final SimulatorSnapshot<Double> snapshot, final String id)
+    {
+        DevsSimulator<Double> simulator = new DevsSimulator<Double>(id);
+        SingleReplication<Double> replication = new SingleReplication<Double>(id, 0.0, 10.0, 100.0);
+        DsolModel<Double, ?> model = snapshot.restore(simulator, replication);
+        assertEquals(10.0, simulator.getSimulatorTime(), 0.0);
+        simulator.start();
+        int count = 0;
+        while (simulator.isStartingOrRunning() && count < 25000)
+        {
+            count++;
+            Sleep.sleep(1);
+        }
+        assertTrue(count < 25000);
+        assertEquals(100.0, simulator.getSimulatorTime(), 0.0);
+        List<Double> result = new ArrayList<>();
+        for (Experiment.SummaryValue value : Experiment.collectSummaryValues(model))
+        {
+            result.add(value.value);
+        }
+        replication.removeFromContext();
+        return result;
+    }
+
+    /**
+     * Make the stream information for the MM1 model.
+     * @param seed long; the seed of the default stream; the other streams get the next seeds
+     * @return StreamInformation; the stream information with a default, iatStream and procStream stream
+     */
+    private static StreamInformation makeStreamInformation(final long seed)
+    {
+        StreamInformation streamInformation = new StreamInformation(new MersenneTwister(seed));
+        streamInformation.addStream("iatStream", new MersenneTwister(seed + 1));
+        streamInformation.addStream("procStream", new MersenneTwister(seed + 2));
+        return streamInformation;
+    }
+
+    /**
+     * Run an experiment with the MM1 model and a stream updater.
+     * @param id String; the id of the experiment
+     * @param streamInformation StreamInformation; the streams of the model
+     * @param streamUpdater StreamUpdater; the stream updater
+     * @param runLength double; the run length of the replications
+     * @param replications int; the number of replications
+     * @return Experiment; the experiment after it has ended
+     * @throws RemoteException on error
+     */
+    private Experiment<Double, DevsSimulatorInterface<Double>> runVarianceExperiment(final String id,
+            final StreamInformation streamInformation, final StreamUpdater streamUpdater, final double runLength,
+            final int replications) throws RemoteException
+    {
+        DevsSimulator<Double> simulator = new DevsSimulator<Double>("simulator" + id);
+        Experiment<Double, DevsSimulatorInterface<Double>> experiment = new Experiment<>(id, simulator,
+                new MM1Model(simulator, streamInformation), 0.0, 10.0, runLength, replications);
+        experiment.setStreamUpdater(streamUpdater);
+        experiment.start();
+        int count = 0;
+        while (experiment.isRunning() && count < 25000)
+        {
+            count++;
+            Sleep.sleep(1);
+        }
+        assertTrue(count < 25000);
+        return experiment;
+    }
+
     /**
      * Model class.
      */
@@ -463,8 +857,11 @@ public class ExperimentTest
     }
 
     /** the entity class. */
-    static class Entity
+    static class Entity implements Serializable
     {
+        /** */
+        private static final long serialVersionUID = 1L;
+
         /** the of creation of the entity. */
         private final double createTime;
 
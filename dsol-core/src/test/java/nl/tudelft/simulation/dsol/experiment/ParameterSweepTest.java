@@ -0,0 +1,357 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SortedMap;
+
+import org.djutils.exceptions.Try;
+import org.djutils.stats.summarizers.Tally;
+import org.junit.jupiter.api.Test;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.model.AbstractDsolModel;
+import nl.tudelft.simulation.dsol.model.inputparameters.InputParameterDouble;
+import nl.tudelft.simulation.dsol.model.inputparameters.InputParameterException;
+import nl.tudelft.simulation.dsol.model.inputparameters.InputParameterInteger;
+import nl.tudelft.simulation.dsol.simulators.DevsSimulator;
+import nl.tudelft.simulation.dsol.simulators.DevsSimulatorInterface;
+import nl.tudelft.simulation.dsol.statistics.SimTally;
+import nl.tudelft.simulation.jstats.distributions.DistContinuous;
+import nl.tudelft.simulation.jstats.distributions.DistExponential;
+
+/**
+ * ParameterSweepTest tests the sweep designs and the execution and resumption of a ParameterSweep.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ */
+public class ParameterSweepTest
+{
+    /**
+     * Test the levels and values of the sweep factors.
+     */
+    @Test
+    public void testSweepFactor()
+    {
+        SweepFactor levels = new SweepFactor("a", Arrays.asList("x", "y", "z"));
+        assertFalse(levels.isRange());
+        assertEquals("a", levels.getKey());
+        assertEquals(Arrays.asList("x", "y", "z"), levels.getLevels());
+        assertEquals("x", levels.getValue(0.0));
+        assertEquals("y", levels.getValue(0.5));
+        assertEquals("z", levels.getValue(0.999));
+
+        SweepFactor range = new SweepFactor("b", 1.0, 2.0, 3);
+        assertTrue(range.isRange());
+        assertEquals(Arrays.asList("1.0", "1.5", "2.0"), range.getLevels());
+        assertEquals("1.25", range.getValue(0.25));
+        assertEquals(Arrays.asList("1.5"), new SweepFactor("c", 1.0, 2.0, 1).getLevels());
+        assertEquals(Arrays.asList("1.0s", "2.0s"), new SweepFactor("d", 1.0, 2.0, 2, "s").getLevels());
+        range.setInteger(true);
+        assertEquals(Arrays.asList("1", "2", "2"), range.getLevels());
+
+        Try.testFail(() -> new SweepFactor(null, Arrays.asList("x")));
+        Try.testFail(() -> new SweepFactor("a", new ArrayList<String>()));
+        Try.testFail(() -> new SweepFactor("a", 2.0, 1.0, 3));
+        Try.testFail(() -> new SweepFactor("a", 1.0, 2.0, 0));
+    }
+
+    /**
+     * Test the treatments of the full factorial, Latin hypercube and Sobol designs.
+     */
+    @Test
+    public void testDesigns()
+    {
+        List<SweepFactor> factors =
+                Arrays.asList(new SweepFactor("a", Arrays.asList("x", "y")), new SweepFactor("b", 0.0, 1.0, 3));
+        List<String[]> factorial = new FullFactorialDesign().getTreatments(factors);
+        assertEquals(6, factorial.size());
+        assertArrayEquals(new String[] {"x", "0.0"}, factorial.get(0));
+        assertArrayEquals(new String[] {"x", "0.5"}, factorial.get(1));
+        assertArrayEquals(new String[] {"y", "0.0"}, factorial.get(3));
+        assertArrayEquals(new String[] {"y", "1.0"}, factorial.get(5));
+
+        // every stratum of every factor contains exactly one point, and the design is reproducible
+        LatinHypercubeDesign lhs = new LatinHypercubeDesign(10, 123L);
+        double[][] points = lhs.getPoints(3);
+        assertEquals(10, points.length);
+        assertStratified(points, 10);
+        assertTrue(Arrays.deepEquals(points, new LatinHypercubeDesign(10, 123L).getPoints(3)));
+        assertFalse(Arrays.deepEquals(points, new LatinHypercubeDesign(10, 124L).getPoints(3)));
+        assertEquals(10, lhs.getTreatments(factors).size());
+        Try.testFail(() -> new LatinHypercubeDesign(0, 1L));
+
+        SobolDesign sobol = new SobolDesign(16);
+        double[][] sobolPoints = sobol.getPoints(SobolDesign.MAX_DIMENSIONS);
+        assertArrayEquals(new double[] {0.0, 0.0}, Arrays.copyOf(sobolPoints[0], 2), 0.0);
+        assertArrayEquals(new double[] {0.5, 0.5}, Arrays.copyOf(sobolPoints[1], 2), 0.0);
+        assertArrayEquals(new double[] {0.75, 0.25}, Arrays.copyOf(sobolPoints[2], 2), 0.0);
+        assertArrayEquals(new double[] {0.25, 0.75}, Arrays.copyOf(sobolPoints[3], 2), 0.0);
+        assertStratified(sobolPoints, 16);
+        assertEquals(16, sobol.getTreatments(factors).size());
+        Try.testFail(() -> sobol.getPoints(SobolDesign.MAX_DIMENSIONS + 1));
+        Try.testFail(() -> new SobolDesign(0));
+    }
+
+    /**
+     * Assert that every factor has exactly one point in each of the n equal strata of [0, 1).
+     * @param points double[][]; the points, indexed as [point][factor]
+     * @param n int; the number of strata
+     */
+    private static void assertStratified(final double[][] points, final int n)
+    {
+        for (int d = 0; d < points[0].length; d++)
+        {
+            boolean[] stratum = new boolean[n];
+            for (double[] point : points)
+            {
+                assertTrue(point[d] >= 0.0 && point[d] < 1.0);
+                int s = (int) (point[d] * n);
+                assertFalse(stratum[s], "factor " + d + " has two points in stratum " + s);
+                stratum[s] = true;
+            }
+        }
+    }
+
+    /**
+     * Test a sweep on multiple threads against a sweep on one thread, and test the resumption of an interrupted sweep.
+     * @throws Exception on error
+     */
+    @Test
+    public void testParameterSweep() throws Exception
+    {
+        ParameterSweep<Double, DevsSimulatorInterface<Double>> reference = makeSweep(new FullFactorialDesign());
+        reference.run();
+        assertEquals(12, reference.getNumberOfCells());
+        assertEquals(12, reference.getNumberOfCompletedCells());
+        assertEquals(12, reference.getNumberOfExecutedCells());
+        assertEquals(4, reference.getTreatments().size());
+        assertEquals(3, reference.getSummaryStatistics(0).get("timeInQueue").get("SampleMean").getN());
+        // a higher arrival rate gives longer waiting times, with common random numbers for all treatments
+        assertTrue(mean(reference, 0) < mean(reference, 2));
+        assertTrue(mean(reference, 1) < mean(reference, 3));
+
+        Path directory = Files.createTempDirectory("sweep");
+        Path file = directory.resolve("sweep.txt");
+        try
+        {
+            ParameterSweep<Double, DevsSimulatorInterface<Double>> parallel = makeSweep(new FullFactorialDesign());
+            parallel.setNumberOfThreads(3);
+            parallel.setOutputFile(file);
+            parallel.run();
+            assertFalse(parallel.isRunning());
+            assertEquals(12, parallel.getNumberOfExecutedCells());
+            assertSameStatistics(reference, parallel);
+
+            // simulate an interruption: keep the header, five cells, and half of the sixth cell
+            List<String> lines = Files.readAllLines(file, StandardCharsets.UTF_8);
+            int header = 3 + 4;
+            StringBuilder interrupted = new StringBuilder();
+            for (int i = 0; i < header + 5; i++)
+            {
+                interrupted.append(lines.get(i)).append('\n');
+            }
+            String sixth = lines.get(header + 5);
+            interrupted.append(sixth.substring(0, sixth.length() / 2));
+            Files.write(file, interrupted.toString().getBytes(StandardCharsets.UTF_8));
+
+            ParameterSweep<Double, DevsSimulatorInterface<Double>> resumed = makeSweep(new FullFactorialDesign());
+            resumed.setNumberOfThreads(2);
+            resumed.setOutputFile(file);
+            resumed.run();
+            assertEquals(12, resumed.getNumberOfCompletedCells());
+            assertEquals(7, resumed.getNumberOfExecutedCells());
+            assertSameStatistics(reference, resumed);
+            assertEquals(lines.size(), Files.readAllLines(file, StandardCharsets.UTF_8).size());
+
+            // a completed sweep executes no cells
+            ParameterSweep<Double, DevsSimulatorInterface<Double>> completed = makeSweep(new FullFactorialDesign());
+            completed.setOutputFile(file);
+            completed.run();
+            assertEquals(0, completed.getNumberOfExecutedCells());
+            assertSameStatistics(reference, completed);
+
+            // the file of another sweep cannot be resumed
+            ParameterSweep<Double, DevsSimulatorInterface<Double>> other = makeSweep(new LatinHypercubeDesign(4, 1L));
+            other.setOutputFile(file);
+            Try.testFail(() -> other.run(), IOException.class);
+        }
+        finally
+        {
+            Files.deleteIfExists(file);
+            Files.deleteIfExists(directory);
+        }
+
+        ParameterSweep<Double, DevsSimulatorInterface<Double>> wrong = makeSweep(new SobolDesign(4));
+        Try.testFail(() -> wrong.addFactor(new SweepFactor("unknown", 0.0, 1.0, 2)), InputParameterException.class);
+        Try.testFail(() -> wrong.setNumberOfThreads(0));
+        ParameterSweep<Double, DevsSimulatorInterface<Double>> empty =
+                new ParameterSweep<>("empty", new SweepModel(new DevsSimulator<Double>("s")).getInputParameterMap(),
+                        new FullFactorialDesign(), new ExperimentRunControl<Double>("rc", 0.0, 10.0, 100.0, 3),
+                        w -> new SweepModel(new DevsSimulator<Double>("w" + w)));
+        Try.testFail(() -> empty.run(), IllegalStateException.class);
+    }
+
+    /**
+     * Make a sweep over the mean interarrival time and the number of batches of the SweepModel, with 3 replications.
+     * @param design SweepDesign; the design of the sweep
+     * @return ParameterSweep; the sweep
+     * @throws InputParameterException on error
+     */
+    private ParameterSweep<Double, DevsSimulatorInterface<Double>> makeSweep(final SweepDesign design)
+            throws InputParameterException
+    {
+        SweepModel model = new SweepModel(new DevsSimulator<Double>("sweep"));
+        ParameterSweep<Double, DevsSimulatorInterface<Double>> sweep =
+                new ParameterSweep<>("sweep", model.getInputParameterMap(), design,
+                        new ExperimentRunControl<Double>("rc", 0.0, 10.0, 100.0, 3),
+                        w -> new SweepModel(new DevsSimulator<Double>("worker" + w)));
+        sweep.addFactor(new SweepFactor("meanIat", Arrays.asList("1.5", "1.0")));
+        sweep.addFactor(new SweepFactor("batch", 1.0, 2.0, 2));
+        assertEquals(2, sweep.getFactors().size());
+        return sweep;
+    }
+
+    /**
+     * Return the mean waiting time of a treatment.
+     * @param sweep ParameterSweep; the sweep
+     * @param treatment int; the treatment
+     * @return double; the mean over the replications of the mean waiting time
+     */
+    private static double mean(final ParameterSweep<Double, DevsSimulatorInterface<Double>> sweep, final int treatment)
+    {
+        return sweep.getSummaryStatistics(treatment).get("timeInQueue").get("SampleMean").getSampleMean();
+    }
+
+    /**
+     * Assert that two sweeps have the same summary statistics for every treatment.
+     * @param expected ParameterSweep; the expected sweep
+     * @param actual ParameterSweep; the actual sweep
+     */
+    private static void assertSameStatistics(final ParameterSweep<Double, DevsSimulatorInterface<Double>> expected,
+            final ParameterSweep<Double, DevsSimulatorInterface<Double>> actual)
+    {
+        assertEquals(expected.getTreatments().size(), actual.getTreatments().size());
+        for (int t = 0; t < expected.getTreatments().size(); t++)
+        {
+            assertArrayEquals(expected.getTreatments().get(t), actual.getTreatments().get(t));
+            SortedMap<String, SortedMap<String, Tally>> e = expected.getSummaryStatistics(t);
+            SortedMap<String, SortedMap<String, Tally>> a = actual.getSummaryStatistics(t);
+            assertEquals(e.keySet(), a.keySet());
+            for (String statistic : e.keySet())
+            {
+                assertEquals(e.get(statistic).keySet(), a.get(statistic).keySet());
+                for (String field : e.get(statistic).keySet())
+                {
+                    assertEquals(e.get(statistic).get(field).getN(), a.get(statistic).get(field).getN());
+                    assertEquals(e.get(statistic).get(field).getSampleMean(), a.get(statistic).get(field).getSampleMean(),
+                            0.0);
+                }
+            }
+        }
+    }
+
+    /**
+     * Single server queue with batch arrivals, of which the mean interarrival time and the batch size are input parameters.
+     */
+    public static class SweepModel extends AbstractDsolModel<Double, DevsSimulatorInterface<Double>>
+    {
+        /** */
+        private static final long serialVersionUID = 20240101L;
+
+        /** the number of entities in the queue. */
+        private int queueLength;
+
+        /** the arrival times of the entities in the queue. */
+        private List<Double> arrivalTimes;
+
+        /** the interarrival time distribution. */
+        private DistContinuous iatDist;
+
+        /** the processing time distribution. */
+        private DistContinuous procDist;
+
+        /** the batch size. */
+        private int batch;
+
+        /** a tally of the waiting time. */
+        private SimTally<Double> queueTimeTally;
+
+        /**
+         * @param simulator the simulator
+         * @throws IllegalArgumentException when the input parameters cannot be added
+         */
+        public SweepModel(final DevsSimulatorInterface<Double> simulator)
+        {
+            super(simulator);
+            try
+            {
+                addInputParameter(new InputParameterDouble("meanIat", "mean iat", "mean interarrival time", 2.0, 1.0));
+                addInputParameter(new InputParameterInteger("batch", "batch", "batch size", 1, 2.0));
+            }
+            catch (InputParameterException exception)
+            {
+                throw new IllegalArgumentException(exception);
+            }
+        }
+
+        @Override
+        public void constructModel() throws SimRuntimeException
+        {
+            try
+            {
+                this.iatDist = new DistExponential(getStream("default"), (Double) getInputParameter("meanIat"));
+                this.batch = (Integer) getInputParameter("batch");
+            }
+            catch (InputParameterException exception)
+            {
+                throw new SimRuntimeException(exception);
+            }
+            this.procDist = new DistExponential(getStream("default"), 0.4);
+            this.queueLength = 0;
+            this.arrivalTimes = new ArrayList<>();
+            this.outputStatistics.clear();
+            this.queueTimeTally = new SimTally<Double>("timeInQueue", this);
+            this.queueTimeTally.initialize();
+            getSimulator().scheduleEventRel(this.iatDist.draw(), this, "arrive", null);
+        }
+
+        /** arrival of a batch. */
+        protected void arrive()
+        {
+            for (int i = 0; i < this.batch; i++)
+            {
+                this.arrivalTimes.add(getSimulator().getSimulatorTime());
+                if (++this.queueLength == 1)
+                {
+                    getSimulator().scheduleEventRel(this.procDist.draw(), this, "depart", null);
+                }
+            }
+            getSimulator().scheduleEventRel(this.iatDist.draw(), this, "arrive", null);
+        }
+
+        /** departure of an entity. */
+        protected void depart()
+        {
+            this.queueTimeTally.register(getSimulator().getSimulatorTime() - this.arrivalTimes.remove(0));
+            if (--this.queueLength > 0)
+            {
+                getSimulator().scheduleEventRel(this.procDist.draw(), this, "depart", null);
+            }
+        }
+    }
+}
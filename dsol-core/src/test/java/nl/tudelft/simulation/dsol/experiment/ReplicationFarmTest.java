@@ -0,0 +1,354 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.SocketTimeoutException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.djutils.exceptions.Try;
+import org.djutils.stats.summarizers.Tally;
+import org.junit.jupiter.api.Test;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.ParameterSweepTest.SweepModel;
+import nl.tudelft.simulation.dsol.model.DsolModel;
+import nl.tudelft.simulation.dsol.model.inputparameters.InputParameterException;
+import nl.tudelft.simulation.dsol.simulators.DevsSimulator;
+import nl.tudelft.simulation.dsol.simulators.DevsSimulatorInterface;
+
+/**
+ * ReplicationFarmTest tests the execution of the replications of a ReplicationFarm on workers in threads and in forked JVMs,
+ * and compares the results with a ParameterSweep of the same treatments.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ */
+public class ReplicationFarmTest
+{
+    /**
+     * Test a farm with workers in threads, including a worker that disconnects, a worker that hangs, and a treatment that
+     * fails.
+     * @throws Exception on error
+     */
+    @Test
+    public void testThreadWorkers() throws Exception
+    {
+        ParameterSweep<Double, DevsSimulatorInterface<Double>> sweep = makeSweep();
+        try (SocketFarmTransport transport = new SocketFarmTransport(0))
+        {
+            transport.setReadTimeout(500);
+            ReplicationFarm<Double> farm = makeFarm(sweep, transport);
+            assertEquals(4, farm.getTreatments().size());
+            assertEquals(0, farm.getNumberOfCompletedUnits());
+
+            // a worker that connects first, and disconnects after receiving its first work unit
+            Thread dropout = new Thread(() ->
+            {
+                try (FarmChannel channel = SocketFarmTransport.connect("localhost", transport.getPort()))
+                {
+                    assertTrue(channel.receive() instanceof WorkUnit);
+                }
+                catch (IOException exception)
+                {
+                    throw new RuntimeException(exception);
+                }
+            });
+            dropout.start();
+
+            // a worker that receives a work unit, and never replies
+            CountDownLatch done = new CountDownLatch(1);
+            Thread hung = new Thread(() ->
+            {
+                try (FarmChannel channel = SocketFarmTransport.connect("localhost", transport.getPort()))
+                {
+                    assertTrue(channel.receive() instanceof WorkUnit);
+                    done.await();
+                }
+                catch (IOException | InterruptedException exception)
+                {
+                    throw new RuntimeException(exception);
+                }
+            });
+            hung.start();
+            List<Thread> workers = startWorkers(transport.getPort(), 3);
+            farm.run();
+            done.countDown();
+            dropout.join();
+            hung.join();
+            for (Thread worker : workers)
+            {
+                worker.join();
+            }
+            assertEquals(12, farm.getNumberOfUnits());
+            assertEquals(12, farm.getNumberOfCompletedUnits());
+            assertEquals(5, farm.getNumberOfWorkers());
+            assertNotNull(farm.getResult(3, 2));
+            assertTrue(farm.getResult(3, 2).getNumberOfValues() > 0);
+            assertSameStatistics(sweep, farm);
+            Try.testFail(() -> farm.addTreatment(null));
+        }
+
+        // a treatment with an unknown input parameter fails the farm
+        try (SocketFarmTransport transport = new SocketFarmTransport(0))
+        {
+            ReplicationFarm<Double> farm = new ReplicationFarm<>(new ExperimentRunControl<Double>("fail", 0.0, 10.0, 100.0, 2),
+                    new SweepModel(new DevsSimulator<Double>("template")).getStreams(), transport);
+            farm.addTreatment(Map.of("unknown", "1.0"));
+            List<Thread> workers = startWorkers(transport.getPort(), 1);
+            Try.testFail(() -> farm.run(), SimRuntimeException.class);
+            for (Thread worker : workers)
+            {
+                worker.join();
+            }
+        }
+
+        Try.testFail(() -> new ReplicationFarm<Double>(null, new LinkedHashMap<>(), null));
+        try (SocketFarmTransport transport = new SocketFarmTransport(0))
+        {
+            ReplicationFarm<Double> farm = new ReplicationFarm<>(new ExperimentRunControl<Double>("rc", 0.0, 10.0, 100.0, 2),
+                    new LinkedHashMap<>(), transport);
+            Try.testFail(() -> farm.setStreamUpdater(new AntitheticStreamUpdater()));
+            Try.testFail(() -> farm.setStreamUpdater(new SubstreamUpdater()));
+        }
+    }
+
+    /**
+     * Test the bind address, the read timeout and the filter of the classes that a SocketFarmTransport deserializes.
+     * @throws Exception on error
+     */
+    @Test
+    public void testSocketTransport() throws Exception
+    {
+        try (SocketFarmTransport transport = new SocketFarmTransport(0))
+        {
+            assertEquals(InetAddress.getLoopbackAddress(), transport.getBindAddress());
+            assertEquals(SocketFarmTransport.DEFAULT_READ_TIMEOUT, transport.getReadTimeout());
+            transport.setReadTimeout(200);
+            assertEquals(200, transport.getReadTimeout());
+            Try.testFail(() -> transport.setReadTimeout(-1));
+            assertEquals(null, transport.accept(10));
+
+            CountDownLatch done = new CountDownLatch(1);
+            Thread worker = new Thread(() ->
+            {
+                try (FarmChannel channel = SocketFarmTransport.connect("localhost", transport.getPort()))
+                {
+                    channel.send(new LinkedHashMap<>(Map.of("key", List.of(1L, 2.0))));
+                    channel.send(new File("rejected"));
+                    done.await();
+                }
+                catch (IOException | InterruptedException exception)
+                {
+                    throw new RuntimeException(exception);
+                }
+            });
+            worker.start();
+            FarmChannel channel = null;
+            while (channel == null)
+            {
+                channel = transport.accept(100);
+            }
+            try (FarmChannel coordinator = channel)
+            {
+                assertEquals(Map.of("key", List.of(1L, 2.0)), coordinator.receive());
+                assertThrows(IOException.class, () -> coordinator.receive());
+            }
+            done.countDown();
+            worker.join();
+        }
+
+        // a worker that does not send anything times out
+        try (SocketFarmTransport transport = new SocketFarmTransport(InetAddress.getLoopbackAddress(), 0))
+        {
+            transport.setReadTimeout(200);
+            CountDownLatch done = new CountDownLatch(1);
+            Thread worker = new Thread(() ->
+            {
+                try (FarmChannel channel = SocketFarmTransport.connect("localhost", transport.getPort()))
+                {
+                    done.await();
+                }
+                catch (IOException | InterruptedException exception)
+                {
+                    throw new RuntimeException(exception);
+                }
+            });
+            worker.start();
+            FarmChannel channel = null;
+            while (channel == null)
+            {
+                channel = transport.accept(100);
+            }
+            try (FarmChannel coordinator = channel)
+            {
+                assertThrows(SocketTimeoutException.class, () -> coordinator.receive());
+            }
+            done.countDown();
+            worker.join();
+        }
+        Try.testFail(() -> new SocketFarmTransport(null, 0));
+    }
+
+    /**
+     * Test a farm with workers in forked JVMs.
+     * @throws Exception on error
+     */
+    @Test
+    public void testForkedWorkers() throws Exception
+    {
+        ParameterSweep<Double, DevsSimulatorInterface<Double>> sweep = makeSweep();
+        try (SocketFarmTransport transport = new SocketFarmTransport(0))
+        {
+            ReplicationFarm<Double> farm = makeFarm(sweep, transport);
+            List<Process> processes = new ArrayList<>();
+            for (int w = 0; w < 2; w++)
+            {
+                processes.add(
+                        ReplicationFarmWorker.fork("localhost", transport.getPort(), SweepModelFactory.class, w, "-Xmx256m"));
+            }
+            try
+            {
+                farm.run();
+                for (Process process : processes)
+                {
+                    assertTrue(process.waitFor(60, TimeUnit.SECONDS));
+                    assertEquals(0, process.exitValue());
+                }
+            }
+            finally
+            {
+                processes.forEach(Process::destroyForcibly);
+            }
+            assertEquals(12, farm.getNumberOfCompletedUnits());
+            assertEquals(2, farm.getNumberOfWorkers());
+            assertSameStatistics(sweep, farm);
+        }
+    }
+
+    /**
+     * Make and run a full factorial sweep over the mean interarrival time and the batch size of the SweepModel, with 3
+     * replications.
+     * @return ParameterSweep; the sweep that has been run
+     * @throws InputParameterException on error
+     * @throws IOException on error
+     */
+    private ParameterSweep<Double, DevsSimulatorInterface<Double>> makeSweep() throws InputParameterException, IOException
+    {
+        ParameterSweep<Double, DevsSimulatorInterface<Double>> sweep = new ParameterSweep<>("sweep",
+                new SweepModel(new DevsSimulator<Double>("sweep")).getInputParameterMap(), new FullFactorialDesign(),
+                new ExperimentRunControl<Double>("rc", 0.0, 10.0, 100.0, 3), new SweepModelFactory());
+        sweep.addFactor(new SweepFactor("meanIat", List.of("1.5", "1.0")));
+        sweep.addFactor(new SweepFactor("batch", 1.0, 2.0, 2));
+        sweep.run();
+        return sweep;
+    }
+
+    /**
+     * Make a farm with the same treatments, run control and seeds as the sweep.
+     * @param sweep ParameterSweep; the sweep that has been run
+     * @param transport FarmTransport; the transport of the farm
+     * @return ReplicationFarm; the farm
+     */
+    private ReplicationFarm<Double> makeFarm(final ParameterSweep<Double, DevsSimulatorInterface<Double>> sweep,
+            final FarmTransport transport)
+    {
+        ReplicationFarm<Double> farm = new ReplicationFarm<>(new ExperimentRunControl<Double>("farm", 0.0, 10.0, 100.0, 3),
+                new SweepModel(new DevsSimulator<Double>("template")).getStreams(), transport);
+        for (String[] values : sweep.getTreatments())
+        {
+            Map<String, String> treatment = new LinkedHashMap<>();
+            for (int f = 0; f < values.length; f++)
+            {
+                treatment.put(sweep.getFactors().get(f).getKey(), values[f]);
+            }
+            assertEquals(farm.getTreatments().size(), farm.addTreatment(treatment));
+        }
+        return farm;
+    }
+
+    /**
+     * Start workers in threads that connect to a farm.
+     * @param port int; the port of the farm
+     * @param numberOfWorkers int; the number of workers
+     * @return List&lt;Thread&gt;; the threads of the workers
+     */
+    private List<Thread> startWorkers(final int port, final int numberOfWorkers)
+    {
+        List<Thread> workers = new ArrayList<>();
+        for (int w = 0; w < numberOfWorkers; w++)
+        {
+            ReplicationFarmWorker<Double, DevsSimulatorInterface<Double>> worker =
+                    new ReplicationFarmWorker<>(new SweepModelFactory(), w);
+            Thread thread = new Thread(() ->
+            {
+                try (FarmChannel channel = SocketFarmTransport.connect("localhost", port))
+                {
+                    worker.run(channel);
+                }
+                catch (IOException exception)
+                {
+                    throw new RuntimeException(exception);
+                }
+            });
+            thread.start();
+            workers.add(thread);
+        }
+        return workers;
+    }
+
+    /**
+     * Assert that a farm has the same summary statistics as a sweep for every treatment.
+     * @param sweep ParameterSweep; the sweep
+     * @param farm ReplicationFarm; the farm
+     */
+    private static void assertSameStatistics(final ParameterSweep<Double, DevsSimulatorInterface<Double>> sweep,
+            final ReplicationFarm<Double> farm)
+    {
+        assertEquals(sweep.getTreatments().size(), farm.getTreatments().size());
+        for (int t = 0; t < sweep.getTreatments().size(); t++)
+        {
+            SortedMap<String, SortedMap<String, Tally>> e = sweep.getSummaryStatistics(t);
+            SortedMap<String, SortedMap<String, Tally>> a = farm.getSummaryStatistics(t);
+            assertEquals(e.keySet(), a.keySet());
+            for (String statistic : e.keySet())
+            {
+                assertEquals(e.get(statistic).keySet(), a.get(statistic).keySet());
+                for (String field : e.get(statistic).keySet())
+                {
+                    assertEquals(e.get(statistic).get(field).getN(), a.get(statistic).get(field).getN());
+                    assertEquals(e.get(statistic).get(field).getSampleMean(), a.get(statistic).get(field).getSampleMean(),
+                            0.0);
+                }
+            }
+        }
+    }
+
+    /**
+     * The factory for the SweepModel, with a constructor without arguments, so it can be used in a forked worker JVM.
+     */
+    public static class SweepModelFactory implements ModelFactory<Double, DevsSimulatorInterface<Double>>
+    {
+        @Override
+        public DsolModel<Double, ? extends DevsSimulatorInterface<Double>> createModel(final int workerNumber)
+        {
+            return new SweepModel(new DevsSimulator<Double>("worker" + workerNumber));
+        }
+    }
+
+}
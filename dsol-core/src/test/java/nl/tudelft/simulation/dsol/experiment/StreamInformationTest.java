@@ -4,6 +4,7 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
@@ -13,8 +14,12 @@ import java.util.Map;
 import org.djutils.exceptions.Try;
 import org.junit.jupiter.api.Test;
 
+import nl.tudelft.simulation.jstats.streams.AntitheticStream;
+import nl.tudelft.simulation.jstats.streams.MRG32k3a;
 import nl.tudelft.simulation.jstats.streams.MersenneTwister;
+import nl.tudelft.simulation.jstats.streams.SplittableStreamInterface;
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
+import nl.tudelft.simulation.jstats.streams.Xoshiro256StarStar;
 
 /**
  * StreamInformationTest tests the StreamInformation object.
@@ -140,4 +145,55 @@ public class StreamInformationTest
         ssu.updateSeed("default", si.getStream("default"), 2);
         assertEquals(99L, si.getStream("default").getSeed());
     }
+
+    /**
+     * Test the SubstreamUpdater, which gives every stream and replication its own substream.
+     */
+    @Test
+    public void testSubstreamUpdater()
+    {
+        SubstreamUpdater updater = new SubstreamUpdater(List.of("default", "iat", "service"));
+        assertEquals(1, updater.getStreamIndex("iat"));
+        Try.testFail(() -> updater.getStreamIndex("unknown"));
+        Try.testFail(() -> new SubstreamUpdater(List.of("a", "a")));
+        assertEquals("abc".hashCode() & Integer.MAX_VALUE, new SubstreamUpdater().getStreamIndex("abc"));
+
+        // two ids with the same hash code would get the same substreams
+        SubstreamUpdater hashUpdater = new SubstreamUpdater();
+        assertEquals("Aa".hashCode(), "BB".hashCode());
+        assertEquals(hashUpdater.getStreamIndex("Aa"), hashUpdater.getStreamIndex("Aa"));
+        Try.testFail(() -> hashUpdater.getStreamIndex("BB"), IllegalArgumentException.class);
+        Try.testFail(() -> hashUpdater.updateSeed("BB", new MRG32k3a(5L), 1), IllegalArgumentException.class);
+        new SubstreamUpdater().updateSeed("BB", new MRG32k3a(5L), 1);
+        assertEquals(SimpleStreamUpdater.class, updater.getFallbackStreamUpdater().getClass());
+
+        for (SplittableStreamInterface stream : new SplittableStreamInterface[] {new MRG32k3a(5L), new Xoshiro256StarStar(5L)})
+        {
+            stream.setSeed(77L);
+            updater.updateSeed("service", stream, 4);
+            assertEquals(5L, stream.getSeed());
+            assertEquals(2, stream.getStreamIndex());
+            assertEquals(4, stream.getSubstreamIndex());
+            double value = stream.nextDouble();
+            stream.reset();
+            assertEquals(value, stream.nextDouble(), 0.0);
+            updater.updateSeed("iat", stream, 4);
+            assertNotEquals(value, stream.nextDouble());
+            updater.updateSeed("service", stream, 3);
+            assertNotEquals(value, stream.nextDouble());
+
+            // the stream within an antithetic stream gets the substream
+            AntitheticStream antithetic = new AntitheticStream(stream);
+            new AntitheticStreamUpdater(updater).updateSeed("service", antithetic, 9);
+            assertTrue(antithetic.isAntithetic());
+            assertEquals(4, stream.getSubstreamIndex());
+            assertEquals(1.0, value + antithetic.nextDouble(), 1E-9);
+        }
+
+        // a stream that is not splittable is updated by the fallback
+        StreamInterface mt = new MersenneTwister(10L);
+        updater.updateSeed("iat", mt, 2);
+        assertEquals(10L + 2 * (1_000_037L + "iat".hashCode()), mt.getSeed());
+        Try.testFail(() -> updater.setFallbackStreamUpdater(null));
+    }
 }
@@ -0,0 +1,124 @@
+package nl.tudelft.simulation.dsol.experiment;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.djutils.exceptions.Try;
+import org.junit.jupiter.api.Test;
+
+/**
+ * SummaryAccumulatorTest tests the moments of the SummaryAccumulator, and the merge of accumulators with a parallel reduction.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ */
+public class SummaryAccumulatorTest
+{
+    /**
+     * Test the moments of the values of one accumulator, and of a reduction of accumulators with parts of the values.
+     */
+    @Test
+    public void testAccumulator()
+    {
+        Random random = new Random(12L);
+        double[] values = new double[1000];
+        for (int i = 0; i < values.length; i++)
+        {
+            values[i] = 10.0 + Math.exp(random.nextGaussian());
+        }
+
+        SummaryAccumulator single = new SummaryAccumulator();
+        // more statistics than the initial capacity, so the arrays grow
+        for (int s = 0; s < 40; s++)
+        {
+            assertEquals(s, single.addStatistic("stat" + s));
+        }
+        for (double value : values)
+        {
+            single.add("stat39", SummaryField.SAMPLE_MEAN, value);
+            single.add("stat39", SummaryField.N, Double.NaN); // NaN values are not added
+        }
+        int index = single.getStatisticIndex("stat39");
+        assertEquals(39, index);
+        assertEquals(-1, single.getStatisticIndex("unknown"));
+        assertEquals(40, single.getStatistics().size());
+        assertEquals(0, single.getN(index, SummaryField.N));
+        assertTrue(Double.isNaN(single.getMean(index, SummaryField.N)));
+        assertTrue(Double.isNaN(single.getMin(0, SummaryField.SAMPLE_MEAN)));
+        assertMoments(values, single, index);
+
+        // split the values over accumulators of different sizes, in which the statistics have other indices
+        List<SummaryAccumulator> parts = new ArrayList<>();
+        int from = 0;
+        for (int size : new int[] {1, 2, 97, 300, 0, 600})
+        {
+            SummaryAccumulator part = new SummaryAccumulator();
+            part.addStatistic("other" + size);
+            for (int i = from; i < from + size; i++)
+            {
+                part.add("stat39", SummaryField.SAMPLE_MEAN, values[i]);
+            }
+            parts.add(part);
+            from += size;
+        }
+        assertEquals(values.length, from);
+        SummaryAccumulator reduced = SummaryAccumulator.reduce(parts);
+        assertEquals(7, reduced.getStatistics().size());
+        assertMoments(values, reduced, reduced.getStatisticIndex("stat39"));
+
+        // merging does not change the other accumulator
+        SummaryAccumulator merged = new SummaryAccumulator();
+        merged.merge(parts.get(3));
+        merged.merge(parts.get(5));
+        assertEquals(300, parts.get(3).getN(parts.get(3).getStatisticIndex("stat39"), SummaryField.SAMPLE_MEAN));
+        assertEquals(900, merged.getN(merged.getStatisticIndex("stat39"), SummaryField.SAMPLE_MEAN));
+
+        Try.testFail(() -> single.add(40, SummaryField.N, 1.0), IndexOutOfBoundsException.class);
+        Try.testFail(() -> single.getMean(-1, SummaryField.N), IndexOutOfBoundsException.class);
+        Try.testFail(() -> single.merge(null));
+        assertEquals(SummaryField.SAMPLE_STDEV, SummaryField.of("SampleStDev"));
+        Try.testFail(() -> SummaryField.of("unknown"));
+    }
+
+    /**
+     * Assert that the moments of the accumulator are equal to the moments calculated from all values.
+     * @param values double[]; the values
+     * @param accumulator SummaryAccumulator; the accumulator with the values
+     * @param index int; the index of the statistic with the values
+     */
+    private static void assertMoments(final double[] values, final SummaryAccumulator accumulator, final int index)
+    {
+        SummaryField field = SummaryField.SAMPLE_MEAN;
+        int n = values.length;
+        double mean = Arrays.stream(values).sum() / n;
+        double m2 = 0.0;
+        double m3 = 0.0;
+        double m4 = 0.0;
+        for (double value : values)
+        {
+            double d = value - mean;
+            m2 += d * d;
+            m3 += d * d * d;
+            m4 += d * d * d * d;
+        }
+        assertEquals(n, accumulator.getN(index, field));
+        assertEquals(Arrays.stream(values).sum(), accumulator.getSum(index, field), 1E-9);
+        assertEquals(Arrays.stream(values).min().getAsDouble(), accumulator.getMin(index, field), 0.0);
+        assertEquals(Arrays.stream(values).max().getAsDouble(), accumulator.getMax(index, field), 0.0);
+        assertEquals(mean, accumulator.getMean(index, field), 1E-12);
+        assertEquals(m2 / n, accumulator.getPopulationVariance(index, field), 1E-12);
+        assertEquals(m2 / (n - 1), accumulator.getSampleVariance(index, field), 1E-12);
+        assertEquals(Math.sqrt(m2 / (n - 1)), accumulator.getSampleStDev(index, field), 1E-12);
+        assertEquals((m3 / n) / Math.pow(m2 / n, 1.5), accumulator.getPopulationSkewness(index, field), 1E-9);
+        assertEquals((m4 / n) / ((m2 / n) * (m2 / n)), accumulator.getPopulationKurtosis(index, field), 1E-9);
+    }
+}
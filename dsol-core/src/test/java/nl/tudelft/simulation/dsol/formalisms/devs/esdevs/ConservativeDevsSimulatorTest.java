@@ -0,0 +1,270 @@
+package nl.tudelft.simulation.dsol.formalisms.devs.esdevs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.experiment.SingleReplication;
+import nl.tudelft.simulation.dsol.model.AbstractDsolModel;
+import nl.tudelft.simulation.dsol.simulators.DevsSimulator;
+import nl.tudelft.simulation.dsol.simulators.DevsSimulatorInterface;
+import nl.tudelft.simulation.dsol.simulators.ReplicationState;
+
+/**
+ * ConservativeDevsSimulatorTest runs a network of atomic models that pass messages over couplings with lookahead, sequentially
+ * on the DevsSimulator and in parallel on the ConservativeDevsSimulator, and checks that the results are the same.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ */
+public class ConservativeDevsSimulatorTest
+{
+    /** the number of nodes in the network. */
+    private static final int NODES = 8;
+
+    /** the end time of the runs. */
+    private static final double END_TIME = 50.0;
+
+    /**
+     * Test that the results of the parallel runs are the same as the results of the sequential run.
+     * @throws InterruptedException on interrupt
+     */
+    @Test
+    public void testNetwork() throws InterruptedException
+    {
+        DevsSimulator<Double> simulator = new DevsSimulator<>("sequential");
+        NetworkModel sequential = new NetworkModel(simulator);
+        simulator.initialize(sequential, new SingleReplication<Double>("rep", 0.0, 0.0, END_TIME));
+        simulator.start();
+        while (simulator.getReplicationState() != ReplicationState.ENDED)
+        {
+            Thread.sleep(1);
+        }
+        long received = sequential.nodes.stream().mapToLong(n -> n.received).sum();
+        assertTrue(received > 100);
+        assertEquals(sequential.nodes.stream().mapToLong(n -> n.sent).sum() * 2, received, 2 * 2 * NODES);
+
+        for (int partitions : new int[] {1, 2, 4})
+        {
+            NetworkModel parallel = runParallel(partitions);
+            for (int i = 0; i < NODES; i++)
+            {
+                assertEquals(sequential.nodes.get(i).sent, parallel.nodes.get(i).sent);
+                assertEquals(sequential.nodes.get(i).received, parallel.nodes.get(i).received);
+                assertEquals(sequential.nodes.get(i).checksum, parallel.nodes.get(i).checksum);
+                assertEquals(sequential.nodes.get(i).seed, parallel.nodes.get(i).seed);
+            }
+        }
+    }
+
+    /**
+     * Test the handling of errors.
+     */
+    @Test
+    public void testErrors()
+    {
+        DevsSimulator<Double> simulator = new DevsSimulator<>("errors");
+        NetworkModel model = new NetworkModel(simulator);
+        simulator.initialize(model, new SingleReplication<Double>("rep", 0.0, 0.0, END_TIME));
+        assertThrows(IllegalArgumentException.class, () -> new ConservativeDevsSimulator<>("x", model.network, 0));
+        ConservativeDevsSimulator<Double> conservative = new ConservativeDevsSimulator<>("errors", model.network, 2);
+        assertThrows(IndexOutOfBoundsException.class, () -> conservative.assign(model.nodes.get(0), 2));
+        assertThrows(IllegalArgumentException.class, () -> conservative.assign(model.network, 0));
+        assertThrows(IllegalArgumentException.class, () -> model.nodes.get(0).out.setLookahead(-1.0));
+
+        // a coupling without lookahead between partitions
+        model.nodes.get(0).out.setLookahead(null);
+        assertThrows(SimRuntimeException.class, () -> conservative.run(END_TIME));
+
+        // the coupling is allowed within a partition
+        for (Node node : model.nodes)
+        {
+            conservative.assign(node, 0);
+        }
+        conservative.run(END_TIME);
+        assertTrue(conservative.getExecutedEvents() > 0);
+        assertEquals(0L, conservative.getMessages());
+        assertTrue(conservative.toString().contains("errors"));
+        for (Node node : model.nodes)
+        {
+            assertEquals(simulator, node.getSimulator());
+        }
+    }
+
+    /**
+     * Run the network on the conservative simulator.
+     * @param partitions int; the number of partitions
+     * @return NetworkModel; the model after the run
+     */
+    private NetworkModel runParallel(final int partitions)
+    {
+        DevsSimulator<Double> simulator = new DevsSimulator<>("parallel");
+        NetworkModel model = new NetworkModel(simulator);
+        simulator.initialize(model, new SingleReplication<Double>("rep", 0.0, 0.0, END_TIME));
+        ConservativeDevsSimulator<Double> conservative =
+                new ConservativeDevsSimulator<>("conservative", model.network, partitions);
+        conservative.run(END_TIME);
+        assertEquals(partitions, conservative.getNumberOfPartitions());
+        // all couplings cross partitions when there is more than one partition
+        assertEquals(partitions == 1 ? 0L : 2 * model.nodes.stream().mapToLong(n -> n.sent).sum(),
+                conservative.getMessages());
+        assertTrue(partitions == 1 || conservative.getNullMessages() > 0);
+        assertTrue(!simulator.getEventList().isEmpty());
+        for (Node node : model.nodes)
+        {
+            assertEquals(simulator, node.getSimulator());
+            assertTrue(node.getNextEvent().getAbsoluteExecutionTime() > END_TIME);
+        }
+        return model;
+    }
+
+    /**
+     * The DSOL model that constructs the network: a ring of nodes, where each node also sends to the node three places further.
+     */
+    static class NetworkModel extends AbstractDsolModel<Double, DevsSimulatorInterface<Double>>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the coupled model. */
+        private CoupledModel<Double> network;
+
+        /** the nodes. */
+        private List<Node> nodes = new ArrayList<>();
+
+        /**
+         * @param simulator DevsSimulatorInterface&lt;Double&gt;; the simulator
+         */
+        NetworkModel(final DevsSimulatorInterface<Double> simulator)
+        {
+            super(simulator);
+        }
+
+        @Override
+        public void constructModel() throws SimRuntimeException
+        {
+            this.network = new Network(getSimulator());
+            for (int i = 0; i < NODES; i++)
+            {
+                Node node = new Node("node" + i, this.network, 1000L + i);
+                node.out.setLookahead(0.5);
+                this.nodes.add(node);
+            }
+            for (int i = 0; i < NODES; i++)
+            {
+                this.network.addInternalCoupling(this.nodes.get(i).out, this.nodes.get((i + 1) % NODES).in);
+                this.network.addInternalCoupling(this.nodes.get(i).out, this.nodes.get((i + 3) % NODES).in);
+            }
+            for (Node node : this.nodes)
+            {
+                node.initialize(0.0);
+            }
+        }
+    }
+
+    /**
+     * The coupled model of the network.
+     */
+    static class Network extends CoupledModel<Double>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * @param simulator DevsSimulatorInterface&lt;Double&gt;; the simulator
+         */
+        Network(final DevsSimulatorInterface<Double> simulator)
+        {
+            super("network", simulator);
+        }
+    }
+
+    /**
+     * A node that sends a message to its output port after a random delay, and keeps a checksum of the received messages.
+     */
+    static class Node extends AtomicModel<Double>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the input port. */
+        private InputPort<Double, Long> in = new InputPort<>(this);
+
+        /** the output port. */
+        private OutputPort<Double, Long> out = new OutputPort<>(this);
+
+        /** the state of the random generator. */
+        private long seed;
+
+        /** the time till the next internal transition. */
+        private double sigma;
+
+        /** the number of sent messages. */
+        private long sent = 0L;
+
+        /** the number of received messages. */
+        private long received = 0L;
+
+        /** a checksum over the times and values of the received messages. */
+        private long checksum = 0L;
+
+        /**
+         * @param name String; the name
+         * @param parent CoupledModel&lt;Double&gt;; the parent model
+         * @param seed long; the seed of the random generator
+         */
+        Node(final String name, final CoupledModel<Double> parent, final long seed)
+        {
+            super(name, parent);
+            this.seed = seed;
+            this.sigma = nextDelay();
+        }
+
+        /**
+         * Return a random delay.
+         * @return double; a random delay
+         */
+        private double nextDelay()
+        {
+            this.seed = this.seed * 6364136223846793005L + 1442695040888963407L;
+            return 0.1 + (this.seed >>> 11) / (double) (1L << 53);
+        }
+
+        @Override
+        protected void deltaInternal()
+        {
+            this.sigma = nextDelay();
+        }
+
+        @Override
+        protected void deltaExternal(final Double e, final Object value)
+        {
+            this.sigma -= e;
+            this.received++;
+            this.checksum = this.checksum * 31 + Math.round(getSimulator().getSimulatorTime() * 1.0E6) + (Long) value;
+        }
+
+        @Override
+        protected void lambda()
+        {
+            this.out.send(this.sent++);
+        }
+
+        @Override
+        protected Double timeAdvance()
+        {
+            return this.sigma;
+        }
+    }
+
+}
@@ -1,6 +1,9 @@
 package nl.tudelft.simulation.dsol.formalisms.eventscheduling;
 
 import java.rmi.RemoteException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 import java.util.concurrent.TimeoutException;
 
 import javax.naming.NamingException;
@@ -16,6 +19,7 @@ import nl.tudelft.simulation.dsol.experiment.SingleReplication;
 import nl.tudelft.simulation.dsol.model.AbstractDsolModel;
 import nl.tudelft.simulation.dsol.simulators.DevsSimulator;
 import nl.tudelft.simulation.dsol.simulators.DevsSimulatorInterface;
+import nl.tudelft.simulation.dsol.simulators.SimulatorInterface;
 import nl.tudelft.simulation.jstats.distributions.DistContinuous;
 import nl.tudelft.simulation.jstats.distributions.DistUniform;
 import nl.tudelft.simulation.jstats.streams.MersenneTwister;
@@ -37,6 +41,9 @@ public class DevsSimulationDoubleTest implements EventListener
     @SuppressWarnings("checkstyle:visibilitymodifier")
     protected Waiter waiter;
 
+    /** the number of TIME_CHANGED_EVENTs that have been received. */
+    private int timeChangedEvents = 0;
+
     /**
      * @throws SimRuntimeException in case of error
      * @throws RemoteException in case of error
@@ -73,6 +80,11 @@ public class DevsSimulationDoubleTest implements EventListener
     @Override
     public void notify(final Event event) throws RemoteException
     {
+        if (event.getType().equals(SimulatorInterface.TIME_CHANGED_EVENT))
+        {
+            this.timeChangedEvents++;
+            return;
+        }
         this.waiter.resume();
     }
 
@@ -204,6 +216,422 @@ public class DevsSimulationDoubleTest implements EventListener
         this.waiter.await(20000);
     }
 
+    /** the number of executed events that were scheduled by another thread while the simulator was running. */
+    private int externalEventsExecuted = 0;
+
+    /**
+     * Test the single-threaded run mode, with events that are scheduled and cancelled by another thread while the simulator is
+     * running.
+     * @throws SimRuntimeException in case of error
+     * @throws RemoteException in case of error
+     * @throws NamingException in case of error
+     * @throws InterruptedException on error
+     * @throws TimeoutException on error
+     */
+    @Test
+    public void testSingleThreadedRun()
+            throws SimRuntimeException, RemoteException, NamingException, TimeoutException, InterruptedException
+    {
+        this.waiter = new Waiter();
+        DevsSimulator<Double> simulator = new DevsSimulator<Double>("testSingleThreadedRun");
+        simulator.setSingleThreadedRun(true);
+        this.devsSimulator = simulator;
+        this.devsSimulator.addListener(this, Replication.END_REPLICATION_EVENT);
+        ModelDouble model = new ModelDouble(this.devsSimulator);
+        Replication<Double> rep = new SingleReplication<Double>("rep1", 0.0, 0.0, 1000.0);
+        this.devsSimulator.initialize(model, rep);
+        this.devsSimulator.scheduleEventAbs(1.0, this, "step1", new Object[] {1.0});
+        this.devsSimulator.scheduleEventAbs(500.0, this, "slowStep", new Object[] {500.0});
+        final SimEventInterface<Double> toCancel = this.devsSimulator.scheduleEventAbs(999.0, this, "failWhenExecuted", null);
+        final DevsSimulatorInterface<Double> sim = this.devsSimulator;
+        final Waiter w = this.waiter;
+        final Object target = this;
+        this.devsSimulator.start();
+
+        new Thread(new Runnable()
+        {
+            @Override
+            public void run()
+            {
+                // the events from time 500 onwards take 2 ms each, which gives a window of about 1 second
+                while (sim.getSimulatorTime() < 500.0)
+                {
+                    try
+                    {
+                        Thread.sleep(1);
+                    }
+                    catch (InterruptedException exception)
+                    {
+                        w.fail(exception);
+                    }
+                }
+                w.assertTrue(sim.isStartingOrRunning());
+                for (int i = 0; i < 10; i++)
+                {
+                    double time = 950.0 + i;
+                    sim.scheduleEventAbs(time, target, "externalWork", new Object[] {time});
+                }
+                w.assertTrue(sim.cancelEvent(toCancel));
+                w.assertFalse(sim.cancelEvent(toCancel));
+            }
+        }).start();
+        this.waiter.await(20000);
+        this.waiter.assertEquals(10, this.externalEventsExecuted);
+        this.waiter.assertFalse(simulator.getEventList().contains(toCancel));
+    }
+
+    /**
+     * Do a slow simulation step.
+     * @param checkTime the step on the simulator
+     * @throws SimRuntimeException on error
+     * @throws InterruptedException when the sleep is interrupted
+     */
+    protected void slowStep(final double checkTime) throws SimRuntimeException, InterruptedException
+    {
+        this.waiter.assertEquals(this.devsSimulator.getSimulatorTime(), checkTime, 0.0001);
+        Thread.sleep(2);
+        this.devsSimulator.scheduleEventRel(1.0, this, "slowStep", new Object[] {checkTime + 1.0});
+    }
+
+    /**
+     * Execute an event that was scheduled by another thread.
+     * @param time the expected time when the event should be executed
+     */
+    protected void externalWork(final double time)
+    {
+        this.waiter.assertEquals(time, this.devsSimulator.getSimulatorTime(), 0.0001);
+        this.externalEventsExecuted++;
+    }
+
+    /**
+     * Method that should never be executed, since the event is cancelled.
+     */
+    protected void failWhenExecuted()
+    {
+        this.waiter.fail("cancelled event was executed");
+    }
+
+    /** the number of executed events in the recycling test. */
+    private int recycledExecutions = 0;
+
+    /** the event that is cancelled in the recycling test. */
+    private SimEventInterface<Double> cancelledEvent;
+
+    /** the generation of the event that is cancelled in the recycling test. */
+    private int cancelledGeneration;
+
+    /**
+     * Test the recycling of events for lambda expressions, and the detection of stale events with the generation.
+     * @throws SimRuntimeException in case of error
+     * @throws RemoteException in case of error
+     * @throws NamingException in case of error
+     * @throws InterruptedException on error
+     * @throws TimeoutException on error
+     */
+    @Test
+    public void testEventRecycling()
+            throws SimRuntimeException, RemoteException, NamingException, TimeoutException, InterruptedException
+    {
+        this.waiter = new Waiter();
+        DevsSimulator<Double> simulator = new DevsSimulator<Double>("testEventRecycling");
+        simulator.setEventRecycling(true);
+        this.devsSimulator = simulator;
+        this.devsSimulator.addListener(this, Replication.END_REPLICATION_EVENT);
+        ModelDouble model = new ModelDouble(this.devsSimulator);
+        Replication<Double> rep = new SingleReplication<Double>("rep1", 0.0, 0.0, 1000.0);
+        this.devsSimulator.initialize(model, rep);
+        // scheduled by this thread, so not taken from the pool
+        SimEventInterface<Double> first = simulator.scheduleEventAbs(1.0, () -> recycledStep(simulator));
+        this.waiter.assertFalse(first instanceof RecyclableLambdaSimEvent);
+        simulator.scheduleEventAbs(10.0, () ->
+        {
+            this.cancelledEvent = simulator.scheduleEventRel(10.0, () -> this.waiter.fail("cancelled event executed"));
+            this.waiter.assertTrue(this.cancelledEvent instanceof RecyclableLambdaSimEvent);
+            this.cancelledGeneration = ((RecyclableLambdaSimEvent<Double>) this.cancelledEvent).getGeneration();
+            simulator.scheduleEventRel(5.0, () ->
+            {
+                this.waiter.assertTrue(simulator.cancelEvent(this.cancelledEvent, this.cancelledGeneration));
+                this.waiter.assertFalse(simulator.cancelEvent(this.cancelledEvent, this.cancelledGeneration));
+            });
+        });
+        this.devsSimulator.start();
+        this.waiter.await(20000);
+        this.waiter.assertEquals(1000, this.recycledExecutions);
+        SimEventPool<Double> pool = simulator.getEventPool();
+        this.waiter.assertTrue(pool.getCreatedCount() <= 5);
+        this.waiter.assertTrue(pool.getReusedCount() >= 995);
+        // the cancelled event has been recycled and reused, so its generation has changed
+        this.waiter.assertTrue(((RecyclableLambdaSimEvent<Double>) this.cancelledEvent)
+                .getGeneration() != this.cancelledGeneration);
+    }
+
+    /**
+     * Execute a step in the recycling test, and schedule the next step with a recycled event.
+     * @param simulator DevsSimulator&lt;Double&gt;; the simulator
+     */
+    protected void recycledStep(final DevsSimulator<Double> simulator)
+    {
+        this.recycledExecutions++;
+        this.waiter.assertEquals(1.0 * this.recycledExecutions, simulator.getSimulatorTime(), 0.0001);
+        simulator.scheduleEventRel(1.0, () -> recycledStep(simulator));
+    }
+
+    /**
+     * Test the batched execution of events with the same time: one TIME_CHANGED_EVENT per time, an event with a higher priority
+     * that is scheduled at the same time during the batch is executed before the rest of the batch, and an event in the batch
+     * can be cancelled by an earlier event in the batch.
+     * @throws SimRuntimeException in case of error
+     * @throws RemoteException in case of error
+     * @throws NamingException in case of error
+     * @throws InterruptedException on error
+     * @throws TimeoutException on error
+     */
+    @Test
+    public void testBatchExecution()
+            throws SimRuntimeException, RemoteException, NamingException, TimeoutException, InterruptedException
+    {
+        this.waiter = new Waiter();
+        this.devsSimulator = new DevsSimulator<Double>("testBatchExecution");
+        this.devsSimulator.addListener(this, Replication.END_REPLICATION_EVENT);
+        this.devsSimulator.addListener(this, SimulatorInterface.TIME_CHANGED_EVENT);
+        ModelDouble model = new ModelDouble(this.devsSimulator);
+        Replication<Double> rep = new SingleReplication<Double>("rep1", 0.0, 0.0, 100.0);
+        this.devsSimulator.initialize(model, rep);
+        List<Integer> order = new ArrayList<>();
+        List<SimEventInterface<Double>> events = new ArrayList<>();
+        for (int i = 0; i < 100; i++)
+        {
+            int nr = i;
+            events.add(this.devsSimulator.scheduleEventAbs(5.0, () -> order.add(nr)));
+        }
+        for (int i = 100; i < 110; i++)
+        {
+            int nr = i;
+            this.devsSimulator.scheduleEventAbs(6.0, () -> order.add(nr));
+        }
+        this.devsSimulator.scheduleEventAbs(5.0, SimEventInterface.MAX_PRIORITY, () ->
+        {
+            order.add(-1);
+            this.devsSimulator.scheduleEventNow(SimEventInterface.MAX_PRIORITY, () -> order.add(-2));
+            this.waiter.assertTrue(this.devsSimulator.cancelEvent(events.get(50)));
+            this.waiter.assertFalse(this.devsSimulator.cancelEvent(events.get(50)));
+        });
+        this.devsSimulator.start();
+        this.waiter.await(10000);
+        this.waiter.assertEquals(111, order.size());
+        this.waiter.assertEquals(-1, order.get(0));
+        this.waiter.assertEquals(-2, order.get(1));
+        this.waiter.assertFalse(order.contains(50));
+        for (int i = 3; i < order.size(); i++)
+        {
+            this.waiter.assertTrue(order.get(i - 1) < order.get(i));
+        }
+        // the times 5.0, 6.0 and the end time 100.0
+        this.waiter.assertEquals(3, this.timeChangedEvents);
+    }
+
+    /**
+     * Test the parallel execution of partitioned events: the events of each partition should be executed in the same order as
+     * in sequential execution, including same-time events with a higher priority and cancellation within a partition.
+     * @throws SimRuntimeException in case of error
+     * @throws RemoteException in case of error
+     * @throws NamingException in case of error
+     * @throws InterruptedException on error
+     * @throws TimeoutException on error
+     */
+    @Test
+    public void testParallelExecution()
+            throws SimRuntimeException, RemoteException, NamingException, TimeoutException, InterruptedException
+    {
+        List<List<Integer>> sequential = runPartitioned(null);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        List<List<Integer>> parallel = runPartitioned(pool);
+        pool.shutdown();
+        List<Integer> expected = new ArrayList<>();
+        for (int round = 0; round < 10; round++)
+        {
+            expected.addAll(List.of(0, 1, 100, 2, 4));
+        }
+        for (int p = 0; p < 8; p++)
+        {
+            this.waiter.assertEquals(expected, sequential.get(p));
+            this.waiter.assertEquals(expected, parallel.get(p));
+        }
+    }
+
+    /**
+     * Test that the events that are scheduled by different partitions in parallel are executed in the order of the partitions,
+     * also when they are of different event types, and that an event cannot cancel an event of another partition during
+     * parallel execution.
+     * @throws SimRuntimeException in case of error
+     * @throws RemoteException in case of error
+     * @throws NamingException in case of error
+     * @throws InterruptedException on error
+     * @throws TimeoutException on error
+     */
+    @Test
+    public void testParallelOrder()
+            throws SimRuntimeException, RemoteException, NamingException, TimeoutException, InterruptedException
+    {
+        this.waiter = new Waiter();
+        DevsSimulator<Double> simulator = new DevsSimulator<Double>("testParallelOrder");
+        ForkJoinPool pool = new ForkJoinPool(4);
+        simulator.setParallelExecution(pool);
+        this.devsSimulator = simulator;
+        this.devsSimulator.addListener(this, Replication.END_REPLICATION_EVENT);
+        this.devsSimulator.initialize(new ModelDouble(this.devsSimulator),
+                new SingleReplication<Double>("rep1", 0.0, 0.0, 100.0));
+        List<Integer> order = new ArrayList<>();
+        List<SimEventInterface<Double>> later = new ArrayList<>();
+        for (int p = 0; p < 8; p++)
+        {
+            later.add(simulator.scheduleEvent(new PartitionedLambdaSimEvent<Double>(50.0, p, () -> order.add(-1))));
+        }
+        SimEventInterface<Double> global = simulator.scheduleEvent(new LambdaSimEvent<Double>(60.0, () -> order.add(-2)));
+        for (int p = 0; p < 8; p++)
+        {
+            scheduleOrderRound(simulator, p, 1.0, order, later, global);
+        }
+        this.devsSimulator.start();
+        this.waiter.await(10000);
+        pool.shutdown();
+        List<Integer> expected = new ArrayList<>();
+        for (int round = 0; round < 10; round++)
+        {
+            expected.addAll(List.of(0, 1, 2, 3, 4, 5, 6, 7));
+        }
+        expected.addAll(List.of(-1, -1, -1, -1, -1, -1, -1, -1, -2));
+        this.waiter.assertEquals(expected, order);
+    }
+
+    /**
+     * Schedule an event for one partition that schedules an event without partition half a time unit later, which logs the
+     * partition, and the event of the next round. In the first round, the event tries to cancel an event of another partition
+     * and an event without partition.
+     * @param simulator DevsSimulator&lt;Double&gt;; the simulator
+     * @param partition int; the partition
+     * @param time double; the time of the round
+     * @param order List&lt;Integer&gt;; the log of the events without partition
+     * @param later List&lt;SimEventInterface&lt;Double&gt;&gt;; an event per partition at a later time
+     * @param global SimEventInterface&lt;Double&gt;; an event without partition at a later time
+     * @throws SimRuntimeException on error
+     */
+    protected void scheduleOrderRound(final DevsSimulator<Double> simulator, final int partition, final double time,
+            final List<Integer> order, final List<SimEventInterface<Double>> later, final SimEventInterface<Double> global)
+            throws SimRuntimeException
+    {
+        simulator.scheduleEvent(new PartitionedLambdaSimEvent<Double>(time, partition, () ->
+        {
+            if (time == 1.0)
+            {
+                SimEventInterface<Double> other = later.get((partition + 1) % later.size());
+                this.waiter.assertTrue(rejectsCancel(simulator, other));
+                this.waiter.assertTrue(rejectsCancel(simulator, global));
+            }
+            for (int k = 0; k < 100 * (8 - partition); k++)
+            {
+                // construct events in different partitions at the same moment
+                new LambdaSimEvent<Double>(time, () -> order.add(-3));
+            }
+            // mix the event types, since the ids of all types have to be renumbered in the same order
+            simulator.scheduleEvent(partition % 2 == 0 ? new DoubleLambdaSimEvent(time + 0.5, () -> order.add(partition))
+                    : new LambdaSimEvent<Double>(time + 0.5, () -> order.add(partition)));
+            if (time < 10.0)
+            {
+                scheduleOrderRound(simulator, partition, time + 1.0, order, later, global);
+            }
+        }));
+    }
+
+    /**
+     * Return whether cancelling an event is rejected with a SimRuntimeException.
+     * @param simulator DevsSimulator&lt;Double&gt;; the simulator
+     * @param event SimEventInterface&lt;Double&gt;; the event to cancel
+     * @return boolean; whether cancelling the event is rejected
+     */
+    private static boolean rejectsCancel(final DevsSimulator<Double> simulator, final SimEventInterface<Double> event)
+    {
+        try
+        {
+            simulator.cancelEvent(event);
+            return false;
+        }
+        catch (SimRuntimeException exception)
+        {
+            return true;
+        }
+    }
+
+    /**
+     * Run a model with 8 partitions that each execute rounds of 5 same-time events, and return the log of each partition.
+     * @param pool ForkJoinPool; the pool for parallel execution, or null for sequential execution
+     * @return List&lt;List&lt;Integer&gt;&gt;; the log of the executed events per partition
+     * @throws SimRuntimeException in case of error
+     * @throws RemoteException in case of error
+     * @throws NamingException in case of error
+     * @throws TimeoutException on error
+     * @throws InterruptedException on error
+     */
+    protected List<List<Integer>> runPartitioned(final ForkJoinPool pool)
+            throws SimRuntimeException, RemoteException, NamingException, TimeoutException, InterruptedException
+    {
+        this.waiter = new Waiter();
+        DevsSimulator<Double> simulator = new DevsSimulator<Double>("testParallelExecution");
+        simulator.setParallelExecution(pool);
+        this.devsSimulator = simulator;
+        this.devsSimulator.addListener(this, Replication.END_REPLICATION_EVENT);
+        ModelDouble model = new ModelDouble(this.devsSimulator);
+        Replication<Double> rep = new SingleReplication<Double>("rep1", 0.0, 0.0, 100.0);
+        this.devsSimulator.initialize(model, rep);
+        List<List<Integer>> logs = new ArrayList<>();
+        for (int p = 0; p < 8; p++)
+        {
+            logs.add(new ArrayList<>());
+            schedulePartitionRound(simulator, p, 1.0, logs.get(p), new ArrayList<>());
+        }
+        this.devsSimulator.start();
+        this.waiter.await(10000);
+        return logs;
+    }
+
+    /**
+     * Schedule a round of 5 events for one partition. Event 1 schedules an event with a higher priority at the same time, event
+     * 2 cannot cancel the executed event 0 and cancels event 3, and event 4 schedules the next round.
+     * @param simulator DevsSimulator&lt;Double&gt;; the simulator
+     * @param partition int; the partition
+     * @param time double; the time of the round
+     * @param log List&lt;Integer&gt;; the log of the partition
+     * @param events List&lt;SimEventInterface&lt;Double&gt;&gt;; the events of the round
+     * @throws SimRuntimeException on error
+     */
+    protected void schedulePartitionRound(final DevsSimulator<Double> simulator, final int partition, final double time,
+            final List<Integer> log, final List<SimEventInterface<Double>> events) throws SimRuntimeException
+    {
+        events.clear();
+        for (int k = 0; k < 5; k++)
+        {
+            int nr = k;
+            events.add(simulator.scheduleEvent(new PartitionedLambdaSimEvent<Double>(time, partition, () ->
+            {
+                log.add(nr);
+                if (nr == 1)
+                {
+                    simulator.scheduleEvent(new PartitionedLambdaSimEvent<Double>(time, SimEventInterface.MAX_PRIORITY,
+                            partition, () -> log.add(100)));
+                }
+                else if (nr == 2)
+                {
+                    this.waiter.assertFalse(simulator.cancelEvent(events.get(0)));
+                    this.waiter.assertTrue(simulator.cancelEvent(events.get(3)));
+                }
+                else if (nr == 4 && time < 10.0)
+                {
+                    schedulePartitionRound(simulator, partition, time + 1.0, log, events);
+                }
+            })));
+        }
+    }
+
     /**
      * THE MODEL.
      */
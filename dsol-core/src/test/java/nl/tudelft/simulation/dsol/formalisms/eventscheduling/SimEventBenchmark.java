@@ -0,0 +1,106 @@
+package nl.tudelft.simulation.dsol.formalisms.eventscheduling;
+
+import java.lang.reflect.Method;
+
+import org.djutils.reflection.ClassUtil;
+
+/**
+ * The SimEventBenchmark compares the execution speed of a SimEvent, which uses cached method handles, with the uncached
+ * reflective resolution and invocation of the method, and with a LambdaSimEvent.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ */
+public final class SimEventBenchmark
+{
+    /** the number of executions per benchmark. */
+    private static final int N = 2000000;
+
+    /** counter to make sure the method calls are not optimized away. */
+    private long counter = 0;
+
+    /**
+     * constructs a new SimEventBenchmark.
+     */
+    private SimEventBenchmark()
+    {
+        // unreachable code
+    }
+
+    /**
+     * method that is invoked by the events.
+     * @param value int; the value to add
+     * @param weight double; a second argument
+     */
+    protected void add(final int value, final double weight)
+    {
+        this.counter += value + (long) weight;
+    }
+
+    /**
+     * benchmarks the uncached resolution and reflective invocation of the method, as SimEvent did before caching.
+     * @return the execution time in milliseconds
+     * @throws Exception on reflection error
+     */
+    public long benchmarkReflection() throws Exception
+    {
+        Object[] args = new Object[] {1, 1.0};
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < N; i++)
+        {
+            Method method = ClassUtil.resolveMethod(this, "add", args);
+            method.setAccessible(true);
+            method.invoke(this, args);
+        }
+        return System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * benchmarks the execution of SimEvents, which use a cached method handle.
+     * @return the execution time in milliseconds
+     */
+    public long benchmarkSimEvent()
+    {
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < N; i++)
+        {
+            new SimEvent<Double>(0.0, this, "add", new Object[] {1, 1.0}).execute();
+        }
+        return System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * benchmarks the execution of LambdaSimEvents.
+     * @return the execution time in milliseconds
+     */
+    public long benchmarkLambdaSimEvent()
+    {
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < N; i++)
+        {
+            new LambdaSimEvent<Double>(0.0, () -> add(1, 1.0)).execute();
+        }
+        return System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * executes the benchmark.
+     * @param args the commandline arguments
+     * @throws Exception on reflection error
+     */
+    public static void main(final String[] args) throws Exception
+    {
+        SimEventBenchmark benchmark = new SimEventBenchmark();
+        for (int run = 0; run < 3; run++)
+        {
+            System.out.println("reflection      : " + benchmark.benchmarkReflection());
+            System.out.println("SimEvent        : " + benchmark.benchmarkSimEvent());
+            System.out.println("LambdaSimEvent  : " + benchmark.benchmarkLambdaSimEvent());
+        }
+        System.out.println("(counter = " + benchmark.counter + ")");
+    }
+}
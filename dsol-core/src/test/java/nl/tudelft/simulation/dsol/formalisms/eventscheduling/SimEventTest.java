@@ -1,13 +1,23 @@
 package nl.tudelft.simulation.dsol.formalisms.eventscheduling;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.reflect.InvocationTargetException;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
 import java.util.concurrent.atomic.AtomicInteger;
 
 import org.junit.jupiter.api.Test;
 
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+
 /**
  * SimEventTest.java.
  * <p>
@@ -48,6 +58,219 @@ public class SimEventTest
             fail("repeated id in SimEvent using parallel construction; total " + this.errors.get() + " errors");
     }
 
+    /**
+     * Test the execution of methods and constructors through SimEvent, including the resolution of overloaded methods, and
+     * the wrapping of exceptions.
+     * @throws Throwable on error
+     */
+    @Test
+    public void testExecute() throws Throwable
+    {
+        Target target = new Target();
+        new SimEvent<Double>(0.0, target, "call", null).execute();
+        assertEquals("call()", target.last);
+        new SimEvent<Double>(0.0, target, "call", new Object[] {}).execute();
+        assertEquals("call()", target.last);
+        new SimEvent<Double>(0.0, target, "call", new Object[] {3}).execute();
+        assertEquals("call(int)", target.last);
+        new SimEvent<Double>(0.0, target, "call", new Object[] {"x"}).execute();
+        assertEquals("call(String)", target.last);
+        new SimEvent<Double>(0.0, target, "call", new Object[] {2.5, 4}).execute();
+        assertEquals("call(double, int)", target.last);
+        new SimEvent<Double>(0.0, target, "privateCall", new Object[] {7L}).execute();
+        assertEquals("privateCall(7)", target.last);
+
+        // the same combination of class, name and argument types gives the cached handle
+        MethodHandle h1 = MethodHandleCache.resolveMethod(target, "call", new Object[] {1});
+        MethodHandle h2 = MethodHandleCache.resolveMethod(new Target(), "call", new Object[] {2});
+        assertSame(h1, h2);
+        MethodHandle h3 = MethodHandleCache.resolveMethod(target, "call", new Object[] {"y"});
+        assertTrue(h1 != h3);
+        assertEquals("call(int)", MethodHandleCache.invoke(target, "result", new Object[] {1}));
+        assertNull(MethodHandleCache.invoke(target, "call", null));
+
+        // constructors
+        Target.constructed = null;
+        new SimEvent<Double>(0.0, Target.class, "<init>", new Object[] {"abc"}).execute();
+        assertEquals("abc", Target.constructed);
+        Object created = MethodHandleCache.newInstance(Target.class, null);
+        assertTrue(created instanceof Target);
+
+        // exceptions
+        SimRuntimeException sre =
+                assertThrows(SimRuntimeException.class, () -> new SimEvent<Double>(0.0, target, "fail", null).execute());
+        assertTrue(sre.getCause() instanceof InvocationTargetException);
+        assertTrue(sre.getCause().getCause() instanceof IllegalStateException);
+        sre = assertThrows(SimRuntimeException.class, () -> new SimEvent<Double>(0.0, target, "doesNotExist", null).execute());
+        assertTrue(sre.getCause() instanceof NoSuchMethodException);
+        assertThrows(SimRuntimeException.class, () -> new SimEvent<Double>(0.0, target, "<init>", null).execute());
+        MethodHandleCache.clear(Target.class);
+        assertTrue(h1 != MethodHandleCache.resolveMethod(target, "call", new Object[] {1}));
+    }
+
+    /**
+     * Test that an event from a pool gets its id when it is obtained, so it is ordered after events constructed earlier.
+     */
+    @Test
+    public void testPoolIds()
+    {
+        SimEventPool<Double> pool = new SimEventPool<>();
+        RecyclableLambdaSimEvent<Double> first = pool.obtain(1.0, SimEventInterface.NORMAL_PRIORITY, () -> {});
+        SimEvent<Double> simEvent = new SimEvent<Double>(1.0, this, "toString", null);
+        RecyclableLambdaSimEvent<Double> second = pool.obtain(1.0, SimEventInterface.NORMAL_PRIORITY, () -> {});
+        assertTrue(first.getId() < simEvent.getId() && simEvent.getId() < second.getId());
+        assertTrue(pool.release(first));
+        RecyclableLambdaSimEvent<Double> reused = pool.obtain(1.0, SimEventInterface.NORMAL_PRIORITY, () -> {});
+        assertSame(first, reused);
+        assertTrue(reused.getId() > second.getId());
+        assertTrue(simEvent.compareTo(reused) < 0);
+    }
+
+    /**
+     * Test that renumbering gives events of all types new ids in the order of the list.
+     */
+    @Test
+    public void testRenumber()
+    {
+        LongLambdaSimEvent longEvent = new LongLambdaSimEvent(1L, () -> {});
+        SimEvent<Double> simEvent = new SimEvent<Double>(1.0, this, "toString", null);
+        DoubleLambdaSimEvent doubleEvent = new DoubleLambdaSimEvent(1.0, () -> {});
+        assertTrue(longEvent.getId() < simEvent.getId() && simEvent.getId() < doubleEvent.getId());
+        AbstractSimEvent.renumber(List.of(doubleEvent, simEvent, longEvent));
+        assertEquals(doubleEvent.getId() + 1, simEvent.getId());
+        assertEquals(simEvent.getId() + 1, longEvent.getId());
+    }
+
+    /**
+     * Test that static methods with the same name and arguments in different classes each reach their own class, and that a
+     * method of java.lang.Class can still be invoked on a class target.
+     * @throws Throwable on error
+     */
+    @Test
+    public void testStaticExecute() throws Throwable
+    {
+        StaticA.called = 0;
+        StaticB.called = 0;
+        new SimEvent<Double>(0.0, StaticA.class, "go", null).execute();
+        assertEquals(1, StaticA.called);
+        assertEquals(0, StaticB.called);
+        new SimEvent<Double>(0.0, StaticB.class, "go", null).execute();
+        assertEquals(1, StaticA.called);
+        assertEquals(1, StaticB.called);
+        new SimEvent<Double>(0.0, StaticB.class, "go", null).execute();
+        new SimEvent<Double>(0.0, StaticA.class, "go", new Object[] {}).execute();
+        assertEquals(2, StaticA.called);
+        assertEquals(2, StaticB.called);
+        assertEquals(StaticB.class.getName(), MethodHandleCache.invoke(StaticB.class, "getName", null));
+        assertThrows(SimRuntimeException.class, () -> new SimEvent<Double>(0.0, StaticA.class, "noStatic", null).execute());
+    }
+
+    /** first class with a static method for the static execution test. */
+    static class StaticA
+    {
+        /** the number of calls. */
+        static int called;
+
+        /** */
+        static void go()
+        {
+            called++;
+        }
+    }
+
+    /** second class with a static method with the same signature for the static execution test. */
+    static class StaticB
+    {
+        /** the number of calls. */
+        static int called;
+
+        /** */
+        static void go()
+        {
+            called++;
+        }
+    }
+
+    /** target class for the execution tests. */
+    static class Target
+    {
+        /** the last constructor argument. */
+        static String constructed;
+
+        /** the last method that was called. */
+        String last;
+
+        /** */
+        Target()
+        {
+            //
+        }
+
+        /**
+         * @param s String; argument
+         */
+        Target(final String s)
+        {
+            constructed = s;
+        }
+
+        /** */
+        void call()
+        {
+            this.last = "call()";
+        }
+
+        /**
+         * @param i int; argument
+         */
+        void call(final int i)
+        {
+            this.last = "call(int)";
+        }
+
+        /**
+         * @param s String; argument
+         */
+        void call(final String s)
+        {
+            this.last = "call(String)";
+        }
+
+        /**
+         * @param d double; argument
+         * @param i int; argument
+         */
+        void call(final double d, final int i)
+        {
+            this.last = "call(double, int)";
+        }
+
+        /**
+         * @param l long; argument
+         */
+        @SuppressWarnings("unused")
+        private void privateCall(final long l)
+        {
+            this.last = "privateCall(" + l + ")";
+        }
+
+        /**
+         * @param i int; argument
+         * @return String; the method that was called
+         */
+        String result(final int i)
+        {
+            call(i);
+            return this.last;
+        }
+
+        /** */
+        void fail()
+        {
+            throw new IllegalStateException("fail");
+        }
+    }
+
     /** thread to create 100000 events each. */
     class ThreadRunner extends Thread
     {
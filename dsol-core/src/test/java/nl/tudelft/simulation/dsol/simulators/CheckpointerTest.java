@@ -0,0 +1,207 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.djutils.exceptions.Try;
+import org.junit.jupiter.api.Test;
+
+import nl.tudelft.simulation.dsol.Sleep;
+import nl.tudelft.simulation.dsol.experiment.ExperimentTest.MM1Model;
+import nl.tudelft.simulation.dsol.experiment.SingleReplication;
+import nl.tudelft.simulation.dsol.experiment.StreamInformation;
+import nl.tudelft.simulation.dsol.model.DsolModel;
+import nl.tudelft.simulation.dsol.statistics.SimTally;
+import nl.tudelft.simulation.dsol.statistics.SimulationStatistic;
+import nl.tudelft.simulation.jstats.streams.MersenneTwister;
+
+/**
+ * CheckpointerTest tests the incremental checkpoints of a running simulation, and the restore from the last checkpoint.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ */
+public class CheckpointerTest
+{
+    /**
+     * Test the delta encoding of the checkpoints.
+     * @throws IOException on error
+     */
+    @Test
+    public void testDelta() throws IOException
+    {
+        Random random = new Random(1L);
+        byte[] previous = new byte[20 * Checkpointer.BLOCK_SIZE + 17];
+        random.nextBytes(previous);
+        // insert 10 bytes that shift the rest of the state, and change one byte at the end
+        int insert = 3 * Checkpointer.BLOCK_SIZE + 5;
+        byte[] current = new byte[previous.length + 10];
+        System.arraycopy(previous, 0, current, 0, insert);
+        System.arraycopy(previous, insert, current, insert + 10, previous.length - insert);
+        current[current.length - 100]++;
+        byte[] delta = Checkpointer.delta(previous, current);
+        assertNotNull(delta);
+        assertTrue(delta.length < 3 * Checkpointer.BLOCK_SIZE, "delta length " + delta.length);
+        assertArrayEquals(current, Checkpointer.apply(previous, ByteBuffer.wrap(delta), current.length));
+        assertArrayEquals(previous, Checkpointer.apply(previous,
+                ByteBuffer.wrap(Checkpointer.delta(previous, previous)), previous.length));
+
+        byte[] other = new byte[current.length];
+        random.nextBytes(other);
+        assertNull(Checkpointer.delta(previous, other));
+        Try.testFail(() -> Checkpointer.apply(previous, ByteBuffer.wrap(delta), current.length + 5));
+    }
+
+    /**
+     * Test that the delta checkpoint after one event of the model is much smaller than a full checkpoint, since the compact
+     * state of the snapshot only changes in a few places when the model changes a little.
+     * @throws IOException on error
+     */
+    @Test
+    public void testSmallDelta() throws IOException
+    {
+        Path directory = Files.createTempDirectory("checkpoint");
+        Path file = directory.resolve("delta.ckp");
+        DevsSimulator<Double> simulator = new DevsSimulator<Double>("delta");
+        SingleReplication<Double> replication = new SingleReplication<Double>("rep", 0.0, 10.0, 200.0);
+        StreamInformation streamInformation = new StreamInformation(new MersenneTwister(5L));
+        streamInformation.addStream("iatStream", new MersenneTwister(6L));
+        streamInformation.addStream("procStream", new MersenneTwister(7L));
+        simulator.initialize(new MM1Model(simulator, streamInformation), replication);
+        for (int i = 0; i < 50; i++)
+        {
+            simulator.step();
+        }
+        Checkpointer<Double> checkpointer = new Checkpointer<Double>(simulator, file, 15.0);
+        checkpointer.checkpoint();
+        long full = checkpointer.getBytesWritten();
+        simulator.step();
+        checkpointer.checkpoint();
+        long delta = checkpointer.getBytesWritten() - full;
+        assertEquals(2, checkpointer.getNumberOfCheckpoints());
+        assertEquals(1, checkpointer.getNumberOfFullCheckpoints());
+        assertTrue(10 * delta < full, "delta " + delta + " bytes, full checkpoint " + full + " bytes");
+        assertEquals(simulator.getSimulatorTime(), Checkpointer.<Double> readLatest(file).getTime(), 0.0);
+        replication.removeFromContext();
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Test that a run with checkpoints gives the same results as a run without checkpoints, and as a run that is restored from
+     * the last checkpoint, also when the last record of the checkpoint file is incomplete.
+     * @throws IOException on error
+     */
+    @Test
+    public void testCheckpointRestore() throws IOException
+    {
+        Path directory = Files.createTempDirectory("checkpoint");
+        Path file = directory.resolve("run.ckp");
+        Try.testFail(() -> new Checkpointer<Double>(new DevsSimulator<Double>("x"), file, 0.0));
+        Try.testFail(() -> new Checkpointer<Double>(new DevsSimulator<Double>("x"), file, 10.0).start());
+
+        List<Double> reference = run(new DevsSimulator<Double>("reference"), null, null);
+
+        DevsSimulator<Double> simulator = new DevsSimulator<Double>("checkpointed");
+        Checkpointer<Double> checkpointer = new Checkpointer<Double>(simulator, file, 15.0);
+        checkpointer.setFullCheckpointInterval(5);
+        assertEquals(5, checkpointer.getFullCheckpointInterval());
+        assertEquals(reference, run(simulator, checkpointer, null));
+        assertEquals(13, checkpointer.getNumberOfCheckpoints());
+        assertEquals(3, checkpointer.getNumberOfFullCheckpoints()); // checkpoints 0, 5 and 10; the others are deltas
+        assertEquals(195.0, checkpointer.getLastCheckpointTime(), 0.0);
+        assertTrue(checkpointer.getBytesWritten() > Files.size(file)); // the file starts at the last full checkpoint
+
+        // restore from the last checkpoint
+        SimulatorSnapshot<Double> snapshot = Checkpointer.readLatest(file);
+        assertEquals(195.0, snapshot.getTime(), 0.0);
+        assertEquals(reference, run(new DevsSimulator<Double>("restored"), null, snapshot));
+
+        // an incomplete last record is ignored; the restored run continues with new checkpoints
+        long size = Files.size(file);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE))
+        {
+            channel.truncate(size - 10);
+        }
+        snapshot = Checkpointer.readLatest(file);
+        assertTrue(snapshot.getTime() < 195.0);
+        DevsSimulator<Double> restoredSimulator = new DevsSimulator<Double>("restored2");
+        Checkpointer<Double> restoredCheckpointer = new Checkpointer<Double>(restoredSimulator, file, 15.0);
+        assertEquals(reference, run(restoredSimulator, restoredCheckpointer, snapshot));
+        assertEquals(195.0, restoredCheckpointer.getLastCheckpointTime(), 0.0);
+        assertEquals(195.0, Checkpointer.<Double> readLatest(file).getTime(), 0.0);
+
+        Files.write(file, new byte[] {1, 2, 3, 4, 5, 6, 7, 8, 9});
+        Try.testFail(() -> Checkpointer.readLatest(file));
+        Files.deleteIfExists(file);
+        Files.deleteIfExists(directory);
+    }
+
+    /**
+     * Run the MM1 model from time 0 or from a snapshot up to time 200, and return the values of its tallies.
+     * @param simulator DevsSimulator&lt;Double&gt;; the simulator
+     * @param checkpointer Checkpointer&lt;Double&gt;; the checkpointer to start, or null to run without checkpoints
+     * @param snapshot SimulatorSnapshot&lt;Double&gt;; the snapshot to restore, or null to run from time 0
+     * @return List&lt;Double&gt;; the number of observations and the mean of each tally of the model
+     */
+    private List<Double> run(final DevsSimulator<Double> simulator, final Checkpointer<Double> checkpointer,
+            final SimulatorSnapshot<Double> snapshot)
+    {
+        SingleReplication<Double> replication = new SingleReplication<Double>("rep", 0.0, 10.0, 200.0);
+        DsolModel<Double, ?> model;
+        if (snapshot == null)
+        {
+            StreamInformation streamInformation = new StreamInformation(new MersenneTwister(5L));
+            streamInformation.addStream("iatStream", new MersenneTwister(6L));
+            streamInformation.addStream("procStream", new MersenneTwister(7L));
+            model = new MM1Model(simulator, streamInformation);
+            simulator.initialize(model, replication);
+        }
+        else
+        {
+            model = snapshot.restore(simulator, replication);
+        }
+        if (checkpointer != null)
+        {
+            checkpointer.start();
+        }
+        simulator.start();
+        int count = 0;
+        while (simulator.isStartingOrRunning() && count < 25000)
+        {
+            count++;
+            Sleep.sleep(1);
+        }
+        assertTrue(count < 25000);
+        replication.removeFromContext();
+        List<Double> result = new ArrayList<>();
+        for (SimulationStatistic<Double> statistic : model.getOutputStatistics())
+        {
+            if (statistic instanceof SimTally)
+            {
+                result.add((double) ((SimTally<Double>) statistic).getN());
+                result.add(((SimTally<Double>) statistic).getSampleMean());
+            }
+        }
+        assertTrue(result.size() > 0);
+        return result;
+    }
+
+}
@@ -0,0 +1,259 @@
+package nl.tudelft.simulation.dsol.simulators;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+import nl.tudelft.simulation.dsol.Sleep;
+import nl.tudelft.simulation.dsol.eventlists.EventListBinaryHeap;
+import nl.tudelft.simulation.dsol.eventlists.EventListCalendarQueue;
+import nl.tudelft.simulation.dsol.eventlists.EventListInterface;
+import nl.tudelft.simulation.dsol.eventlists.RedBlackTree;
+import nl.tudelft.simulation.dsol.experiment.SingleReplication;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.DoubleLambdaSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.LambdaSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.LongLambdaSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.RecyclableLambdaSimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEvent;
+import nl.tudelft.simulation.dsol.formalisms.eventscheduling.SimEventInterface;
+import nl.tudelft.simulation.dsol.model.AbstractDsolModel;
+
+/**
+ * DevsSimulatorPrimitiveTest tests the DEVS simulators with a primitive double and long time, and the mixing of events with a
+ * primitive time and events with a boxed time.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ */
+public class DevsSimulatorPrimitiveTest
+{
+    /** the order in which the events are executed. */
+    private final List<String> order = new ArrayList<>();
+
+    /**
+     * Test the DevsSimulatorDouble with different event lists.
+     */
+    @Test
+    public void testDevsSimulatorDouble()
+    {
+        testDouble(new RedBlackTree<Double>());
+        testDouble(new EventListBinaryHeap<Double>());
+        testDouble(new EventListCalendarQueue<Double>());
+    }
+
+    /**
+     * Test the DevsSimulatorDouble with the given event list.
+     * @param eventList EventListInterface&lt;Double&gt;; the event list to use
+     */
+    private void testDouble(final EventListInterface<Double> eventList)
+    {
+        this.order.clear();
+        DevsSimulatorDouble simulator = new DevsSimulatorDouble("sim");
+        simulator.setEventList(eventList);
+        assertTrue(Double.isNaN(simulator.getDoubleSimulatorTime()));
+        Model<Double> model = new Model<>(simulator);
+        simulator.initialize(model, new SingleReplication<Double>("rep", 0.0, 0.0, 100.0));
+        simulator.scheduleEventAbs(5.0, () -> this.order.add("a5"));
+        simulator.scheduleEventAbs(Double.valueOf(3.0), this, "record", new Object[] {"m3"});
+        simulator.scheduleEventAbs(5.0, (short) 8, () -> this.order.add("b5"));
+        simulator.scheduleEvent(new LambdaSimEvent<Double>(5.0, () -> this.order.add("c5")));
+        simulator.scheduleEventAbs(Double.valueOf(5.0), () -> this.order.add("d5"));
+        simulator.scheduleEventRel(1.0, () ->
+        {
+            this.order.add("e1");
+            assertEquals(1.0, simulator.getDoubleSimulatorTime(), 0.0);
+            assertEquals(1.0, simulator.getSimulatorTime(), 0.0);
+            simulator.scheduleEventRel(0.5, () -> this.order.add("f1.5"));
+            simulator.scheduleEventRel(Double.valueOf(1.0), this, "record", new Object[] {"m2"});
+            simulator.scheduleEventNow(() -> this.order.add("g1"));
+        });
+        simulator.scheduleEventAbs(20.0, () -> this.order.add("h20"));
+        simulator.runUpTo(10.0);
+        while (simulator.isStartingOrRunning())
+        {
+            Sleep.sleep(1);
+        }
+        assertEquals(Arrays.asList("e1", "g1", "f1.5", "m2", "m3", "b5", "a5", "c5", "d5"), this.order);
+        assertEquals(10.0, simulator.getDoubleSimulatorTime(), 0.0);
+        assertEquals(10.0, simulator.getSimulatorTime(), 0.0);
+        assertThrows(SimRuntimeException.class, () -> simulator.scheduleEventAbs(2.0, () -> this.order.add("x")));
+        simulator.start();
+        while (simulator.isStartingOrRunning())
+        {
+            Sleep.sleep(1);
+        }
+        assertEquals("h20", this.order.get(this.order.size() - 1));
+        assertEquals(100.0, simulator.getDoubleSimulatorTime(), 0.0);
+    }
+
+    /**
+     * Test the DevsSimulatorLong.
+     */
+    @Test
+    public void testDevsSimulatorLong()
+    {
+        this.order.clear();
+        DevsSimulatorLong simulator = new DevsSimulatorLong("sim");
+        simulator.setEventList(new EventListBinaryHeap<Long>());
+        Model<Long> model = new Model<>(simulator);
+        simulator.initialize(model, new SingleReplication<Long>("rep", 0L, 0L, 100L));
+        simulator.scheduleEventAbs(5L, () -> this.order.add("a5"));
+        simulator.scheduleEventAbs(Long.valueOf(3L), this, "record", new Object[] {"m3"});
+        simulator.scheduleEventAbs(5L, (short) 8, () -> this.order.add("b5"));
+        simulator.scheduleEvent(new LambdaSimEvent<Long>(5L, () -> this.order.add("c5")));
+        simulator.scheduleEventRel(1L, () ->
+        {
+            this.order.add("e1");
+            assertEquals(1L, simulator.getLongSimulatorTime());
+            simulator.scheduleEventRel(1L, () -> this.order.add("f2"));
+        });
+        simulator.runUpToAndIncluding(5L);
+        while (simulator.isStartingOrRunning())
+        {
+            Sleep.sleep(1);
+        }
+        assertEquals(Arrays.asList("e1", "f2", "m3", "b5", "a5", "c5"), this.order);
+        assertEquals(5L, simulator.getLongSimulatorTime());
+        assertEquals(Long.valueOf(5L), simulator.getSimulatorTime());
+    }
+
+    /**
+     * Test that the DevsSimulatorDouble and the DevsSimulatorLong take the events for lambda expressions with a primitive time
+     * from the event pool when event recycling is on, and that a recyclable event can only be cancelled with its generation.
+     */
+    @Test
+    public void testEventRecycling()
+    {
+        this.order.clear();
+        DevsSimulatorDouble simulator = new DevsSimulatorDouble("sim");
+        simulator.setEventRecycling(true);
+        simulator.initialize(new Model<>(simulator), new SingleReplication<Double>("rep", 0.0, 0.0, 2000.0));
+        List<String> cancellations = new ArrayList<>();
+        // scheduled by this thread, so not taken from the pool
+        assertTrue(simulator.scheduleEventAbs(1.0, () -> doubleStep(simulator)) instanceof DoubleLambdaSimEvent);
+        simulator.scheduleEventAbs(10.0, () ->
+        {
+            SimEventInterface<Double> event = simulator.scheduleEventAbs(20.0, () -> this.order.add("cancelled"));
+            cancellations.add(event instanceof RecyclableLambdaSimEvent ? "recyclable" : "not recyclable");
+            int generation = ((RecyclableLambdaSimEvent<Double>) event).getGeneration();
+            try
+            {
+                simulator.cancelEvent(event);
+            }
+            catch (SimRuntimeException exception)
+            {
+                cancellations.add("refused");
+            }
+            cancellations.add(simulator.cancelEvent(event, generation) + "");
+            cancellations.add(simulator.cancelEvent(event, generation) + "");
+        });
+        simulator.runUpTo(1001.5);
+        while (simulator.isStartingOrRunning())
+        {
+            Sleep.sleep(1);
+        }
+        assertEquals(Arrays.asList("recyclable", "refused", "true", "false"), cancellations);
+        assertEquals(1001, this.order.size());
+        assertEquals("1001.0", this.order.get(this.order.size() - 1));
+        assertTrue(simulator.getEventPool().getCreatedCount() <= 5);
+        assertTrue(simulator.getEventPool().getReusedCount() >= 995);
+
+        DevsSimulatorLong longSimulator = new DevsSimulatorLong("sim");
+        longSimulator.setEventRecycling(true);
+        longSimulator.initialize(new Model<>(longSimulator), new SingleReplication<Long>("rep", 0L, 0L, 2000L));
+        assertFalse(longSimulator.scheduleEventRel(1L, () -> longStep(longSimulator)) instanceof RecyclableLambdaSimEvent);
+        longSimulator.runUpTo(1000L);
+        while (longSimulator.isStartingOrRunning())
+        {
+            Sleep.sleep(1);
+        }
+        assertTrue(longSimulator.getEventPool().getCreatedCount() <= 5);
+        assertTrue(longSimulator.getEventPool().getReusedCount() >= 995);
+    }
+
+    /**
+     * Record the time, and schedule the next step with a primitive relative time.
+     * @param simulator DevsSimulatorDouble; the simulator
+     */
+    protected void doubleStep(final DevsSimulatorDouble simulator)
+    {
+        this.order.add(simulator.getDoubleSimulatorTime() + "");
+        simulator.scheduleEventRel(1.0, () -> doubleStep(simulator));
+    }
+
+    /**
+     * Schedule the next step with a primitive absolute time.
+     * @param simulator DevsSimulatorLong; the simulator
+     */
+    protected void longStep(final DevsSimulatorLong simulator)
+    {
+        simulator.scheduleEventAbs(simulator.getLongSimulatorTime() + 1L, () -> longStep(simulator));
+    }
+
+    /**
+     * Test that events with a primitive time and events with a boxed time are ordered consistently.
+     */
+    @Test
+    public void testMixedCompare()
+    {
+        SimEventInterface<Double> p1 = new DoubleLambdaSimEvent(1.0, () -> this.order.add("p1"));
+        SimEventInterface<Double> b1 = new SimEvent<Double>(1.0, this, "record", new Object[] {"b1"});
+        SimEventInterface<Double> p2 = new DoubleLambdaSimEvent(2.0, (short) 1, () -> this.order.add("p2"));
+        assertTrue(p1.compareTo(b1) < 0 && b1.compareTo(p1) > 0);
+        assertTrue(p2.compareTo(b1) > 0 && b1.compareTo(p2) < 0);
+        assertEquals(0, p1.compareTo(p1));
+        assertEquals(Double.valueOf(2.0), p2.getAbsoluteExecutionTime());
+        SimEventInterface<Long> l1 = new LongLambdaSimEvent(Long.MAX_VALUE - 1, () -> this.order.add("l1"));
+        SimEventInterface<Long> l2 = new LongLambdaSimEvent(Long.MAX_VALUE, () -> this.order.add("l2"));
+        assertTrue(l1.compareTo(l2) < 0 && l2.compareTo(l1) > 0);
+        EventListBinaryHeap<Long> heap = new EventListBinaryHeap<>();
+        heap.add(l2);
+        heap.add(l1);
+        assertEquals(l1, heap.removeFirst());
+    }
+
+    /**
+     * Record the execution of an event that is scheduled with a method name.
+     * @param name String; the name to record
+     */
+    protected void record(final String name)
+    {
+        this.order.add(name);
+    }
+
+    /**
+     * Empty model.
+     * @param <T> the time type
+     */
+    static class Model<T extends Number & Comparable<T>> extends AbstractDsolModel<T, DevsSimulator<T>>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * @param simulator the simulator
+         */
+        Model(final DevsSimulator<T> simulator)
+        {
+            super(simulator);
+        }
+
+        @Override
+        public void constructModel() throws SimRuntimeException
+        {
+            //
+        }
+    }
+}
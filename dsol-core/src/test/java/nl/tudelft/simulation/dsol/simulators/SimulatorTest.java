@@ -1,8 +1,18 @@
 package nl.tudelft.simulation.dsol.simulators;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.fail;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
 import org.junit.jupiter.api.Test;
 
 import nl.tudelft.simulation.dsol.SimRuntimeException;
@@ -32,6 +42,77 @@ public class SimulatorTest
         new TestScheduledInitMethods();
     }
 
+    /**
+     * Test the execution of the run() method of simulators as tasks on an executor.
+     * @throws InterruptedException on interrupt
+     */
+    @Test
+    public void testExecutor() throws InterruptedException
+    {
+        // many simulators that share a small thread pool
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        List<DevsSimulator<Double>> simulators = new ArrayList<>();
+        List<TestModel> models = new ArrayList<>();
+        CountDownLatch ended = new CountDownLatch(8);
+        for (int i = 0; i < 8; i++)
+        {
+            DevsSimulator<Double> simulator = new DevsSimulator<Double>("sim" + i);
+            assertNull(simulator.getExecutor());
+            simulator.setExecutor(pool);
+            assertSame(pool, simulator.getExecutor());
+            TestModel model = new TestModel(simulator);
+            simulator.initialize(model, new SingleReplication<Double>("rep", 0.0, 0.0, 100.0));
+            simulator.addListener(event -> ended.countDown(), Replication.END_REPLICATION_EVENT);
+            simulators.add(simulator);
+            models.add(model);
+        }
+        for (DevsSimulator<Double> simulator : simulators)
+        {
+            simulator.start();
+        }
+        assertTrue(ended.await(10, TimeUnit.SECONDS));
+        for (int i = 0; i < 8; i++)
+        {
+            assertEquals(103, models.get(i).getValue());
+            assertEquals(ReplicationState.ENDED, simulators.get(i).getReplicationState());
+            assertEquals(RunState.ENDED, simulators.get(i).getRunState());
+        }
+
+        // stop and continue on the executor
+        DevsSimulator<Double> simulator = new DevsSimulator<Double>("stop");
+        simulator.setExecutor(pool);
+        TestModel model = new TestModel(simulator);
+        simulator.initialize(model, new SingleReplication<Double>("rep", 0.0, 0.0, 100.0));
+        simulator.runUpTo(50.0);
+        while (simulator.isStartingOrRunning())
+        {
+            Sleep.sleep(1);
+        }
+        assertEquals(43, model.getValue());
+        assertEquals(50.0, simulator.getSimulatorTime(), 0.0);
+        simulator.start();
+        while (simulator.getReplicationState() != ReplicationState.ENDED)
+        {
+            Sleep.sleep(1);
+        }
+        assertEquals(103, model.getValue());
+
+        // end the replication of a simulator that is not running
+        simulator.initialize(new TestModel(simulator), new SingleReplication<Double>("rep", 0.0, 0.0, 100.0));
+        simulator.endReplication();
+        assertEquals(ReplicationState.ENDED, simulator.getReplicationState());
+        pool.shutdown();
+
+        // an executor that runs the task in the calling thread
+        DevsSimulator<Double> direct = new DevsSimulator<Double>("direct");
+        direct.setExecutor(Runnable::run);
+        TestModel directModel = new TestModel(direct);
+        direct.initialize(directModel, new SingleReplication<Double>("rep", 0.0, 0.0, 100.0));
+        direct.start();
+        assertEquals(103, directModel.getValue());
+        assertEquals(ReplicationState.ENDED, direct.getReplicationState());
+    }
+
     /** */
     static class TestScheduledInitMethods
     {
@@ -0,0 +1,188 @@
+package nl.tudelft.simulation.dsol.simulators.timewarp;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import nl.tudelft.simulation.dsol.SimRuntimeException;
+
+/**
+ * TimeWarpSimulatorTest runs a PHOLD model on the TimeWarpSimulator with one and with several worker threads, and checks that
+ * the optimistic parallel execution gives the same results as the sequential execution.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ */
+public class TimeWarpSimulatorTest
+{
+    /** the number of logical processes in the PHOLD model. */
+    private static final int PROCESSES = 16;
+
+    /**
+     * Test that the results of the parallel runs are the same as the results of the sequential run.
+     */
+    @Test
+    public void testPhold()
+    {
+        List<PholdProcess> sequential = runPhold(1, 1000);
+        long events = sequential.stream().mapToLong(p -> p.count).sum();
+        assertTrue(events > 1000);
+        for (int threads : new int[] {2, 4})
+        {
+            for (int gvtInterval : new int[] {10, 1000})
+            {
+                List<PholdProcess> parallel = runPhold(threads, gvtInterval);
+                for (int i = 0; i < PROCESSES; i++)
+                {
+                    assertEquals(sequential.get(i).count, parallel.get(i).count);
+                    assertEquals(sequential.get(i).checksum, parallel.get(i).checksum);
+                    assertEquals(sequential.get(i).seed, parallel.get(i).seed);
+                    assertEquals(sequential.get(i).committed, parallel.get(i).committed);
+                }
+            }
+        }
+    }
+
+    /**
+     * Test the handling of errors.
+     */
+    @Test
+    public void testErrors()
+    {
+        TimeWarpSimulator<Double> simulator = new TimeWarpSimulator<>("errors", 0.0, 2);
+        PholdProcess p0 = new PholdProcess("p0", 1L);
+        PholdProcess p1 = new PholdProcess("p1", 2L);
+        assertThrows(SimRuntimeException.class, () -> p0.send(p1, 1.0, 0L));
+        simulator.addLogicalProcess(p0);
+        assertThrows(IllegalStateException.class, () -> simulator.addLogicalProcess(p0));
+        assertThrows(SimRuntimeException.class, () -> p0.send(p1, 1.0, 0L));
+        simulator.addLogicalProcess(p1);
+        assertThrows(SimRuntimeException.class, () -> p0.send(p1, -1.0, 0L));
+        assertThrows(IllegalArgumentException.class, () -> simulator.setGvtInterval(0));
+        assertThrows(IllegalArgumentException.class, () -> new TimeWarpSimulator<>("x", 0.0, 0));
+
+        // an exception in an event stops the simulation
+        p0.send(p1, 1.0, -1L);
+        assertThrows(SimRuntimeException.class, () -> simulator.run(10.0));
+        assertTrue(simulator.toString().contains("errors"));
+    }
+
+    /**
+     * Run the PHOLD model.
+     * @param threads int; the number of worker threads
+     * @param gvtInterval int; the number of events between two GVT computations
+     * @return List&lt;PholdProcess&gt;; the logical processes after the run
+     */
+    private List<PholdProcess> runPhold(final int threads, final int gvtInterval)
+    {
+        TimeWarpSimulator<Double> simulator = new TimeWarpSimulator<>("phold", 0.0, threads);
+        simulator.setGvtInterval(gvtInterval);
+        List<PholdProcess> processes = new ArrayList<>();
+        for (int i = 0; i < PROCESSES; i++)
+        {
+            PholdProcess process = new PholdProcess("lp" + i, 1000L + i);
+            processes.add(process);
+            simulator.addLogicalProcess(process);
+        }
+        for (PholdProcess process : processes)
+        {
+            process.all = processes;
+            for (int j = 0; j < 4; j++)
+            {
+                process.send(process, process.nextDelay(), (long) j);
+            }
+        }
+        simulator.run(100.0);
+        assertEquals(100.0, simulator.getGvt(), 0.0);
+        assertEquals(simulator.getExecutedEvents() - simulator.getRolledBackEvents(), simulator.getCommittedEvents());
+        for (PholdProcess process : processes)
+        {
+            assertEquals(process.count, process.committed);
+            assertTrue(process.getLocalTime() <= 100.0);
+        }
+        return processes;
+    }
+
+    /**
+     * A logical process of the PHOLD benchmark model: every event is forwarded to a random logical process with a random delay.
+     */
+    static class PholdProcess extends LogicalProcess<Double>
+    {
+        /** */
+        private static final long serialVersionUID = 1L;
+
+        /** the state of the random generator. */
+        private long seed;
+
+        /** the number of executed events. */
+        private long count = 0L;
+
+        /** a checksum over the order and times of the executed events. */
+        private long checksum = 0L;
+
+        /** the number of committed events; not part of the state, since commits are never rolled back. */
+        private transient long committed = 0L;
+
+        /** all logical processes. */
+        private transient List<PholdProcess> all;
+
+        /**
+         * @param name String; the name
+         * @param seed long; the seed of the random generator
+         */
+        PholdProcess(final String name, final long seed)
+        {
+            super(name);
+            this.seed = seed;
+        }
+
+        /**
+         * Return the next random number.
+         * @return long; the next random number
+         */
+        private long nextRandom()
+        {
+            this.seed = this.seed * 6364136223846793005L + 1442695040888963407L;
+            return this.seed >>> 33;
+        }
+
+        /**
+         * Return a random delay.
+         * @return double; a random delay
+         */
+        double nextDelay()
+        {
+            return 0.1 + (nextRandom() % 1000) / 1000.0;
+        }
+
+        @Override
+        protected void handleEvent(final TimeWarpEvent<Double> event) throws Exception
+        {
+            long payload = (Long) event.getPayload();
+            if (payload < 0)
+            {
+                throw new IllegalStateException("negative payload");
+            }
+            this.count++;
+            this.checksum = this.checksum * 31 + Math.round(getLocalTime() * 1000.0) + payload;
+            PholdProcess target = this.all.get((int) (nextRandom() % this.all.size()));
+            send(target, nextDelay(), payload + 1);
+        }
+
+        @Override
+        protected void commit(final TimeWarpEvent<Double> event)
+        {
+            this.committed++;
+        }
+    }
+
+}
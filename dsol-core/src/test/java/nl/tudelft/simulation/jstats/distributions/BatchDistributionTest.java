@@ -0,0 +1,226 @@
+package nl.tudelft.simulation.jstats.distributions;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import nl.tudelft.simulation.jstats.distributions.empirical.CumulativeProbabilities;
+import nl.tudelft.simulation.jstats.distributions.empirical.DiscreteEmpiricalDistribution;
+import nl.tudelft.simulation.jstats.distributions.empirical.InterpolatedEmpiricalDistribution;
+import nl.tudelft.simulation.jstats.streams.MersenneTwister;
+import nl.tudelft.simulation.jstats.streams.StreamInterface;
+
+/**
+ * BatchDistributionTest tests that the batch draws of the distributions return the same values as the same number of single
+ * draws, and leave the stream in the same state.
+ * <p>
+ * Copyright (c) 2024-2024 Delft University of Technology, Jaffalaan 5, 2628 BX Delft, the Netherlands. All rights reserved. See
+ * for project information <a href="https://simulation.tudelft.nl/dsol/manual/" target="_blank">DSOL Manual</a>. The DSOL
+ * project is distributed under a three-clause BSD-style license, which can be found at
+ * <a href="https://simulation.tudelft.nl/dsol/docs/latest/license.html" target="_blank">DSOL License</a>.
+ * </p>
+ * @author <a href="https://github.com/averbraeck">Alexander Verbraeck</a>
+ */
+public class BatchDistributionTest
+{
+    /** the number of values of a batch, more than the chunk size of the uniform buffer. */
+    private static final int LENGTH = 2500;
+
+    /** the offset of the batch in the buffer. */
+    private static final int OFFSET = 3;
+
+    /**
+     * Return factories for all continuous distributions, which create a distribution for a given stream.
+     * @return List&lt;Function&lt;StreamInterface, DistContinuous&gt;&gt;; the factories
+     */
+    private static List<Function<StreamInterface, DistContinuous>> continuousDistributions()
+    {
+        DiscreteEmpiricalDistribution discrete =
+                CumulativeProbabilities.createDiscreteDistribution(new double[] {1.0, 2.5, 4.0}, new double[] {0.2, 0.7, 1.0});
+        InterpolatedEmpiricalDistribution interpolated = CumulativeProbabilities
+                .createInterpolatedDistribution(new double[] {1.0, 2.5, 4.0}, new double[] {0.0, 0.7, 1.0});
+        List<Function<StreamInterface, DistContinuous>> list = new ArrayList<>();
+        list.add(s -> new DistBeta(s, 1.5, 2.5));
+        list.add(s -> new DistConstant(s, 7.1));
+        list.add(s -> new DistEmpiricalDiscreteDouble(s, discrete));
+        list.add(s -> new DistEmpiricalInterpolated(s, interpolated));
+        list.add(s -> new DistErlang(s, 2.5, 3));
+        list.add(s -> new DistErlang(s, 2.5, 30));
+        list.add(s ->
+        {
+            DistErlang dist = new DistErlang(s, 2.5, 3);
+            dist.setSamplingAlgorithm(SamplingAlgorithm.MARSAGLIA_TSANG);
+            return dist;
+        });
+        list.add(s -> new DistExponential(s, 2.5));
+        list.add(s ->
+        {
+            DistExponential dist = new DistExponential(s, 2.5);
+            dist.setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT);
+            return dist;
+        });
+        list.add(s -> new DistGamma(s, 0.5, 2.5));
+        list.add(s -> new DistGamma(s, 1.0, 2.5));
+        list.add(s -> new DistGamma(s, 1.5, 2.5));
+        list.add(s -> new DistGamma(s, 100.0, 0.1));
+        list.add(s ->
+        {
+            DistGamma dist = new DistGamma(s, 0.5, 2.5);
+            dist.setSamplingAlgorithm(SamplingAlgorithm.MARSAGLIA_TSANG);
+            return dist;
+        });
+        list.add(s ->
+        {
+            DistGamma dist = new DistGamma(s, 1.5, 2.5);
+            dist.setSamplingAlgorithm(SamplingAlgorithm.MARSAGLIA_TSANG);
+            return dist;
+        });
+        list.add(s -> new DistLogNormal(s, 1.0, 0.5));
+        list.add(s ->
+        {
+            DistLogNormal dist = new DistLogNormal(s, 1.0, 0.5);
+            dist.setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT);
+            return dist;
+        });
+        list.add(s -> new DistLogNormalTrunc(s, 1.0, 0.5, 1.0, 5.0));
+        list.add(s -> new DistNormal(s, 1.0, 0.5));
+        list.add(s ->
+        {
+            DistNormal dist = new DistNormal(s, 1.0, 0.5);
+            dist.setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT);
+            return dist;
+        });
+        list.add(s -> new DistNormalTrunc(s, 1.0, 0.5, 0.9, 1.2));
+        list.add(s -> new DistPearson5(s, 3.0, 1.0));
+        list.add(s -> new DistPearson6(s, 2.0, 3.0, 4.0));
+        list.add(s -> new DistTriangular(s, 1.0, 4.0, 9.0));
+        list.add(s -> new DistUniform(s, 1.0, 4.0));
+        list.add(s -> new DistWeibull(s, 1.5, 2.0));
+        return list;
+    }
+
+    /**
+     * Return factories for all discrete distributions, which create a distribution for a given stream.
+     * @return List&lt;Function&lt;StreamInterface, DistDiscrete&gt;&gt;; the factories
+     */
+    private static List<Function<StreamInterface, DistDiscrete>> discreteDistributions()
+    {
+        DiscreteEmpiricalDistribution discrete =
+                CumulativeProbabilities.createDiscreteDistribution(new long[] {1L, 3L, 7L}, new double[] {0.2, 0.7, 1.0});
+        List<Function<StreamInterface, DistDiscrete>> list = new ArrayList<>();
+        list.add(s -> new DistBernoulli(s, 0.25));
+        list.add(s -> new DistBinomial(s, 3, 0.25));
+        list.add(s ->
+        {
+            DistBinomial dist = new DistBinomial(s, 3, 0.25);
+            dist.setSamplingAlgorithm(SamplingAlgorithm.BTPE);
+            return dist;
+        });
+        list.add(s ->
+        {
+            DistBinomial dist = new DistBinomial(s, 1000, 0.75);
+            dist.setSamplingAlgorithm(SamplingAlgorithm.BTPE);
+            return dist;
+        });
+        list.add(s -> new DistDiscreteConstant(s, 14));
+        list.add(s -> new DistDiscreteUniform(s, 2, 9));
+        list.add(s -> new DistEmpiricalDiscreteLong(s, discrete));
+        list.add(s -> new DistGeometric(s, 0.25));
+        list.add(s -> new DistNegBinomial(s, 3, 0.25));
+        list.add(s -> new DistPoisson(s, 5.5));
+        list.add(s ->
+        {
+            DistPoisson dist = new DistPoisson(s, 5.5);
+            dist.setSamplingAlgorithm(SamplingAlgorithm.PTRS);
+            return dist;
+        });
+        list.add(s ->
+        {
+            DistPoisson dist = new DistPoisson(s, 55.5);
+            dist.setSamplingAlgorithm(SamplingAlgorithm.PTRS);
+            return dist;
+        });
+        return list;
+    }
+
+    /**
+     * Test that the batch draws of the continuous distributions are equal to single draws.
+     */
+    @Test
+    public void testContinuousBatch()
+    {
+        for (Function<StreamInterface, DistContinuous> factory : continuousDistributions())
+        {
+            DistContinuous scalar = factory.apply(new MersenneTwister(10L));
+            DistContinuous batch = factory.apply(new MersenneTwister(10L));
+            String name = scalar.toString();
+            double[] buffer = new double[OFFSET + LENGTH + 1];
+            buffer[0] = -1.0;
+            buffer[OFFSET + LENGTH] = -1.0;
+            batch.draw(buffer, OFFSET, LENGTH);
+            for (int i = 0; i < LENGTH; i++)
+            {
+                assertEquals(scalar.draw(), buffer[OFFSET + i], 0.0, name);
+            }
+            assertEquals(-1.0, buffer[0], 0.0, name);
+            assertEquals(-1.0, buffer[OFFSET + LENGTH], 0.0, name);
+            assertEquals(scalar.draw(), batch.draw(), 0.0, name);
+
+            double[] full = new double[17];
+            batch.draw(full);
+            for (int i = 0; i < full.length; i++)
+            {
+                assertEquals(scalar.draw(), full[i], 0.0, name);
+            }
+            batch.draw(full, 5, 0);
+            assertEquals(scalar.draw(), batch.draw(), 0.0, name);
+
+            assertThrows(IndexOutOfBoundsException.class, () -> batch.draw(full, 10, 8), name);
+            assertThrows(IndexOutOfBoundsException.class, () -> batch.draw(full, -1, 2), name);
+            assertThrows(NullPointerException.class, () -> batch.draw((double[]) null), name);
+        }
+    }
+
+    /**
+     * Test that the batch draws of the discrete distributions are equal to single draws.
+     */
+    @Test
+    public void testDiscreteBatch()
+    {
+        for (Function<StreamInterface, DistDiscrete> factory : discreteDistributions())
+        {
+            DistDiscrete scalar = factory.apply(new MersenneTwister(10L));
+            DistDiscrete batch = factory.apply(new MersenneTwister(10L));
+            String name = scalar.toString();
+            long[] buffer = new long[OFFSET + LENGTH + 1];
+            buffer[0] = -1L;
+            buffer[OFFSET + LENGTH] = -1L;
+            batch.draw(buffer, OFFSET, LENGTH);
+            for (int i = 0; i < LENGTH; i++)
+            {
+                assertEquals(scalar.draw(), buffer[OFFSET + i], name);
+            }
+            assertEquals(-1L, buffer[0], name);
+            assertEquals(-1L, buffer[OFFSET + LENGTH], name);
+            assertEquals(scalar.draw(), batch.draw(), name);
+
+            long[] full = new long[17];
+            batch.draw(full);
+            for (int i = 0; i < full.length; i++)
+            {
+                assertEquals(scalar.draw(), full[i], name);
+            }
+            batch.draw(full, 5, 0);
+            assertEquals(scalar.draw(), batch.draw(), name);
+
+            assertThrows(IndexOutOfBoundsException.class, () -> batch.draw(full, 10, 8), name);
+            assertThrows(IndexOutOfBoundsException.class, () -> batch.draw(full, -1, 2), name);
+            assertThrows(NullPointerException.class, () -> batch.draw((long[]) null), name);
+        }
+    }
+}
@@ -7,6 +7,7 @@ import org.djutils.exceptions.Try;
 import org.djutils.stats.summarizers.Tally;
 import org.junit.jupiter.api.Test;
 
+import nl.tudelft.simulation.jstats.streams.AntitheticStream;
 import nl.tudelft.simulation.jstats.streams.MersenneTwister;
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
 
@@ -237,6 +238,69 @@ public class ContinuousDistributionTest
         assertEquals(v, dist1.draw(), 1E-6);
     }
 
+    /**
+     * Test the ziggurat algorithm of the exponential distribution.
+     */
+    @Test
+    public void testExponentialZiggurat()
+    {
+        this.stream = new MersenneTwister(10L);
+        DistExponential dist = new DistExponential(this.stream, 2.5);
+        assertEquals(SamplingAlgorithm.DEFAULT, dist.getSamplingAlgorithm());
+        dist.setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT);
+        assertEquals(SamplingAlgorithm.ZIGGURAT, dist.getSamplingAlgorithm());
+        Try.testFail(() -> dist.setSamplingAlgorithm(null), NullPointerException.class);
+        testDist("DistExponential ziggurat", dist, 2.5, 2.5 * 2.5, 0.0, Double.NaN, 0.01);
+
+        // the fraction of the values in bins over the whole range, including the tail beyond the base layer at 7.697
+        DistExponential stdDist = new DistExponential(new MersenneTwister(12L), 1.0);
+        stdDist.setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT);
+        double[] edges = {0.1, 0.5, 1.0, 2.0, 4.0, 6.0, 7.697, 9.0};
+        long[] counts = new long[edges.length + 1];
+        int n = 4_000_000;
+        for (int i = 0; i < n; i++)
+        {
+            double x = stdDist.draw();
+            int bin = 0;
+            while (bin < edges.length && x >= edges[bin])
+            {
+                bin++;
+            }
+            counts[bin]++;
+        }
+        for (int bin = 0; bin <= edges.length; bin++)
+        {
+            double lo = bin == 0 ? 0.0 : 1.0 - Math.exp(-edges[bin - 1]);
+            double hi = bin == edges.length ? 1.0 : 1.0 - Math.exp(-edges[bin]);
+            double expected = n * (hi - lo);
+            assertEquals(expected, counts[bin], 5.0 * Math.sqrt(expected) + 1.0, "bin " + bin);
+        }
+
+        // the ziggurat values are reproducible, and switching back gives the values of inversion
+        DistExponential dist1 = new DistExponential(new MersenneTwister(10L), 2);
+        dist1.setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT);
+        double v = dist1.draw();
+        dist1.setStream(new MersenneTwister(10L));
+        assertEquals(v, dist1.draw(), 0.0);
+        double inversion = new DistExponential(new MersenneTwister(10L), 2).draw();
+        dist1.setSamplingAlgorithm(SamplingAlgorithm.DEFAULT);
+        dist1.setStream(new MersenneTwister(10L));
+        assertEquals(inversion, dist1.draw(), 0.0);
+
+        // the ziggurat draws the values of an antithetic stream by inversion, so they are the mirror of the normal stream
+        AntitheticStream antitheticStream = new AntitheticStream(new MersenneTwister(10L));
+        antitheticStream.setAntithetic(true);
+        DistExponential antitheticDist = new DistExponential(antitheticStream, 2);
+        antitheticDist.setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT);
+        AntitheticStream inversionStream = new AntitheticStream(new MersenneTwister(10L));
+        inversionStream.setAntithetic(true);
+        DistExponential inversionDist = new DistExponential(inversionStream, 2);
+        for (int i = 0; i < 1000; i++)
+        {
+            assertEquals(inversionDist.draw(), antitheticDist.draw(), 0.0);
+        }
+    }
+
     /**
      * Test the Gamma distribution.
      */
@@ -295,6 +359,65 @@ public class ContinuousDistributionTest
         assertEquals(v, dist1.draw(), 1E-6);
     }
 
+    /**
+     * Test the algorithm of Marsaglia and Tsang of the gamma and Erlang distribution.
+     */
+    @Test
+    public void testGammaMarsagliaTsang()
+    {
+        this.stream = new MersenneTwister(10L);
+        DistGamma dist = new DistGamma(this.stream, 1.5, 2.5);
+        assertEquals(SamplingAlgorithm.DEFAULT, dist.getSamplingAlgorithm());
+        dist.setSamplingAlgorithm(SamplingAlgorithm.MARSAGLIA_TSANG);
+        assertEquals(SamplingAlgorithm.MARSAGLIA_TSANG, dist.getSamplingAlgorithm());
+        Try.testFail(() -> dist.setSamplingAlgorithm(null), NullPointerException.class);
+        Try.testFail(() -> dist.setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT), IllegalArgumentException.class);
+
+        for (double shape : new double[] {0.1, 0.5, 0.999, 1.0, 1.5, 3.0, 100.0})
+        {
+            DistGamma gamma = new DistGamma(this.stream, shape, 2.0);
+            gamma.setSamplingAlgorithm(SamplingAlgorithm.MARSAGLIA_TSANG);
+            testDist("DistGamma Marsaglia-Tsang " + shape, gamma, shape * 2.0, shape * 2.0 * 2.0, 0.0, Double.NaN,
+                    0.01 * Math.sqrt(shape) * 2.0 + 0.001);
+        }
+
+        // the fraction of values below the median of Gamma(2, 1), which is 1.678347
+        DistGamma gamma2 = new DistGamma(new MersenneTwister(12L), 2.0, 1.0);
+        gamma2.setSamplingAlgorithm(SamplingAlgorithm.MARSAGLIA_TSANG);
+        int below = 0;
+        for (int i = 0; i < 1_000_000; i++)
+        {
+            if (gamma2.draw() < 1.678346990016661)
+            {
+                below++;
+            }
+        }
+        assertEquals(500_000, below, 2500);
+
+        DistErlang erlang = new DistErlang(this.stream, 2.5, 3);
+        assertEquals(SamplingAlgorithm.DEFAULT, erlang.getSamplingAlgorithm());
+        Try.testFail(() -> erlang.setSamplingAlgorithm(SamplingAlgorithm.PTRS), IllegalArgumentException.class);
+        for (int k : new int[] {1, 3, 10, 11, 40})
+        {
+            DistErlang erlangMT = new DistErlang(this.stream, 2.5, k);
+            erlangMT.setSamplingAlgorithm(SamplingAlgorithm.MARSAGLIA_TSANG);
+            assertEquals(SamplingAlgorithm.MARSAGLIA_TSANG, erlangMT.getSamplingAlgorithm());
+            testDist("DistErlang Marsaglia-Tsang " + k, erlangMT, k * 2.5, k * 2.5 * 2.5, 0.0, Double.NaN,
+                    0.01 * Math.sqrt(k) * 2.5);
+        }
+
+        DistGamma dist1 = new DistGamma(new MersenneTwister(10L), 0.3, 2);
+        dist1.setSamplingAlgorithm(SamplingAlgorithm.MARSAGLIA_TSANG);
+        double v = dist1.draw();
+        dist1.setStream(new MersenneTwister(10L));
+        assertEquals(v, dist1.draw(), 0.0);
+        DistErlang dist2 = new DistErlang(new MersenneTwister(10L), 2, 4);
+        dist2.setSamplingAlgorithm(SamplingAlgorithm.MARSAGLIA_TSANG);
+        v = dist2.draw();
+        dist2.setStream(new MersenneTwister(10L));
+        assertEquals(v, dist2.draw(), 0.0);
+    }
+
     // @formatter:off
     /** Calculation of Pearson5(2, 1) probability density function in R with the following script.<br>
      * <pre>
@@ -49,6 +49,35 @@ public class DiscreteDistributionTest
         testDist("DistPoisson", new DistPoisson(this.stream, 8.21), 8.21, 8.21, 0.0, nan, 0.01);
     }
 
+    /**
+     * Test the frequencies of the values of a distribution against the probabilities of the values.
+     * @param name String; the name of the distribution to test
+     * @param dist DistDiscrete; the distribution to test
+     * @param from long; the lowest value to test
+     * @param to long; the highest value to test, where the values from - to should cover nearly all probability
+     */
+    private void testFrequencies(final String name, final DistDiscrete dist, final long from, final long to)
+    {
+        int n = 1_000_000;
+        long[] counts = new long[(int) (to - from + 1)];
+        for (int i = 0; i < n; i++)
+        {
+            long x = dist.draw();
+            if (x >= from && x <= to)
+            {
+                counts[(int) (x - from)]++;
+            }
+        }
+        double total = 0.0;
+        for (long x = from; x <= to; x++)
+        {
+            double expected = n * dist.probability(x);
+            total += expected;
+            assertEquals(expected, counts[(int) (x - from)], 5.0 * Math.sqrt(expected) + 2.0, name + " value " + x);
+        }
+        assertEquals(1.0, total / n, 0.001, name + " total probability");
+    }
+
     /**
      * @param name String; the name of the distribution to test
      * @param dist Dist; the distribution to test
@@ -109,6 +138,41 @@ public class DiscreteDistributionTest
         assertEquals(v, dist1.draw());
     }
 
+    /**
+     * Test the BTPE algorithm of the binomial distribution against the probabilities of the values.
+     */
+    @Test
+    public void testBinomialBtpe()
+    {
+        this.stream = new MersenneTwister(10L);
+        DistBinomial dist = new DistBinomial(this.stream, 100, 0.4);
+        assertEquals(SamplingAlgorithm.DEFAULT, dist.getSamplingAlgorithm());
+        dist.setSamplingAlgorithm(SamplingAlgorithm.BTPE);
+        assertEquals(SamplingAlgorithm.BTPE, dist.getSamplingAlgorithm());
+        Try.testFail(() -> dist.setSamplingAlgorithm(null), NullPointerException.class);
+        Try.testFail(() -> dist.setSamplingAlgorithm(SamplingAlgorithm.PTRS), IllegalArgumentException.class);
+
+        // n min(p, 1-p) < 30 uses inversion, and p > 0.5 mirrors the values
+        int[] ns = {4, 20, 100, 100, 1000, 1000, 100000};
+        double[] ps = {0.25, 0.9, 0.45, 0.72, 0.03, 0.5, 0.01};
+        for (int i = 0; i < ns.length; i++)
+        {
+            DistBinomial btpe = new DistBinomial(this.stream, ns[i], ps[i]);
+            btpe.setSamplingAlgorithm(SamplingAlgorithm.BTPE);
+            double mean = ns[i] * ps[i];
+            double sd = Math.sqrt(mean * (1.0 - ps[i]));
+            testFrequencies("Binomial BTPE " + btpe, btpe, Math.max(0, (long) (mean - 8.0 * sd)),
+                    Math.min(ns[i], (long) (mean + 8.0 * sd) + 5));
+            testDist("Binomial BTPE " + btpe, btpe, mean, sd * sd, 0, ns[i], 0.01 * sd + 0.001);
+        }
+
+        DistBinomial dist1 = new DistBinomial(new MersenneTwister(10L), 1000, 0.3);
+        dist1.setSamplingAlgorithm(SamplingAlgorithm.BTPE);
+        long v = dist1.draw();
+        dist1.setStream(new MersenneTwister(10L));
+        assertEquals(v, dist1.draw());
+    }
+
     /**
      * Test the Binomial distribution.
      */
@@ -315,6 +379,41 @@ public class DiscreteDistributionTest
         long v = dist1.draw();
         dist1.setStream(new MersenneTwister(10L));
         assertEquals(v, dist1.draw());
+
+        // the probability does not overflow for a large lambda and observation
+        assertEquals(0.028197727685921072, new DistPoisson(this.stream, 200.0).probability(200), 1E-8);
+        assertEquals(0.012614611348719664, new DistPoisson(this.stream, 1000.0).probability(1000), 1E-8);
+    }
+
+    /**
+     * Test the PTRS algorithm of the Poisson distribution against the probabilities of the values.
+     */
+    @Test
+    public void testPoissonPtrs()
+    {
+        this.stream = new MersenneTwister(10L);
+        DistPoisson dist = new DistPoisson(this.stream, 23.21);
+        assertEquals(SamplingAlgorithm.DEFAULT, dist.getSamplingAlgorithm());
+        dist.setSamplingAlgorithm(SamplingAlgorithm.PTRS);
+        assertEquals(SamplingAlgorithm.PTRS, dist.getSamplingAlgorithm());
+        Try.testFail(() -> dist.setSamplingAlgorithm(null), NullPointerException.class);
+        Try.testFail(() -> dist.setSamplingAlgorithm(SamplingAlgorithm.BTPE), IllegalArgumentException.class);
+
+        // below the threshold of 10, the default method is used
+        for (double lambda : new double[] {0.5, 5.0, 10.0, 23.21, 150.0, 5000.0})
+        {
+            DistPoisson ptrs = new DistPoisson(this.stream, lambda);
+            ptrs.setSamplingAlgorithm(SamplingAlgorithm.PTRS);
+            testFrequencies("Poisson PTRS " + lambda, ptrs, Math.max(0, (long) (lambda - 8.0 * Math.sqrt(lambda))),
+                    (long) (lambda + 8.0 * Math.sqrt(lambda)) + 10);
+            testDist("Poisson PTRS " + lambda, ptrs, lambda, lambda, 0, Double.NaN, 0.01 * Math.sqrt(lambda));
+        }
+
+        DistPoisson dist1 = new DistPoisson(new MersenneTwister(10L), 83.0);
+        dist1.setSamplingAlgorithm(SamplingAlgorithm.PTRS);
+        long v = dist1.draw();
+        dist1.setStream(new MersenneTwister(10L));
+        assertEquals(v, dist1.draw());
     }
 
     /* ************************************************************************************************************** */
@@ -8,6 +8,7 @@ import org.djutils.stats.summarizers.Tally;
 import org.junit.jupiter.api.Test;
 
 import nl.tudelft.simulation.jstats.math.ProbMath;
+import nl.tudelft.simulation.jstats.streams.AntitheticStream;
 import nl.tudelft.simulation.jstats.streams.MersenneTwister;
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
 
@@ -228,6 +229,74 @@ public class NormalDistributionTest
         assertEquals(v, dist1.draw(), 1E-6);
     }
 
+    /**
+     * Test the ziggurat algorithm of the normal and lognormal distribution.
+     */
+    @Test
+    public void testNormalZiggurat()
+    {
+        this.stream = new MersenneTwister(10L);
+        DistNormal dist = new DistNormal(this.stream, 5.0, 0.5);
+        assertEquals(SamplingAlgorithm.DEFAULT, dist.getSamplingAlgorithm());
+        dist.setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT);
+        assertEquals(SamplingAlgorithm.ZIGGURAT, dist.getSamplingAlgorithm());
+        Try.testFail(() -> dist.setSamplingAlgorithm(null), NullPointerException.class);
+        testDist("DistNormal ziggurat", dist, 5.0, 0.25, Double.NaN, Double.NaN, 0.005);
+
+        // the fraction of the values in bins over the whole range, including the tails beyond the base layer at 3.654
+        DistNormal stdDist = new DistNormal(new MersenneTwister(12L));
+        stdDist.setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT);
+        double[] edges = {-4.5, -3.654, -3.0, -2.0, -1.0, -0.5, 0.0, 0.5, 1.0, 2.0, 3.0, 3.654, 4.5};
+        long[] counts = new long[edges.length + 1];
+        int n = 4_000_000;
+        for (int i = 0; i < n; i++)
+        {
+            double x = stdDist.draw();
+            int bin = 0;
+            while (bin < edges.length && x >= edges[bin])
+            {
+                bin++;
+            }
+            counts[bin]++;
+        }
+        for (int bin = 0; bin <= edges.length; bin++)
+        {
+            double lo = bin == 0 ? 0.0 : normcdf(0.0, 1.0, edges[bin - 1]);
+            double hi = bin == edges.length ? 1.0 : normcdf(0.0, 1.0, edges[bin]);
+            double expected = n * (hi - lo);
+            assertEquals(expected, counts[bin], 5.0 * Math.sqrt(expected) + 1.0, "bin " + bin);
+        }
+
+        // the ziggurat values are reproducible, and switching back gives the values of the polar method
+        DistNormal dist1 = new DistNormal(new MersenneTwister(10L), 1, 2);
+        dist1.setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT);
+        double v = dist1.draw();
+        dist1.setStream(new MersenneTwister(10L));
+        assertEquals(v, dist1.draw(), 0.0);
+        DistNormal polar = new DistNormal(new MersenneTwister(10L), 1, 2);
+        double p = polar.draw();
+        dist1.setSamplingAlgorithm(SamplingAlgorithm.DEFAULT);
+        dist1.setStream(new MersenneTwister(10L));
+        assertEquals(p, dist1.draw(), 0.0);
+
+        // the ziggurat values of an antithetic stream are the mirror of the values of the normal stream with the same seed
+        DistNormal normalDist = new DistNormal(new AntitheticStream(new MersenneTwister(10L)), 5.0, 0.5);
+        AntitheticStream antitheticStream = new AntitheticStream(new MersenneTwister(10L));
+        antitheticStream.setAntithetic(true);
+        DistNormal antitheticDist = new DistNormal(antitheticStream, 5.0, 0.5);
+        normalDist.setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT);
+        antitheticDist.setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT);
+        for (int i = 0; i < 10_000; i++)
+        {
+            assertEquals(10.0, normalDist.draw() + antitheticDist.draw(), 1E-12);
+        }
+
+        DistLogNormal logDist = new DistLogNormal(new MersenneTwister(12L), 0.0, 0.5);
+        logDist.setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT);
+        testDist("DistLogNormal ziggurat", logDist, Math.exp(0.5 * 0.5 / 2.0),
+                (Math.exp(0.5 * 0.5) - 1.0) * Math.exp(0.5 * 0.5), 0.0, Double.NaN, 0.01);
+    }
+
     /**
      * Test the truncated standard normal distribution.
      */
@@ -1,5 +1,6 @@
 package nl.tudelft.simulation.jstats.distributions.benchmark;
 
+import nl.tudelft.simulation.jstats.distributions.Dist;
 import nl.tudelft.simulation.jstats.distributions.DistBernoulli;
 import nl.tudelft.simulation.jstats.distributions.DistBeta;
 import nl.tudelft.simulation.jstats.distributions.DistBinomial;
@@ -15,13 +16,15 @@ import nl.tudelft.simulation.jstats.distributions.DistGeometric;
 import nl.tudelft.simulation.jstats.distributions.DistLogNormal;
 import nl.tudelft.simulation.jstats.distributions.DistNegBinomial;
 import nl.tudelft.simulation.jstats.distributions.DistNormal;
+import nl.tudelft.simulation.jstats.distributions.DistNormalTrunc;
 import nl.tudelft.simulation.jstats.distributions.DistPearson5;
 import nl.tudelft.simulation.jstats.distributions.DistPearson6;
 import nl.tudelft.simulation.jstats.distributions.DistPoisson;
 import nl.tudelft.simulation.jstats.distributions.DistTriangular;
 import nl.tudelft.simulation.jstats.distributions.DistUniform;
 import nl.tudelft.simulation.jstats.distributions.DistWeibull;
-import nl.tudelft.simulation.jstats.streams.Java2Random;
+import nl.tudelft.simulation.jstats.distributions.SamplingAlgorithm;
+import nl.tudelft.simulation.jstats.streams.MersenneTwister;
 import nl.tudelft.simulation.jstats.streams.StreamInterface;
 
 /**
@@ -39,6 +42,12 @@ public final class DistributionsBenchmark
         // unreachable code
     }
 
+    /** the number of values that is drawn per benchmark. */
+    private static final int DRAWS = 1000000;
+
+    /** the size of the buffer of the batch benchmark. */
+    private static final int BUFFER_SIZE = 1024;
+
     /**
      * benchmarks a stream by drawing 1000000 double values.
      * @param continuousDistribution the continuousDistribution to test
@@ -47,13 +56,29 @@ public final class DistributionsBenchmark
     public static long benchmark(final DistContinuous continuousDistribution)
     {
         long startTime = System.currentTimeMillis();
-        for (int i = 0; i < 1000000; i++)
+        for (int i = 0; i < DRAWS; i++)
         {
             continuousDistribution.draw();
         }
         return System.currentTimeMillis() - startTime;
     }
 
+    /**
+     * benchmarks a stream by drawing 1000000 double values in batches of 1024 values.
+     * @param continuousDistribution the continuousDistribution to test
+     * @return the execution time in milliseconds
+     */
+    public static long benchmarkBatch(final DistContinuous continuousDistribution)
+    {
+        double[] buffer = new double[BUFFER_SIZE];
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < DRAWS; i += BUFFER_SIZE)
+        {
+            continuousDistribution.draw(buffer, 0, Math.min(BUFFER_SIZE, DRAWS - i));
+        }
+        return System.currentTimeMillis() - startTime;
+    }
+
     /**
      * benchmarks a stream by drawing 1000000 double values.
      * @param discreteDistribution the discreteDistribution to test
@@ -62,39 +87,113 @@ public final class DistributionsBenchmark
     public static long benchmark(final DistDiscrete discreteDistribution)
     {
         long startTime = System.currentTimeMillis();
-        for (int i = 0; i < 1000000; i++)
+        for (int i = 0; i < DRAWS; i++)
         {
             discreteDistribution.draw();
         }
         return System.currentTimeMillis() - startTime;
     }
 
+    /**
+     * benchmarks a stream by drawing 1000000 long values in batches of 1024 values.
+     * @param discreteDistribution the discreteDistribution to test
+     * @return the execution time in milliseconds
+     */
+    public static long benchmarkBatch(final DistDiscrete discreteDistribution)
+    {
+        long[] buffer = new long[BUFFER_SIZE];
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < DRAWS; i += BUFFER_SIZE)
+        {
+            discreteDistribution.draw(buffer, 0, Math.min(BUFFER_SIZE, DRAWS - i));
+        }
+        return System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * prints the scalar and batch execution times of a distribution, after a run to let the JIT compiler optimize the code.
+     * @param dist the continuous or discrete distribution to test
+     */
+    private static void report(final Dist dist)
+    {
+        report(dist.getClass().getSimpleName(), dist);
+    }
+
+    /**
+     * prints the scalar and batch execution times of a distribution, after a run to let the JIT compiler optimize the code.
+     * @param name the name to print for the distribution
+     * @param dist the continuous or discrete distribution to test
+     */
+    private static void report(final String name, final Dist dist)
+    {
+        long scalar;
+        long batch;
+        if (dist instanceof DistContinuous)
+        {
+            benchmark((DistContinuous) dist);
+            benchmarkBatch((DistContinuous) dist);
+            scalar = benchmark((DistContinuous) dist);
+            batch = benchmarkBatch((DistContinuous) dist);
+        }
+        else
+        {
+            benchmark((DistDiscrete) dist);
+            benchmarkBatch((DistDiscrete) dist);
+            scalar = benchmark((DistDiscrete) dist);
+            batch = benchmarkBatch((DistDiscrete) dist);
+        }
+        System.out.println(String.format("%-26s: draw() %5d ms, draw(buffer) %5d ms", name, scalar, batch));
+    }
+
     /**
      * executes the benchmark.
      * @param args the commandline arguments
      */
     public static void main(final String[] args)
     {
-        StreamInterface stream = new Java2Random();
-        System.out.println("DistBernoulli : " + DistributionsBenchmark.benchmark(new DistBernoulli(stream, 1.0)));
-        System.out.println("DistBeta : " + DistributionsBenchmark.benchmark(new DistBeta(stream, 1.0, 2.0)));
-        System.out.println("DistBinomial : " + DistributionsBenchmark.benchmark(new DistBinomial(stream, 3, 0.23)));
-        System.out.println("DistConstant : " + DistributionsBenchmark.benchmark(new DistConstant(stream, 0.23)));
-        System.out.println("DistDiscreteConstant : " + DistributionsBenchmark.benchmark(new DistDiscreteConstant(stream, 14)));
-        System.out.println("DistDiscreteUniform : " + DistributionsBenchmark.benchmark(new DistDiscreteUniform(stream, 0, 1)));
-        System.out.println("DistErlang : " + DistributionsBenchmark.benchmark(new DistErlang(stream, 0.1, 2)));
-        System.out.println("DistExponential : " + DistributionsBenchmark.benchmark(new DistExponential(stream, 0.1)));
-        System.out.println("DistGamma : " + DistributionsBenchmark.benchmark(new DistGamma(stream, 0.1, 0.5)));
-        System.out.println("DistGeometric : " + DistributionsBenchmark.benchmark(new DistGeometric(stream, 0.1)));
-        System.out.println("DistLogNormal : " + DistributionsBenchmark.benchmark(new DistLogNormal(stream, 10, 1.0)));
-        System.out.println("DistNegBinomial : " + DistributionsBenchmark.benchmark(new DistNegBinomial(stream, 1, 0.1)));
-        System.out.println("DistNormal : " + DistributionsBenchmark.benchmark(new DistNormal(stream, 1, 0.1)));
-        System.out.println("DistPearson5 : " + DistributionsBenchmark.benchmark(new DistPearson5(stream, 1, 0.1)));
-        System.out.println("DistPearson6 : " + DistributionsBenchmark.benchmark(new DistPearson6(stream, 1, 0.1, 0.5)));
-        System.out.println("DistPoisson : " + DistributionsBenchmark.benchmark(new DistPoisson(stream, 23.21)));
-        System.out.println("DistTriangular : " + DistributionsBenchmark.benchmark(new DistTriangular(stream, 1, 4, 9)));
-        System.out.println("DistUniform: " + DistributionsBenchmark.benchmark(new DistUniform(stream, 0, 1)));
-        System.out.println("DistWeibull: " + DistributionsBenchmark.benchmark(new DistWeibull(stream, 0.4, 1.5)));
-
+        StreamInterface stream = new MersenneTwister();
+        report(new DistBernoulli(stream, 0.5));
+        report(new DistBeta(stream, 1.0, 2.0));
+        report(new DistBinomial(stream, 3, 0.23));
+        report("DistBinomial n=100", new DistBinomial(stream, 100, 0.23));
+        DistBinomial btpeBinomial = new DistBinomial(stream, 100, 0.23);
+        btpeBinomial.setSamplingAlgorithm(SamplingAlgorithm.BTPE);
+        report("DistBinomial n=100 BTPE", btpeBinomial);
+        report(new DistConstant(stream, 0.23));
+        report(new DistDiscreteConstant(stream, 14));
+        report(new DistDiscreteUniform(stream, 0, 1));
+        report(new DistErlang(stream, 0.1, 2));
+        DistErlang mtErlang = new DistErlang(stream, 0.1, 2);
+        mtErlang.setSamplingAlgorithm(SamplingAlgorithm.MARSAGLIA_TSANG);
+        report("DistErlang Marsaglia-Tsang", mtErlang);
+        report(new DistExponential(stream, 0.1));
+        DistExponential zigguratExponential = new DistExponential(stream, 0.1);
+        zigguratExponential.setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT);
+        report("DistExponential ziggurat", zigguratExponential);
+        report(new DistGamma(stream, 0.1, 0.5));
+        report(new DistGamma(stream, 2.5, 0.5));
+        DistGamma mtGamma = new DistGamma(stream, 2.5, 0.5);
+        mtGamma.setSamplingAlgorithm(SamplingAlgorithm.MARSAGLIA_TSANG);
+        report("DistGamma Marsaglia-Tsang", mtGamma);
+        report(new DistGeometric(stream, 0.1));
+        report(new DistLogNormal(stream, 10, 1.0));
+        DistLogNormal zigguratLogNormal = new DistLogNormal(stream, 10, 1.0);
+        zigguratLogNormal.setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT);
+        report("DistLogNormal ziggurat", zigguratLogNormal);
+        report(new DistNegBinomial(stream, 1, 0.1));
+        report(new DistNormal(stream, 1, 0.1));
+        DistNormal zigguratNormal = new DistNormal(stream, 1, 0.1);
+        zigguratNormal.setSamplingAlgorithm(SamplingAlgorithm.ZIGGURAT);
+        report("DistNormal ziggurat", zigguratNormal);
+        report(new DistNormalTrunc(stream, 1, 0.1, 0.9, 1.2));
+        report(new DistPearson5(stream, 1, 0.1));
+        report(new DistPearson6(stream, 1, 0.1, 0.5));
+        report(new DistPoisson(stream, 23.21));
+        DistPoisson ptrsPoisson = new DistPoisson(stream, 23.21);
+        ptrsPoisson.setSamplingAlgorithm(SamplingAlgorithm.PTRS);
+        report("DistPoisson PTRS", ptrsPoisson);
+        report(new DistTriangular(stream, 1, 4, 9));
+        report(new DistUniform(stream, 0, 1));
+        report(new DistWeibull(stream, 0.4, 1.5));
     }
 }
@@ -171,4 +171,30 @@ public class ProbMathTest
         Try.testFail(() -> { ProbMath.beta(1, -1); }, "beta(1, -1)", IllegalArgumentException.class);
 
     }
+
+    /**
+     * Test the quantiles of the Student t distribution against tabulated values.
+     */
+    @Test
+    public void testStudentTQuantile()
+    {
+        int[] df = new int[] {1, 2, 3, 4, 5, 9, 29, 100};
+        double[] t975 = new double[] {12.7062, 4.3027, 3.1824, 2.7764, 2.5706, 2.2622, 2.0452, 1.9840};
+        double[] t95 = new double[] {6.3138, 2.9200, 2.3534, 2.1318, 2.0150, 1.8331, 1.6991, 1.6602};
+        double[] t995 = new double[] {63.6567, 9.9248, 5.8409, 4.6041, 4.0321, 3.2498, 2.7564, 2.6259};
+        for (int i = 0; i < df.length; i++)
+        {
+            assertEquals(t975[i], ProbMath.studentTQuantile(0.975, df[i]), 1E-4 * t975[i]);
+            assertEquals(t95[i], ProbMath.studentTQuantile(0.95, df[i]), 1E-4 * t95[i]);
+            assertEquals(t995[i], ProbMath.studentTQuantile(0.995, df[i]), 1E-4 * t995[i]);
+            assertEquals(-t975[i], ProbMath.studentTQuantile(0.025, df[i]), 1E-4 * t975[i]);
+            assertEquals(0.0, ProbMath.studentTQuantile(0.5, df[i]), 1E-6);
+        }
+        // for many degrees of freedom, the quantile approaches the normal quantile
+        assertEquals(1.9600, ProbMath.studentTQuantile(0.975, 100000), 1E-3);
+
+        Try.testFail(() -> { ProbMath.studentTQuantile(0.0, 3); }, "p=0", IllegalArgumentException.class);
+        Try.testFail(() -> { ProbMath.studentTQuantile(1.0, 3); }, "p=1", IllegalArgumentException.class);
+        Try.testFail(() -> { ProbMath.studentTQuantile(0.9, 0); }, "df=0", IllegalArgumentException.class);
+    }
 }
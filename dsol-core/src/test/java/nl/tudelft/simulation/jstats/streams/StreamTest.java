@@ -1,9 +1,18 @@
 package nl.tudelft.simulation.jstats.streams;
 
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import org.djutils.exceptions.Try;
 import org.junit.jupiter.api.Test;
 
 /**
@@ -25,7 +34,8 @@ public class StreamTest
     public void testStreamDouble()
     {
         int nr = 1000000;
-        StreamInterface[] streams = {new Java2Random(100L), new MersenneTwister(101L), new DX120Generator(102L)};
+        StreamInterface[] streams = {new Java2Random(100L), new MersenneTwister(101L), new DX120Generator(102L),
+                new MRG32k3a(103L), new Xoshiro256StarStar(104L)};
         for (StreamInterface stream : streams)
         {
             double sum = 0.0;
@@ -53,7 +63,8 @@ public class StreamTest
     public void testStreamFloat()
     {
         int nr = 1000000;
-        StreamInterface[] streams = {new Java2Random(100L), new MersenneTwister(101L), new DX120Generator(102L)};
+        StreamInterface[] streams = {new Java2Random(100L), new MersenneTwister(101L), new DX120Generator(102L),
+                new MRG32k3a(103L), new Xoshiro256StarStar(104L)};
         for (StreamInterface stream : streams)
         {
             float sum = 0.0f;
@@ -81,7 +92,8 @@ public class StreamTest
     public void testStreamInt()
     {
         int nr = 1000000;
-        StreamInterface[] streams = {new Java2Random(100L), new MersenneTwister(101L), new DX120Generator(102L)};
+        StreamInterface[] streams = {new Java2Random(100L), new MersenneTwister(101L), new DX120Generator(102L),
+                new MRG32k3a(103L), new Xoshiro256StarStar(104L)};
         for (StreamInterface stream : streams)
         {
             double sum = 0.0;
@@ -111,7 +123,8 @@ public class StreamTest
     {
         // System.out.println("\nINT EQUAL NUMBER OF BITS");
         int nr = 1000000;
-        StreamInterface[] streams = {new Java2Random(100L), new MersenneTwister(101L), new DX120Generator(102L)};
+        StreamInterface[] streams = {new Java2Random(100L), new MersenneTwister(101L), new DX120Generator(102L),
+                new MRG32k3a(103L), new Xoshiro256StarStar(104L)};
         for (StreamInterface stream : streams)
         {
             int nrBins = 32;
@@ -143,7 +156,8 @@ public class StreamTest
     public void testStreamInt0to10()
     {
         int nr = 1000000;
-        StreamInterface[] streams = {new Java2Random(100L), new MersenneTwister(101L), new DX120Generator(102L)};
+        StreamInterface[] streams = {new Java2Random(100L), new MersenneTwister(101L), new DX120Generator(102L),
+                new MRG32k3a(103L), new Xoshiro256StarStar(104L)};
         for (StreamInterface stream : streams)
         {
             long sum = 0L;
@@ -178,7 +192,8 @@ public class StreamTest
     public void testStreamBoolean()
     {
         int nr = 100000;
-        StreamInterface[] streams = {new Java2Random(100L), new MersenneTwister(101L), new DX120Generator(102L)};
+        StreamInterface[] streams = {new Java2Random(100L), new MersenneTwister(101L), new DX120Generator(102L),
+                new MRG32k3a(103L), new Xoshiro256StarStar(104L)};
         for (StreamInterface stream : streams)
         {
             double sum = 0.0;
@@ -200,7 +215,8 @@ public class StreamTest
     public void testStreamLong()
     {
         long nr = 1000000;
-        StreamInterface[] streams = {new Java2Random(100L), new MersenneTwister(101L), new DX120Generator(102L)};
+        StreamInterface[] streams = {new Java2Random(100L), new MersenneTwister(101L), new DX120Generator(102L),
+                new MRG32k3a(103L), new Xoshiro256StarStar(104L)};
         for (StreamInterface stream : streams)
         {
             double sum = 0.0;
@@ -229,7 +245,8 @@ public class StreamTest
     public void testStreamLongEqualBits()
     {
         long nr = 1000000;
-        StreamInterface[] streams = {new Java2Random(100L), new MersenneTwister(101L), new DX120Generator(102L)};
+        StreamInterface[] streams = {new Java2Random(100L), new MersenneTwister(101L), new DX120Generator(102L),
+                new MRG32k3a(103L), new Xoshiro256StarStar(104L)};
         for (StreamInterface stream : streams)
         {
             int nrBins = 64;
@@ -260,7 +277,8 @@ public class StreamTest
     @Test
     public void testSeedManagement()
     {
-        StreamInterface[] streams = {new Java2Random(14L), new MersenneTwister(14L), new DX120Generator(14L)};
+        StreamInterface[] streams = {new Java2Random(14L), new MersenneTwister(14L), new DX120Generator(14L), new MRG32k3a(14L),
+                new Xoshiro256StarStar(14L)};
         for (StreamInterface stream : streams)
         {
             assertEquals(14L, stream.getSeed());
@@ -285,5 +303,229 @@ public class StreamTest
             assertEquals(d, stream.nextDouble(), 0.0);
         }
     }
-    
+
+    /**
+     * Test that the AntitheticStream mirrors the values of the wrapped stream and delegates the seed management.
+     */
+    @Test
+    public void testAntitheticStream()
+    {
+        AntitheticStream antithetic = new AntitheticStream(new MersenneTwister(14L));
+        StreamInterface reference = new MersenneTwister(14L);
+        assertFalse(antithetic.isAntithetic());
+        assertEquals(reference.nextDouble(), antithetic.nextDouble(), 0.0);
+        assertEquals(14L, antithetic.getSeed());
+        assertEquals(14L, antithetic.getOriginalSeed());
+
+        antithetic.setSeed(15L);
+        reference.setSeed(15L);
+        antithetic.setAntithetic(true);
+        assertTrue(antithetic.isAntithetic());
+        for (int i = 0; i < 1000; i++)
+        {
+            double u = reference.nextDouble();
+            double v = antithetic.nextDouble();
+            assertEquals(1.0, u + v, 1E-15);
+            assertTrue(v >= 0.0 && v < 1.0);
+            float f = reference.nextFloat();
+            float g = antithetic.nextFloat();
+            assertEquals(1.0f, f + g, 1E-7f);
+            assertTrue(g >= 0.0f && g < 1.0f);
+            assertEquals(3 + 9 - reference.nextInt(3, 9), antithetic.nextInt(3, 9));
+            assertEquals(~reference.nextInt(), antithetic.nextInt());
+            assertEquals(~reference.nextLong(), antithetic.nextLong());
+            assertEquals(!reference.nextBoolean(), antithetic.nextBoolean());
+        }
+        assertEquals(15L, antithetic.getSeed());
+        assertEquals(14L, antithetic.getOriginalSeed());
+        antithetic.reset();
+        reference.reset();
+        assertEquals(1.0, reference.nextDouble() + antithetic.nextDouble(), 1E-15);
+        assertTrue(antithetic.toString().contains("antithetic"));
+    }
+
+    /**
+     * Test the jumps, substreams and splits of the splittable generators.
+     */
+    @Test
+    public void testSplittableStreams()
+    {
+        SplittableStreamInterface[][] triples = {{new MRG32k3a(41L), new MRG32k3a(41L), new MRG32k3a(41L)},
+                {new Xoshiro256StarStar(41L), new Xoshiro256StarStar(41L), new Xoshiro256StarStar(41L)}};
+        for (SplittableStreamInterface[] triple : triples)
+        {
+            SplittableStreamInterface stream = triple[0];
+            SplittableStreamInterface reference = triple[1];
+            SplittableStreamInterface other = triple[2];
+            double sum = 0.0;
+            for (int i = 0; i < 100000; i++)
+            {
+                double value = stream.nextDouble();
+                assertTrue(value >= 0.0 && value < 1.0);
+                assertEquals(reference.nextDouble(), value, 0.0);
+                sum += value;
+            }
+            assertEquals(0.5, sum / 100000, 0.01);
+
+            // substream 3 of stream 0 is reached with three jumps from the start of the seed
+            stream.setSubstream(0, 3);
+            reference.reset();
+            reference.nextDouble();
+            reference.reset();
+            for (int i = 0; i < 3; i++)
+            {
+                reference.jump();
+            }
+            assertEquals(reference.nextDouble(), stream.nextDouble(), 0.0);
+            assertEquals(0, stream.getStreamIndex());
+            assertEquals(3, stream.getSubstreamIndex());
+
+            // stream 2 is reached with two splits, and a split stream continues from the state at the split
+            reference.reset();
+            double first = other.nextDouble();
+            other.reset();
+            SplittableStreamInterface split = other.split();
+            assertEquals(first, split.nextDouble(), 0.0);
+            other.split();
+            other.jump();
+            stream.setSubstream(2, 1);
+            double value = stream.nextDouble();
+            assertEquals(value, other.nextDouble(), 0.0);
+            assertEquals(41L, split.getSeed());
+            split.reset();
+            assertEquals(first, split.nextDouble(), 0.0);
+
+            // reset returns to the start of the substream, and setSeed to the start of the seed
+            stream.reset();
+            assertEquals(value, stream.nextDouble(), 0.0);
+            stream.setSeed(41L);
+            assertEquals(0, stream.getStreamIndex());
+            assertEquals(0, stream.getSubstreamIndex());
+            assertEquals(first, stream.nextDouble(), 0.0);
+            Try.testFail(() -> stream.setSubstream(-1, 0), IllegalArgumentException.class);
+            Try.testFail(() -> stream.setSubstream(0, -1), IllegalArgumentException.class);
+        }
+    }
+
+    /**
+     * Test that the unsynchronized generators return the same numbers as the synchronized generators.
+     */
+    @Test
+    public void testUnsynchronizedStreams()
+    {
+        StreamInterface[][] pairs = {{new MersenneTwister(21L), new UnsynchronizedMersenneTwister(21L)},
+                {new DX120Generator(22L), new UnsynchronizedDX120Generator(22L)}};
+        for (StreamInterface[] pair : pairs)
+        {
+            StreamInterface reference = pair[0];
+            StreamInterface stream = pair[1];
+            for (int i = 0; i < 2000; i++)
+            {
+                assertEquals(reference.nextDouble(), stream.nextDouble(), 0.0);
+                assertEquals(reference.nextFloat(), stream.nextFloat(), 0.0f);
+                assertEquals(reference.nextInt(), stream.nextInt());
+                assertEquals(reference.nextInt(2, 7), stream.nextInt(2, 7));
+                assertEquals(reference.nextLong(), stream.nextLong());
+                assertEquals(reference.nextBoolean(), stream.nextBoolean());
+            }
+            reference.setSeed(23L);
+            stream.setSeed(23L);
+            assertEquals(reference.nextDouble(), stream.nextDouble(), 0.0);
+            stream.reset();
+            reference.reset();
+            assertEquals(reference.nextDouble(), stream.nextDouble(), 0.0);
+            assertEquals(reference.getOriginalSeed(), stream.getOriginalSeed());
+        }
+    }
+
+    /**
+     * Test that the bulk draws of doubles return the same numbers as single draws, also over the blocks of the Mersenne
+     * Twister, and that the stream continues after a bulk draw as after single draws.
+     */
+    @Test
+    public void testBulkDoubles()
+    {
+        StreamInterface[][] pairs = {{new Java2Random(31L), new Java2Random(31L)},
+                {new MersenneTwister(31L), new MersenneTwister(31L)},
+                {new UnsynchronizedMersenneTwister(31L), new UnsynchronizedMersenneTwister(31L)},
+                {new DX120Generator(31L), new DX120Generator(31L)},
+                {new UnsynchronizedDX120Generator(31L), new UnsynchronizedDX120Generator(31L)},
+                {new AntitheticStream(new MersenneTwister(31L)), new AntitheticStream(new MersenneTwister(31L))},
+                {new MRG32k3a(31L), new MRG32k3a(31L)}, {new Xoshiro256StarStar(31L), new Xoshiro256StarStar(31L)}};
+        ((AntitheticStream) pairs[5][0]).setAntithetic(true);
+        ((AntitheticStream) pairs[5][1]).setAntithetic(true);
+        for (StreamInterface[] pair : pairs)
+        {
+            StreamInterface reference = pair[0];
+            StreamInterface stream = pair[1];
+            for (int length : new int[] {1, 311, 0, 623, 1, 1000, 2, 5000})
+            {
+                double[] expected = new double[length + 3];
+                double[] actual = new double[length + 3];
+                for (int i = 0; i < length; i++)
+                {
+                    expected[i + 2] = reference.nextDouble();
+                }
+                stream.nextDoubles(actual, 2, length);
+                assertArrayEquals(expected, actual, 0.0);
+                assertEquals(reference.nextDouble(), stream.nextDouble(), 0.0);
+            }
+            double[] buffer = new double[10];
+            Try.testFail(() -> stream.nextDoubles(buffer, 5, 6), IndexOutOfBoundsException.class);
+            Try.testFail(() -> stream.nextDoubles(buffer, -1, 2), IndexOutOfBoundsException.class);
+            Try.testFail(() -> stream.nextDoubles(buffer, 0, -1), IndexOutOfBoundsException.class);
+            Try.testFail(() -> stream.nextDoubles(null, 0, 1), NullPointerException.class);
+            assertEquals(reference.nextDouble(), stream.nextDouble(), 0.0);
+        }
+    }
+
+    /**
+     * Test that the state that is written with writeState() can be read by a new generator of the same class, which then
+     * continues with the same numbers, and that the generators of the package write a smaller state than saveState().
+     * @throws IOException on error
+     * @throws StreamException on error
+     */
+    @Test
+    public void testWriteState() throws IOException, StreamException
+    {
+        StreamInterface[][] pairs = {{new MersenneTwister(41L), new MersenneTwister(1L)},
+                {new UnsynchronizedMersenneTwister(41L), new UnsynchronizedMersenneTwister(1L)},
+                {new DX120Generator(41L), new DX120Generator(1L)},
+                {new AntitheticStream(new MersenneTwister(41L)), new AntitheticStream(new MersenneTwister(1L))},
+                {new MRG32k3a(41L), new MRG32k3a(1L)}, {new Xoshiro256StarStar(41L), new Xoshiro256StarStar(1L)}};
+        for (StreamInterface[] pair : pairs)
+        {
+            StreamInterface reference = pair[0];
+            StreamInterface stream = pair[1];
+            if (reference instanceof SplittableStreamInterface)
+            {
+                ((SplittableStreamInterface) reference).setSubstream(2, 3);
+            }
+            for (int i = 0; i < 1000; i++)
+            {
+                reference.nextDouble();
+            }
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            reference.writeState(new DataOutputStream(bytes));
+            stream.readState(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+            if (reference instanceof RandomNumberGenerator)
+            {
+                assertTrue(bytes.size() < reference.saveState().length, reference.toString());
+            }
+            assertEquals(reference.getSeed(), stream.getSeed());
+            for (int i = 0; i < 1000; i++)
+            {
+                assertEquals(reference.nextDouble(), stream.nextDouble(), 0.0);
+            }
+            reference.reset();
+            stream.reset();
+            assertEquals(reference.nextDouble(), stream.nextDouble(), 0.0);
+            if (reference instanceof SplittableStreamInterface)
+            {
+                assertEquals(2, ((SplittableStreamInterface) stream).getStreamIndex());
+                assertEquals(3, ((SplittableStreamInterface) stream).getSubstreamIndex());
+            }
+        }
+    }
+
 }
@@ -22,15 +22,21 @@ public final class StreamsBenchmark
         // unreachable code
     }
 
+    /** the number of doubles that is drawn per benchmark. */
+    private static final int DRAWS = 10000000;
+
+    /** the size of the buffer of the bulk benchmark. */
+    private static final int BUFFER_SIZE = 1024;
+
     /**
-     * benchmarks a stream by drawing 1000000 double values.
+     * benchmarks a stream by drawing 10000000 double values, one at a time.
      * @param stream the stream to test
      * @return the execution time in milliseconds
      */
     public static long benchmark(final StreamInterface stream)
     {
         long startTime = System.currentTimeMillis();
-        for (int i = 0; i < 10000000; i++)
+        for (int i = 0; i < DRAWS; i++)
         {
             stream.nextDouble();
         }
@@ -38,13 +44,51 @@ public final class StreamsBenchmark
     }
 
     /**
-     * executes the benchmark.
+     * benchmarks a stream by drawing 10000000 double values in bulk, in a buffer of 1024 values.
+     * @param stream the stream to test
+     * @return the execution time in milliseconds
+     */
+    public static long benchmarkBulk(final StreamInterface stream)
+    {
+        double[] buffer = new double[BUFFER_SIZE];
+        long startTime = System.currentTimeMillis();
+        for (int i = 0; i < DRAWS; i += BUFFER_SIZE)
+        {
+            stream.nextDoubles(buffer, 0, Math.min(BUFFER_SIZE, DRAWS - i));
+        }
+        return System.currentTimeMillis() - startTime;
+    }
+
+    /**
+     * prints the execution time and the throughput of a benchmark.
+     * @param name the name of the stream and the benchmark
+     * @param millis the execution time in milliseconds
+     */
+    private static void report(final String name, final long millis)
+    {
+        System.out.println(String.format("%-45s: %6d ms, %8.1f million doubles/s", name, millis,
+                DRAWS / 1000.0 / Math.max(1L, millis)));
+    }
+
+    /**
+     * executes the benchmark. Every stream is drawn from once before the measurements to let the JIT compiler optimize the
+     * code. The synchronized generators are compared with their unsynchronized variants, and single draws with bulk draws.
      * @param args the commandline arguments
      */
     public static void main(final String[] args)
     {
-        System.out.println("Java2Random : " + StreamsBenchmark.benchmark(new Java2Random()));
-        System.out.println("MersenneTwister : " + StreamsBenchmark.benchmark(new MersenneTwister()));
-        System.out.println("DX120Generator : " + StreamsBenchmark.benchmark(new DX120Generator()));
+        StreamInterface[] streams = {new Java2Random(), new MersenneTwister(), new UnsynchronizedMersenneTwister(),
+                new DX120Generator(), new UnsynchronizedDX120Generator(), new MRG32k3a(), new Xoshiro256StarStar()};
+        for (StreamInterface stream : streams)
+        {
+            StreamsBenchmark.benchmark(stream);
+            StreamsBenchmark.benchmarkBulk(stream);
+        }
+        for (StreamInterface stream : streams)
+        {
+            String name = stream.getClass().getSimpleName();
+            report(name + " nextDouble()", StreamsBenchmark.benchmark(stream));
+            report(name + " nextDoubles()", StreamsBenchmark.benchmarkBulk(stream));
+        }
     }
 }